@@ -0,0 +1,83 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.api;
+
+import com.google.common.collect.ImmutableMap;
+import com.spectralogic.ds3autogen.api.models.apispec.*;
+
+/**
+ * A per-node transform used to normalize a Ds3ApiSpec. All transforms within a pipeline
+ * are applied during a single traversal of the spec, where each node is passed through
+ * every transform in order. A transform returns the node unchanged (the same instance)
+ * if it does not modify it, which allows nodes that no transform touched to be shared.
+ *
+ * Child nodes are transformed after their parent, i.e. a request is transformed before
+ * its params and response types. A transform may keep state for the duration of a single
+ * normalization, so a new instance should be used for each spec.
+ */
+public interface Ds3SpecTransform {
+
+    /**
+     * Transforms a request. Returning null removes the request from the spec.
+     */
+    default Ds3Request transformRequest(final Ds3Request request) {
+        return request;
+    }
+
+    default Ds3Param transformParam(final Ds3Param param) {
+        return param;
+    }
+
+    default Ds3ResponseType transformResponseType(final Ds3ResponseType responseType) {
+        return responseType;
+    }
+
+    /**
+     * Transforms the key of a type within the type map
+     */
+    default String transformTypeName(final String typeName) {
+        return typeName;
+    }
+
+    default Ds3Type transformType(final Ds3Type type) {
+        return type;
+    }
+
+    /**
+     * Transforms an element within a type. Returning null removes the element from the type.
+     */
+    default Ds3Element transformElement(final Ds3Element element) {
+        return element;
+    }
+
+    default Ds3Annotation transformAnnotation(final Ds3Annotation annotation) {
+        return annotation;
+    }
+
+    default Ds3AnnotationElement transformAnnotationElement(final Ds3AnnotationElement annotationElement) {
+        return annotationElement;
+    }
+
+    /**
+     * Creates new types to be added to the spec once all requests and types have been
+     * traversed. The new types are passed through the transforms that come after this one.
+     * @param types The type map after it has been transformed by all transforms
+     */
+    default ImmutableMap<String, Ds3Type> createTypes(final ImmutableMap<String, Ds3Type> types) {
+        return ImmutableMap.of();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.api.instrumentation;
+
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+/**
+ * Receives the measurements reported by the parser and the code generators. A scope names the
+ * component reporting the measurement, such as the parser or a language's code generator.
+ * Implementations must be thread safe.
+ */
+public interface GenerationRecorder {
+
+    /** Discards all measurements */
+    GenerationRecorder NONE = new GenerationRecorder() {
+        private final PhaseTimer noOpTimer = () -> { };
+
+        @Override
+        public PhaseTimer startPhase(final String scope, final String phase) {
+            return noOpTimer;
+        }
+
+        @Override
+        public void recordTemplate(final String scope, final String templateName, final long durationNanos) {
+        }
+
+        @Override
+        public void recordFile(final String scope, final Path path, final long bytes, final long durationNanos) {
+        }
+    };
+
+    /**
+     * Starts timing a phase of generation on the calling thread. The phase is recorded when
+     * the returned timer is closed, which should happen on the same thread.
+     */
+    PhaseTimer startPhase(final String scope, final String phase);
+
+    /**
+     * Records the time taken to render a template
+     */
+    void recordTemplate(final String scope, final String templateName, final long durationNanos);
+
+    /**
+     * Records a generated file
+     * @param bytes The size of the file
+     * @param durationNanos The time spent writing the file
+     */
+    void recordFile(final String scope, final Path path, final long bytes, final long durationNanos);
+
+    /**
+     * Times a phase of generation that does not throw checked exceptions
+     * @return The result of the phase
+     */
+    default <T> T timePhase(final String scope, final String phase, final Supplier<T> supplier) {
+        try (final PhaseTimer timer = startPhase(scope, phase)) {
+            return supplier.get();
+        }
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.api.instrumentation;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the measurements reported during generation, and reports them as a table or as JSON.
+ * When allocation tracking is enabled and supported by the JVM, each phase also records the
+ * bytes allocated by the thread that ran it. Allocations made by other threads on behalf of
+ * the phase are not included.
+ */
+public class GenerationStats implements GenerationRecorder {
+
+    private static final int MAX_TABLE_TEMPLATES = 20;
+
+    private final com.sun.management.ThreadMXBean allocationBean;
+    private final ConcurrentMap<String, ConcurrentMap<String, Measurement>> phases = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<String, Measurement>> templates = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Measurement> files = new ConcurrentHashMap<>();
+
+    public GenerationStats() {
+        this(false);
+    }
+
+    /**
+     * @param trackAllocations Whether the bytes allocated by each phase are recorded
+     */
+    public GenerationStats(final boolean trackAllocations) {
+        this.allocationBean = trackAllocations ? getAllocationBean() : null;
+    }
+
+    /**
+     * Retrieves the ThreadMXBean used to measure allocations, or null if the JVM cannot measure them
+     */
+    private static com.sun.management.ThreadMXBean getAllocationBean() {
+        final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        final com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        if (!allocationBean.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        if (!allocationBean.isThreadAllocatedMemoryEnabled()) {
+            allocationBean.setThreadAllocatedMemoryEnabled(true);
+        }
+        return allocationBean;
+    }
+
+    /**
+     * Determines if the bytes allocated by each phase are being recorded
+     */
+    public boolean isTrackingAllocations() {
+        return allocationBean != null;
+    }
+
+    @Override
+    public PhaseTimer startPhase(final String scope, final String phase) {
+        final long threadId = Thread.currentThread().getId();
+        final long startAllocated = allocatedBytes(threadId);
+        final long start = System.nanoTime();
+        return () -> {
+            final long duration = System.nanoTime() - start;
+            final long allocated = startAllocated < 0 ? 0 : allocatedBytes(threadId) - startAllocated;
+            measurement(phases, scope, phase).add(duration, allocated);
+        };
+    }
+
+    private long allocatedBytes(final long threadId) {
+        if (allocationBean == null) {
+            return -1;
+        }
+        return allocationBean.getThreadAllocatedBytes(threadId);
+    }
+
+    @Override
+    public void recordTemplate(final String scope, final String templateName, final long durationNanos) {
+        measurement(templates, scope, templateName).add(durationNanos, 0);
+    }
+
+    @Override
+    public void recordFile(final String scope, final Path path, final long bytes, final long durationNanos) {
+        files.computeIfAbsent(scope, key -> new Measurement()).add(durationNanos, bytes);
+    }
+
+    private static Measurement measurement(
+            final ConcurrentMap<String, ConcurrentMap<String, Measurement>> measurements,
+            final String scope,
+            final String name) {
+        return measurements.computeIfAbsent(scope, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(name, key -> new Measurement());
+    }
+
+    /**
+     * Retrieves the number of times the phase was run within the scope
+     */
+    public long getPhaseCount(final String scope, final String phase) {
+        return find(phases, scope, phase).getCount();
+    }
+
+    /**
+     * Retrieves the total time spent in the phase within the scope
+     */
+    public long getPhaseNanos(final String scope, final String phase) {
+        return find(phases, scope, phase).getNanos();
+    }
+
+    /**
+     * Retrieves the number of times the template was rendered within the scope
+     */
+    public long getTemplateCount(final String scope, final String templateName) {
+        return find(templates, scope, templateName).getCount();
+    }
+
+    /**
+     * Retrieves the number of files written within the scope
+     */
+    public long getFileCount(final String scope) {
+        return files.getOrDefault(scope, new Measurement()).getCount();
+    }
+
+    /**
+     * Retrieves the number of bytes written within the scope
+     */
+    public long getFileBytes(final String scope) {
+        return files.getOrDefault(scope, new Measurement()).getAmount();
+    }
+
+    private static Measurement find(
+            final ConcurrentMap<String, ConcurrentMap<String, Measurement>> measurements,
+            final String scope,
+            final String name) {
+        final ConcurrentMap<String, Measurement> scopeMeasurements = measurements.get(scope);
+        if (scopeMeasurements == null) {
+            return new Measurement();
+        }
+        return scopeMeasurements.getOrDefault(name, new Measurement());
+    }
+
+    /**
+     * Creates a human readable report of the phases, the slowest templates, and the files written
+     */
+    public String toTable() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append(String.format("%-24s %-28s %8s %12s", "Scope", "Phase", "Count", "Total ms"));
+        if (isTrackingAllocations()) {
+            builder.append(String.format(" %14s", "Allocated MB"));
+        }
+        builder.append('\n');
+        for (final Map.Entry<String, SortedMap<String, Measurement>> scope : sorted(phases).entrySet()) {
+            for (final Map.Entry<String, Measurement> phase : scope.getValue().entrySet()) {
+                builder.append(String.format("%-24s %-28s %8d %12.1f",
+                        scope.getKey(), phase.getKey(), phase.getValue().getCount(), toMillis(phase.getValue().getNanos())));
+                if (isTrackingAllocations()) {
+                    builder.append(String.format(" %14.1f", phase.getValue().getAmount() / (1024.0 * 1024.0)));
+                }
+                builder.append('\n');
+            }
+        }
+
+        builder.append('\n')
+                .append(String.format("%-24s %-44s %8s %12s", "Scope", "Template (slowest " + MAX_TABLE_TEMPLATES + ")", "Renders", "Total ms"))
+                .append('\n');
+        templateRows().stream()
+                .sorted((left, right) -> Long.compare(right.measurement.getNanos(), left.measurement.getNanos()))
+                .limit(MAX_TABLE_TEMPLATES)
+                .forEach(row -> builder.append(String.format("%-24s %-44s %8d %12.1f",
+                        row.scope, row.name, row.measurement.getCount(), toMillis(row.measurement.getNanos())))
+                        .append('\n'));
+
+        builder.append('\n')
+                .append(String.format("%-24s %8s %14s %12s", "Scope", "Files", "Bytes", "Write ms"))
+                .append('\n');
+        for (final Map.Entry<String, Measurement> scope : new TreeMap<>(files).entrySet()) {
+            builder.append(String.format("%-24s %8d %14d %12.1f",
+                    scope.getKey(), scope.getValue().getCount(), scope.getValue().getAmount(), toMillis(scope.getValue().getNanos())))
+                    .append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Creates a JSON report of every measurement. Durations are in nanoseconds.
+     */
+    public String toJson() {
+        final StringBuilder builder = new StringBuilder("{\"trackingAllocations\":").append(isTrackingAllocations());
+
+        builder.append(",\"phases\":[");
+        String separator = "";
+        for (final Map.Entry<String, SortedMap<String, Measurement>> scope : sorted(phases).entrySet()) {
+            for (final Map.Entry<String, Measurement> phase : scope.getValue().entrySet()) {
+                builder.append(separator)
+                        .append("{\"scope\":").append(toJsonString(scope.getKey()))
+                        .append(",\"phase\":").append(toJsonString(phase.getKey()))
+                        .append(",\"count\":").append(phase.getValue().getCount())
+                        .append(",\"totalNanos\":").append(phase.getValue().getNanos())
+                        .append(",\"allocatedBytes\":").append(phase.getValue().getAmount())
+                        .append('}');
+                separator = ",";
+            }
+        }
+
+        builder.append("],\"templates\":[");
+        separator = "";
+        for (final TemplateRow row : templateRows()) {
+            builder.append(separator)
+                    .append("{\"scope\":").append(toJsonString(row.scope))
+                    .append(",\"template\":").append(toJsonString(row.name))
+                    .append(",\"count\":").append(row.measurement.getCount())
+                    .append(",\"totalNanos\":").append(row.measurement.getNanos())
+                    .append('}');
+            separator = ",";
+        }
+
+        builder.append("],\"files\":[");
+        separator = "";
+        for (final Map.Entry<String, Measurement> scope : new TreeMap<>(files).entrySet()) {
+            builder.append(separator)
+                    .append("{\"scope\":").append(toJsonString(scope.getKey()))
+                    .append(",\"count\":").append(scope.getValue().getCount())
+                    .append(",\"bytes\":").append(scope.getValue().getAmount())
+                    .append(",\"writeNanos\":").append(scope.getValue().getNanos())
+                    .append('}');
+            separator = ",";
+        }
+        return builder.append("]}").toString();
+    }
+
+    private List<TemplateRow> templateRows() {
+        final List<TemplateRow> rows = new ArrayList<>();
+        for (final Map.Entry<String, SortedMap<String, Measurement>> scope : sorted(templates).entrySet()) {
+            for (final Map.Entry<String, Measurement> template : scope.getValue().entrySet()) {
+                rows.add(new TemplateRow(scope.getKey(), template.getKey(), template.getValue()));
+            }
+        }
+        return rows;
+    }
+
+    private static SortedMap<String, SortedMap<String, Measurement>> sorted(
+            final ConcurrentMap<String, ConcurrentMap<String, Measurement>> measurements) {
+        final SortedMap<String, SortedMap<String, Measurement>> sorted = new TreeMap<>();
+        for (final Map.Entry<String, ConcurrentMap<String, Measurement>> scope : measurements.entrySet()) {
+            sorted.put(scope.getKey(), new TreeMap<>(scope.getValue()));
+        }
+        return sorted;
+    }
+
+    private static double toMillis(final long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Converts a string into a quoted JSON string
+     */
+    static String toJsonString(final String value) {
+        final StringBuilder builder = new StringBuilder("\"");
+        for (final char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    /**
+     * The number of times something was measured, its total duration, and a total amount,
+     * which is bytes allocated for phases and bytes written for files
+     */
+    private static final class Measurement {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder amount = new LongAdder();
+
+        private void add(final long durationNanos, final long addedAmount) {
+            count.increment();
+            nanos.add(durationNanos);
+            amount.add(addedAmount);
+        }
+
+        private long getCount() {
+            return count.sum();
+        }
+
+        private long getNanos() {
+            return nanos.sum();
+        }
+
+        private long getAmount() {
+            return amount.sum();
+        }
+    }
+
+    private static final class TemplateRow {
+        private final String scope;
+        private final String name;
+        private final Measurement measurement;
+
+        private TemplateRow(final String scope, final String name, final Measurement measurement) {
+            this.scope = scope;
+            this.name = name;
+            this.measurement = measurement;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.api.instrumentation;
+
+/**
+ * Holds the {@link GenerationRecorder} that the parser and code generators report into.
+ * By default all measurements are discarded.
+ */
+public final class Instrumentation {
+
+    private static volatile GenerationRecorder recorder = GenerationRecorder.NONE;
+
+    private Instrumentation() { }
+
+    /**
+     * Retrieves the recorder that measurements are reported to
+     */
+    public static GenerationRecorder getRecorder() {
+        return recorder;
+    }
+
+    /**
+     * Replaces the recorder that measurements are reported to
+     */
+    public static void setRecorder(final GenerationRecorder recorder) {
+        Instrumentation.recorder = recorder == null ? GenerationRecorder.NONE : recorder;
+    }
+}
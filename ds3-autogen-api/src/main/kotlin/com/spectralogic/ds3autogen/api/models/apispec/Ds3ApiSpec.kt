@@ -20,4 +20,10 @@ import com.google.common.collect.ImmutableMap
 
 data class Ds3ApiSpec(
         val requests: ImmutableList<Ds3Request>?,
-        val types: ImmutableMap<String, Ds3Type>?)
\ No newline at end of file
+        val types: ImmutableMap<String, Ds3Type>?) {
+
+    /**
+     * The dependency index of the spec's types, which is computed on first use
+     */
+    val typeDependencyIndex: Ds3TypeDependencyIndex by lazy { Ds3TypeDependencyIndex(types) }
+}
\ No newline at end of file
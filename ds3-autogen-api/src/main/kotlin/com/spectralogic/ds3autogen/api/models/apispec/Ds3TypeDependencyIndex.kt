@@ -0,0 +1,180 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.api.models.apispec
+
+import com.google.common.collect.ImmutableList
+import com.google.common.collect.ImmutableMap
+import com.google.common.collect.ImmutableSet
+import java.util.ArrayDeque
+import java.util.LinkedHashSet
+
+/**
+ * An adjacency index of the Spectra defined types that each Ds3Type directly uses within
+ * its elements. The index is computed once per type map, and reachability queries are
+ * answered with a single worklist traversal that visits each type at most once.
+ */
+class Ds3TypeDependencyIndex(types: ImmutableMap<String, Ds3Type>?) {
+
+    private val dependencies: ImmutableMap<String, ImmutableSet<String>>
+
+    init {
+        val builder = ImmutableMap.builder<String, ImmutableSet<String>>()
+        if (types != null) {
+            for ((name, type) in types) {
+                builder.put(name, typesUsedByType(type))
+            }
+        }
+        dependencies = builder.build()
+    }
+
+    /**
+     * Determines if the specified type is within the index
+     */
+    fun containsType(typeName: String): Boolean {
+        return dependencies.containsKey(typeName)
+    }
+
+    /**
+     * Retrieves the Spectra defined types directly used within the specified type's elements
+     */
+    fun getDependencies(typeName: String): ImmutableSet<String> {
+        return dependencies[typeName] ?: ImmutableSet.of()
+    }
+
+    /**
+     * Retrieves the specified root types and all types that they transitively use. Root types,
+     * and types used by them, that are not within the index are included but not expanded.
+     */
+    fun getReachableTypes(rootTypes: Collection<String>?): ImmutableSet<String> {
+        if (rootTypes == null || rootTypes.isEmpty()) {
+            return ImmutableSet.of()
+        }
+        val visited = LinkedHashSet<String>(rootTypes)
+        val worklist = ArrayDeque<String>(visited)
+        while (!worklist.isEmpty()) {
+            for (dependency in getDependencies(worklist.poll())) {
+                if (visited.add(dependency)) {
+                    worklist.add(dependency)
+                }
+            }
+        }
+        return ImmutableSet.copyOf(visited)
+    }
+
+    /**
+     * Retrieves all types the request transitively needs, which includes the types of its
+     * query parameters and response payloads, and all types used within those types
+     */
+    fun getTypesRequiredBy(request: Ds3Request): ImmutableSet<String> {
+        return getReachableTypes(typesUsedByRequest(request))
+    }
+
+    /**
+     * Retrieves all types transitively needed by any of the requests
+     */
+    fun getTypesRequiredBy(requests: ImmutableList<Ds3Request>?): ImmutableSet<String> {
+        if (requests == null || requests.isEmpty()) {
+            return ImmutableSet.of()
+        }
+        val roots = LinkedHashSet<String>()
+        requests.forEach { roots.addAll(typesUsedByRequest(it)) }
+        return getReachableTypes(roots)
+    }
+
+    companion object {
+        private const val CONTRACT_DEFINED_TYPE = "com.spectralogic."
+
+        /**
+         * Determines if a type name is a Spectra defined type
+         */
+        @JvmStatic
+        fun isContractDefinedType(type: String?): Boolean {
+            return type != null && type.startsWith(CONTRACT_DEFINED_TYPE)
+        }
+
+        /**
+         * Retrieves the Spectra defined types directly used within a Ds3Type's elements.
+         * Enums do not use any other types.
+         */
+        @JvmStatic
+        fun typesUsedByType(type: Ds3Type): ImmutableSet<String> {
+            if (type.enumConstants?.isEmpty() == false || type.elements == null) {
+                return ImmutableSet.of()
+            }
+            val builder = ImmutableSet.builder<String>()
+            for (element in type.elements) {
+                if (isContractDefinedType(element.type)) {
+                    builder.add(element.type)
+                }
+                if (isContractDefinedType(element.componentType)) {
+                    builder.add(element.componentType)
+                }
+            }
+            return builder.build()
+        }
+
+        /**
+         * Retrieves the Spectra defined types directly used within a Ds3Request's
+         * query parameters and response types
+         */
+        @JvmStatic
+        fun typesUsedByRequest(request: Ds3Request): ImmutableSet<String> {
+            return ImmutableSet.builder<String>()
+                    .addAll(typesUsedByParams(request.requiredQueryParams))
+                    .addAll(typesUsedByParams(request.optionalQueryParams))
+                    .addAll(typesUsedByResponseCodes(request.ds3ResponseCodes))
+                    .build()
+        }
+
+        /**
+         * Retrieves the Spectra defined types of the parameters
+         */
+        @JvmStatic
+        fun typesUsedByParams(params: Collection<Ds3Param>?): ImmutableSet<String> {
+            val builder = ImmutableSet.builder<String>()
+            params?.forEach { if (isContractDefinedType(it.type)) builder.add(it.type) }
+            return builder.build()
+        }
+
+        /**
+         * Retrieves the Spectra defined types used within the response codes' response types
+         */
+        @JvmStatic
+        fun typesUsedByResponseCodes(responseCodes: Collection<Ds3ResponseCode>?): ImmutableSet<String> {
+            val builder = ImmutableSet.builder<String>()
+            responseCodes?.forEach { builder.addAll(typesUsedByResponseTypes(it.ds3ResponseTypes)) }
+            return builder.build()
+        }
+
+        /**
+         * Retrieves the Spectra defined type of each response type, which is the type if it is
+         * Spectra defined, otherwise the component type if it is Spectra defined
+         */
+        @JvmStatic
+        fun typesUsedByResponseTypes(responseTypes: Collection<Ds3ResponseType>?): ImmutableSet<String> {
+            val builder = ImmutableSet.builder<String>()
+            responseTypes?.forEach { responseType ->
+                if (isContractDefinedType(responseType.type)) {
+                    builder.add(responseType.type)
+                } else if (isContractDefinedType(responseType.componentType)) {
+                    builder.add(responseType.componentType)
+                }
+            }
+            return builder.build()
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.api.instrumentation;
+
+import org.junit.Test;
+
+import java.nio.file.Paths;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class GenerationStats_Test {
+
+    @Test
+    public void startPhase_Test() {
+        final GenerationStats stats = new GenerationStats();
+        try (final PhaseTimer timer = stats.startPhase("parser", "read")) {
+            assertThat(stats.getPhaseCount("parser", "read"), is(0L));
+        }
+        stats.startPhase("parser", "read").close();
+
+        assertThat(stats.getPhaseCount("parser", "read"), is(2L));
+        assertTrue(stats.getPhaseNanos("parser", "read") >= 0);
+        assertThat(stats.getPhaseCount("parser", "normalize"), is(0L));
+        assertThat(stats.getPhaseCount("generator", "read"), is(0L));
+    }
+
+    @Test
+    public void timePhase_Test() {
+        final GenerationStats stats = new GenerationStats();
+        final String result = stats.timePhase("generator", "convertModels", () -> "model");
+
+        assertThat(result, is("model"));
+        assertThat(stats.getPhaseCount("generator", "convertModels"), is(1L));
+    }
+
+    @Test
+    public void recordTemplate_Test() {
+        final GenerationStats stats = new GenerationStats();
+        stats.recordTemplate("generator", "request.ftl", 100);
+        stats.recordTemplate("generator", "request.ftl", 200);
+        stats.recordTemplate("generator", "response.ftl", 300);
+
+        assertThat(stats.getTemplateCount("generator", "request.ftl"), is(2L));
+        assertThat(stats.getTemplateCount("generator", "response.ftl"), is(1L));
+        assertThat(stats.getTemplateCount("other", "request.ftl"), is(0L));
+    }
+
+    @Test
+    public void recordFile_Test() {
+        final GenerationStats stats = new GenerationStats();
+        stats.recordFile("generator", Paths.get("one.txt"), 10, 100);
+        stats.recordFile("generator", Paths.get("two.txt"), 15, 100);
+
+        assertThat(stats.getFileCount("generator"), is(2L));
+        assertThat(stats.getFileBytes("generator"), is(25L));
+        assertThat(stats.getFileCount("other"), is(0L));
+        assertThat(stats.getFileBytes("other"), is(0L));
+    }
+
+    @Test
+    public void toJson_Test() {
+        final GenerationStats stats = new GenerationStats();
+        stats.recordTemplate("generator", "request.ftl", 100);
+        stats.recordFile("generator", Paths.get("one.txt"), 10, 200);
+
+        final String json = stats.toJson();
+        assertThat(json, containsString("\"trackingAllocations\":false"));
+        assertThat(json, containsString("\"phases\":[]"));
+        assertThat(json, containsString("{\"scope\":\"generator\",\"template\":\"request.ftl\",\"count\":1,\"totalNanos\":100}"));
+        assertThat(json, containsString("{\"scope\":\"generator\",\"count\":1,\"bytes\":10,\"writeNanos\":200}"));
+    }
+
+    @Test
+    public void toTable_Test() {
+        final GenerationStats stats = new GenerationStats();
+        stats.startPhase("parser", "read").close();
+        stats.recordTemplate("generator", "request.ftl", 100);
+        stats.recordFile("generator", Paths.get("one.txt"), 10, 200);
+
+        final String table = stats.toTable();
+        assertThat(table, containsString("read"));
+        assertThat(table, containsString("request.ftl"));
+        assertThat(table, containsString("generator"));
+    }
+
+    @Test
+    public void toJsonString_Test() {
+        assertThat(GenerationStats.toJsonString("plain"), is("\"plain\""));
+        assertThat(GenerationStats.toJsonString("a\"b\\c"), is("\"a\\\"b\\\\c\""));
+        assertThat(GenerationStats.toJsonString("line\nbreak\u0001"), is("\"line\\nbreak\\u0001\""));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.api.models.apispec;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.spectralogic.ds3autogen.api.models.enums.Classification;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class Ds3TypeDependencyIndex_Test {
+
+    private static final String TYPE_A = "com.spectralogic.test.TypeA";
+    private static final String TYPE_B = "com.spectralogic.test.TypeB";
+    private static final String TYPE_C = "com.spectralogic.test.TypeC";
+    private static final String TYPE_D = "com.spectralogic.test.TypeD";
+    private static final String ENUM_E = "com.spectralogic.test.EnumE";
+    private static final String MISSING = "com.spectralogic.test.Missing";
+
+    /**
+     * A -> B, B -> (C, A), C -> array of E, D -> B, E is an enum
+     */
+    private static ImmutableMap<String, Ds3Type> getTypes() {
+        return ImmutableMap.of(
+                TYPE_A, new Ds3Type(TYPE_A, ImmutableList.of(
+                        new Ds3Element("B", TYPE_B, null, false),
+                        new Ds3Element("Name", "java.lang.String", null, false))),
+                TYPE_B, new Ds3Type(TYPE_B, ImmutableList.of(
+                        new Ds3Element("C", TYPE_C, null, false),
+                        new Ds3Element("A", TYPE_A, null, false))),
+                TYPE_C, new Ds3Type(TYPE_C, ImmutableList.of(
+                        new Ds3Element("Es", "array", ENUM_E, false))),
+                TYPE_D, new Ds3Type(TYPE_D, ImmutableList.of(
+                        new Ds3Element("B", TYPE_B, null, false))),
+                ENUM_E, new Ds3Type(ENUM_E, null, null, ImmutableList.of(new Ds3EnumConstant("VALUE", null))));
+    }
+
+    private static Ds3Request getRequest(final ImmutableList<Ds3Param> params, final ImmutableList<Ds3ResponseCode> responseCodes) {
+        return new Ds3Request(
+                "com.spectralogic.test.TestRequest",
+                null,
+                Classification.spectrads3,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                false,
+                responseCodes,
+                params,
+                null);
+    }
+
+    @Test
+    public void getDependencies_Test() {
+        final Ds3TypeDependencyIndex index = new Ds3TypeDependencyIndex(getTypes());
+        assertThat(index.getDependencies(TYPE_A), is(ImmutableSet.of(TYPE_B)));
+        assertThat(index.getDependencies(TYPE_B), is(ImmutableSet.of(TYPE_C, TYPE_A)));
+        assertThat(index.getDependencies(TYPE_C), is(ImmutableSet.of(ENUM_E)));
+        assertThat(index.getDependencies(ENUM_E).isEmpty(), is(true));
+        assertThat(index.getDependencies(MISSING).isEmpty(), is(true));
+        assertThat(index.containsType(TYPE_A), is(true));
+        assertThat(index.containsType(MISSING), is(false));
+    }
+
+    @Test
+    public void getReachableTypes_NullAndEmpty_Test() {
+        final Ds3TypeDependencyIndex index = new Ds3TypeDependencyIndex(null);
+        assertThat(index.getReachableTypes(null).isEmpty(), is(true));
+        assertThat(index.getReachableTypes(ImmutableSet.of()).isEmpty(), is(true));
+        assertThat(index.getReachableTypes(ImmutableSet.of(TYPE_A)), is(ImmutableSet.of(TYPE_A)));
+    }
+
+    @Test
+    public void getReachableTypes_Cycle_Test() {
+        final Ds3TypeDependencyIndex index = new Ds3TypeDependencyIndex(getTypes());
+        assertThat(index.getReachableTypes(ImmutableSet.of(TYPE_A)), is(ImmutableSet.of(TYPE_A, TYPE_B, TYPE_C, ENUM_E)));
+        assertThat(index.getReachableTypes(ImmutableSet.of(TYPE_C)), is(ImmutableSet.of(TYPE_C, ENUM_E)));
+        assertThat(index.getReachableTypes(ImmutableSet.of(MISSING, ENUM_E)), is(ImmutableSet.of(MISSING, ENUM_E)));
+    }
+
+    @Test
+    public void getTypesRequiredBy_Request_Test() {
+        final Ds3TypeDependencyIndex index = new Ds3TypeDependencyIndex(getTypes());
+
+        final Ds3Request paramRequest = getRequest(
+                ImmutableList.of(new Ds3Param("C", TYPE_C, false), new Ds3Param("Id", "java.util.UUID", false)),
+                null);
+        assertThat(index.getTypesRequiredBy(paramRequest), is(ImmutableSet.of(TYPE_C, ENUM_E)));
+
+        final Ds3Request responseRequest = getRequest(
+                null,
+                ImmutableList.of(
+                        new Ds3ResponseCode(200, ImmutableList.of(new Ds3ResponseType("array", TYPE_D))),
+                        new Ds3ResponseCode(204, ImmutableList.of(new Ds3ResponseType("null", null)))));
+        assertThat(index.getTypesRequiredBy(responseRequest), is(ImmutableSet.of(TYPE_D, TYPE_B, TYPE_C, TYPE_A, ENUM_E)));
+
+        assertThat(index.getTypesRequiredBy(ImmutableList.of(paramRequest)), is(ImmutableSet.of(TYPE_C, ENUM_E)));
+        assertThat(index.getTypesRequiredBy((ImmutableList<Ds3Request>) null).isEmpty(), is(true));
+    }
+
+    @Test
+    public void ds3ApiSpec_TypeDependencyIndex_Test() {
+        final Ds3ApiSpec spec = new Ds3ApiSpec(ImmutableList.of(), getTypes());
+        assertThat(spec.getTypeDependencyIndex() == spec.getTypeDependencyIndex(), is(true));
+        assertThat(spec.getTypeDependencyIndex().getReachableTypes(ImmutableSet.of(TYPE_D)).size(), is(5));
+    }
+}
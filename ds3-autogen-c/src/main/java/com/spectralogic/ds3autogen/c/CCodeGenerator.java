@@ -19,6 +19,9 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.spectralogic.ds3autogen.api.CodeGenerator;
 import com.spectralogic.ds3autogen.api.FileUtils;
+import com.spectralogic.ds3autogen.api.instrumentation.GenerationRecorder;
+import com.spectralogic.ds3autogen.api.instrumentation.Instrumentation;
+import com.spectralogic.ds3autogen.api.instrumentation.PhaseTimer;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3ApiSpec;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3Element;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3Request;
@@ -31,10 +34,10 @@ import com.spectralogic.ds3autogen.c.models.*;
 import com.spectralogic.ds3autogen.utils.ConverterUtil;
 import com.spectralogic.ds3autogen.utils.Ds3RequestClassificationUtil;
 import com.spectralogic.ds3autogen.utils.Helper;
+import com.spectralogic.ds3autogen.utils.InstrumentedTemplates;
+import com.spectralogic.ds3autogen.utils.TemplateRegistry;
 import com.spectralogic.ds3autogen.utils.collections.GuavaCollectors;
 import freemarker.template.*;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -48,48 +51,55 @@ import java.util.stream.Stream;
 
 
 public class CCodeGenerator implements CodeGenerator {
-    private static final Logger LOG = LoggerFactory.getLogger(CCodeGenerator.class);
+    private static final String SCOPE = CCodeGenerator.class.getSimpleName();
 
-    private final Configuration config = new Configuration(Configuration.VERSION_2_3_23);
+    private final Configuration config;
 
     private FileUtils fileUtils;
 
     public CCodeGenerator() throws TemplateModelException {
-        config.setDefaultEncoding("UTF-8");
-        config.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
-        config.setClassForTemplateLoading(CCodeGenerator.class, "/templates");
-        config.setSharedVariable("cTypeHelper", C_TypeHelper.getInstance());
-        config.setSharedVariable("enumHelper", EnumHelper.getInstance());
-        config.setSharedVariable("requestHelper", RequestHelper.getInstance());
-        config.setSharedVariable("helper", Helper.getInstance());
-        config.setSharedVariable("structHelper", StructHelper.getInstance());
-        config.setSharedVariable("structMemberHelper", StructMemberHelper.getInstance());
-        config.setSharedVariable("parameterHelper", ParameterHelper.getInstance());
+        config = TemplateRegistry.getDefault().getConfiguration(CCodeGenerator.class, "/templates", cfg -> {
+            cfg.setSharedVariable("cTypeHelper", C_TypeHelper.getInstance());
+            cfg.setSharedVariable("enumHelper", EnumHelper.getInstance());
+            cfg.setSharedVariable("requestHelper", RequestHelper.getInstance());
+            cfg.setSharedVariable("helper", Helper.getInstance());
+            cfg.setSharedVariable("structHelper", StructHelper.getInstance());
+            cfg.setSharedVariable("structMemberHelper", StructMemberHelper.getInstance());
+            cfg.setSharedVariable("parameterHelper", ParameterHelper.getInstance());
+        });
     }
 
     @Override
     public void generate(final Ds3ApiSpec spec, final FileUtils fileUtils, final Path destDir, final Ds3DocSpec docSpec) throws IOException {
         this.fileUtils = fileUtils;
 
+        final GenerationRecorder recorder = Instrumentation.getRecorder();
         try {
-            final ImmutableList<Request> allRequests = getAllRequests(spec, docSpec);
-            final ImmutableList<Enum> allEnums = getAllEnums(spec);
-            final ImmutableSet<String> enumNames = EnumHelper.getEnumNamesSet(allEnums);
+            final ImmutableList<Request> allRequests;
+            try (final PhaseTimer timer = recorder.startPhase(SCOPE, "RequestConverter")) {
+                allRequests = getAllRequests(spec, docSpec);
+            }
 
-            final ImmutableSet<String> arrayMemberTypes = getArrayMemberTypes(spec, enumNames);
+            final ImmutableList<Enum> allEnums;
+            final ImmutableList<Struct> allStructs;
+            try (final PhaseTimer timer = recorder.startPhase(SCOPE, "convertModels")) {
+                allEnums = getAllEnums(spec);
+                final ImmutableSet<String> enumNames = EnumHelper.getEnumNamesSet(allEnums);
 
-            final ImmutableSet<String> embeddedTypes = getEmbeddedTypes(spec, enumNames);
-            final ImmutableSet<String> responseTypes = RequestHelper.getResponseTypes(allRequests);
-            final ImmutableSet<String> paginatedTypes = getPaginatedTypes(spec);
+                final ImmutableSet<String> arrayMemberTypes = getArrayMemberTypes(spec, enumNames);
 
-            final ImmutableList<Struct> allStructs = getAllStructs(spec, enumNames, responseTypes, embeddedTypes, arrayMemberTypes, paginatedTypes);
+                final ImmutableSet<String> embeddedTypes = getEmbeddedTypes(spec, enumNames);
+                final ImmutableSet<String> responseTypes = RequestHelper.getResponseTypes(allRequests);
+                final ImmutableSet<String> paginatedTypes = getPaginatedTypes(spec);
 
+                allStructs = getAllStructs(spec, enumNames, responseTypes, embeddedTypes, arrayMemberTypes, paginatedTypes);
+            }
 
             generateHeader(allEnums, allStructs, allRequests);
             generateSource(allEnums, allStructs, allRequests);
             generateStaticFiles();
         } catch (final ParseException e) {
-            LOG.error("Caught exception: ", e);
+            throw new IOException("Unable to generate C SDK code", e);
         }
     }
 
@@ -98,7 +108,10 @@ public class CCodeGenerator implements CodeGenerator {
             final ImmutableList<Struct> allStructs,
             final ImmutableList<Request> allRequests) throws IOException, ParseException {
         final Path path = Paths.get("src/ds3.h");
-        final Header header = HeaderConverter.toHeader(allEnums, allStructs, allRequests);
+        final Header header;
+        try (final PhaseTimer timer = Instrumentation.getRecorder().startPhase(SCOPE, "convertModels")) {
+            header = HeaderConverter.toHeader(allEnums, allStructs, allRequests);
+        }
         processTemplate(header, "header-templates/ds3_h.ftl", fileUtils.getOutputFile(path));
     }
 
@@ -107,7 +120,10 @@ public class CCodeGenerator implements CodeGenerator {
         final ImmutableList<Struct> allStructs,
         final ImmutableList<Request> allRequests) throws IOException, ParseException {
 
-        final Source source = SourceConverter.toSource(allEnums, allStructs, allRequests);
+        final Source source;
+        try (final PhaseTimer timer = Instrumentation.getRecorder().startPhase(SCOPE, "convertModels")) {
+            source = SourceConverter.toSource(allEnums, allStructs, allRequests);
+        }
         final Path path = Paths.get("src/ds3.c");
         processTemplate(source, "source-templates/ds3_c.ftl", fileUtils.getOutputFile(path));
 
@@ -246,11 +262,10 @@ public class CCodeGenerator implements CodeGenerator {
     public void processTemplate(final Object obj, final String templateName, final OutputStream outputStream) throws IOException {
         final Template template = config.getTemplate(templateName);
 
-        final Writer writer = new OutputStreamWriter(outputStream);
-        try {
-            template.process(obj, writer);
+        try (final Writer writer = new OutputStreamWriter(outputStream)) {
+            InstrumentedTemplates.process(SCOPE, template, obj, writer);
         } catch (final NullPointerException | TemplateException e) {
-            LOG.error("Unable to process template " + templateName, e);
+            throw new IOException("Unable to process template " + templateName, e);
         }
     }
 }
@@ -37,7 +37,11 @@ public final class StructConverter {
                                   final ImmutableSet<String> arrayMemberTypes,
                                   final ImmutableSet<String> paginatedTypes) throws ParseException {
         final String responseTypeName = StructHelper.getResponseTypeName(ds3Type.getName());
-        final ImmutableList<StructMember> structMembersList = convertDs3Elements(ds3Type.getElements(), enumNames, paginatedTypes.contains(responseTypeName));
+        final ImmutableList<StructMember> structMembersList = convertDs3Elements(
+                ds3Type.getElements(),
+                enumNames,
+                paginatedTypes.contains(responseTypeName),
+                responseTypes.contains(responseTypeName));
         return new Struct(
                 responseTypeName,
                 convertNameToMarshall(ds3Type),
@@ -50,7 +54,8 @@ public final class StructConverter {
 
     private static ImmutableList<StructMember> convertDs3Elements(final ImmutableList<Ds3Element> elementsList,
                                                                   final ImmutableSet<String> enumNames,
-                                                                  final boolean isPaginated) throws ParseException {
+                                                                  final boolean isPaginated,
+                                                                  final boolean isTopLevel) throws ParseException {
         final ImmutableList.Builder<StructMember> builder = ImmutableList.builder();
         for (final Ds3Element currentElement : elementsList) {
             final C_Type elementType = C_TypeHelper.convertDs3ElementType(currentElement, enumNames);
@@ -72,6 +77,10 @@ public final class StructConverter {
                 builder.add(new StructMember(new FreeableType("ds3_paging", false), "paging"));
             }
         }
+        if (isTopLevel) {
+            // Set when the response was parsed for a client that uses response arenas
+            builder.add(new StructMember(new FreeableType("ds3_response_arena", false), "arena"));
+        }
 
         return builder.build();
     }
@@ -17,6 +17,7 @@ package com.spectralogic.ds3autogen.c.helpers;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3EnumConstant;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3Type;
 import com.spectralogic.ds3autogen.c.models.Enum;
@@ -25,6 +26,7 @@ import com.spectralogic.ds3autogen.utils.collections.GuavaCollectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static com.spectralogic.ds3autogen.utils.ConverterUtil.isEmpty;
@@ -74,59 +76,112 @@ public final class EnumHelper {
         return stringListBuilder.build();
     }
 
+    /**
+     * Groups the values of an Enum by the length of their xml text.  Values are kept in declaration order.
+     */
+    public static ImmutableSortedMap<Integer, ImmutableList<String>> getMatcherLengthGroups(final Enum enumEntry) {
+        final int prefixLength = enumEntry.getName().length() + 1; // to +1 to account for trailing underbar
+        return ImmutableSortedMap.copyOf(enumEntry.getValues().stream()
+                .collect(Collectors.groupingBy(value -> value.length() - prefixLength, GuavaCollectors.immutableList())));
+    }
+
+    /**
+     * Finds the character position of the xml text which best tells apart values of the same length,
+     * which is the position with the fewest values sharing any one character.
+     */
+    public static int getMatcherCharPosition(final Enum enumEntry, final ImmutableList<String> lengthGroup) {
+        final int prefixLength = enumEntry.getName().length() + 1; // to +1 to account for trailing underbar
+        final int textLength = lengthGroup.get(0).length() - prefixLength;
+
+        int bestPosition = 0;
+        int bestGroupSize = Integer.MAX_VALUE;
+        for (int position = 0; position < textLength; position++) {
+            final int groupSize = getMaxGroupSize(getMatcherCharGroups(enumEntry, lengthGroup, position));
+            if (groupSize < bestGroupSize) {
+                bestPosition = position;
+                bestGroupSize = groupSize;
+            }
+        }
+        return bestPosition;
+    }
+
+    /**
+     * Groups values of the same length by the character at a position of their xml text
+     */
+    public static ImmutableSortedMap<Character, ImmutableList<String>> getMatcherCharGroups(final Enum enumEntry, final ImmutableList<String> lengthGroup, final int position) {
+        final int prefixLength = enumEntry.getName().length() + 1; // to +1 to account for trailing underbar
+        return ImmutableSortedMap.copyOf(lengthGroup.stream()
+                .collect(Collectors.groupingBy(value -> value.charAt(prefixLength + position), GuavaCollectors.immutableList())));
+    }
+
+    public static int getMaxGroupSize(final ImmutableSortedMap<Character, ImmutableList<String>> charGroups) {
+        return charGroups.values().stream()
+                .mapToInt(ImmutableList::size)
+                .max()
+                .orElse(0);
+    }
+
+    /**
+     * Generates a matcher which switches on the length of the text, and then on the character which best
+     * tells apart the values of that length, so that the text is compared against at most the few values
+     * sharing both.
+     */
     public static String generateMatcher(final Enum enumEntry) {
         if (isEmpty(enumEntry.getValues())) {
             return "";
         }
 
+        final int prefix_length = enumEntry.getName().length() + 1; // to +1 to account for trailing underbar
         final StringBuilder outputBuilder = new StringBuilder();
-        final int numEnumValues = enumEntry.getValues().size();
-        for (int currentEnum = 0; currentEnum < numEnumValues; currentEnum++) {
-            outputBuilder.append(indent(1));
-
-            if (currentEnum > 0) {
-                outputBuilder.append("} else ");
+        outputBuilder.append(indent(1)).append("switch (xmlStrlen(text)) {\n");
+        for (final Map.Entry<Integer, ImmutableList<String>> lengthGroup : getMatcherLengthGroups(enumEntry).entrySet()) {
+            final int position = getMatcherCharPosition(enumEntry, lengthGroup.getValue());
+            outputBuilder.append(indent(1)).append("case ").append(lengthGroup.getKey()).append(":\n");
+            outputBuilder.append(indent(2)).append("switch (text[").append(position).append("]) {\n");
+            for (final Map.Entry<Character, ImmutableList<String>> charGroup : getMatcherCharGroups(enumEntry, lengthGroup.getValue(), position).entrySet()) {
+                outputBuilder.append(indent(2)).append("case '").append(charGroup.getKey()).append("':\n");
+                for (final String currentEnumName : charGroup.getValue()) {
+                    outputBuilder.append(indent(3)).append("if (xmlStrcmp(text, (const xmlChar*) \"").append(currentEnumName.substring(prefix_length)).append("\") == 0) {\n");
+                    outputBuilder.append(indent(4)).append("return ").append(currentEnumName).append(";\n");
+                    outputBuilder.append(indent(3)).append("}\n");
+                }
+                outputBuilder.append(indent(3)).append("break;\n");
             }
-
-            final String currentEnumName = enumEntry.getValues().get(currentEnum);
-            final int prefix_length = enumEntry.getName().length() + 1; // to +1 to account for trailing underbar
-            outputBuilder.append("if (xmlStrcmp(text, (const xmlChar*) \"").append(currentEnumName.substring(prefix_length)).append("\") == 0) {\n");
-            outputBuilder.append(indent(2)).append("return ").append(currentEnumName).append(";\n");
+            outputBuilder.append(indent(2)).append("}\n");
+            outputBuilder.append(indent(2)).append("break;\n");
         }
+        outputBuilder.append(indent(1)).append("}\n");
+        outputBuilder.append("\n");
 
         final String enumName = enumEntry.getValues().get(0);
-        outputBuilder.append(indent(1)).append("} else {").append("\n");
-        outputBuilder.append(indent(2)).append("ds3_log_message(log, DS3_ERROR, \"ERROR: Unknown value of '%s'.  Returning ").append(enumName).append(" for safety.\", text);\n");
-        outputBuilder.append(indent(2)).append("return ").append(enumName).append(";\n");
-
-        outputBuilder.append(indent(1)).append("}");
+        outputBuilder.append(indent(1)).append("ds3_log_message(log, DS3_ERROR, \"ERROR: Unknown value of '%s'.  Returning ").append(enumName).append(" for safety.\", text);\n");
+        outputBuilder.append(indent(1)).append("return ").append(enumName).append(";");
         return outputBuilder.toString();
     }
 
+    /**
+     * Generates a lookup into a table of the xml text of each value, indexed by the enum value.  The
+     * values of a generated enum are numbered from zero in declaration order.
+     */
     public static String generateToString(final Enum enumEntry) {
         if (isEmpty(enumEntry.getValues())) {
             LOG.warn("Empty enumValues list.");
             return "";
         }
 
-        final int numEnumValues = enumEntry.getValues().size();
+        final int prefix_length = enumEntry.getName().length() + 1; // to +1 to account for trailing underbar
         final StringBuilder outputBuilder = new StringBuilder();
-        for (int currentEnum = 0; currentEnum < numEnumValues; currentEnum++) {
-            outputBuilder.append(indent(1));
-
-            if (currentEnum > 0) {
-                outputBuilder.append("} else ");
-            }
-
-            final String currentEnumName = enumEntry.getValues().get(currentEnum);
-            outputBuilder.append("if (input == ").append(currentEnumName).append(") {\n");
-            final int prefix_length = enumEntry.getName().length() + 1; // to +1 to account for trailing underbar
-            outputBuilder.append(indent(2)).append("return \"").append(currentEnumName.substring(prefix_length)).append("\";\n"); // to query param strip off ds3_type namespace prefix
-        }
-
-        outputBuilder.append(indent(1)).append("} else {\n");
+        outputBuilder.append(indent(1)).append("static char* const strings[] = {\n");
+        outputBuilder.append(enumEntry.getValues().stream()
+                .map(currentEnumName -> indent(2) + "\"" + currentEnumName.substring(prefix_length) + "\"") // to query param strip off ds3_type namespace prefix
+                .collect(Collectors.joining(",\n")));
+        outputBuilder.append("\n");
+        outputBuilder.append(indent(1)).append("};\n");
+        outputBuilder.append("\n");
+        outputBuilder.append(indent(1)).append("if ((int) input < 0 || (size_t) input >= sizeof(strings) / sizeof(strings[0])) {\n");
         outputBuilder.append(indent(2)).append("return \"\";\n");
         outputBuilder.append(indent(1)).append("}\n");
+        outputBuilder.append(indent(1)).append("return strings[input];\n");
 
         return outputBuilder.toString();
     }
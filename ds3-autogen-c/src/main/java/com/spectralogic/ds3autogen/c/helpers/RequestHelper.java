@@ -20,6 +20,7 @@ import com.google.common.collect.ImmutableSet;
 import com.spectralogic.ds3autogen.api.models.enums.Classification;
 import com.spectralogic.ds3autogen.c.models.Parameter;
 import com.spectralogic.ds3autogen.c.models.Request;
+import com.spectralogic.ds3autogen.c.models.Struct;
 import com.spectralogic.ds3autogen.utils.Helper;
 import com.spectralogic.ds3autogen.utils.collections.GuavaCollectors;
 
@@ -128,16 +129,51 @@ public final class RequestHelper {
         return "ds3_request* " + request.getInitName() + "(" + joinStrings(allParams)+ ")";
     }
 
+    /**
+     * Requests which stream object data through a user supplied curl callback
+     */
+    private static boolean hasDataCallback(final Request request) {
+        return request.getName().equalsIgnoreCase("ds3_put_object_request")
+            || request.getName().equalsIgnoreCase("ds3_get_object_request")
+            || request.getName().equalsIgnoreCase("ds3_put_multi_part_upload_part_request");
+    }
+
     public static String generateRequestFunctionSignature(final Request request) {
-        if (request.getName().equalsIgnoreCase("ds3_put_object_request")
-         || request.getName().equalsIgnoreCase("ds3_get_object_request")
-         || request.getName().equalsIgnoreCase("ds3_put_multi_part_upload_part_request")) {
+        if (hasDataCallback(request)) {
             return "ds3_error* " + request.getName() + "(" + paramListToString(request.getParamList()) + ", void* user_data, size_t (*callback)(void*, size_t, size_t, void*))";
         }
 
         return "ds3_error* " + request.getName() + "(" + paramListToString(request.getParamList()) + ")";
     }
 
+    /**
+     * The ds3_<request>_async() alternative to a request function queues the request on the asynchronous
+     * engine and returns at once; the response is handed to the completion callback instead.
+     */
+    public static String generateAsyncFunctionSignature(final Request request) {
+        final ImmutableList<Parameter> paramList = request.getParamList().stream()
+                .filter(param -> !param.getName().equals("response"))
+                .collect(GuavaCollectors.immutableList());
+        final String dataCallback = hasDataCallback(request) ? ", void* user_data, size_t (*callback)(void*, size_t, size_t, void*)" : "";
+
+        return "ds3_error* " + request.getName() + "_async(" + paramListToString(paramList) + dataCallback + ", ds3_request_callback on_complete, void* on_complete_data)";
+    }
+
+    /**
+     * The ds3_<request>_each() alternative to a request function hands each element of the response
+     * arrays to a callback as it is parsed, instead of returning the whole response.
+     */
+    public static String generateEachFunctionSignature(final Request request, final Struct responseStruct) {
+        final ImmutableList<Parameter> paramList = request.getParamList().stream()
+                .filter(param -> !param.getName().equals("response"))
+                .collect(GuavaCollectors.immutableList());
+        final String callbacks = StructHelper.getEachMembers(responseStruct).stream()
+                .map(sm -> sm.getType().getTypeName() + "_callback " + sm.getName() + "_callback")
+                .collect(Collectors.joining(", "));
+
+        return "ds3_error* " + request.getName() + "_each(" + paramListToString(paramList) + ", " + callbacks + ", void* user_data)";
+    }
+
     public static String generateParameterValidationBlock(final Request request) {
         final StringBuilder builder = new StringBuilder();
 
@@ -20,6 +20,7 @@ import com.google.common.collect.ImmutableSet;
 import com.spectralogic.ds3autogen.c.models.Struct;
 import com.spectralogic.ds3autogen.c.models.StructMember;
 import com.spectralogic.ds3autogen.utils.Helper;
+import com.spectralogic.ds3autogen.utils.collections.GuavaCollectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -75,6 +76,7 @@ public final class StructHelper {
         for (final StructMember structMember : struct.getStructMembers()) {
             if (!structMember.getType().isPrimitive()) {
                 if (structMember.getType().getTypeName().equals("ds3_str")) continue; // ds3_str is not an auto-generated API typeName.
+                if (StructMemberHelper.isResponseArena(structMember)) continue; // not parsed
 
                 return true;
             } else if (structMember.getType().isArray()) {
@@ -92,11 +94,20 @@ public final class StructHelper {
                 .anyMatch(StructMember::isAttribute);
     }
 
+    /**
+     * Determine if a Struct carries the ds3_paging parsed from the response headers
+     */
+    public static boolean isPaginated(final Struct structEntry) {
+        return structEntry.getStructMembers().stream()
+                .anyMatch(sm -> sm.getType().getTypeName().equals("ds3_paging"));
+    }
+
     /**
      * Determine if a Struct has any StructMembers which need to be parsed as a child-node
      */
     public static boolean hasChildNodes(final Struct structEntry) {
         return structEntry.getStructMembers().stream()
+                .filter(sm -> !StructMemberHelper.isResponseArena(sm))
                 .anyMatch(sm -> !sm.isAttribute());
     }
 
@@ -112,6 +123,49 @@ public final class StructHelper {
                 .filter(sm -> !sm.getType().getTypeName().equals("ds3_tape_drive_type")) // enum list
                 .anyMatch(sm -> (!sm.isAttribute() && sm.hasWrapper()));
     }
+    /**
+     * Find the array StructMembers whose elements are parsed structs.  These are handed to the caller
+     * one element at a time by a ds3_<request>_each() function.
+     */
+    public static ImmutableList<StructMember> getEachMembers(final Struct structEntry) {
+        return structEntry.getStructMembers().stream()
+                .filter(sm -> !sm.isAttribute())
+                .filter(sm -> sm.getType().isArray())
+                .filter(sm -> !sm.getType().isPrimitive())
+                .filter(sm -> !sm.getType().getTypeName().equals("ds3_str"))
+                .filter(sm -> !sm.getType().getTypeName().equals("ds3_tape_type")) // enum list
+                .filter(sm -> !sm.getType().getTypeName().equals("ds3_tape_drive_type")) // enum list
+                .collect(GuavaCollectors.immutableList());
+    }
+
+    /**
+     * Determine if a ds3_<request>_each() function can be generated for a response Struct
+     */
+    public static boolean hasEachMembers(final Struct structEntry) {
+        return !getEachMembers(structEntry).isEmpty();
+    }
+
+    /**
+     * Find the element types of all top level Structs that require a ds3_<type>_callback typedef
+     */
+    public static ImmutableSet<String> getEachCallbackTypes(final ImmutableList<Struct> allStructs) {
+        return allStructs.stream()
+                .filter(Struct::isTopLevel)
+                .flatMap(struct -> getEachMembers(struct).stream())
+                .map(sm -> sm.getType().getTypeName())
+                .collect(GuavaCollectors.immutableSet());
+    }
+
+    /**
+     * Find the Struct for a response type, or null if there is none
+     */
+    public static Struct getStruct(final ImmutableList<Struct> allStructs, final String structName) {
+        return allStructs.stream()
+                .filter(struct -> struct.getName().equals(structName))
+                .findFirst()
+                .orElse(null);
+    }
+
     /**
      * Determine if a Struct requires a custom parser.
      */
@@ -123,6 +177,8 @@ public final class StructHelper {
 
                 if (member.getType().getTypeName().equals("ds3_paging")) continue; // ds3_paging is not an auto-generated API typeName.
 
+                if (StructMemberHelper.isResponseArena(member)) continue; // ds3_response_arena is not an auto-generated API typeName.
+
                 if (existingTypes.contains(member.getType().getTypeName())) continue;
 
                 if (enumNames.contains(member.getType().getTypeName())) continue;
@@ -184,6 +240,7 @@ public final class StructHelper {
             if (currentStructMember.isAttribute()) continue; // only parsing child nodes for a specific node
             if (currentStructMember.getName().startsWith("num_")) continue; // skip - these are used for array iteration and are not a part of the response
             if (currentStructMember.getName().equals("paging")) continue; // skip - parsed from pagination headers
+            if (StructMemberHelper.isResponseArena(currentStructMember)) continue; // skip - set when the response is created
 
             outputBuilder.append(indent(2));
 
@@ -208,6 +265,57 @@ public final class StructHelper {
         return outputBuilder.toString();
     }
 
+    /**
+     * Generates the child node parser used by a ds3_<request>_each() function, which hands each
+     * element of the array members to its callback and then frees it.  Elements of a wrapped array
+     * are parsed from the children of the wrapper node.
+     */
+    public static String generateEachResponseParser(final Struct structEntry) {
+        boolean firstElement = true;
+        final StringBuilder outputBuilder = new StringBuilder();
+
+        for (final StructMember currentStructMember : getEachMembers(structEntry)) {
+            outputBuilder.append(indent(1));
+
+            if (!firstElement) {
+                outputBuilder.append("} else ");
+            } else {
+                firstElement = false;
+            }
+
+            outputBuilder.append("if (element_equal(child_node, \"").append(getXmlTag(currentStructMember)).append("\")) {").append("\n");
+            if (currentStructMember.hasWrapper()) {
+                outputBuilder.append(indent(2)).append("xmlNodePtr loop_node;\n");
+                outputBuilder.append(indent(2)).append("for (loop_node = child_node->xmlChildrenNode; loop_node != NULL; loop_node = loop_node->next) {\n");
+                outputBuilder.append(generateEachElementBlock(currentStructMember, "loop_node", 3));
+                outputBuilder.append(indent(3)).append("if (error != NULL || state->stopped == True) {\n");
+                outputBuilder.append(indent(4)).append("break;\n");
+                outputBuilder.append(indent(3)).append("}\n");
+                outputBuilder.append(indent(2)).append("}\n");
+            } else {
+                outputBuilder.append(generateEachElementBlock(currentStructMember, "child_node", 2));
+            }
+        }
+
+        outputBuilder.append(indent(1)).append("}").append("\n");
+
+        return outputBuilder.toString();
+    }
+
+    private static String generateEachElementBlock(final StructMember structMember, final String nodeName, final int depth) {
+        final String typeName = structMember.getType().getTypeName();
+        final String callbackName = "state->" + structMember.getName() + "_callback";
+        return indent(depth) + typeName + "* element = NULL;\n"
+             + indent(depth) + "error = " + getParserFunctionName(typeName) + "(client, doc, " + nodeName + ", &element);\n"
+             + indent(depth) + "if (error == NULL) {\n"
+             + indent(depth + 1) + "state->num_elements++;\n"
+             + indent(depth + 1) + "if (" + callbackName + " != NULL && " + callbackName + "(element, state->user_data) == False) {\n"
+             + indent(depth + 2) + "state->stopped = True;\n"
+             + indent(depth + 1) + "}\n"
+             + indent(depth) + "}\n"
+             + indent(depth) + typeName + "_free(element);\n";
+    }
+
     public static String generateResponseAttributesParser(final String structName, final ImmutableList<StructMember> structMembers) throws ParseException {
         boolean firstElement = true;
         final StringBuilder outputBuilder = new StringBuilder();
@@ -68,9 +68,8 @@ public final class StructMemberHelper {
              + indent(4) + structMember.getType().getTypeName() + "* " + structMember.getName() + " = xml_get_string(doc, loop_node);\n"
              + indent(4) + "g_ptr_array_add(" + structMember.getName() + "_array, " + structMember.getName() + ");\n"
              + indent(3) + "}\n"
-             + indent(3) + "response->" + structMember.getName() + " = (" + structMember.getType().getTypeName() + "**)" + structMember.getName() +"_array->pdata;\n"
-             + indent(3) + "response->num_" + structMember.getName() + " = " + structMember.getName() +"_array->len;\n"
-             + indent(3) + "g_ptr_array_free(" + structMember.getName() + "_array, FALSE);\n";
+             + indent(3) + "response->num_" + structMember.getName() + " = " + structMember.getName() + "_array->len;\n"
+             + indent(3) + "response->" + structMember.getName() + " = (" + structMember.getType().getTypeName() + "**)_ds3_response_array(doc, " + structMember.getName() + "_array);\n";
     }
 
     /**
@@ -88,9 +87,8 @@ public final class StructMemberHelper {
     public static String generateStructMemberArrayParserBlock(final StructMember structMember) throws ParseException {
         return indent(3) + "GPtrArray* " + structMember.getName() + "_array;\n"
              + indent(3) + "error = _parse_" + structMember.getType().getTypeName() + "_array(client, doc, child_node, &" + structMember.getName() + "_array);\n"
-             + indent(3) + "response->" + structMember.getName() + " = (" + structMember.getType().getTypeName() + "**)" + structMember.getName() + "_array->pdata;\n"
              + indent(3) + "response->num_" + structMember.getName() + " = " + structMember.getName() + "_array->len;\n"
-             + indent(3) + "g_ptr_array_free(" + structMember.getName() + "_array, FALSE);\n";
+             + indent(3) + "response->" + structMember.getName() + " = (" + structMember.getType().getTypeName() + "**)_ds3_response_array(doc, " + structMember.getName() + "_array);\n";
     }
 
     public static String generateUnwrappedStructMemberArrayParserBlock(final StructMember structMember) throws ParseException {
@@ -131,9 +129,8 @@ public final class StructMemberHelper {
              + indent(4) + structMember.getName() + " = _match_" + structMember.getType().getTypeName() + "(client->log, text);\n"
              + indent(4) + "g_byte_array_append(enum_array, (const guint8*) &" + structMember.getName() + ", sizeof(" + structMember.getType().getTypeName() + "));\n"
              + indent(3) + "}\n"
-             + indent(3) + "response->" + structMember.getName() + " = (" + structMember.getType().getTypeName() + "*)enum_array->data;\n"
              + indent(3) + "response->num_" + structMember.getName() + " = enum_array->len;\n"
-             + indent(3) + "g_byte_array_free(enum_array, FALSE);\n";
+             + indent(3) + "response->" + structMember.getName() + " = (" + structMember.getType().getTypeName() + "*)_ds3_response_byte_array(doc, enum_array);\n";
     }
 
     public static String getParseStructMemberBlock(final StructMember structMember) throws ParseException {
@@ -208,6 +205,13 @@ public final class StructMemberHelper {
         throw new IllegalArgumentException("Attribute " + structMember.getType().getTypeName() + " is a complex (DS3) type");
     }
 
+    /**
+     * Top level response structs carry the arena their members were allocated from
+     */
+    public static boolean isResponseArena(final StructMember structMember) {
+        return structMember.getType().getTypeName().equals("ds3_response_arena");
+    }
+
     public static String generateFreeArrayStructMember(final StructMember structMember) {
         return indent(1) + "for (index = 0; index < response->num_" + structMember.getName() + "; index++) {\n"
              + indent(2) + structMember.getType().getTypeName() + "_free(response->" + structMember.getName() + "[index]);\n"
@@ -219,6 +223,7 @@ public final class StructMemberHelper {
         final StringBuilder outputBuilder = new StringBuilder();
 
         for (final StructMember structMember : structMembers) {
+            if (isResponseArena(structMember)) continue; // the arena is released last, by the struct free function
             if (structMember.getType().isPrimitive()) { // PrimitiveTypes only need to free the base pointer
                 if (structMember.getType().isArray()) {
                     outputBuilder.append(indent(1)).append("g_free(response->").append(structMember.getName()).append(");\n");
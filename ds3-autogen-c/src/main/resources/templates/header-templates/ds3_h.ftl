@@ -36,9 +36,12 @@ typedef struct {
     int total_result_count;
 }ds3_paging;
 
+typedef struct _ds3_response_arena ds3_response_arena;
+
 typedef struct _ds3_request ds3_request;
 
 typedef struct _ds3_connection_pool ds3_connection_pool;
+typedef struct _ds3_signing_context ds3_signing_context;
 
 typedef struct {
     ds3_str*    name;
@@ -90,7 +93,8 @@ typedef enum {
   DS3_ERROR_REQUEST_FAILED,
   DS3_ERROR_MISSING_ARGS,
   DS3_ERROR_BAD_STATUS_CODE,
-  DS3_ERROR_TOO_MANY_REDIRECTS
+  DS3_ERROR_TOO_MANY_REDIRECTS,
+  DS3_ERROR_INVALID_ARGUMENT
 }ds3_error_code;
 
 typedef struct {
@@ -122,16 +126,56 @@ typedef struct {
 </#list>
 <#-- **************************************** -->
 
+/*
+ * Callbacks for the ds3_<request>_each() functions, which hand each element of the response arrays
+ * to a callback as it is parsed and free it once the callback returns, instead of returning the
+ * whole response.  Returning False stops the iteration.  Paginated requests are iterated across all
+ * pages by advancing the page_offset query parameter of the request one page at a time, with a
+ * page_length of 1000 unless the request sets one.  The request's paging parameters are restored
+ * before the function returns.
+ */
+<#list structHelper.getEachCallbackTypes(getStructs()) as elementType>
+typedef ds3_bool (*${elementType}_callback)(const ${elementType}* element, void* user_data);
+</#list>
+
 typedef struct {
     ds3_error_code      code;
     ds3_str*            message;
     ds3_error_response* error;
 }ds3_error;
 
+/*
+ * Completion callback of the ds3_<request>_async() functions, called from the event loop thread of
+ * the asynchronous engine.  On success error is NULL and response holds what the synchronous function
+ * would have returned, or NULL for requests without a response.  The callback owns both.
+ *
+ * The callback may submit further ds3_<request>_async() requests, which wait within the event loop
+ * for a pooled connection to be released.  It must not make synchronous requests, which would block
+ * the event loop while it holds the connections they wait for.
+ */
+typedef void (*ds3_request_callback)(ds3_error* error, void* response, void* user_data);
+
+typedef void (*ds3_net_completion_func)(ds3_error* error, ds3_string_multimap* return_headers, void* completion_data);
+
+/*
+ * Requests answered with 503 Service Unavailable, and idempotent requests that fail with a transient
+ * connection error, are sent again up to max_attempts times in total.  Between attempts the client
+ * waits for the Retry-After the server asked for when honor_retry_after is set, and otherwise for an
+ * exponential backoff from initial_backoff_ms, with random jitter.  Both waits are capped at max_backoff_ms.
+ * A max_attempts of 1 disables retries.
+ */
+typedef struct {
+    uint32_t max_attempts;
+    uint32_t initial_backoff_ms;
+    uint32_t max_backoff_ms;
+    ds3_bool honor_retry_after;
+}ds3_retry_policy;
+
 typedef struct _ds3_client {
     ds3_str*      endpoint;
     ds3_str*      proxy;
     uint64_t      num_redirects;
+    ds3_retry_policy retry_policy;
     ds3_creds*    creds;
     ds3_log*      log;
     ds3_error* (* net_callback)(const struct _ds3_client* client,
@@ -141,7 +185,17 @@ typedef struct _ds3_client {
                                 void* write_user_struct,
                                 size_t (*write_handler_func)(void*, size_t, size_t, void*),
                                 ds3_string_multimap** return_headers);
+    ds3_error* (* net_submit_callback)(const struct _ds3_client* client,
+                                       const ds3_request* _request,
+                                       void* read_user_struct,
+                                       size_t (*read_handler_func)(void*, size_t, size_t, void*),
+                                       void* write_user_struct,
+                                       size_t (*write_handler_func)(void*, size_t, size_t, void*),
+                                       ds3_net_completion_func on_complete,
+                                       void* completion_data);
     ds3_connection_pool* connection_pool;
+    ds3_signing_context* signing_context;
+    ds3_bool      response_arenas;
 }ds3_client;
 
 <#-- ********************************************* -->
@@ -180,7 +234,26 @@ LIBRARY_API void        ds3_client_register_net(ds3_client* client, ds3_error* (
                                                                                                 void* write_user_struct,
                                                                                                 size_t (*write_handler_func)(void*, size_t, size_t, void*),
                                                                                                 ds3_string_multimap** return_headers));
+LIBRARY_API void        ds3_client_register_net_submit(ds3_client* client, ds3_error* (* net_submit_callback)(const ds3_client* client,
+                                                                                                              const ds3_request* _request,
+                                                                                                              void* read_user_struct,
+                                                                                                              size_t (*read_handler_func)(void*, size_t, size_t, void*),
+                                                                                                              void* write_user_struct,
+                                                                                                              size_t (*write_handler_func)(void*, size_t, size_t, void*),
+                                                                                                              ds3_net_completion_func on_complete,
+                                                                                                              void* completion_data));
 LIBRARY_API void ds3_client_proxy(ds3_client* client, const char *const proxy);
+/*
+ * Retries are enabled by default: a new client makes up to 5 attempts, backing off from 500ms up to
+ * 30000ms and honoring Retry-After.  Set a policy with a max_attempts of 1 to disable retries.
+ */
+LIBRARY_API void ds3_client_set_retry_policy(ds3_client* client, const ds3_retry_policy* retry_policy);
+/*
+ * When enabled, each parsed response is allocated from a single arena that is released by the
+ * response's free function in one call.  The members of such a response must not be freed or
+ * kept individually after the response is freed.
+ */
+LIBRARY_API void ds3_client_use_response_arenas(ds3_client* client, ds3_bool use_response_arenas);
 
 // Set optional request query parameters
 LIBRARY_API void ds3_request_set_byte_range(ds3_request* _request, int64_t rangeStart, int64_t rangeEnd);
@@ -219,6 +292,13 @@ LIBRARY_API ds3_error* ds3_head_object_request(const ds3_client* client, const d
         <#include "RequestCommentDocumentation.ftl">
         <#include "InitRequestPrototype.ftl">
         <#include "RequestPrototype.ftl">
+        <#assign responseStruct = structHelper.getStruct(getStructs(), requestEntry.getResponseType())!>
+        <#if requestEntry.hasResponsePayload() && responseStruct?has_content && structHelper.hasEachMembers(responseStruct)>
+
+LIBRARY_API ${requestHelper.generateEachFunctionSignature(requestEntry, responseStruct)};<#t>
+        </#if>
+
+LIBRARY_API ${requestHelper.generateAsyncFunctionSignature(requestEntry)};<#t>
     </#if>
 </#list>
 <#-- **************************************** -->
@@ -232,6 +312,38 @@ LIBRARY_API size_t ds3_read_from_file(void* buffer, size_t size, size_t nmemb, v
 LIBRARY_API size_t ds3_write_to_fd(void* buffer, size_t size, size_t nmemb, void* user_data);
 LIBRARY_API size_t ds3_read_from_fd(void* buffer, size_t size, size_t nmemb, void* user_data);
 
+/*
+ * Uploads straight from a read only mapping of a file.  One ds3_mapped_file is shared by the uploads of
+ * every blob in the file, and each upload reads its blob through its own ds3_mapped_file_region, which is
+ * passed as the user_data of ds3_read_from_mapped_file.
+ */
+typedef struct _ds3_mapped_file ds3_mapped_file;
+
+typedef struct {
+    const ds3_mapped_file* file;
+    uint64_t offset;
+    uint64_t length;
+    uint64_t position;
+}ds3_mapped_file_region;
+
+LIBRARY_API ds3_mapped_file* ds3_mapped_file_open(const char* file_path);
+LIBRARY_API uint64_t ds3_mapped_file_size(const ds3_mapped_file* file);
+LIBRARY_API void ds3_mapped_file_close(ds3_mapped_file* file);
+LIBRARY_API ds3_error* ds3_mapped_file_region_init(ds3_mapped_file_region* region, const ds3_mapped_file* file, uint64_t offset, uint64_t length);
+LIBRARY_API size_t ds3_read_from_mapped_file(void* buffer, size_t size, size_t nmemb, void* user_data);
+
+/*
+ * Downloads into a blob of a file that is shared by parallel downloads.  Each download writes through its
+ * own ds3_fd_region, passed as the user_data of ds3_write_to_fd_at_offset, which writes at the position of
+ * the blob without moving the file offset of the shared descriptor.
+ */
+typedef struct {
+    int fd;
+    uint64_t offset;
+}ds3_fd_region;
+
+LIBRARY_API size_t ds3_write_to_fd_at_offset(void* buffer, size_t size, size_t nmemb, void* user_data);
+
 LIBRARY_API ds3_bulk_object_list_response* ds3_convert_file_list(const char** file_list, uint64_t num_files);
 LIBRARY_API ds3_bulk_object_list_response* ds3_convert_file_list_with_basepath(const char** file_list, uint64_t num_files, const char* base_path);
 LIBRARY_API ds3_bulk_object_list_response* ds3_convert_object_list(const ds3_contents_response** objects, uint64_t num_objects);
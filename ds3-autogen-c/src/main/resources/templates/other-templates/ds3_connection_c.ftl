@@ -7,16 +7,26 @@
 #include "ds3_connection.h"
 
 //-- Opaque struct
+//
+// Idle connections are kept in an array of slots which are taken and filled with atomic compare and
+// exchange, so acquiring and releasing a connection does not take a lock.  Each thread starts scanning
+// the slots at an offset derived from its thread, so a thread tends to reuse the connection it last
+// released and threads rarely contend for the same slot.  The mutex and condition are only used to
+// wait for a connection once max_connections have been created and all are in use, and for the
+// reference count.
 struct _ds3_connection_pool{
     ds3_connection** connections;
-    uint16_t         num_connections; // the number of connections created
-    ds3_connection** connection_queue;
-    uint16_t         max_connections; // max number of possible connections, which the connections and queue arrays will be initialized to
-    int              queue_head;
-    int              queue_tail;
+    volatile gint    num_connections; // the number of connections created
+    gpointer*        idle_connections;
+    uint16_t         max_connections; // max number of possible connections, which the connections and idle_connections arrays will be initialized to
+    volatile gint    num_waiting;
     ds3_mutex        mutex;
     ds3_condition    available_connection_notifier;
     uint16_t         ref_count;
+
+    volatile gint    num_acquires;
+    volatile gint    num_hits;
+    volatile gint    num_waits;
 };
 
 ds3_connection_pool* ds3_connection_pool_init(void) {
@@ -27,7 +37,7 @@ ds3_connection_pool* ds3_connection_pool_init_with_size(uint16_t pool_size) {
     ds3_connection_pool* pool = g_new0(ds3_connection_pool, 1);
 
     pool->connections = g_new0(ds3_connection*, pool_size);
-    pool->connection_queue = g_new0(ds3_connection*, pool_size);
+    pool->idle_connections = g_new0(gpointer, pool_size);
 
     pool->max_connections = pool_size;
 
@@ -55,56 +65,120 @@ void ds3_connection_pool_clear(ds3_connection_pool* pool, ds3_bool already_locke
     }
 
     g_free(pool->connections);
-    g_free(pool->connection_queue);
+    g_free(pool->idle_connections);
     g_mutex_unlock(&pool->mutex);
     g_mutex_clear(&pool->mutex); // an attempt to clear a locked mutex is undefined
     g_cond_clear(&pool->available_connection_notifier);
 }
 
-static int _queue_inc(int index, uint16_t size) {
-    return (index+1) % size;
+static int _thread_slot_offset(ds3_connection_pool* pool) {
+    return (int) ((GPOINTER_TO_SIZE(g_thread_self()) >> 4) % pool->max_connections);
+}
+
+static ds3_connection* _take_idle_connection(ds3_connection_pool* pool, int offset) {
+    int count;
+
+    for (count = 0; count < pool->max_connections; count++) {
+        const int index = (offset + count) % pool->max_connections;
+        gpointer connection = g_atomic_pointer_get(&pool->idle_connections[index]);
+        if (connection != NULL && g_atomic_pointer_compare_and_exchange(&pool->idle_connections[index], connection, NULL)) {
+            return (ds3_connection*) connection;
+        }
+    }
+    return NULL;
 }
 
-static int _queue_is_empty(ds3_connection_pool* pool) {
-    int queue_head = pool->queue_head;
-    return pool->queue_tail == queue_head && pool->connection_queue[queue_head] == NULL;
+static ds3_connection* _create_connection(ds3_connection_pool* pool) {
+    for (;;) {
+        const gint num_connections = g_atomic_int_get(&pool->num_connections);
+        if (num_connections >= pool->max_connections) {
+            return NULL;
+        }
+        if (g_atomic_int_compare_and_exchange(&pool->num_connections, num_connections, num_connections + 1)) {
+            ds3_connection* connection = curl_easy_init();
+            pool->connections[num_connections] = connection;
+            return connection;
+        }
+    }
 }
 
 ds3_connection* ds3_connection_acquire(ds3_connection_pool* pool) {
-    ds3_connection* connection = NULL;
+    const int offset = _thread_slot_offset(pool);
+    ds3_connection* connection;
+
+    g_atomic_int_inc(&pool->num_acquires);
+
+    connection = _take_idle_connection(pool, offset);
+    if (connection != NULL) {
+        g_atomic_int_inc(&pool->num_hits);
+        return connection;
+    }
 
+    connection = _create_connection(pool);
+    if (connection != NULL) {
+        return connection;
+    }
+
+    // Every connection has been created and is in use, so wait for one to be released.  num_waiting is
+    // raised before the slots are scanned again, so a release either leaves a connection in a slot that
+    // this scan finds, or sees num_waiting and signals.
+    g_atomic_int_inc(&pool->num_waits);
     g_mutex_lock(&pool->mutex);
-    while (_queue_is_empty(pool) && pool->num_connections >= pool->max_connections) {
+    g_atomic_int_inc(&pool->num_waiting);
+    while ((connection = _take_idle_connection(pool, offset)) == NULL) {
         g_cond_wait(&pool->available_connection_notifier, &pool->mutex);
     }
+    g_atomic_int_add(&pool->num_waiting, -1);
+    g_mutex_unlock(&pool->mutex);
 
-    if (_queue_is_empty(pool)) {
-        connection = curl_easy_init();
+    return connection;
+}
 
-        pool->connections[pool->num_connections] = connection;
-        pool->num_connections++;
-    } else {
-        connection = pool->connection_queue[pool->queue_tail];
-        pool->connection_queue[pool->queue_tail] = NULL;
-        pool->queue_tail = _queue_inc(pool->queue_tail, pool->max_connections);
-    }
+// Returns NULL instead of waiting when every connection has been created and is in use
+ds3_connection* ds3_connection_try_acquire(ds3_connection_pool* pool) {
+    ds3_connection* connection;
 
-    g_mutex_unlock(&pool->mutex);
+    connection = _take_idle_connection(pool, _thread_slot_offset(pool));
+    if (connection != NULL) {
+        g_atomic_int_inc(&pool->num_acquires);
+        g_atomic_int_inc(&pool->num_hits);
+        return connection;
+    }
 
+    connection = _create_connection(pool);
+    if (connection != NULL) {
+        g_atomic_int_inc(&pool->num_acquires);
+    }
     return connection;
 }
 
 void ds3_connection_release(ds3_connection_pool* pool, ds3_connection* connection) {
-    g_mutex_lock(&pool->mutex);
+    const int offset = _thread_slot_offset(pool);
+    int count;
 
     curl_easy_reset(connection);
 
-    pool->connection_queue[pool->queue_head] = connection;
+    // There is always a free slot, since there are as many slots as there can be connections
+    for (count = 0; ; count++) {
+        const int index = (offset + count) % pool->max_connections;
+        if (g_atomic_pointer_compare_and_exchange(&pool->idle_connections[index], NULL, connection)) {
+            break;
+        }
+    }
 
-    pool->queue_head = _queue_inc(pool->queue_head, pool->max_connections);
+    if (g_atomic_int_get(&pool->num_waiting) > 0) {
+        g_mutex_lock(&pool->mutex);
+        g_cond_signal(&pool->available_connection_notifier);
+        g_mutex_unlock(&pool->mutex);
+    }
+}
 
-    g_cond_signal(&pool->available_connection_notifier);
-    g_mutex_unlock(&pool->mutex);
+void ds3_connection_pool_get_stats(ds3_connection_pool* pool, ds3_connection_pool_stats* stats) {
+    stats->acquires = (uint64_t) g_atomic_int_get(&pool->num_acquires);
+    stats->hits = (uint64_t) g_atomic_int_get(&pool->num_hits);
+    stats->creations = (uint64_t) g_atomic_int_get(&pool->num_connections);
+    stats->waits = (uint64_t) g_atomic_int_get(&pool->num_waits);
+    stats->hit_rate = stats->acquires == 0 ? 0.0 : (double) stats->hits / (double) stats->acquires;
 }
 
 void ds3_connection_pool_inc_ref(ds3_connection_pool* pool) {
@@ -124,3 +198,4 @@ void ds3_connection_pool_dec_ref(ds3_connection_pool* pool) {
         g_mutex_unlock(&pool->mutex);
     }
 }
+
@@ -21,13 +21,24 @@ typedef CURL ds3_connection;
 
 typedef struct _ds3_connection_pool ds3_connection_pool;
 
+typedef struct {
+    uint64_t acquires;  // connections handed out by ds3_connection_acquire
+    uint64_t hits;      // acquires that reused an idle connection
+    uint64_t creations; // connections created
+    uint64_t waits;     // acquires that waited for a connection to be released
+    double   hit_rate;  // hits / acquires
+}ds3_connection_pool_stats;
+
 ds3_connection_pool* ds3_connection_pool_init(void);
 ds3_connection_pool* ds3_connection_pool_init_with_size(uint16_t pool_size);
 void ds3_connection_pool_clear(ds3_connection_pool* pool, ds3_bool already_locked);
 
 ds3_connection* ds3_connection_acquire(ds3_connection_pool* pool);
+ds3_connection* ds3_connection_try_acquire(ds3_connection_pool* pool);
 void ds3_connection_release(ds3_connection_pool* pool, ds3_connection* handle);
 
+void ds3_connection_pool_get_stats(ds3_connection_pool* pool, ds3_connection_pool_stats* stats);
+
 void ds3_connection_pool_inc_ref(ds3_connection_pool* pool);
 void ds3_connection_pool_dec_ref(ds3_connection_pool* pool);
 
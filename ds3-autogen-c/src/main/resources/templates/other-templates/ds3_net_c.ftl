@@ -1,6 +1,7 @@
 
 <#include "../CopyrightHeader.ftl"/>
 
+#include <string.h>
 #include <curl/curl.h>
 
 #include "ds3_request.h"
@@ -86,54 +87,74 @@ char* escape_url_range_header(const char* url) {
     return escape_url_extended(url, delimiters, 2);
 }
 
-static unsigned char* _generate_signature_str(http_verb verb, char* resource_name, char* date,
-                               char* content_type, char* checksum_value, char* amz_headers) {
-    char* verb_str;
-    if (resource_name == NULL) {
-        fprintf(stderr, "resource_name is required\n");
-        return NULL;
-    }
-    if (date == NULL) {
-        fprintf(stderr, "date is required");
-        return NULL;
-    }
-    verb_str = _net_get_verb(verb);
+#define DS3_DATE_STRING_SIZE 64
 
-    return (unsigned char*) g_strconcat(verb_str, "\n", checksum_value, "\n", content_type, "\n", date, "\n", amz_headers, resource_name, NULL);
-}
+struct _ds3_signing_context {
+    ds3_str* access_id;
+    ds3_str* secret_key;
+    GHmac* hmac; // keyed with the secret key, copied for every signature instead of keyed again
+};
 
-static char* _generate_date_string(void) {
-    GDateTime* time  = g_date_time_new_now_local();
-    char* date_string = g_date_time_format(time, "%a, %d %b %Y %H:%M:%S %z");
+ds3_signing_context* net_signing_context_init(const ds3_creds* creds) {
+    ds3_signing_context* context;
 
-    g_date_time_unref(time);
+    if (creds == NULL) {
+        return NULL;
+    }
 
-    return date_string;
-}
+    context = g_new0(ds3_signing_context, 1);
+    context->access_id = ds3_str_dup(creds->access_id);
+    context->secret_key = ds3_str_dup(creds->secret_key);
+    context->hmac = g_hmac_new(G_CHECKSUM_SHA1, (const guchar*) creds->secret_key->value, creds->secret_key->size);
 
-static char* _net_compute_signature(const ds3_log* log, const ds3_creds* creds, http_verb verb, char* resource_name,
-                             char* date, char* content_type, char* checksum_value, char* amz_headers) {
-    GHmac* hmac;
-    gchar* signature;
-    gsize bufSize = 256;
-    guint8 buffer[256];
+    return context;
+}
 
-    unsigned char* signature_str = _generate_signature_str(verb, resource_name, date, content_type, checksum_value, amz_headers);
-    char* escaped_str = g_strescape((char*) signature_str, NULL);
+void net_signing_context_free(ds3_signing_context* context) {
+    if (context == NULL) {
+        return;
+    }
 
-    ds3_log_message(log, DS3_DEBUG, "signature string: %s", escaped_str);
-    g_free(escaped_str);
+    ds3_str_free(context->access_id);
+    ds3_str_free(context->secret_key);
+    g_hmac_unref(context->hmac);
+    g_free(context);
+}
 
-    hmac = g_hmac_new(G_CHECKSUM_SHA1, (unsigned char*) creds->secret_key->value, creds->secret_key->size);
-    g_hmac_update(hmac, signature_str, strlen((const char*)signature_str));
-    g_hmac_get_digest(hmac, buffer, &bufSize);
+static ds3_bool _net_str_equal(const ds3_str* left, const ds3_str* right) {
+    if (left->size != right->size) {
+        return False;
+    }
+    return memcmp(left->value, right->value, left->size) == 0 ? True : False;
+}
 
-    signature = g_base64_encode(buffer, bufSize);
+/*
+ * The context is compared by the contents of the credentials rather than their address, since the
+ * client's credentials may have been freed and replaced by new ones allocated at the same address.
+ */
+static ds3_bool _net_signing_context_matches(const ds3_signing_context* context, const ds3_creds* creds) {
+    if (context == NULL || creds == NULL) {
+        return False;
+    }
+    return _net_str_equal(context->access_id, creds->access_id) && _net_str_equal(context->secret_key, creds->secret_key) ? True : False;
+}
 
-    g_free(signature_str);
-    g_hmac_unref(hmac);
+// Formats the current time as an RFC 1123 date, with English names whatever the locale of the process
+static void _generate_date_string(char* date, size_t date_size) {
+    static const char* const days[] = { "Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun" };
+    static const char* const months[] = { "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec" };
+    GDateTime* time = g_date_time_new_now_utc();
+
+    g_snprintf(date, date_size, "%s, %02d %s %d %02d:%02d:%02d +0000",
+               days[g_date_time_get_day_of_week(time) - 1],
+               g_date_time_get_day_of_month(time),
+               months[g_date_time_get_month(time) - 1],
+               g_date_time_get_year(time),
+               g_date_time_get_hour(time),
+               g_date_time_get_minute(time),
+               g_date_time_get_second(time));
 
-    return signature;
+    g_date_time_unref(time);
 }
 
 typedef struct {
@@ -229,53 +250,115 @@ static int ds3_curl_logger(CURL *handle, curl_infotype type, char* data, size_t
     return 0;
 }
 
-static gint _gstring_sort(gconstpointer a, gconstpointer b) {
-    char** val1 = (char**)a;
-    char** val2 = (char**)b;
-
-    return g_strcmp0(*val1, *val2);
+// Orders x-amz header names the way their "name:value" signing lines sort, without building the lines
+static int _amz_header_compare(const void* a, const void* b) {
+    const char* key1 = *(const char* const*) a;
+    const char* key2 = *(const char* const*) b;
+    int c1, c2;
+
+    for (;; key1++, key2++) {
+        c1 = (*key1 == '\0') ? ':' : g_ascii_tolower(*key1);
+        c2 = (*key2 == '\0') ? ':' : g_ascii_tolower(*key2);
+        if (c1 != c2 || *key1 == '\0' || *key2 == '\0') {
+            return c1 - c2;
+        }
+    }
 }
 
-static char* _canonicalize_amz_headers(GHashTable* headers) {
-    GList* keys = g_hash_table_get_keys(headers);
-    GList* key = keys;
-    GString* canonicalized_headers = g_string_new("");
-    GPtrArray *signing_strings = g_ptr_array_new_with_free_func(g_free);  // stores char*
-    GString* header_signing_value;
-    char* signing_value;
-    unsigned int i;
-
-    while(key != NULL) {
-        if(g_str_has_prefix((char*)key->data, "x-amz")){
-            header_signing_value = g_string_new((gchar*)key->data);
-            header_signing_value = g_string_append(g_string_ascii_down(header_signing_value), ":");
-            header_signing_value = g_string_append(header_signing_value, (gchar*)g_hash_table_lookup(headers, key->data));
+#define DS3_MAX_STACK_AMZ_HEADERS 16
 
-            signing_value = g_string_free(header_signing_value, FALSE);
-            g_ptr_array_add(signing_strings, signing_value);
+static void _append_canonicalized_amz_headers(GString* signing_str, GHashTable* headers) {
+    const char* stack_keys[DS3_MAX_STACK_AMZ_HEADERS];
+    const char** keys = stack_keys;
+    guint num_keys = 0;
+    guint i;
+    const char* c;
+    GHashTableIter iter;
+    gpointer key;
+
+    g_hash_table_iter_init(&iter, headers);
+    while (g_hash_table_iter_next(&iter, &key, NULL)) {
+        if (g_str_has_prefix((char*) key, "x-amz")) {
+            if (keys == stack_keys && num_keys == DS3_MAX_STACK_AMZ_HEADERS) {
+                keys = g_new(const char*, g_hash_table_size(headers));
+                memcpy(keys, stack_keys, sizeof(stack_keys));
+            }
+            keys[num_keys++] = (const char*) key;
         }
-        key = key->next;
     }
 
-    g_ptr_array_sort(signing_strings, _gstring_sort);
-
-    for (i = 0; i < signing_strings->len; i++) {
-        g_string_append(canonicalized_headers, (gchar*)g_ptr_array_index(signing_strings, i));
-        g_string_append(canonicalized_headers, "\n");
+    if (num_keys > 1) {
+        qsort(keys, num_keys, sizeof(const char*), _amz_header_compare);
     }
 
-    g_list_free(keys);
-    g_ptr_array_free(signing_strings, TRUE);
+    for (i = 0; i < num_keys; i++) {
+        for (c = keys[i]; *c != '\0'; c++) {
+            g_string_append_c(signing_str, g_ascii_tolower(*c));
+        }
+        g_string_append_c(signing_str, ':');
+        g_string_append(signing_str, (const char*) g_hash_table_lookup(headers, keys[i]));
+        g_string_append_c(signing_str, '\n');
+    }
 
-    return g_string_free(canonicalized_headers, FALSE);
+    if (keys != stack_keys) {
+        g_free(keys);
+    }
 }
 
-static char* _canonicalized_resource(ds3_str* path, GHashTable* query_params) {
-    if (g_hash_table_contains(query_params, "delete")) {
-        return g_strconcat(path->value, "?delete", NULL);
+/*
+ * Returns the Authorization header of a request.  The string to sign is built in the buffer that is
+ * then reused for the header, so signing a request allocates once.
+ */
+static char* _net_sign_request(const ds3_client* client, const struct _ds3_request* request, const char* date, const char* checksum_value) {
+    GString* signing_str = g_string_sized_new(256);
+    ds3_signing_context* context = client->signing_context;
+    GHmac* hmac;
+    guint8 digest[20]; // SHA1
+    gsize digest_size = sizeof(digest);
+    gchar signature[32];
+    gsize signature_size;
+    gint state = 0;
+    gint save = 0;
+
+    g_string_append(signing_str, _net_get_verb(request->verb));
+    g_string_append_c(signing_str, '\n');
+    g_string_append(signing_str, checksum_value);
+    g_string_append(signing_str, "\n\n"); // no content type
+    g_string_append(signing_str, date);
+    g_string_append_c(signing_str, '\n');
+    _append_canonicalized_amz_headers(signing_str, request->headers);
+    g_string_append(signing_str, request->path->value);
+    if (g_hash_table_contains(request->query_params, "delete")) {
+        g_string_append(signing_str, "?delete");
+    }
+
+    if (client->log != NULL && client->log->log_lvl >= DS3_DEBUG) {
+        char* escaped_str = g_strescape(signing_str->str, NULL);
+        ds3_log_message(client->log, DS3_DEBUG, "signature string: %s", escaped_str);
+        g_free(escaped_str);
+    }
+
+    // The cached key is only valid while the client still uses the credentials it was made for
+    if (_net_signing_context_matches(context, client->creds) == True) {
+        hmac = g_hmac_copy(context->hmac);
     } else {
-        return g_strdup(path->value);
+        hmac = g_hmac_new(G_CHECKSUM_SHA1, (const guchar*) client->creds->secret_key->value, client->creds->secret_key->size);
     }
+    g_hmac_update(hmac, (const guchar*) signing_str->str, signing_str->len);
+    g_hmac_get_digest(hmac, digest, &digest_size);
+    g_hmac_unref(hmac);
+
+    signature_size = g_base64_encode_step(digest, digest_size, FALSE, signature, &state, &save);
+    signature_size += g_base64_encode_close(FALSE, signature + signature_size, &state, &save);
+    signature[signature_size] = '\0';
+
+    g_string_truncate(signing_str, 0);
+    g_string_append(signing_str, "Authorization: AWS ");
+    g_string_append(signing_str, client->creds->access_id->value);
+    g_string_append_c(signing_str, ':');
+    g_string_append(signing_str, signature);
+
+    return g_string_free(signing_str, FALSE);
 }
 
 static size_t _process_header_line(void* buffer, size_t size, size_t nmemb, void* user_data) {
@@ -352,8 +435,382 @@ static size_t _process_response_body(void* buffer, size_t size, size_t nmemb, vo
     if (response_data->status_code >= 300) {
         return ds3_load_buffer(buffer, size, nmemb, response_data->body);
     } else { // If we did not get an error, call the user's defined callbacks.
-        return response_data->user_func(buffer, size, nmemb, response_data->user_data);
+        size_t written = response_data->user_func(buffer, size, nmemb, response_data->user_data);
+        response_data->user_bytes += written;
+        return written;
+    }
+}
+
+/*
+ * The state of one request across its attempts, which are repeated when the server answers with a
+ * 307 redirect, and under the retry policy of the client when it answers 503 or the connection fails
+ */
+typedef struct {
+    const ds3_client* client;
+    struct _ds3_request* request;
+    char* url;
+    int retry_count;
+    uint32_t attempt_count;    // attempts counted against the retry policy
+    uint64_t retry_delay_ms;   // the wait before the next attempt, when one is due
+    gint64 retry_at;           // monotonic time of the next attempt, for the asynchronous engine
+    uint64_t bytes_sent;       // read from the request payload callback by this attempt
+
+    void* read_user_struct;
+    size_t (*read_handler_func)(void*, size_t, size_t, void*);
+    void* write_user_struct;
+    size_t (*write_handler_func)(void*, size_t, size_t, void*);
+
+    // Replaced on every attempt
+    CURL* handle;
+    struct curl_slist* headers;
+    ds3_response_data response_data;
+
+    // Only set for requests submitted to the asynchronous engine
+    net_completion_func on_complete;
+    void* completion_data;
+}ds3_net_transfer;
+
+static ds3_net_transfer* _net_transfer_init(const ds3_client* client,
+                                            const ds3_request* _request,
+                                            void* read_user_struct,
+                                            size_t (*read_handler_func)(void*, size_t, size_t, void*),
+                                            void* write_user_struct,
+                                            size_t (*write_handler_func)(void*, size_t, size_t, void*)) {
+    ds3_net_transfer* transfer = g_new0(ds3_net_transfer, 1);
+    struct _ds3_request* request = (struct _ds3_request*) _request;
+    char* query_params = _net_gen_query_params(request->query_params);
+
+    if (query_params == NULL) {
+        transfer->url = g_strconcat(client->endpoint->value, request->path->value, NULL);
+    } else {
+        transfer->url = g_strconcat(client->endpoint->value, request->path->value,"?",query_params, NULL);
+        g_free(query_params);
+    }
+    ds3_log_message(client->log, DS3_DEBUG, "URL[%s]", transfer->url);
+
+    transfer->client = client;
+    transfer->request = request;
+    transfer->attempt_count = 1;
+    transfer->read_user_struct = read_user_struct;
+    transfer->read_handler_func = read_handler_func;
+    transfer->write_user_struct = write_user_struct;
+    transfer->write_handler_func = write_handler_func;
+
+    return transfer;
+}
+
+static void _net_transfer_free(ds3_net_transfer* transfer) {
+    if (transfer->attempt_count > 1) {
+        ds3_log_message(transfer->client->log, DS3_INFO, "Request finished after %u attempts", transfer->attempt_count);
+    }
+    g_free(transfer->url);
+    g_free(transfer);
+}
+
+// Counts what is read from the request payload, which decides whether a failed attempt can be sent again
+static size_t _net_transfer_read_payload(void* buffer, size_t size, size_t nmemb, void* user_data) {
+    ds3_net_transfer* transfer = (ds3_net_transfer*) user_data;
+    size_t read = transfer->write_handler_func(buffer, size, nmemb, transfer->write_user_struct);
+
+    if (read != CURL_READFUNC_ABORT && read != CURL_READFUNC_PAUSE) {
+        transfer->bytes_sent += read;
+    }
+    return read;
+}
+
+// Sets up transfer->handle, which must already be acquired from the connection pool, for the next attempt
+static void _net_transfer_prepare(ds3_net_transfer* transfer) {
+    const ds3_client* client = transfer->client;
+    struct _ds3_request* request = transfer->request;
+    CURL* handle = transfer->handle;
+    char date[DS3_DATE_STRING_SIZE];
+    char date_header[DS3_DATE_STRING_SIZE + 8];
+    struct curl_slist* headers;
+    char* auth_header;
+    char* checksum_value;
+
+    ds3_log_message(client->log, DS3_DEBUG, "Preparing to send request");
+
+    memset(&transfer->response_data, 0, sizeof(ds3_response_data));
+    transfer->bytes_sent = 0;
+    transfer->response_data.headers = ds3_string_multimap_init();
+    transfer->response_data.body = g_byte_array_new();
+
+    if (client->log != NULL) {
+        curl_easy_setopt(handle, CURLOPT_DEBUGFUNCTION, ds3_curl_logger);
+        curl_easy_setopt(handle, CURLOPT_DEBUGDATA, client->log);
+        curl_easy_setopt(handle, CURLOPT_VERBOSE, 1L); // turn on verbose logging
+    }
+
+    curl_easy_setopt(handle, CURLOPT_URL, transfer->url);
+
+    curl_easy_setopt(handle, CURLOPT_FOLLOWLOCATION, 0); // explicitly disable
+
+    // Setup header collection
+    curl_easy_setopt(handle, CURLOPT_HEADERFUNCTION, _process_header_line);
+    curl_easy_setopt(handle, CURLOPT_HEADERDATA, &transfer->response_data);
+
+    if (client->proxy != NULL) {
+      curl_easy_setopt(handle, CURLOPT_PROXY, client->proxy->value);
+    }
+
+    // Register the read and write handlers if they are set
+    if (transfer->read_user_struct != NULL && transfer->read_handler_func != NULL) {
+        transfer->response_data.user_data = transfer->read_user_struct;
+        transfer->response_data.user_func = transfer->read_handler_func;
+    }
+
+    // We must always set this so we can collect the error message body
+    curl_easy_setopt(handle, CURLOPT_WRITEFUNCTION, _process_response_body);
+    curl_easy_setopt(handle, CURLOPT_WRITEDATA, &transfer->response_data);
+
+    if (transfer->write_user_struct != NULL && transfer->write_handler_func != NULL) {
+        curl_easy_setopt(handle, CURLOPT_READFUNCTION, _net_transfer_read_payload);
+        curl_easy_setopt(handle, CURLOPT_READDATA, transfer);
+    }
+
+    // Lets the asynchronous engine find the transfer of a finished handle
+    curl_easy_setopt(handle, CURLOPT_PRIVATE, transfer);
+
+    switch(request->verb) {
+        case HTTP_POST: {
+            curl_easy_setopt(handle, CURLOPT_CUSTOMREQUEST, "POST");
+            curl_easy_setopt(handle, CURLOPT_UPLOAD, 1L);
+            curl_easy_setopt(handle, CURLOPT_INFILESIZE_LARGE, request->length);
+            break;
+        }
+        case HTTP_PUT: {
+            curl_easy_setopt(handle, CURLOPT_PUT, 1L);
+            curl_easy_setopt(handle, CURLOPT_UPLOAD, 1L);
+            curl_easy_setopt(handle, CURLOPT_INFILESIZE_LARGE, request->length);
+            break;
+        }
+        case HTTP_DELETE: {
+            curl_easy_setopt(handle, CURLOPT_CUSTOMREQUEST, "DELETE");
+            break;
+        }
+        case HTTP_HEAD: {
+            curl_easy_setopt(handle, CURLOPT_CUSTOMREQUEST, "HEAD");
+            curl_easy_setopt(handle, CURLOPT_NOBODY, 1L);
+            break;
+        }
+        case HTTP_GET: {
+            //Placeholder if we need to put anything here.
+            break;
+        }
+    }
+
+    _generate_date_string(date, sizeof(date));
+    g_snprintf(date_header, sizeof(date_header), "Date: %s", date);
+    headers = NULL;
+
+    if (request->checksum == NULL) {
+        checksum_value = "";
+    } else {
+        char* checksum_header;
+        checksum_value = request->checksum->value;
+        checksum_header = g_strconcat(_get_checksum_type_header(request->checksum_type), checksum_value, NULL);
+        headers = curl_slist_append(headers, checksum_header);
+        g_free(checksum_header);
+    }
+    auth_header = _net_sign_request(client, request, date, checksum_value);
+
+    headers = curl_slist_append(headers, auth_header);
+    headers = curl_slist_append(headers, date_header);
+    headers = _append_headers(headers, request->headers);
+
+    curl_easy_setopt(handle, CURLOPT_HTTPHEADER, headers);
+    transfer->headers = headers;
+
+    // curl_slist_append copies the strings
+    g_free(auth_header);
+}
+
+// Connection failures, after which sending the request again may succeed
+static ds3_bool _net_is_transient_curl_error(CURLcode res) {
+    switch (res) {
+        case CURLE_COULDNT_RESOLVE_HOST:
+        case CURLE_COULDNT_CONNECT:
+        case CURLE_OPERATION_TIMEDOUT:
+        case CURLE_SEND_ERROR:
+        case CURLE_RECV_ERROR:
+        case CURLE_GOT_NOTHING:
+            return True;
+        default:
+            return False;
+    }
+}
+
+// Reads the Retry-After header, which the server sends in seconds
+static ds3_bool _net_get_retry_after(ds3_string_multimap* response_headers, uint64_t* seconds) {
+    ds3_str* key;
+    ds3_string_multimap_entry* entry;
+    ds3_str* value;
+    char* endpointer = NULL;
+    ds3_bool found = False;
+
+    if (response_headers == NULL) {
+        return False;
+    }
+
+    key = ds3_str_init("Retry-After");
+    entry = ds3_string_multimap_lookup(response_headers, key);
+    value = ds3_string_multimap_entry_get_value_by_index(entry, 0);
+    if (value != NULL) {
+        *seconds = g_ascii_strtoull(value->value, &endpointer, 10);
+        found = endpointer != value->value ? True : False;
+        ds3_str_free(value);
     }
+
+    ds3_str_free(key);
+    ds3_string_multimap_entry_free(entry);
+    return found;
+}
+
+// Exponential backoff where half of the delay is random, so that clients backing off together spread out
+static uint64_t _net_backoff_delay_ms(const ds3_retry_policy* retry_policy, uint32_t attempt_count) {
+    uint64_t delay_ms = retry_policy->initial_backoff_ms;
+    uint32_t attempt;
+
+    for (attempt = 1; attempt < attempt_count && delay_ms < retry_policy->max_backoff_ms; attempt++) {
+        delay_ms *= 2;
+    }
+    if (delay_ms > retry_policy->max_backoff_ms) {
+        delay_ms = retry_policy->max_backoff_ms;
+    }
+
+    return delay_ms / 2 + (uint64_t) g_random_double_range(0, (gdouble) (delay_ms - delay_ms / 2));
+}
+
+/*
+ * Decides whether a failed attempt is sent again under the retry policy of the client, and if so sets
+ * transfer->retry_delay_ms.  The payload callbacks cannot be rewound, so an attempt that has read part
+ * of the request payload, or handed part of the response to the caller, is final.
+ */
+static ds3_bool _net_transfer_should_retry(ds3_net_transfer* transfer, ds3_string_multimap* response_headers, const char* reason) {
+    const ds3_client* client = transfer->client;
+    const ds3_retry_policy* retry_policy = &client->retry_policy;
+    uint64_t retry_after;
+
+    if (transfer->attempt_count >= retry_policy->max_attempts) {
+        ds3_log_message(client->log, DS3_WARN, "%s, giving up after %u attempts", reason, transfer->attempt_count);
+        return False;
+    }
+    if (transfer->bytes_sent > 0 || transfer->response_data.user_bytes > 0) {
+        ds3_log_message(client->log, DS3_WARN, "%s, not retrying after part of the payload was transferred", reason);
+        return False;
+    }
+
+    if (retry_policy->honor_retry_after == True && _net_get_retry_after(response_headers, &retry_after) == True) {
+        // Capped by max_backoff_ms so that a large or malformed Retry-After cannot stall the client
+        if (retry_after >= retry_policy->max_backoff_ms / 1000) {
+            transfer->retry_delay_ms = retry_policy->max_backoff_ms;
+        } else {
+            transfer->retry_delay_ms = retry_after * 1000;
+        }
+    } else {
+        transfer->retry_delay_ms = _net_backoff_delay_ms(retry_policy, transfer->attempt_count);
+    }
+
+    transfer->attempt_count++;
+    ds3_log_message(client->log, DS3_INFO, "%s, retry attempt %u of %u in %" G_GUINT64_FORMAT "ms",
+                    reason, transfer->attempt_count, retry_policy->max_attempts, transfer->retry_delay_ms);
+    return True;
+}
+
+/*
+ * Processes the outcome of an attempt once its handle has gone back to the connection pool.
+ * Returns NULL on success, and sets retry when a 307 redirect, or the retry policy of the client,
+ * requires the request to be sent again after transfer->retry_delay_ms.
+ */
+static ds3_error* _net_transfer_complete(ds3_net_transfer* transfer, CURLcode res, ds3_string_multimap** return_headers, ds3_bool* retry) {
+    const ds3_client* client = transfer->client;
+    ds3_response_data* response_data = &transfer->response_data;
+    ds3_string_multimap* response_headers = response_data->headers;
+
+    *retry = False;
+    transfer->retry_delay_ms = 0;
+    curl_slist_free_all(transfer->headers);
+    transfer->headers = NULL;
+
+    //process the response
+    if (res != CURLE_OK) {
+        char * message = g_strconcat("Request failed: ", curl_easy_strerror(res), NULL);
+        ds3_error* error = ds3_create_error(DS3_ERROR_REQUEST_FAILED, message);
+
+        // POST is the only verb that is not idempotent, so it is never sent twice after a connection failure
+        if (_net_is_transient_curl_error(res) == True
+            && transfer->request->verb != HTTP_POST
+            && _net_transfer_should_retry(transfer, NULL, message) == True) {
+            ds3_error_free(error);
+            error = NULL;
+            *retry = True;
+        }
+        g_byte_array_free(response_data->body, TRUE);
+        ds3_str_free(response_data->status_message);
+        ds3_string_multimap_free(response_headers);
+        g_free(message);
+        return error;
+    }
+
+    ds3_log_message(client->log, DS3_DEBUG, "Request completed with status code of: %d", response_data->status_code);
+
+    if (response_data->status_code < 200 || response_data->status_code >= 300) {
+        ds3_error* error = ds3_create_error(DS3_ERROR_BAD_STATUS_CODE, "Got an unexpected status code.");
+        ds3_bool unavailable_retry = False;
+
+        // The server answers 503 while it is busy, for instance when it cannot allocate a job chunk yet
+        if (response_data->status_code == 503) {
+            unavailable_retry = _net_transfer_should_retry(transfer, response_headers, "Service unavailable (503)");
+        }
+
+        error->error = g_new0(ds3_error_response, 1);
+        error->error->http_error_code = response_data->status_code;
+        error->error->code = ds3_str_init(response_data->status_message->value);
+        if (response_data->body != NULL) {
+            error->error->message = ds3_str_init_with_size((char*)response_data->body->data, response_data->body->len);
+            g_byte_array_free(response_data->body, TRUE);
+        } else {
+            ds3_log_message(client->log, DS3_ERROR, "The response body for the error is empty");
+            error->error->message = NULL;
+        }
+        ds3_string_multimap_free(response_headers);
+        ds3_str_free(response_data->status_message);
+
+        if (unavailable_retry == True) {
+            ds3_error_free(error);
+            *retry = True;
+            return NULL;
+        }
+
+        if (response_data->status_code == 307) {
+            ds3_log_message(client->log, DS3_INFO, "Request encountered a 307 redirect");
+
+            transfer->retry_count++;
+            ds3_log_message(client->log, DS3_DEBUG, "Retry Attempt: %d | Max Retries: %d", transfer->retry_count, client->num_redirects);
+
+            if (transfer->retry_count >= client->num_redirects) {
+                ds3_str_free(error->message);
+                error->message = ds3_str_init("Encountered too many redirects while attempting to fulfill the request");
+                error->code = DS3_ERROR_TOO_MANY_REDIRECTS;
+            } else {
+                ds3_error_free(error);
+                *retry = True;
+                return NULL;
+            }
+        }
+        return error;
+    }
+    g_byte_array_free(response_data->body, TRUE);
+    ds3_str_free(response_data->status_message);
+
+    if (return_headers != NULL) {
+        *return_headers = response_headers;
+    } else {
+        ds3_string_multimap_free(response_headers);
+    }
+
+    return NULL;
 }
 
 ds3_error* net_process_request(const ds3_client* client,
@@ -363,216 +820,234 @@ ds3_error* net_process_request(const ds3_client* client,
                                void* write_user_struct,
                                size_t (*write_handler_func)(void*, size_t, size_t, void*),
                                ds3_string_multimap** return_headers) {
-    struct _ds3_request* request = (struct _ds3_request*) _request;
-    CURL* handle;
+    ds3_net_transfer* transfer;
+    ds3_error* error = NULL;
+    ds3_bool retry = True;
     CURLcode res;
-    char* url;
-    int retry_count = 0;
-    char* query_params;
 
     _init_curl();
 
-    query_params = _net_gen_query_params(request->query_params);
+    transfer = _net_transfer_init(client, _request, read_user_struct, read_handler_func, write_user_struct, write_handler_func);
 
-    if (query_params == NULL) {
-        url = g_strconcat(client->endpoint->value, request->path->value, NULL);
-    } else {
-        url = g_strconcat(client->endpoint->value, request->path->value,"?",query_params, NULL);
-        g_free(query_params);
-    }
-    ds3_log_message(client->log, DS3_DEBUG, "URL[%s]", url);
-
-    while (retry_count < client->num_redirects) {
+    while (retry == True && transfer->retry_count < client->num_redirects) {
         ds3_log_message(client->log, DS3_DEBUG, "Acquiring connection...");
-        handle = ds3_connection_acquire(client->connection_pool);
+        transfer->handle = ds3_connection_acquire(client->connection_pool);
         ds3_log_message(client->log, DS3_DEBUG, "Connection acquired.");
 
-        if (handle) {
-            char* amz_headers;
-            char* canonicalized_resource;
-            char* date;
-            char* date_header;
-            char* signature;
-            struct curl_slist* headers;
-            char* auth_header;
-            char* checksum_value;
-            ds3_response_data response_data;
-            ds3_string_multimap* response_headers = ds3_string_multimap_init();
-
-            ds3_log_message(client->log, DS3_DEBUG, "Preparing to send request");
-
-            memset(&response_data, 0, sizeof(ds3_response_data));
-            response_data.headers = response_headers;
-            response_data.body = g_byte_array_new();
-
-            if (client->log != NULL) {
-                curl_easy_setopt(handle, CURLOPT_DEBUGFUNCTION, ds3_curl_logger);
-                curl_easy_setopt(handle, CURLOPT_DEBUGDATA, client->log);
-                curl_easy_setopt(handle, CURLOPT_VERBOSE, 1L); // turn on verbose logging
-            }
+        if (transfer->handle == NULL) {
+            error = ds3_create_error(DS3_ERROR_CURL_HANDLE, "Failed to create curl handle");
+            break;
+        }
 
-            curl_easy_setopt(handle, CURLOPT_URL, url);
+        _net_transfer_prepare(transfer);
 
-            curl_easy_setopt(handle, CURLOPT_FOLLOWLOCATION, 0); // explicitly disable
+        ds3_log_message(client->log, DS3_DEBUG, "Attempt curl_easy_perform...");
+        res = curl_easy_perform(transfer->handle);
+        ds3_log_message(client->log, DS3_DEBUG, "curl_easy_perform done.");
 
-            // Setup header collection
-            curl_easy_setopt(handle, CURLOPT_HEADERFUNCTION, _process_header_line);
-            curl_easy_setopt(handle, CURLOPT_HEADERDATA, &response_data);
+        ds3_log_message(client->log, DS3_DEBUG, "Releasing connection...");
+        ds3_connection_release(client->connection_pool, transfer->handle);
+        transfer->handle = NULL;
+        ds3_log_message(client->log, DS3_DEBUG, "Connection released.");
 
-            if (client->proxy != NULL) {
-              curl_easy_setopt(handle, CURLOPT_PROXY, client->proxy->value);
-            }
+        error = _net_transfer_complete(transfer, res, return_headers, &retry);
+        if (retry == True && transfer->retry_delay_ms > 0) {
+            g_usleep((gulong) (transfer->retry_delay_ms * 1000));
+        }
+    }
+    _net_transfer_free(transfer);
 
-            // Register the read and write handlers if they are set
-            if (read_user_struct != NULL && read_handler_func != NULL) {
-                response_data.user_data = read_user_struct;
-                response_data.user_func = read_handler_func;
-            }
+    return error;
+}
 
-            // We must always set this so we can collect the error message body
-            curl_easy_setopt(handle, CURLOPT_WRITEFUNCTION, _process_response_body);
-            curl_easy_setopt(handle, CURLOPT_WRITEDATA, &response_data);
+/*
+ * The asynchronous engine drives every submitted request from a single event loop thread
+ * through one curl multi handle, so many requests are in flight without a thread each.
+ * The thread is started by the first submission and stopped by net_cleanup.
+ */
+static struct {
+    CURLM* multi;
+    GThread* thread;
+    GAsyncQueue* submitted;
+    GList* delayed; // transfers waiting to be retried, only used by the event loop thread
+    GQueue waiting; // transfers submitted by the event loop thread that wait for a connection, only used by the event loop thread
+    volatile gint stopping;
+}_net_async_engine;
+
+static GOnce _net_async_engine_once = G_ONCE_INIT;
+
+// Runs on the event loop thread once the last attempt of a transfer has finished
+static void _net_async_transfer_done(ds3_net_transfer* transfer, CURLcode res) {
+    const ds3_client* client = transfer->client;
+    ds3_string_multimap* return_headers = NULL;
+    ds3_bool retry;
+    ds3_error* error = _net_transfer_complete(transfer, res, &return_headers, &retry);
+
+    if (retry == True) {
+        // Keep the connection for the next attempt rather than blocking the event loop on the pool
+        if (transfer->retry_delay_ms > 0) {
+            transfer->retry_at = g_get_monotonic_time() + (gint64) transfer->retry_delay_ms * 1000;
+            _net_async_engine.delayed = g_list_prepend(_net_async_engine.delayed, transfer);
+            return;
+        }
+        curl_easy_reset(transfer->handle);
+        _net_transfer_prepare(transfer);
+        curl_multi_add_handle(_net_async_engine.multi, transfer->handle);
+        return;
+    }
 
-            if (write_user_struct != NULL && write_handler_func != NULL) {
-                curl_easy_setopt(handle, CURLOPT_READFUNCTION, write_handler_func);
-                curl_easy_setopt(handle, CURLOPT_READDATA, write_user_struct);
-            }
+    ds3_connection_release(client->connection_pool, transfer->handle);
+    transfer->handle = NULL;
 
-            switch(request->verb) {
-                case HTTP_POST: {
-                    curl_easy_setopt(handle, CURLOPT_CUSTOMREQUEST, "POST");
-                    curl_easy_setopt(handle, CURLOPT_UPLOAD, 1L);
-                    curl_easy_setopt(handle, CURLOPT_INFILESIZE_LARGE, request->length);
-                    break;
-                }
-                case HTTP_PUT: {
-                    curl_easy_setopt(handle, CURLOPT_PUT, 1L);
-                    curl_easy_setopt(handle, CURLOPT_UPLOAD, 1L);
-                    curl_easy_setopt(handle, CURLOPT_INFILESIZE_LARGE, request->length);
-                    break;
-                }
-                case HTTP_DELETE: {
-                    curl_easy_setopt(handle, CURLOPT_CUSTOMREQUEST, "DELETE");
-                    break;
-                }
-                case HTTP_HEAD: {
-                    curl_easy_setopt(handle, CURLOPT_CUSTOMREQUEST, "HEAD");
-                    curl_easy_setopt(handle, CURLOPT_NOBODY, 1L);
-                    break;
-                }
-                case HTTP_GET: {
-                    //Placeholder if we need to put anything here.
-                    break;
-                }
-            }
+    transfer->on_complete(error, return_headers, transfer->completion_data);
+    _net_transfer_free(transfer);
+}
 
-            date = _generate_date_string();
-            date_header = g_strconcat("Date: ", date, NULL);
-            headers = NULL;
+/*
+ * Starts the delayed transfers whose retry is due, and returns how long the event loop may sleep
+ * before the next one is
+ */
+static int _net_async_start_delayed(int timeout_ms) {
+    gint64 now = g_get_monotonic_time();
+    GList* node = _net_async_engine.delayed;
+
+    while (node != NULL) {
+        GList* next = node->next;
+        ds3_net_transfer* transfer = (ds3_net_transfer*) node->data;
+
+        if (transfer->retry_at <= now) {
+            _net_async_engine.delayed = g_list_delete_link(_net_async_engine.delayed, node);
+            curl_easy_reset(transfer->handle);
+            _net_transfer_prepare(transfer);
+            curl_multi_add_handle(_net_async_engine.multi, transfer->handle);
+        } else if ((transfer->retry_at - now) / 1000 < timeout_ms) {
+            timeout_ms = (int) ((transfer->retry_at - now) / 1000) + 1;
+        }
+        node = next;
+    }
 
-            if (request->checksum == NULL) {
-                checksum_value = "";
-            } else {
-                char* checksum_header;
-                checksum_value = request->checksum->value;
-                checksum_header = g_strconcat(_get_checksum_type_header(request->checksum_type), checksum_value, NULL);
-                headers = curl_slist_append(headers, checksum_header);
-                g_free(checksum_header);
-            }
-            amz_headers = _canonicalize_amz_headers(request->headers);
-            canonicalized_resource = _canonicalized_resource(request->path, request->query_params);
-            signature = _net_compute_signature(client->log, client->creds, request->verb, canonicalized_resource, date, "", checksum_value, amz_headers);
-
-            g_free(amz_headers);
-            g_free(canonicalized_resource);
-
-            auth_header = g_strconcat("Authorization: AWS ", client->creds->access_id->value, ":", signature, NULL);
-
-            headers = curl_slist_append(headers, auth_header);
-            headers = curl_slist_append(headers, date_header);
-            headers = _append_headers(headers, request->headers);
-
-            curl_easy_setopt(handle, CURLOPT_HTTPHEADER, headers);
-
-            ds3_log_message(client->log, DS3_DEBUG, "Attempt curl_easy_perform...");
-            res = curl_easy_perform(handle);
-            ds3_log_message(client->log, DS3_DEBUG, "curl_easy_perform done.");
-
-            g_free(date);
-            g_free(date_header);
-            g_free(signature);
-            g_free(auth_header);
-            curl_slist_free_all(headers);
-            ds3_log_message(client->log, DS3_DEBUG, "Releasing connection...");
-            ds3_connection_release(client->connection_pool, handle);
-            ds3_log_message(client->log, DS3_DEBUG, "Connection released.");
-
-            //process the response
-            if (res != CURLE_OK) {
-                char * message = g_strconcat("Request failed: ", curl_easy_strerror(res), NULL);
-                ds3_error* error = ds3_create_error(DS3_ERROR_REQUEST_FAILED, message);
-                g_free(url);
-                g_byte_array_free(response_data.body, TRUE);
-                ds3_str_free(response_data.status_message);
-                ds3_string_multimap_free(response_headers);
-                g_free(message);
-                return error;
-            }
+    return timeout_ms;
+}
 
-            ds3_log_message(client->log, DS3_DEBUG, "Request completed with status code of: %d", response_data.status_code);
-
-            if (response_data.status_code < 200 || response_data.status_code >= 300) {
-                ds3_error* error = ds3_create_error(DS3_ERROR_BAD_STATUS_CODE, "Got an unexpected status code.");
-                error->error = g_new0(ds3_error_response, 1);
-                error->error->http_error_code = response_data.status_code;
-                error->error->code = ds3_str_init(response_data.status_message->value);
-                if (response_data.body != NULL) {
-                    error->error->message = ds3_str_init_with_size((char*)response_data.body->data, response_data.body->len);
-                    g_byte_array_free(response_data.body, TRUE);
-                } else {
-                    ds3_log_message(client->log, DS3_ERROR, "The response body for the error is empty");
-                    error->error->message = NULL;
-                }
-                ds3_string_multimap_free(response_headers);
-                ds3_str_free(response_data.status_message);
-                g_free(url);
-
-                if (response_data.status_code == 307) {
-                    ds3_log_message(client->log, DS3_INFO, "Request encountered a 307 redirect");
-
-                    retry_count++;
-                    ds3_log_message(client->log, DS3_DEBUG, "Retry Attempt: %d | Max Retries: %d", retry_count, client->num_redirects);
-
-                    if (retry_count == client->num_redirects) {
-                        ds3_str_free(error->message);
-                        error->message = ds3_str_init("Encountered too many redirects while attempting to fulfill the request");
-                        error->code = DS3_ERROR_TOO_MANY_REDIRECTS;
-                    } else {
-                        continue;
-                    }
-                }
-                return error;
-            }
-            g_byte_array_free(response_data.body, TRUE);
-            ds3_str_free(response_data.status_message);
+/*
+ * Starts the transfers submitted by the event loop thread, in the order they were submitted, while
+ * there are connections for them
+ */
+static void _net_async_start_waiting(void) {
+    ds3_net_transfer* transfer;
+
+    while ((transfer = (ds3_net_transfer*) g_queue_peek_head(&_net_async_engine.waiting)) != NULL) {
+        transfer->handle = ds3_connection_try_acquire(transfer->client->connection_pool);
+        if (transfer->handle == NULL) {
+            return;
+        }
+        g_queue_pop_head(&_net_async_engine.waiting);
+        _net_transfer_prepare(transfer);
+        curl_multi_add_handle(_net_async_engine.multi, transfer->handle);
+    }
+}
 
-            if (return_headers != NULL) {
-                *return_headers = response_headers;
-            } else {
-                ds3_string_multimap_free(response_headers);
-            }
+static gpointer _net_async_event_loop(gpointer data) {
+    CURLM* multi = _net_async_engine.multi;
+    ds3_net_transfer* transfer;
+    CURLMsg* message;
+    int running = 0;
+    int messages_left;
+    int timeout_ms;
+
+    while (running > 0
+        || _net_async_engine.delayed != NULL
+        || !g_queue_is_empty(&_net_async_engine.waiting)
+        || g_async_queue_length(_net_async_engine.submitted) > 0
+        || g_atomic_int_get(&_net_async_engine.stopping) == 0) {
+        while ((transfer = (ds3_net_transfer*) g_async_queue_try_pop(_net_async_engine.submitted)) != NULL) {
+            curl_multi_add_handle(multi, transfer->handle);
+        }
+        _net_async_start_waiting();
 
-            break;
-        } else {
-            return ds3_create_error(DS3_ERROR_CURL_HANDLE, "Failed to create curl handle");
+        curl_multi_perform(multi, &running);
+
+        while ((message = curl_multi_info_read(multi, &messages_left)) != NULL) {
+            if (message->msg == CURLMSG_DONE) {
+                CURL* handle = message->easy_handle;
+                CURLcode res = message->data.result;
+
+                curl_easy_getinfo(handle, CURLINFO_PRIVATE, (char**) &transfer);
+                curl_multi_remove_handle(multi, handle);
+                _net_async_transfer_done(transfer, res);
+            }
         }
+
+        // Sleeps until a socket is ready, a request is submitted, or the timeout or a delayed retry is due.
+        // Waiting transfers poll for a connection, since one released by another thread does not wake the loop.
+        timeout_ms = _net_async_start_delayed(g_queue_is_empty(&_net_async_engine.waiting) ? 1000 : 10);
+        curl_multi_poll(multi, NULL, 0, timeout_ms, NULL);
     }
-    g_free(url);
+
+    return NULL;
+}
+
+static gpointer _net_async_engine_start(gpointer data) {
+    _net_async_engine.multi = curl_multi_init();
+    _net_async_engine.submitted = g_async_queue_new();
+    g_queue_init(&_net_async_engine.waiting);
+    _net_async_engine.stopping = 0;
+    _net_async_engine.thread = g_thread_new("ds3_net_async", _net_async_event_loop, NULL);
+
+    return NULL;
+}
+
+ds3_error* net_submit_request(const ds3_client* client,
+                              const ds3_request* _request,
+                              void* read_user_struct,
+                              size_t (*read_handler_func)(void*, size_t, size_t, void*),
+                              void* write_user_struct,
+                              size_t (*write_handler_func)(void*, size_t, size_t, void*),
+                              net_completion_func on_complete,
+                              void* completion_data) {
+    ds3_net_transfer* transfer;
+
+    _init_curl();
+    g_once(&_net_async_engine_once, _net_async_engine_start, NULL);
+
+    transfer = _net_transfer_init(client, _request, read_user_struct, read_handler_func, write_user_struct, write_handler_func);
+    transfer->on_complete = on_complete;
+    transfer->completion_data = completion_data;
+
+    // A completion callback is submitting the request.  The event loop must not block on the pool, since
+    // it releases the connections, so the transfer waits within the event loop for a connection instead.
+    if (g_thread_self() == _net_async_engine.thread) {
+        g_queue_push_tail(&_net_async_engine.waiting, transfer);
+        return NULL;
+    }
+
+    // Blocks while every pooled connection is in use, which bounds the number of requests in flight
+    transfer->handle = ds3_connection_acquire(client->connection_pool);
+    if (transfer->handle == NULL) {
+        _net_transfer_free(transfer);
+        return ds3_create_error(DS3_ERROR_CURL_HANDLE, "Failed to create curl handle");
+    }
+
+    _net_transfer_prepare(transfer);
+
+    g_async_queue_push(_net_async_engine.submitted, transfer);
+    curl_multi_wakeup(_net_async_engine.multi);
 
     return NULL;
 }
 
 void net_cleanup(void) {
+    if (_net_async_engine.thread != NULL) {
+        // The event loop finishes the requests already submitted before it exits
+        g_atomic_int_set(&_net_async_engine.stopping, 1);
+        curl_multi_wakeup(_net_async_engine.multi);
+        g_thread_join(_net_async_engine.thread);
+
+        curl_multi_cleanup(_net_async_engine.multi);
+        g_async_queue_unref(_net_async_engine.submitted);
+        memset(&_net_async_engine, 0, sizeof(_net_async_engine));
+        memset(&_net_async_engine_once, 0, sizeof(_net_async_engine_once));
+    }
     curl_global_cleanup();
 }
 
@@ -25,6 +25,26 @@ ds3_error* net_process_request(
    size_t (*write_handler_func)(void*, size_t, size_t, void*),
    ds3_string_multimap** return_headers);
 
+/*
+ * Called from the event loop thread when a submitted request is done.  Exactly one of error and
+ * return_headers is set, and ownership of it passes to the callback.
+ */
+typedef ds3_net_completion_func net_completion_func;
+
+ds3_error* net_submit_request(
+   const ds3_client* client,
+   const ds3_request* _request,
+   void* read_user_struct,
+   size_t (*read_handler_func)(void*, size_t, size_t, void*),
+   void* write_user_struct,
+   size_t (*write_handler_func)(void*, size_t, size_t, void*),
+   net_completion_func on_complete,
+   void* completion_data);
+
+// Caches what can be reused between signatures for a set of credentials
+ds3_signing_context* net_signing_context_init(const ds3_creds* creds);
+void net_signing_context_free(ds3_signing_context* context);
+
 void net_cleanup(void);
 
 #ifdef __cplusplus
@@ -40,8 +40,13 @@ typedef struct {
     GByteArray* body; // this will only be used when getting errors
     void* user_data;
     size_t (*user_func)(void*, size_t, size_t, void*);
+    uint64_t user_bytes; // handed to user_func, after which the request cannot be sent again
 }ds3_response_data;
 
+ds3_response_arena* ds3_response_arena_new(void);
+void* ds3_response_arena_alloc0(ds3_response_arena* arena, size_t size);
+void ds3_response_arena_free(ds3_response_arena* arena);
+
 
 #ifdef __cplusplus
 }
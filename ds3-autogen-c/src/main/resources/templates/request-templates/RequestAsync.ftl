@@ -0,0 +1,71 @@
+<#-- ******************************************************** -->
+<#-- Generate "RequestAsync" for a Request, which submits the -->
+<#--   request to the asynchronous engine of the client       -->
+<#--   Input: Request object                                  -->
+<#-- ******************************************************** -->
+<#assign asyncResponseType = requestEntry.getResponseType()!"">
+<#assign asyncParsesResponse = requestEntry.hasResponsePayload() && asyncResponseType != "ds3_str">
+<#if asyncParsesResponse>
+
+static ds3_error* _${requestEntry.getName()}_async_response(const ds3_client* client, const ds3_request* request, ds3_xml_stream_parser* parser, ds3_string_multimap* return_headers, void** _response) {
+    ${asyncResponseType}* response = NULL;
+    ds3_error* error = _parse_top_level_${asyncResponseType}(client, request, &response, parser);
+<#if requestEntry.supportsPagination()>
+
+    if (error == NULL) {
+        response->paging = _parse_paging_headers(return_headers);
+    }
+</#if>
+
+    *_response = response;
+    return error;
+}
+</#if>
+
+${requestHelper.generateAsyncFunctionSignature(requestEntry)} {
+<#if requestEntry.hasRequestPayload() && requestHelper.getRequestObjectListType(requestEntry.getName()) != "DATA">
+    ds3_error* error;
+</#if>
+    _ds3_async_request* async_request;
+
+${requestHelper.generateParameterValidationBlock(requestEntry)}
+
+    async_request = g_new0(_ds3_async_request, 1);
+    async_request->client = client;
+    async_request->request = request;
+    async_request->on_complete = on_complete;
+    async_request->on_complete_data = on_complete_data;
+<#if requestEntry.hasRequestPayload() && requestHelper.getRequestObjectListType(requestEntry.getName()) != "DATA">
+
+    error = _init_request_payload(request, &async_request->send_buff, ${requestHelper.getRequestObjectListType(requestEntry.getName())});
+    if (error != NULL) {
+        g_free(async_request);
+        return error;
+    }
+</#if>
+
+<#if requestEntry.getName() == "ds3_get_object_request">
+    return _internal_request_submitter(async_request, user_data, callback, NULL, NULL);
+<#elseif requestEntry.hasRequestPayload() && requestHelper.getRequestObjectListType(requestEntry.getName()) == "DATA">
+    return _internal_request_submitter(async_request, NULL, NULL, user_data, callback);
+<#elseif asyncParsesResponse>
+    async_request->parser = _init_top_level_${asyncResponseType}_parser(client);
+    async_request->parse_response = _${requestEntry.getName()}_async_response;
+<#if requestEntry.hasRequestPayload()>
+    return _internal_request_submitter(async_request, async_request->parser, _ds3_xml_stream_parser_write, (void*) &async_request->send_buff, _ds3_send_xml_buff);
+<#else>
+    return _internal_request_submitter(async_request, async_request->parser, _ds3_xml_stream_parser_write, NULL, NULL);
+</#if>
+<#elseif requestEntry.hasResponsePayload()>
+    async_request->xml_blob = g_byte_array_new();
+<#if requestEntry.hasRequestPayload()>
+    return _internal_request_submitter(async_request, async_request->xml_blob, ds3_load_buffer, (void*) &async_request->send_buff, _ds3_send_xml_buff);
+<#else>
+    return _internal_request_submitter(async_request, async_request->xml_blob, ds3_load_buffer, NULL, NULL);
+</#if>
+<#elseif requestEntry.hasRequestPayload()>
+    return _internal_request_submitter(async_request, NULL, NULL, (void*) &async_request->send_buff, _ds3_send_xml_buff);
+<#else>
+    return _internal_request_submitter(async_request, NULL, NULL, NULL, NULL);
+</#if>
+}
@@ -0,0 +1,72 @@
+<#-- ******************************************************** -->
+<#-- Generate "RequestEach" for a Request with a response     -->
+<#--   payload that contains arrays of structs                -->
+<#--   Input: Request object, responseStruct Struct object    -->
+<#-- ******************************************************** -->
+
+${requestHelper.generateEachFunctionSignature(requestEntry, responseStruct)} {
+    ds3_error* error;
+    _${responseStruct.getName()}_each_state state;
+<#if requestEntry.hasRequestPayload()>
+    ds3_xml_send_buff send_buff;
+<#elseif requestEntry.supportsPagination()>
+    ds3_string_multimap* return_headers;
+    ds3_paging* paging;
+    char* original_page_offset;
+    char* original_page_length;
+    int page_offset;
+</#if>
+
+${requestHelper.generateParameterValidationBlock(requestEntry)}
+
+    memset(&state, 0, sizeof(state));
+<#list structHelper.getEachMembers(responseStruct) as eachMember>
+    state.${eachMember.getName()}_callback = ${eachMember.getName()}_callback;
+</#list>
+    state.user_data = user_data;
+
+<#if requestEntry.hasRequestPayload()>
+    error = _init_request_payload(request, &send_buff, ${requestHelper.getRequestObjectListType(requestEntry.getName())});
+    if (error != NULL) return error;
+
+    error = _parse_top_level_${responseStruct.getName()}_each(client, request, &state, (void*) &send_buff, _ds3_send_xml_buff, NULL);
+
+    // Clean up the data sent to the server
+    _free_request_payload(&send_buff);
+
+    return error;
+<#elseif requestEntry.supportsPagination()>
+    // The paging params are changed while iterating and restored before returning
+    original_page_offset = _get_query_param_copy(request, "page_offset");
+    original_page_length = _get_query_param_copy(request, "page_length");
+    page_offset = original_page_offset == NULL ? 0 : (int) g_ascii_strtoll(original_page_offset, NULL, 10);
+    if (original_page_length == NULL) {
+        _set_paging_query_param(request, "page_length", EACH_DEFAULT_PAGE_LENGTH);
+    }
+    for (;;) {
+        return_headers = NULL;
+        error = _parse_top_level_${responseStruct.getName()}_each(client, request, &state, NULL, NULL, &return_headers);
+        if (error != NULL) {
+            ds3_string_multimap_free(return_headers);
+            break;
+        }
+
+        paging = _parse_paging_headers(return_headers);
+        ds3_string_multimap_free(return_headers);
+        if (state.stopped == True || state.num_elements == 0 || paging == NULL || paging->page_truncated <= 0) {
+            ds3_paging_free(paging);
+            break;
+        }
+        ds3_paging_free(paging);
+
+        // page_offset is the index of a page of page_length elements
+        page_offset++;
+        _set_paging_query_param(request, "page_offset", page_offset);
+    }
+    _restore_query_param(request, "page_offset", original_page_offset);
+    _restore_query_param(request, "page_length", original_page_length);
+    return error;
+<#else>
+    return _parse_top_level_${responseStruct.getName()}_each(client, request, &state, NULL, NULL, NULL);
+</#if>
+}
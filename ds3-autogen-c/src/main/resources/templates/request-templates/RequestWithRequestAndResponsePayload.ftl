@@ -5,9 +5,11 @@
 ${requestHelper.generateRequestFunctionSignature(requestEntry)} {
     ds3_error* error;
     ds3_xml_send_buff send_buff;
-    GByteArray* xml_blob;
 <#if requestEntry.hasResponsePayload() && requestEntry.getResponseType() == "ds3_str">
+    GByteArray* xml_blob;
     ds3_str* _response;
+<#else>
+    ds3_xml_stream_parser* parser;
 </#if>
 
 ${requestHelper.generateParameterValidationBlock(requestEntry)}
@@ -15,24 +17,35 @@ ${requestHelper.generateParameterValidationBlock(requestEntry)}
     error = _init_request_payload(request, &send_buff, ${requestHelper.getRequestObjectListType(requestEntry.getName())});
     if (error != NULL) return error;
 
+<#if requestEntry.hasResponsePayload() && requestEntry.getResponseType() == "ds3_str">
     xml_blob = g_byte_array_new();
     error = _internal_request_dispatcher(client, request, xml_blob, ds3_load_buffer, (void*) &send_buff, _ds3_send_xml_buff, NULL);
 
     // Clean up the data sent to the server
-    xmlFree(send_buff.buff);
+    _free_request_payload(&send_buff);
 
     if (error != NULL) {
         g_byte_array_free(xml_blob, TRUE);
         return error;
     }
 
-<#if requestEntry.hasResponsePayload() && requestEntry.getResponseType() == "ds3_str">
     _response = ds3_str_init_with_size((char*)xml_blob->data, xml_blob->len);
     g_byte_array_free(xml_blob, TRUE);
 
     *response = _response;
     return error;
 <#else>
-    return _parse_top_level_${requestEntry.getResponseType()}(client, request, response, xml_blob);
+    parser = _init_top_level_${requestEntry.getResponseType()}_parser(client);
+    error = _internal_request_dispatcher(client, request, parser, _ds3_xml_stream_parser_write, (void*) &send_buff, _ds3_send_xml_buff, NULL);
+
+    // Clean up the data sent to the server
+    _free_request_payload(&send_buff);
+
+    if (error != NULL) {
+        _ds3_xml_stream_parser_free(parser);
+        return error;
+    }
+
+    return _parse_top_level_${requestEntry.getResponseType()}(client, request, response, parser);
 </#if>
 }
@@ -19,7 +19,7 @@ ${requestHelper.generateParameterValidationBlock(requestEntry)}
     error = _internal_request_dispatcher(client, request, NULL, NULL, (void*) &send_buff, _ds3_send_xml_buff, NULL);
 
     // Clean up the data sent to the server
-    xmlFree(send_buff.buff);
+    _free_request_payload(&send_buff);
 
     return error;
 </#if>
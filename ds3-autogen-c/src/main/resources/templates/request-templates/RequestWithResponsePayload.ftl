@@ -4,9 +4,11 @@
 <#-- **************************************** -->
 ${requestHelper.generateRequestFunctionSignature(requestEntry)} {
     ds3_error* error;
-    GByteArray* xml_blob;
 <#if requestEntry.hasResponsePayload() && requestEntry.getResponseType() == "ds3_str">
+    GByteArray* xml_blob;
     ds3_str* _response;
+<#else>
+    ds3_xml_stream_parser* parser;
 </#if>
 <#if requestEntry.supportsPagination()>
     ds3_string_multimap* return_headers = NULL;
@@ -14,6 +16,7 @@ ${requestHelper.generateRequestFunctionSignature(requestEntry)} {
 
 ${requestHelper.generateParameterValidationBlock(requestEntry)}
 
+<#if requestEntry.hasResponsePayload() && requestEntry.getResponseType() == "ds3_str">
     xml_blob = g_byte_array_new();
 <#if requestEntry.supportsPagination()>
     error = _internal_request_dispatcher(client, request, xml_blob, ds3_load_buffer, NULL, NULL, &return_headers);
@@ -28,20 +31,39 @@ ${requestHelper.generateParameterValidationBlock(requestEntry)}
         return error;
     }
 
-<#if requestEntry.hasResponsePayload() && requestEntry.getResponseType() == "ds3_str">
     _response = ds3_str_init_with_size((char*)xml_blob->data, xml_blob->len);
     g_byte_array_free(xml_blob, TRUE);
 
     *response = _response;
     return error;
-<#elseif requestEntry.supportsPagination()>
-    error = _parse_top_level_${requestEntry.getResponseType()}(client, request, response, xml_blob);
+<#else>
+    parser = _init_top_level_${requestEntry.getResponseType()}_parser(client);
+<#if requestEntry.supportsPagination()>
+    error = _internal_request_dispatcher(client, request, parser, _ds3_xml_stream_parser_write, NULL, NULL, &return_headers);
+<#else>
+    error = _internal_request_dispatcher(client, request, parser, _ds3_xml_stream_parser_write, NULL, NULL, NULL);
+</#if>
+    if (error != NULL) {
+<#if requestEntry.supportsPagination()>
+        ds3_string_multimap_free(return_headers);
+</#if>
+        _ds3_xml_stream_parser_free(parser);
+        return error;
+    }
+
+<#if requestEntry.supportsPagination()>
+    error = _parse_top_level_${requestEntry.getResponseType()}(client, request, response, parser);
+    if (error != NULL) {
+        ds3_string_multimap_free(return_headers);
+        return error;
+    }
 
     (*response)->paging = _parse_paging_headers(return_headers);
     ds3_string_multimap_free(return_headers);
 
     return error;
 <#else>
-    return _parse_top_level_${requestEntry.getResponseType()}(client, request, response, xml_blob);
+    return _parse_top_level_${requestEntry.getResponseType()}(client, request, response, parser);
+</#if>
 </#if>
 }
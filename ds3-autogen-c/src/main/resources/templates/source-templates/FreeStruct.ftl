@@ -6,6 +6,17 @@ void ${structEntry.getName()}_free(${structEntry.getName()}* response) {
     if (response == NULL) {
         return;
     }
+<#if structEntry.isTopLevel()>
+
+    if (response->arena != NULL) {
+<#if structHelper.isPaginated(structEntry)>
+        ds3_paging_free(response->paging);
+</#if>
+        // Everything else, including the response itself, was allocated from the arena
+        ds3_response_arena_free(response->arena);
+        return;
+    }
+</#if>
 
 <#if structEntry.hasArrayMembers()>
     size_t index;
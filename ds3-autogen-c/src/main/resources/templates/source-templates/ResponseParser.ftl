@@ -17,7 +17,7 @@ static ds3_error* _parse_${structEntry.getName()}(const ds3_client* client, cons
 </#list>
 </#if>
 
-    response = g_new0(${structEntry.getName()}, 1);
+    response = (${structEntry.getName()}*) _ds3_response_alloc0(doc, sizeof(${structEntry.getName()}));
 
 <#if structHelper.hasAttributes(structEntry)>
     for (attribute = root->properties; attribute != NULL; attribute = attribute->next) {
@@ -33,16 +33,16 @@ ${structHelper.generateResponseParser(structEntry.getName(), structEntry.getStru
 
 <#if structHelper.hasUnwrappedChildNodes(structEntry)>
 <#list structMemberHelper.getUnwrappedListChildNodes(structEntry.getStructMembers()) as unwrappedChildNode>
-    response->${unwrappedChildNode.getName()} = (${unwrappedChildNode.getType().getTypeName()}**)${unwrappedChildNode.getName()}_array->pdata;
     response->num_${unwrappedChildNode.getName()} = ${unwrappedChildNode.getName()}_array->len;
-    g_ptr_array_free(${unwrappedChildNode.getName()}_array, FALSE);
+    response->${unwrappedChildNode.getName()} = (${unwrappedChildNode.getType().getTypeName()}**)_ds3_response_array(doc, ${unwrappedChildNode.getName()}_array);
 </#list>
 </#if>
 
     <#if structHelper.hasComplexMembers(structEntry)>
     if (error == NULL) {
         *_response = response;
-    } else {
+    } else if (doc->_private == NULL) {
+        // Otherwise the response is released with the arena of the top level response
         ${structEntry.getName()}_free(response);
     }
     <#else>
@@ -2,56 +2,153 @@
 <#-- Generate all "TypedefStructResponseParsers" from Structs -->
 <#--   Input: Struct object                                   -->
 <#-- ******************************************************** -->
-static ds3_error* _parse_top_level_${structEntry.getName()}(const ds3_client* client, const ds3_request* request, ${structEntry.getName()}** _response, GByteArray* xml_blob) {
-    xmlDocPtr doc;
-    xmlNodePtr root;
-<#if structHelper.hasChildNodes(structEntry)>
-    xmlNodePtr child_node;
+typedef struct {
+    ${structEntry.getName()}* response;
+<#if structHelper.hasUnwrappedChildNodes(structEntry)>
+<#list structMemberHelper.getUnwrappedListChildNodes(structEntry.getStructMembers()) as unwrappedChildNode>
+    GPtrArray* ${unwrappedChildNode.getName()}_array;
+</#list>
 </#if>
-<#if structHelper.hasAttributes(structEntry)>
-    struct _xmlAttr* attribute;
+}_${structEntry.getName()}_stream_state;
+
+static void _free_${structEntry.getName()}_stream_state(void* user_data) {
+    _${structEntry.getName()}_stream_state* state = (_${structEntry.getName()}_stream_state*) user_data;
+<#if structHelper.hasUnwrappedChildNodes(structEntry)>
+<#list structMemberHelper.getUnwrappedListChildNodes(structEntry.getStructMembers()) as unwrappedChildNode>
+
+    if (state->${unwrappedChildNode.getName()}_array != NULL) {
+        state->response->num_${unwrappedChildNode.getName()} = state->${unwrappedChildNode.getName()}_array->len;
+        state->response->${unwrappedChildNode.getName()} = (${unwrappedChildNode.getType().getTypeName()}**)_ds3_arena_array(state->response->arena, state->${unwrappedChildNode.getName()}_array);
+    }
+</#list>
+</#if>
+
+    ${structEntry.getName()}_free(state->response);
+    g_free(state);
+}
+
+<#if structHelper.hasChildNodes(structEntry)>
+static ds3_error* _parse_top_level_${structEntry.getName()}_child(const ds3_client* client, const xmlDocPtr doc, const xmlNodePtr root, const xmlNodePtr child_node, void* user_data) {
+    _${structEntry.getName()}_stream_state* state = (_${structEntry.getName()}_stream_state*) user_data;
+    ${structEntry.getName()}* response = state->response;
+<#if structHelper.hasUnwrappedChildNodes(structEntry)>
+<#list structMemberHelper.getUnwrappedListChildNodes(structEntry.getStructMembers()) as unwrappedChildNode>
+    GPtrArray* ${unwrappedChildNode.getName()}_array = state->${unwrappedChildNode.getName()}_array;
+</#list>
 </#if>
-    ${structEntry.getName()}* response;
     ds3_error* error = NULL;
+
+    do {
+${structHelper.generateResponseParser(structEntry.getName(), structEntry.getStructMembers())}
+    } while (0);
+
+    return error;
+}
+
+</#if>
+static ds3_xml_stream_parser* _init_top_level_${structEntry.getName()}_parser(const ds3_client* client) {
+    _${structEntry.getName()}_stream_state* state = g_new0(_${structEntry.getName()}_stream_state, 1);
+    ds3_response_arena* arena = NULL;
+    ds3_xml_stream_parser* parser;
+
+    if (client->response_arenas == True) {
+        arena = ds3_response_arena_new();
+        state->response = (${structEntry.getName()}*) ds3_response_arena_alloc0(arena, sizeof(${structEntry.getName()}));
+        state->response->arena = arena;
+    } else {
+        state->response = g_new0(${structEntry.getName()}, 1);
+    }
 <#if structHelper.hasUnwrappedChildNodes(structEntry)>
 <#list structMemberHelper.getUnwrappedListChildNodes(structEntry.getStructMembers()) as unwrappedChildNode>
-    GPtrArray* ${unwrappedChildNode.getName()}_array = g_ptr_array_new();
+    state->${unwrappedChildNode.getName()}_array = g_ptr_array_new();
 </#list>
 </#if>
 
-    error = _get_request_xml_nodes(xml_blob, &doc, &root, "${structEntry.getNameToMarshall()}");
+<#if structHelper.hasChildNodes(structEntry)>
+    parser = _ds3_xml_stream_parser_init(client, "${structEntry.getNameToMarshall()}", _parse_top_level_${structEntry.getName()}_child, state, _free_${structEntry.getName()}_stream_state);
+<#else>
+    parser = _ds3_xml_stream_parser_init(client, "${structEntry.getNameToMarshall()}", NULL, state, _free_${structEntry.getName()}_stream_state);
+</#if>
+    parser->arena = arena;
+    return parser;
+}
+
+static ds3_error* _parse_top_level_${structEntry.getName()}(const ds3_client* client, const ds3_request* request, ${structEntry.getName()}** _response, ds3_xml_stream_parser* parser) {
+    _${structEntry.getName()}_stream_state* state = (_${structEntry.getName()}_stream_state*) parser->user_data;
+    ${structEntry.getName()}* response = state->response;
+    xmlDocPtr doc;
+    xmlNodePtr root;
+<#if structHelper.hasAttributes(structEntry)>
+    struct _xmlAttr* attribute;
+</#if>
+    ds3_error* error;
+
+    error = _ds3_xml_stream_parser_finish(parser, &doc, &root);
     if (error != NULL) {
+        _ds3_xml_stream_parser_free(parser);
         return error;
     }
 
-    response = g_new0(${structEntry.getName()}, 1);
 <#if structHelper.hasAttributes(structEntry)>
     for (attribute = root->properties; attribute != NULL; attribute = attribute->next) {
 ${structHelper.generateResponseAttributesParser(structEntry.getName(), structEntry.getStructMembers())}
     }
-</#if>
 
-<#if structHelper.hasChildNodes(structEntry)>
-    for (child_node = root->xmlChildrenNode; child_node != NULL; child_node = child_node->next) {
-${structHelper.generateResponseParser(structEntry.getName(), structEntry.getStructMembers())}
-    }
 </#if>
-
 <#if structHelper.hasUnwrappedChildNodes(structEntry)>
 <#list structMemberHelper.getUnwrappedListChildNodes(structEntry.getStructMembers()) as unwrappedChildNode>
-    response->${unwrappedChildNode.getName()} = (${unwrappedChildNode.getType().getTypeName()}**)${unwrappedChildNode.getName()}_array->pdata;
-    response->num_${unwrappedChildNode.getName()} = ${unwrappedChildNode.getName()}_array->len;
-    g_ptr_array_free(${unwrappedChildNode.getName()}_array, FALSE);
+    response->num_${unwrappedChildNode.getName()} = state->${unwrappedChildNode.getName()}_array->len;
+    response->${unwrappedChildNode.getName()} = (${unwrappedChildNode.getType().getTypeName()}**)_ds3_arena_array(response->arena, state->${unwrappedChildNode.getName()}_array);
+    state->${unwrappedChildNode.getName()}_array = NULL;
 </#list>
+
 </#if>
+    if (error == NULL) {
+        *_response = response;
+        state->response = NULL;
+    }
 
-    xmlFreeDoc(doc);
+    _ds3_xml_stream_parser_free(parser);
 
+    return error;
+}
+<#if structHelper.hasEachMembers(structEntry)>
+
+typedef struct {
+<#list structHelper.getEachMembers(structEntry) as eachMember>
+    ${eachMember.getType().getTypeName()}_callback ${eachMember.getName()}_callback;
+</#list>
+    void* user_data;
+    size_t num_elements;
+    ds3_bool stopped;
+}_${structEntry.getName()}_each_state;
+
+static ds3_error* _parse_top_level_${structEntry.getName()}_each_child(const ds3_client* client, const xmlDocPtr doc, const xmlNodePtr root, const xmlNodePtr child_node, void* user_data) {
+    _${structEntry.getName()}_each_state* state = (_${structEntry.getName()}_each_state*) user_data;
+    ds3_error* error = NULL;
+
+    // The rest of the payload is discarded once a callback has stopped the iteration
+    if (state->stopped == True) {
+        return NULL;
+    }
+
+${structHelper.generateEachResponseParser(structEntry)}
+    return error;
+}
+
+static ds3_error* _parse_top_level_${structEntry.getName()}_each(const ds3_client* client, const ds3_request* request, _${structEntry.getName()}_each_state* state, void* send_buff, size_t (*send_buff_func)(void*, size_t, size_t, void*), ds3_string_multimap** return_headers) {
+    ds3_error* error;
+    xmlDocPtr doc;
+    xmlNodePtr root;
+    ds3_xml_stream_parser* parser = _ds3_xml_stream_parser_init(client, "${structEntry.getNameToMarshall()}", _parse_top_level_${structEntry.getName()}_each_child, state, NULL);
+
+    state->num_elements = 0;
+    error = _internal_request_dispatcher(client, request, parser, _ds3_xml_stream_parser_write, send_buff, send_buff_func, return_headers);
     if (error == NULL) {
-        *_response = response;
-    } else {
-        ${structEntry.getName()}_free(response);
+        error = _ds3_xml_stream_parser_finish(parser, &doc, &root);
     }
+    _ds3_xml_stream_parser_free(parser);
 
     return error;
 }
+</#if>
@@ -0,0 +1,73 @@
+/*
+ * The ds3_<request>_async() functions submit the request to the asynchronous engine of the client and
+ * keep everything the response needs in an _ds3_async_request until the engine calls back.
+ */
+typedef ds3_error* (*_ds3_async_response_parser)(const ds3_client* client, const ds3_request* request, ds3_xml_stream_parser* parser, ds3_string_multimap* return_headers, void** response);
+
+typedef struct {
+    const ds3_client* client;
+    const ds3_request* request;
+    ds3_request_callback on_complete;
+    void* on_complete_data;
+
+    // At most one of these is set, depending on the response of the request
+    ds3_xml_stream_parser* parser;
+    _ds3_async_response_parser parse_response;
+    GByteArray* xml_blob;
+
+    ds3_xml_send_buff send_buff;
+}_ds3_async_request;
+
+static void _ds3_async_request_free(_ds3_async_request* async_request) {
+    // Clean up the data sent to the server
+    _free_request_payload(&async_request->send_buff);
+    if (async_request->parser != NULL) {
+        _ds3_xml_stream_parser_free(async_request->parser);
+    }
+    if (async_request->xml_blob != NULL) {
+        g_byte_array_free(async_request->xml_blob, TRUE);
+    }
+    g_free(async_request);
+}
+
+static void _ds3_async_request_complete(ds3_error* error, ds3_string_multimap* return_headers, void* completion_data) {
+    _ds3_async_request* async_request = (_ds3_async_request*) completion_data;
+    void* response = NULL;
+
+    if (error == NULL && async_request->parser != NULL) {
+        // The parser is freed by the top level parser of the response type
+        error = async_request->parse_response(async_request->client, async_request->request, async_request->parser, return_headers, &response);
+        async_request->parser = NULL;
+    } else if (error == NULL && async_request->xml_blob != NULL) {
+        response = ds3_str_init_with_size((char*)async_request->xml_blob->data, async_request->xml_blob->len);
+    }
+
+    if (return_headers != NULL) {
+        ds3_string_multimap_free(return_headers);
+    }
+
+    async_request->on_complete(error, response, async_request->on_complete_data);
+    _ds3_async_request_free(async_request);
+}
+
+static ds3_error* _internal_request_submitter(
+        _ds3_async_request* async_request,
+        void* read_user_struct,
+        size_t (*read_handler_func)(void*, size_t, size_t, void*),
+        void* write_user_struct,
+        size_t (*write_handler_func)(void*, size_t, size_t, void*)) {
+    const ds3_client* client = async_request->client;
+    ds3_error* error;
+
+    if (client == NULL || async_request->request == NULL || async_request->on_complete == NULL) {
+        _ds3_async_request_free(async_request);
+        return ds3_create_error(DS3_ERROR_MISSING_ARGS, "All arguments must be filled in for request processing");
+    }
+
+    error = client->net_submit_callback(client, async_request->request, read_user_struct, read_handler_func, write_user_struct, write_handler_func, _ds3_async_request_complete, async_request);
+    if (error != NULL) {
+        _ds3_async_request_free(async_request);
+    }
+    return error;
+}
+
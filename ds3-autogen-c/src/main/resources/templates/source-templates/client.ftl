@@ -44,6 +44,22 @@ void ds3_client_register_net(ds3_client* client, ds3_error* (* net_callback)(con
     client->net_callback = net_callback;
 }
 
+void ds3_client_register_net_submit(ds3_client* client, ds3_error* (* net_submit_callback)(const ds3_client* client,
+                                                                                           const ds3_request* _request,
+                                                                                           void* read_user_struct,
+                                                                                           size_t (*read_handler_func)(void*, size_t, size_t, void*),
+                                                                                           void* write_user_struct,
+                                                                                           size_t (*write_handler_func)(void*, size_t, size_t, void*),
+                                                                                           ds3_net_completion_func on_complete,
+                                                                                           void* completion_data)) {
+    if (client == NULL) {
+        fprintf(stderr, "Cannot configure a null ds3_client for net_submit_callback.\n");
+        return;
+    }
+
+    client->net_submit_callback = net_submit_callback;
+}
+
 ds3_client* ds3_create_client(const char *const endpoint, ds3_creds* creds) {
     ds3_client* client;
     if (endpoint == NULL) {
@@ -55,10 +71,16 @@ ds3_client* ds3_create_client(const char *const endpoint, ds3_creds* creds) {
     client->endpoint = ds3_str_init(endpoint);
     client->creds = creds;
     client->num_redirects = 5L; //default to 5 redirects before failing
+    client->retry_policy.max_attempts = 5;
+    client->retry_policy.initial_backoff_ms = 500;
+    client->retry_policy.max_backoff_ms = 30000;
+    client->retry_policy.honor_retry_after = True;
 
     ds3_client_register_net( client, net_process_request );
+    ds3_client_register_net_submit( client, net_submit_request );
 
     client->connection_pool = ds3_connection_pool_init();
+    client->signing_context = net_signing_context_init(creds);
 
     return client;
 }
@@ -107,16 +129,41 @@ ds3_client* ds3_copy_client(const ds3_client const* client) {
         copied_client->proxy = ds3_str_dup(client->proxy);
     }
     copied_client->num_redirects = client->num_redirects;
+    copied_client->retry_policy = client->retry_policy;
+    copied_client->response_arenas = client->response_arenas;
     copied_client->creds = ds3_create_creds(client->creds->access_id->value, client->creds->secret_key->value);
 
     ds3_client_register_net( copied_client, net_process_request );
+    ds3_client_register_net_submit( copied_client, net_submit_request );
     ds3_client_register_logging(copied_client, client->log->log_lvl, client->log->log_callback, NULL);
 
     copied_client->connection_pool = client->connection_pool;
+    copied_client->signing_context = net_signing_context_init(copied_client->creds);
     ds3_connection_pool_inc_ref(copied_client->connection_pool);
     return copied_client;
 }
 
+void ds3_client_set_retry_policy(ds3_client* client, const ds3_retry_policy* retry_policy) {
+    if (client == NULL) {
+        fprintf(stderr, "Cannot configure a null ds3_client for retry_policy.\n");
+        return;
+    }
+
+    client->retry_policy = *retry_policy;
+    if (client->retry_policy.max_attempts == 0) {
+        client->retry_policy.max_attempts = 1;
+    }
+}
+
+void ds3_client_use_response_arenas(ds3_client* client, ds3_bool use_response_arenas) {
+    if (client == NULL) {
+        fprintf(stderr, "Cannot configure a null ds3_client for response_arenas.\n");
+        return;
+    }
+
+    client->response_arenas = use_response_arenas;
+}
+
 void ds3_client_proxy(ds3_client* client, const char* proxy) {
     ds3_str_free(client->proxy);
     client->proxy = ds3_str_init(proxy);
@@ -140,6 +187,8 @@ void ds3_client_free(ds3_client* client) {
     // free client->connection_pool only if there are no remaining references
     ds3_connection_pool_dec_ref(client->connection_pool);
 
+    net_signing_context_free(client->signing_context);
+
     ds3_str_free(client->endpoint);
     ds3_str_free(client->proxy);
     g_free(client->log);
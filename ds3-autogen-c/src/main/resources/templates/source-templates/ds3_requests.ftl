@@ -4,6 +4,7 @@
 #include <stdlib.h>
 #include <stdbool.h>
 #include <libxml/parser.h>
+#include <libxml/SAX2.h>
 
 #include "ds3.h"
 #include "ds3_net.h"
@@ -28,6 +29,8 @@
 <#include "metadata.ftl"/>
 <#include "xml_helpers.ftl"/>
 <#include "internal_request_processors.ftl"/>
+<#include "response_stream_parser.ftl"/>
+<#include "async_request_processors.ftl"/>
 
 <#-- ******************************************* -->
 <#-- Generate all "EnumMatchers" from Enums      -->
@@ -69,11 +72,22 @@
     <#elseif (requestEntry.hasRequestPayload() == true)
           && (requestEntry.hasResponsePayload() == true)>
         <#include "../request-templates/RequestWithRequestAndResponsePayload.ftl"/>
+        <#assign responseStruct = structHelper.getStruct(getStructs(), requestEntry.getResponseType())!>
+        <#if responseStruct?has_content && structHelper.hasEachMembers(responseStruct)>
+            <#include "../request-templates/RequestEach.ftl"/>
+        </#if>
     <#elseif requestEntry.hasRequestPayload()>
         <#include "../request-templates/RequestWithRequestPayload.ftl"/>
     <#elseif requestEntry.hasResponsePayload()>
         <#include "../request-templates/RequestWithResponsePayload.ftl"/>
+        <#assign responseStruct = structHelper.getStruct(getStructs(), requestEntry.getResponseType())!>
+        <#if responseStruct?has_content && structHelper.hasEachMembers(responseStruct)>
+            <#include "../request-templates/RequestEach.ftl"/>
+        </#if>
     <#else>
         <#include "../request-templates/Request.ftl"/>
     </#if>
+    <#if requestEntry.getName() != "ds3_head_bucket_request" && requestEntry.getName() != "ds3_head_object_request">
+        <#include "../request-templates/RequestAsync.ftl"/>
+    </#if>
 </#list>
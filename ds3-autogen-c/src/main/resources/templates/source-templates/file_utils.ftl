@@ -15,6 +15,114 @@ size_t ds3_read_from_fd(void* buffer, size_t size, size_t nmemb, void* user_data
     return read(*(int*)user_data, buffer, size * nmemb);
 }
 
+struct _ds3_mapped_file {
+    GMappedFile* mapping;
+    const char* contents; // NULL for an empty file
+    uint64_t size;
+};
+
+ds3_mapped_file* ds3_mapped_file_open(const char* file_path) {
+    GError* error = NULL;
+    GMappedFile* mapping = g_mapped_file_new(file_path, FALSE, &error);
+    ds3_mapped_file* file;
+
+    if (mapping == NULL) {
+        fprintf(stderr, "Failed to map file '%s': %s\n", file_path, error->message);
+        g_error_free(error);
+        return NULL;
+    }
+
+    file = g_new0(ds3_mapped_file, 1);
+    file->mapping = mapping;
+    file->contents = g_mapped_file_get_contents(mapping);
+    file->size = g_mapped_file_get_length(mapping);
+
+    return file;
+}
+
+uint64_t ds3_mapped_file_size(const ds3_mapped_file* file) {
+    return file->size;
+}
+
+void ds3_mapped_file_close(ds3_mapped_file* file) {
+    if (file == NULL) {
+        return;
+    }
+
+    g_mapped_file_unref(file->mapping);
+    g_free(file);
+}
+
+ds3_error* ds3_mapped_file_region_init(ds3_mapped_file_region* region, const ds3_mapped_file* file, uint64_t offset, uint64_t length) {
+    if (offset > file->size || length > file->size - offset) {
+        return ds3_create_error(DS3_ERROR_INVALID_ARGUMENT, "The region does not fit in the mapped file");
+    }
+
+    region->file = file;
+    region->offset = offset;
+    region->length = length;
+    region->position = 0;
+
+#ifndef _WIN32
+    if (length > 0) {
+        // madvise works on whole pages, so the start of the region is rounded down to a page boundary
+        uintptr_t page_size = (uintptr_t) sysconf(_SC_PAGESIZE);
+        uintptr_t start = (uintptr_t) (file->contents + offset);
+        uintptr_t page_start = start & ~(page_size - 1);
+
+        madvise((void*) page_start, (size_t) (start - page_start + length), MADV_SEQUENTIAL);
+    }
+#endif
+
+    return NULL;
+}
+
+size_t ds3_read_from_mapped_file(void* buffer, size_t size, size_t nmemb, void* user_data) {
+    ds3_mapped_file_region* region = (ds3_mapped_file_region*) user_data;
+    uint64_t remaining = region->length - region->position;
+    size_t to_read = size * nmemb;
+
+    if (to_read > remaining) {
+        to_read = (size_t) remaining;
+    }
+    if (to_read > 0) {
+        memcpy(buffer, region->file->contents + region->offset + region->position, to_read);
+        region->position += to_read;
+    }
+    return to_read;
+}
+
+size_t ds3_write_to_fd_at_offset(void* buffer, size_t size, size_t nmemb, void* user_data) {
+    ds3_fd_region* region = (ds3_fd_region*) user_data;
+    const char* data = (const char*) buffer;
+    size_t to_write = size * nmemb;
+    size_t written = 0;
+
+    while (written < to_write) {
+#ifdef _WIN32
+        // Windows has no pwrite, so each parallel download needs a descriptor of its own
+        int result;
+        if (_lseeki64(region->fd, (__int64) region->offset, SEEK_SET) < 0) {
+            break;
+        }
+        result = _write(region->fd, data + written, (unsigned int) (to_write - written));
+#else
+        ssize_t result = pwrite(region->fd, data + written, to_write - written, (off_t) region->offset);
+        if (result < 0 && errno == EINTR) {
+            continue;
+        }
+#endif
+        if (result <= 0) {
+            break;
+        }
+        written += result;
+        region->offset += result;
+    }
+
+    // Anything short of to_write makes curl fail the request
+    return written;
+}
+
 #ifdef _WIN32
 static void get_file_size_windows(const char* file_path, uint64_t* file_size) {
     BY_HANDLE_FILE_INFORMATION info;
@@ -38,6 +38,76 @@ void ds3_paging_free(ds3_paging* paging) {
     g_free(paging);
 }
 
+/*
+ * A response arena is a list of blocks that the members of a parsed response are bump allocated
+ * from, so that a response with thousands of objects costs a handful of mallocs to build and a
+ * single walk of the block list to free.  Allocations larger than a block get a block of their own.
+ */
+#define DS3_RESPONSE_ARENA_BLOCK_SIZE (64 * 1024)
+#define DS3_RESPONSE_ARENA_ALIGNMENT 8
+
+typedef struct _ds3_response_arena_block {
+    struct _ds3_response_arena_block* next;
+    size_t size;
+    size_t used;
+}ds3_response_arena_block;
+
+struct _ds3_response_arena {
+    ds3_response_arena_block* blocks;
+};
+
+#define DS3_RESPONSE_ARENA_HEADER_SIZE \
+    ((sizeof(ds3_response_arena_block) + DS3_RESPONSE_ARENA_ALIGNMENT - 1) & ~((size_t) DS3_RESPONSE_ARENA_ALIGNMENT - 1))
+
+ds3_response_arena* ds3_response_arena_new(void) {
+    return g_new0(ds3_response_arena, 1);
+}
+
+void* ds3_response_arena_alloc0(ds3_response_arena* arena, size_t size) {
+    ds3_response_arena_block* block = arena->blocks;
+    size_t aligned_size = (size + DS3_RESPONSE_ARENA_ALIGNMENT - 1) & ~((size_t) DS3_RESPONSE_ARENA_ALIGNMENT - 1);
+    void* allocation;
+
+    if (block == NULL || block->size - block->used < aligned_size) {
+        size_t block_size = DS3_RESPONSE_ARENA_BLOCK_SIZE;
+        if (aligned_size > block_size - DS3_RESPONSE_ARENA_HEADER_SIZE) {
+            block_size = DS3_RESPONSE_ARENA_HEADER_SIZE + aligned_size;
+        }
+
+        block = (ds3_response_arena_block*) g_malloc(block_size);
+        block->size = block_size;
+        block->used = DS3_RESPONSE_ARENA_HEADER_SIZE;
+        if (arena->blocks != NULL && block_size > DS3_RESPONSE_ARENA_BLOCK_SIZE) {
+            // Keep allocating from the current block, it still has room for smaller allocations
+            block->next = arena->blocks->next;
+            arena->blocks->next = block;
+        } else {
+            block->next = arena->blocks;
+            arena->blocks = block;
+        }
+    }
+
+    allocation = (char*) block + block->used;
+    block->used += aligned_size;
+    memset(allocation, 0, size);
+    return allocation;
+}
+
+void ds3_response_arena_free(ds3_response_arena* arena) {
+    ds3_response_arena_block* block;
+    if (arena == NULL) {
+        return;
+    }
+
+    block = arena->blocks;
+    while (block != NULL) {
+        ds3_response_arena_block* next = block->next;
+        g_free(block);
+        block = next;
+    }
+    g_free(arena);
+}
+
 void ds3_request_free(ds3_request* _request) {
     struct _ds3_request* request;
     if (_request == NULL) {
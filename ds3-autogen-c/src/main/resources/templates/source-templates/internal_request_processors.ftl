@@ -20,7 +20,7 @@ static ds3_error* _internal_request_dispatcher(
     if (client == NULL || request == NULL) {
         return ds3_create_error(DS3_ERROR_MISSING_ARGS, "All arguments must be filled in for request processing");
     }
-    return net_process_request(client, request, read_user_struct, read_handler_func, write_user_struct, write_handler_func, return_headers);
+    return client->net_callback(client, request, read_user_struct, read_handler_func, write_user_struct, write_handler_func, return_headers);
 }
 
 static int num_chars_in_ds3_str(const ds3_str *const str, char ch) {
@@ -36,134 +36,160 @@ static int num_chars_in_ds3_str(const ds3_str *const str, char ch) {
     return num_matches;
 }
 
-static ds3_error* _get_request_xml_nodes(
-        GByteArray* xml_blob,
-        xmlDocPtr* _doc,
-        xmlNodePtr* _root,
-        char* root_element_name) {
-    xmlNodePtr root;
-
-    xmlDocPtr doc = xmlParseMemory((const char*) xml_blob->data, xml_blob->len);
-    if (doc == NULL) {
-        char* message = g_strconcat("Failed to parse response document.  The actual response is: ", xml_blob->data, NULL);
-        g_byte_array_free(xml_blob, TRUE);
-        ds3_error* error = ds3_create_error(DS3_ERROR_INVALID_XML, message);
-        g_free(message);
-        return error;
-    }
-
-    root = xmlDocGetRootElement(doc);
-    if (element_equal(root, root_element_name) == false) {
-        char* message = g_strconcat("Expected the root element to be '", root_element_name, "'.  The actual response is: ", xml_blob->data, NULL);
-        xmlFreeDoc(doc);
-        g_byte_array_free(xml_blob, TRUE);
-        ds3_error* error = ds3_create_error(DS3_ERROR_INVALID_XML, message);
-        g_free(message);
-        return error;
-    }
-
-    *_doc = doc;
-    *_root = root;
-
-    g_byte_array_free(xml_blob, TRUE);
-    return NULL;
-}
-
-static xmlDocPtr _generate_xml_bulk_objects_list(const ds3_bulk_object_list_response* obj_list, object_list_type list_type, ds3_job_chunk_client_processing_order_guarantee order) {
-    char size_buff[STRING_BUFFER_SIZE];
-    xmlDocPtr doc;
-    ds3_bulk_object_response* obj;
-    xmlNodePtr objects_node, object_node;
-    size_t obj_index;
-
-    // Start creating the xml body to send to the server.
-    doc = xmlNewDoc((xmlChar*)"1.0");
-    objects_node = xmlNewNode(NULL, (xmlChar*) "Objects");
-
-    if (list_type == BULK_GET) {
-        if (order == DS3_JOB_CHUNK_CLIENT_PROCESSING_ORDER_GUARANTEE_NONE) {
-            xmlSetProp(objects_node, (xmlChar*) "ChunkClientProcessingOrderGuarantee", (const xmlChar *) "NONE");
-        } else if (order == DS3_JOB_CHUNK_CLIENT_PROCESSING_ORDER_GUARANTEE_IN_ORDER) {
-            xmlSetProp(objects_node, (xmlChar*) "ChunkClientProcessingOrderGuarantee", (const xmlChar *) "IN_ORDER");
-        } else {
-            return NULL;
+/*
+ * Request payloads are produced lazily from inside the curl read callback, one piece at a time: the
+ * opening of the document, one piece per object, and the closing of the document.  Each piece is
+ * rendered into the same reused buffer, so memory stays constant regardless of the number of objects.
+ * The content length must be known before the request is sent, so the pieces are rendered once up
+ * front only to measure them.
+ */
+typedef struct {
+    struct _ds3_request* request;
+    object_list_type list_type;
+    size_t num_pieces;
+    size_t next_piece;
+    GString* piece;
+
+    // The unsent part of the current piece
+    const char* data;
+    size_t data_size;
+}ds3_xml_send_buff;
+
+// Appends value with the characters that are special in XML text and attribute values escaped
+static void _append_xml_escaped(GString* piece, const char* value) {
+    const char* c;
+
+    for (c = value; *c != '\0'; c++) {
+        switch (*c) {
+            case '&':  g_string_append(piece, "&amp;"); break;
+            case '<':  g_string_append(piece, "&lt;"); break;
+            case '>':  g_string_append(piece, "&gt;"); break;
+            case '"':  g_string_append(piece, "&quot;"); break;
+            case '\r': g_string_append(piece, "&#13;"); break;
+            case '\n': g_string_append(piece, "&#10;"); break;
+            case '\t': g_string_append(piece, "&#9;"); break;
+            default:   g_string_append_c(piece, *c);
         }
     }
+}
 
+static void _render_bulk_objects_piece(GString* piece, const struct _ds3_request* request, object_list_type list_type, size_t element_index) {
+    const ds3_bulk_object_response* obj = request->object_list->objects[element_index];
 
-    for (obj_index = 0; obj_index < obj_list->num_objects; obj_index++) {
-        obj = obj_list->objects[obj_index];
-        memset(size_buff, 0, sizeof(size_buff));
-        g_snprintf(size_buff, STRING_BUFFER_SIZE, "%" PRIu64, obj->length);
-
-        object_node = xmlNewNode(NULL, (xmlChar*) "Object");
-        xmlAddChild(objects_node, object_node);
-
-        xmlSetProp(object_node, (xmlChar*) "Name", (xmlChar*) obj->name->value);
-        if (list_type == BULK_PUT) {
-            xmlSetProp(object_node, (xmlChar*) "Size", (xmlChar*) size_buff);
-        }
+    g_string_append(piece, "  <Object Name=\"");
+    _append_xml_escaped(piece, obj->name->value);
+    if (list_type == BULK_PUT) {
+        g_string_append_printf(piece, "\" Size=\"%" PRIu64, obj->length);
     }
+    g_string_append(piece, "\"/>\n");
+}
 
-    xmlDocSetRootElement(doc, objects_node);
+static void _render_complete_mpu_piece(GString* piece, const struct _ds3_request* request, size_t element_index) {
+    const ds3_multipart_upload_part_response* part = request->mpu_list->parts[element_index];
 
-    return doc;
+    g_string_append_printf(piece, "  <Part><PartNumber>%d</PartNumber><ETag>", part->part_number);
+    _append_xml_escaped(piece, part->etag->value);
+    g_string_append(piece, "</ETag></Part>\n");
 }
 
-static xmlDocPtr _generate_xml_complete_mpu(const ds3_complete_multipart_upload_response* mpu_list) {
-    char size_buff[STRING_BUFFER_SIZE];
-    xmlDocPtr doc;
-    ds3_multipart_upload_part_response* part;
-    xmlNodePtr parts_node, part_node;
-    int part_num;
+static void _render_delete_objects_piece(GString* piece, const struct _ds3_request* request, size_t element_index) {
+    const ds3_str* key = request->delete_objects->strings_list[element_index];
 
-    // Start creating the xml body to send to the server.
-    doc = xmlNewDoc((xmlChar*)"1.0");
-    parts_node = xmlNewNode(NULL, (xmlChar*) "CompleteMultipartUpload");
+    g_string_append(piece, "  <Object><Key>");
+    _append_xml_escaped(piece, key->value);
+    g_string_append(piece, "</Key></Object>\n");
+}
 
-    for (part_num = 0; part_num < mpu_list->num_parts; part_num++) {
-        part = mpu_list->parts[part_num];
+// Renders a piece of the payload and makes it the data to send next
+static void _render_payload_piece(ds3_xml_send_buff* send_buff, size_t piece_index) {
+    const struct _ds3_request* request = send_buff->request;
+    GString* piece = send_buff->piece;
+    const char* root_name;
 
-        part_node = xmlNewNode(NULL, (xmlChar*) "Part");
-        xmlAddChild(parts_node, part_node);
+    if (send_buff->list_type == STRING) { // *** not XML - do not interpret
+        send_buff->data = request->delete_objects->strings_list[0]->value;
+        send_buff->data_size = request->delete_objects->strings_list[0]->size;
+        return;
+    }
 
-        g_snprintf(size_buff, STRING_BUFFER_SIZE, "%d", part->part_number);
-        xmlNewTextChild(part_node, NULL, (xmlChar*) "PartNumber", (xmlChar*) size_buff);
+    switch (send_buff->list_type) {
+        case COMPLETE_MPU:
+            root_name = "CompleteMultipartUpload";
+            break;
+        case BULK_DELETE:
+        case STRING_LIST:
+            root_name = "Delete";
+            break;
+        default:
+            root_name = "Objects";
+    }
 
-        xmlNewTextChild(part_node, NULL, (xmlChar*) "ETag", (xmlChar*) part->etag->value);
+    g_string_truncate(piece, 0);
+    if (piece_index == 0) {
+        g_string_append_printf(piece, "<?xml version=\"1.0\"?>\n<%s", root_name);
+        if (send_buff->list_type == BULK_GET) {
+            if (request->chunk_ordering == DS3_JOB_CHUNK_CLIENT_PROCESSING_ORDER_GUARANTEE_NONE) {
+                g_string_append(piece, " ChunkClientProcessingOrderGuarantee=\"NONE\"");
+            } else {
+                g_string_append(piece, " ChunkClientProcessingOrderGuarantee=\"IN_ORDER\"");
+            }
+        }
+        g_string_append(piece, ">\n");
+    } else if (piece_index == send_buff->num_pieces - 1) {
+        g_string_append_printf(piece, "</%s>\n", root_name);
+    } else {
+        switch (send_buff->list_type) {
+            case COMPLETE_MPU:
+                _render_complete_mpu_piece(piece, request, piece_index - 1);
+                break;
+            case BULK_DELETE:
+            case STRING_LIST:
+                _render_delete_objects_piece(piece, request, piece_index - 1);
+                break;
+            default:
+                _render_bulk_objects_piece(piece, request, send_buff->list_type, piece_index - 1);
+        }
     }
 
-    xmlDocSetRootElement(doc, parts_node);
-    return doc;
+    send_buff->data = piece->str;
+    send_buff->data_size = piece->len;
 }
 
-static xmlDocPtr _generate_xml_delete_objects(ds3_delete_objects_response* keys_list) {
-    xmlDocPtr doc;
-    ds3_str* key;
-    xmlNodePtr del_node, obj_node;
-    int key_num;
-
-    // Start creating the xml body to send to the server.
-    doc = xmlNewDoc((xmlChar*)"1.0");
-    del_node = xmlNewNode(NULL, (xmlChar*) "Delete");
+static size_t _ds3_send_xml_buff(void* buffer, size_t size, size_t nmemb, void* user_data) {
+    ds3_xml_send_buff* send_buff = (ds3_xml_send_buff*) user_data;
+    size_t to_send = size * nmemb;
+    size_t sent = 0;
+    size_t to_copy;
 
-    for (key_num = 0; key_num < keys_list->num_strings; key_num++) {
-        key = keys_list->strings_list[key_num];
+    while (sent < to_send) {
+        if (send_buff->data_size == 0) {
+            if (send_buff->next_piece == send_buff->num_pieces) {
+                break;
+            }
+            _render_payload_piece(send_buff, send_buff->next_piece);
+            send_buff->next_piece++;
+            continue;
+        }
 
-        obj_node = xmlNewNode(NULL, (xmlChar*) "Object");
-        xmlAddChild(del_node, obj_node);
+        to_copy = send_buff->data_size;
+        if (to_copy > to_send - sent) {
+            to_copy = to_send - sent;
+        }
 
-        xmlNewTextChild(obj_node, NULL, (xmlChar*) "Key", (xmlChar*) key->value);
+        memcpy((char*)buffer + sent, send_buff->data, to_copy);
+        send_buff->data += to_copy;
+        send_buff->data_size -= to_copy;
+        sent += to_copy;
     }
 
-    xmlDocSetRootElement(doc, del_node);
-    return doc;
+    return sent;
 }
 
 static ds3_error* _init_request_payload(const ds3_request* _request,
                                         ds3_xml_send_buff* send_buff,
                                         const object_list_type operation_type) {
-    xmlDocPtr doc;
+    size_t num_elements;
+    size_t piece_index;
 
     struct _ds3_request* request = (struct _ds3_request*) _request;
 
@@ -177,14 +203,19 @@ static ds3_error* _init_request_payload(const ds3_request* _request,
             if (request->object_list == NULL || request->object_list->num_objects == 0) {
                 return ds3_create_error(DS3_ERROR_MISSING_ARGS, "The bulk command requires a list of objects to process");
             }
-            doc = _generate_xml_bulk_objects_list(request->object_list, operation_type, request->chunk_ordering);
+            if (operation_type == BULK_GET
+             && request->chunk_ordering != DS3_JOB_CHUNK_CLIENT_PROCESSING_ORDER_GUARANTEE_NONE
+             && request->chunk_ordering != DS3_JOB_CHUNK_CLIENT_PROCESSING_ORDER_GUARANTEE_IN_ORDER) {
+                return ds3_create_error(DS3_ERROR_INVALID_XML, "Unknown chunk client processing order guarantee");
+            }
+            num_elements = (size_t) request->object_list->num_objects;
             break;
 
         case COMPLETE_MPU:
             if (request->mpu_list == NULL || request->mpu_list->num_parts == 0) {
                 return ds3_create_error(DS3_ERROR_MISSING_ARGS, "The complete multipart upload command requires a list of objects to process");
             }
-            doc = _generate_xml_complete_mpu(request->mpu_list);
+            num_elements = (size_t) request->mpu_list->num_parts;
             break;
 
         case BULK_DELETE:
@@ -192,25 +223,40 @@ static ds3_error* _init_request_payload(const ds3_request* _request,
             if (request->delete_objects == NULL || request->delete_objects->num_strings == 0) {
                 return ds3_create_error(DS3_ERROR_MISSING_ARGS, "The delete objects command requires a list of objects to process");
             }
-            doc = _generate_xml_delete_objects(request->delete_objects);
+            num_elements = (size_t) request->delete_objects->num_strings;
             break;
 
         case STRING: // *** not XML - do not interpret
-            send_buff->buff = request->delete_objects->strings_list[0]->value;
-            send_buff->size = request->delete_objects->strings_list[0]->size;
-            request->length = send_buff->size;
+            send_buff->request = request;
+            send_buff->list_type = operation_type;
+            send_buff->num_pieces = 1;
+            request->length = request->delete_objects->strings_list[0]->size;
             return NULL;
-            break;
 
         default:
             return ds3_create_error(DS3_ERROR_INVALID_XML, "Unknown request payload type");
     }
 
-    xmlDocDumpFormatMemory(doc, (xmlChar**) &send_buff->buff, (int*) &send_buff->size, 1);
-    request->length = send_buff->size; // make sure to set the size of the request.
+    send_buff->request = request;
+    send_buff->list_type = operation_type;
+    send_buff->num_pieces = num_elements + 2; // the opening and closing of the document
+    send_buff->piece = g_string_new(NULL);
 
-    xmlFreeDoc(doc);
+    request->length = 0;
+    for (piece_index = 0; piece_index < send_buff->num_pieces; piece_index++) {
+        _render_payload_piece(send_buff, piece_index);
+        request->length += send_buff->data_size; // make sure to set the size of the request.
+    }
+    send_buff->data = NULL;
+    send_buff->data_size = 0;
 
     return NULL;
 }
 
+static void _free_request_payload(ds3_xml_send_buff* send_buff) {
+    if (send_buff->piece != NULL) {
+        g_string_free(send_buff->piece, TRUE);
+        send_buff->piece = NULL;
+    }
+}
+
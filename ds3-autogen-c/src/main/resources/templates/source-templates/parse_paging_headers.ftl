@@ -33,3 +33,24 @@ static ds3_paging* _parse_paging_headers(ds3_string_multimap* response_headers)
 
     return response_paging;
 }
+
+// The page length requested by the each functions when the caller has not set one, so that
+// every page has the same length and page_offset identifies the following page
+#define EACH_DEFAULT_PAGE_LENGTH 1000
+
+static char* _get_query_param_copy(const ds3_request* request, const char* key) {
+    return g_strdup((const char*) g_hash_table_lookup(request->query_params, key));
+}
+
+static void _set_paging_query_param(const ds3_request* request, const char* key, int value) {
+    g_hash_table_insert(request->query_params, (gpointer) g_strdup(key), (gpointer) g_strdup_printf("%d", value));
+}
+
+// Restores a query param to the value copied by _get_query_param_copy, taking ownership of the copy
+static void _restore_query_param(const ds3_request* request, const char* key, char* value) {
+    if (value == NULL) {
+        g_hash_table_remove(request->query_params, key);
+    } else {
+        g_hash_table_insert(request->query_params, (gpointer) g_strdup(key), (gpointer) value);
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Response payloads are parsed as they are received instead of being buffered and parsed into a
+ * complete document. The curl write callback feeds each chunk of the body to a libxml2 SAX2 push
+ * parser, which builds the document one child of the root element at a time. When a child of the
+ * root element is complete it is handed to the child parser of the response type, and is then
+ * freed, so the memory used while parsing tracks the largest child of the root element rather
+ * than the whole response.
+ */
+typedef ds3_error* (*_ds3_xml_stream_child_parser)(const ds3_client* client, const xmlDocPtr doc, const xmlNodePtr root, const xmlNodePtr child_node, void* user_data);
+
+typedef struct {
+    const ds3_client* client;
+    xmlParserCtxtPtr ctxt;
+    const char* root_element_name;
+    _ds3_xml_stream_child_parser child_parser;
+    void* user_data;
+    void (*free_user_data)(void* user_data);
+    int depth;
+    ds3_error* error;
+    ds3_response_arena* arena; // the arena the response members are allocated from, if any
+}ds3_xml_stream_parser;
+
+static void _ds3_xml_stream_start_element(void* ctx,
+                                          const xmlChar* localname,
+                                          const xmlChar* prefix,
+                                          const xmlChar* URI,
+                                          int nb_namespaces,
+                                          const xmlChar** namespaces,
+                                          int nb_attributes,
+                                          int nb_defaulted,
+                                          const xmlChar** attributes) {
+    xmlParserCtxtPtr ctxt = (xmlParserCtxtPtr) ctx;
+    ds3_xml_stream_parser* parser = (ds3_xml_stream_parser*) ctxt->_private;
+
+    if (parser->depth == 0 && xmlStrcmp(localname, (const xmlChar*) parser->root_element_name) != 0) {
+        char* message = g_strconcat("Expected the root element to be '", parser->root_element_name, "'.  The actual root element is: ", (const char*) localname, NULL);
+        parser->error = ds3_create_error(DS3_ERROR_INVALID_XML, message);
+        g_free(message);
+        xmlStopParser(ctxt);
+        return;
+    }
+
+    xmlSAX2StartElementNs(ctx, localname, prefix, URI, nb_namespaces, namespaces, nb_attributes, nb_defaulted, attributes);
+    if (parser->depth == 0) {
+        // The response parsers find the arena through the document
+        ctxt->myDoc->_private = parser->arena;
+    }
+    parser->depth++;
+}
+
+static void _ds3_xml_stream_end_element(void* ctx, const xmlChar* localname, const xmlChar* prefix, const xmlChar* URI) {
+    xmlParserCtxtPtr ctxt = (xmlParserCtxtPtr) ctx;
+    ds3_xml_stream_parser* parser = (ds3_xml_stream_parser*) ctxt->_private;
+    xmlNodePtr child_node;
+
+    xmlSAX2EndElementNs(ctx, localname, prefix, URI);
+    parser->depth--;
+
+    if (parser->depth != 1 || parser->error != NULL) {
+        return;
+    }
+
+    // A child of the root element is complete, and ctxt->node is the root element again
+    child_node = ctxt->node->last;
+    if (parser->child_parser != NULL) {
+        parser->error = parser->child_parser(parser->client, ctxt->myDoc, ctxt->node, child_node, parser->user_data);
+    }
+    xmlUnlinkNode(child_node);
+    xmlFreeNode(child_node);
+
+    if (parser->error != NULL) {
+        xmlStopParser(ctxt);
+    }
+}
+
+static void _ds3_xml_stream_characters(void* ctx, const xmlChar* ch, int len) {
+    xmlParserCtxtPtr ctxt = (xmlParserCtxtPtr) ctx;
+    ds3_xml_stream_parser* parser = (ds3_xml_stream_parser*) ctxt->_private;
+
+    // Text between the children of the root element is not part of any response member
+    if (parser->depth > 1) {
+        xmlSAX2Characters(ctx, ch, len);
+    }
+}
+
+static ds3_xml_stream_parser* _ds3_xml_stream_parser_init(const ds3_client* client,
+                                                          const char* root_element_name,
+                                                          _ds3_xml_stream_child_parser child_parser,
+                                                          void* user_data,
+                                                          void (*free_user_data)(void* user_data)) {
+    xmlSAXHandler sax_handler;
+    ds3_xml_stream_parser* parser = g_new0(ds3_xml_stream_parser, 1);
+
+    memset(&sax_handler, 0, sizeof(xmlSAXHandler));
+    xmlSAXVersion(&sax_handler, 2);
+    sax_handler.startElementNs = _ds3_xml_stream_start_element;
+    sax_handler.endElementNs = _ds3_xml_stream_end_element;
+    sax_handler.characters = _ds3_xml_stream_characters;
+    sax_handler.ignorableWhitespace = _ds3_xml_stream_characters;
+
+    parser->client = client;
+    parser->root_element_name = root_element_name;
+    parser->child_parser = child_parser;
+    parser->user_data = user_data;
+    parser->free_user_data = free_user_data;
+    parser->ctxt = xmlCreatePushParserCtxt(&sax_handler, NULL, NULL, 0, NULL);
+    parser->ctxt->_private = parser;
+
+    return parser;
+}
+
+/*
+ * The curl write callback for a response payload.  Once parsing has failed the rest of the
+ * payload is discarded, so that the request completes and the parse error is reported.
+ */
+static size_t _ds3_xml_stream_parser_write(void* buffer, size_t size, size_t nmemb, void* user_data) {
+    ds3_xml_stream_parser* parser = (ds3_xml_stream_parser*) user_data;
+    size_t to_write = size * nmemb;
+
+    if (parser->error == NULL && parser->ctxt->wellFormed) {
+        xmlParseChunk(parser->ctxt, (const char*) buffer, (int) to_write, 0);
+    }
+    return to_write;
+}
+
+static ds3_error* _ds3_xml_stream_parser_invalid_xml_error(const ds3_xml_stream_parser* parser) {
+    ds3_error* error;
+    char* message;
+    const xmlError* xml_error = xmlCtxtGetLastError(parser->ctxt);
+
+    if (xml_error != NULL && xml_error->message != NULL) {
+        message = g_strconcat("Failed to parse response document: ", xml_error->message, NULL);
+    } else {
+        message = g_strconcat("Failed to parse response document.  Expected the root element to be '", parser->root_element_name, "'", NULL);
+    }
+    error = ds3_create_error(DS3_ERROR_INVALID_XML, message);
+    g_free(message);
+    return error;
+}
+
+/*
+ * Parses the end of the payload, and retrieves the document and root element, which still
+ * contains the attributes of the root element.  The document is freed with the parser.
+ */
+static ds3_error* _ds3_xml_stream_parser_finish(ds3_xml_stream_parser* parser, xmlDocPtr* _doc, xmlNodePtr* _root) {
+    xmlNodePtr root;
+
+    if (parser->error != NULL) {
+        ds3_error* error = parser->error;
+        parser->error = NULL;
+        return error;
+    }
+
+    xmlParseChunk(parser->ctxt, NULL, 0, 1);
+    if (parser->error != NULL) {
+        ds3_error* error = parser->error;
+        parser->error = NULL;
+        return error;
+    }
+
+    if (!parser->ctxt->wellFormed || parser->ctxt->myDoc == NULL) {
+        return _ds3_xml_stream_parser_invalid_xml_error(parser);
+    }
+
+    root = xmlDocGetRootElement(parser->ctxt->myDoc);
+    if (root == NULL) {
+        return _ds3_xml_stream_parser_invalid_xml_error(parser);
+    }
+
+    *_doc = parser->ctxt->myDoc;
+    *_root = root;
+    return NULL;
+}
+
+static void _ds3_xml_stream_parser_free(ds3_xml_stream_parser* parser) {
+    if (parser == NULL) {
+        return;
+    }
+
+    if (parser->ctxt->myDoc != NULL) {
+        xmlFreeDoc(parser->ctxt->myDoc);
+        parser->ctxt->myDoc = NULL;
+    }
+    xmlFreeParserCtxt(parser->ctxt);
+
+    if (parser->free_user_data != NULL) {
+        parser->free_user_data(parser->user_data);
+    }
+    ds3_error_free(parser->error);
+    g_free(parser);
+}
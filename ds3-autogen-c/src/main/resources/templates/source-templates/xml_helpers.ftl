@@ -38,15 +38,74 @@ static uint64_t xml_get_uint64_from_attribute(xmlDocPtr doc, struct _xmlAttr* at
     return xml_get_uint64(doc, (xmlNodePtr) attribute);
 }
 
+/*
+ * Response members are allocated from the arena of the response being parsed, which is kept in
+ * the document, or from the heap when the client does not use response arenas.
+ */
+static void* _ds3_response_alloc0(const xmlDocPtr doc, size_t size) {
+    if (doc->_private != NULL) {
+        return ds3_response_arena_alloc0((ds3_response_arena*) doc->_private, size);
+    }
+    return g_malloc0(size);
+}
+
+/*
+ * Moves the elements of a GPtrArray into an array owned by the arena, or by the caller when
+ * there is no arena, and frees the GPtrArray.
+ */
+static gpointer* _ds3_arena_array(ds3_response_arena* arena, GPtrArray* array) {
+    gpointer* elements;
+    if (arena == NULL) {
+        return (gpointer*) g_ptr_array_free(array, FALSE);
+    }
+
+    elements = NULL;
+    if (array->len > 0) {
+        elements = (gpointer*) ds3_response_arena_alloc0(arena, array->len * sizeof(gpointer));
+        memcpy(elements, array->pdata, array->len * sizeof(gpointer));
+    }
+    g_ptr_array_free(array, TRUE);
+    return elements;
+}
+
+static gpointer* _ds3_response_array(const xmlDocPtr doc, GPtrArray* array) {
+    return _ds3_arena_array((ds3_response_arena*) doc->_private, array);
+}
+
+static guint8* _ds3_response_byte_array(const xmlDocPtr doc, GByteArray* array) {
+    guint8* elements;
+    if (doc->_private == NULL) {
+        return g_byte_array_free(array, FALSE);
+    }
+
+    elements = NULL;
+    if (array->len > 0) {
+        elements = (guint8*) ds3_response_arena_alloc0((ds3_response_arena*) doc->_private, array->len);
+        memcpy(elements, array->data, array->len);
+    }
+    g_byte_array_free(array, TRUE);
+    return elements;
+}
+
 static ds3_str* xml_get_string(xmlDocPtr doc, xmlNodePtr child_node) {
     xmlChar* text;
     ds3_str* result;
+    size_t size;
     text = xmlNodeListGetString(doc, child_node->xmlChildrenNode, 1);
     if (text == NULL) {
         // Element is found, but is empty: <name />
         return NULL;
     }
-    result = ds3_str_init((const char*) text);
+    if (doc->_private == NULL) {
+        result = ds3_str_init((const char*) text);
+    } else {
+        // The characters are stored right after the ds3_str, in the same allocation
+        size = strlen((const char*) text);
+        result = (ds3_str*) ds3_response_arena_alloc0((ds3_response_arena*) doc->_private, sizeof(ds3_str) + size + 1);
+        result->value = (char*) (result + 1);
+        result->size = size;
+        memcpy(result->value, text, size);
+    }
     xmlFree(text);
     return result;
 }
@@ -74,29 +133,3 @@ static ds3_bool xml_get_bool(const ds3_log* log, xmlDocPtr doc, const xmlNodePtr
 static ds3_bool xml_get_bool_from_attribute(const ds3_log* log, xmlDocPtr doc, struct _xmlAttr* attribute) {
     return xml_get_bool(log, doc, (xmlNodePtr) attribute);
 }
-
-typedef struct {
-    char* buff;
-    size_t size;
-    size_t total_read;
-}ds3_xml_send_buff;
-
-
-static size_t _ds3_send_xml_buff(void* buffer, size_t size, size_t nmemb, void* user_data) {
-    size_t to_read;
-    size_t remaining;
-    ds3_xml_send_buff* xml_buff;
-
-    xml_buff = (ds3_xml_send_buff*) user_data;
-    to_read = size * nmemb;
-    remaining = xml_buff->size - xml_buff->total_read;
-
-    if (remaining < to_read) {
-        to_read = remaining;
-    }
-
-    strncpy((char*)buffer, xml_buff->buff + xml_buff->total_read, to_read);
-    xml_buff->total_read += to_read;
-    return to_read;
-}
-
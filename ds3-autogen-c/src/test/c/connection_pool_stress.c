@@ -0,0 +1,268 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+/*
+ * Stress test of the generated connection pool.  Many threads acquire connections from a small pool,
+ * perform a request against a local HTTP stand-in with each, and release them.  The test fails if a
+ * connection is ever handed to two threads at once, if a request fails, if more connections are created
+ * than the pool allows, or if the pool statistics do not add up.
+ *
+ * Built and run against the generated sources by the connectionPoolStressTest Gradle task.
+ */
+
+#include <arpa/inet.h>
+#include <inttypes.h>
+#include <netinet/in.h>
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include <sys/socket.h>
+#include <unistd.h>
+#include <curl/curl.h>
+#include <glib.h>
+#include "ds3_connection.h"
+
+#define POOL_SIZE 4
+#define NUM_THREADS 16
+#define ITERATIONS_PER_THREAD 500
+#define TIMEOUT_SECONDS 120 // a deadlocked pool, or a connection corrupted by concurrent use, fails instead of hanging
+
+static const char HTTP_RESPONSE[] = "HTTP/1.1 200 OK\r\nContent-Length: 2\r\nContent-Type: text/plain\r\n\r\nok";
+
+typedef struct {
+    ds3_connection_pool* pool;
+    int                  port;
+    GHashTable*          in_use; // the connections currently held by a thread
+    GMutex               in_use_mutex;
+    volatile gint        failures;
+}stress_context;
+
+//-- Local HTTP stand-in, which answers every request on a kept alive connection with "ok"
+
+static gpointer _serve_http_connection(gpointer data) {
+    const int socket_fd = GPOINTER_TO_INT(data);
+    char buffer[4096];
+    size_t buffered = 0;
+
+    for (;;) {
+        char* end_of_headers;
+        const ssize_t num_read = recv(socket_fd, buffer + buffered, sizeof(buffer) - buffered - 1, 0);
+        if (num_read <= 0) {
+            break;
+        }
+        buffered += (size_t) num_read;
+        buffer[buffered] = '\0';
+
+        while ((end_of_headers = strstr(buffer, "\r\n\r\n")) != NULL) {
+            const size_t request_length = (size_t) (end_of_headers - buffer) + 4;
+            if (send(socket_fd, HTTP_RESPONSE, sizeof(HTTP_RESPONSE) - 1, 0) < 0) {
+                close(socket_fd);
+                return NULL;
+            }
+            memmove(buffer, buffer + request_length, buffered - request_length + 1);
+            buffered -= request_length;
+        }
+        if (buffered == sizeof(buffer) - 1) {
+            break;
+        }
+    }
+    close(socket_fd);
+    return NULL;
+}
+
+static gpointer _accept_http_connections(gpointer data) {
+    const int listen_fd = GPOINTER_TO_INT(data);
+
+    for (;;) {
+        const int socket_fd = accept(listen_fd, NULL, NULL);
+        if (socket_fd < 0) {
+            return NULL;
+        }
+        g_thread_unref(g_thread_new("http-connection", _serve_http_connection, GINT_TO_POINTER(socket_fd)));
+    }
+}
+
+static int _start_http_stand_in(int* port) {
+    struct sockaddr_in address;
+    socklen_t address_length = sizeof(address);
+    const int listen_fd = socket(AF_INET, SOCK_STREAM, 0);
+
+    if (listen_fd < 0) {
+        return -1;
+    }
+    memset(&address, 0, sizeof(address));
+    address.sin_family = AF_INET;
+    address.sin_addr.s_addr = htonl(INADDR_LOOPBACK);
+    address.sin_port = 0;
+    if (bind(listen_fd, (struct sockaddr*) &address, sizeof(address)) != 0
+            || listen(listen_fd, NUM_THREADS * 2) != 0
+            || getsockname(listen_fd, (struct sockaddr*) &address, &address_length) != 0) {
+        close(listen_fd);
+        return -1;
+    }
+    *port = ntohs(address.sin_port);
+    g_thread_unref(g_thread_new("http-accept", _accept_http_connections, GINT_TO_POINTER(listen_fd)));
+    return 0;
+}
+
+//-- Pool clients
+
+static size_t _append_body(void* data, size_t size, size_t count, void* user_data) {
+    g_string_append_len((GString*) user_data, (const gchar*) data, (gssize) (size * count));
+    return size * count;
+}
+
+static void _fail(stress_context* context, const char* message) {
+    fprintf(stderr, "FAILED: %s\n", message);
+    g_atomic_int_inc(&context->failures);
+}
+
+static void _mark_in_use(stress_context* context, ds3_connection* connection) {
+    g_mutex_lock(&context->in_use_mutex);
+    if (!g_hash_table_add(context->in_use, connection)) {
+        _fail(context, "a connection was handed to two threads at once");
+    }
+    g_mutex_unlock(&context->in_use_mutex);
+}
+
+static void _mark_idle(stress_context* context, ds3_connection* connection) {
+    g_mutex_lock(&context->in_use_mutex);
+    g_hash_table_remove(context->in_use, connection);
+    g_mutex_unlock(&context->in_use_mutex);
+}
+
+static void _perform_request(stress_context* context, ds3_connection* connection) {
+    GString* body = g_string_new(NULL);
+    char* url = g_strdup_printf("http://127.0.0.1:%d/", context->port);
+    long response_code = 0;
+    CURLcode result;
+
+    curl_easy_setopt(connection, CURLOPT_URL, url);
+    curl_easy_setopt(connection, CURLOPT_WRITEFUNCTION, _append_body);
+    curl_easy_setopt(connection, CURLOPT_WRITEDATA, body);
+    curl_easy_setopt(connection, CURLOPT_NOSIGNAL, 1L);
+    result = curl_easy_perform(connection);
+    curl_easy_getinfo(connection, CURLINFO_RESPONSE_CODE, &response_code);
+
+    if (result != CURLE_OK) {
+        _fail(context, curl_easy_strerror(result));
+    } else if (response_code != 200 || strcmp(body->str, "ok") != 0) {
+        _fail(context, "unexpected response from the HTTP stand-in");
+    }
+
+    g_free(url);
+    g_string_free(body, TRUE);
+}
+
+static gpointer _stress_worker(gpointer data) {
+    stress_context* context = (stress_context*) data;
+    int iteration;
+
+    for (iteration = 0; iteration < ITERATIONS_PER_THREAD; iteration++) {
+        ds3_connection* connection = NULL;
+        if (iteration % 4 == 0) {
+            connection = ds3_connection_try_acquire(context->pool);
+        }
+        if (connection == NULL) {
+            connection = ds3_connection_acquire(context->pool);
+        }
+
+        _mark_in_use(context, connection);
+        _perform_request(context, connection);
+        _mark_idle(context, connection);
+
+        ds3_connection_release(context->pool, connection);
+    }
+    return NULL;
+}
+
+// try_acquire must hand out exactly POOL_SIZE connections, and then return NULL instead of waiting
+static void _check_try_acquire_exhaustion(stress_context* context) {
+    ds3_connection* connections[POOL_SIZE];
+    int index;
+
+    for (index = 0; index < POOL_SIZE; index++) {
+        connections[index] = ds3_connection_try_acquire(context->pool);
+        if (connections[index] == NULL) {
+            _fail(context, "try_acquire returned NULL before the pool was exhausted");
+        }
+    }
+    if (ds3_connection_try_acquire(context->pool) != NULL) {
+        _fail(context, "try_acquire returned a connection from an exhausted pool");
+    }
+    for (index = 0; index < POOL_SIZE; index++) {
+        if (connections[index] != NULL) {
+            ds3_connection_release(context->pool, connections[index]);
+        }
+    }
+}
+
+static void _check_stats(stress_context* context) {
+    ds3_connection_pool_stats stats;
+    const uint64_t expected_acquires = (uint64_t) NUM_THREADS * ITERATIONS_PER_THREAD + POOL_SIZE;
+
+    ds3_connection_pool_get_stats(context->pool, &stats);
+    printf("acquires=%" PRIu64 " hits=%" PRIu64 " creations=%" PRIu64 " waits=%" PRIu64 " hit_rate=%.3f\n",
+           stats.acquires, stats.hits, stats.creations, stats.waits, stats.hit_rate);
+
+    if (stats.acquires != expected_acquires) {
+        _fail(context, "the number of acquires does not match the connections handed out");
+    }
+    if (stats.creations > POOL_SIZE) {
+        _fail(context, "more connections were created than the pool allows");
+    }
+    if (stats.hits + stats.creations + stats.waits != stats.acquires) {
+        _fail(context, "every acquire must be exactly one of a hit, a creation, or a wait");
+    }
+}
+
+int main(void) {
+    stress_context context;
+    GThread* workers[NUM_THREADS];
+    int index;
+
+    alarm(TIMEOUT_SECONDS);
+    curl_global_init(CURL_GLOBAL_ALL);
+    memset(&context, 0, sizeof(context));
+    if (_start_http_stand_in(&context.port) != 0) {
+        fprintf(stderr, "FAILED: unable to start the HTTP stand-in\n");
+        return 1;
+    }
+    context.pool = ds3_connection_pool_init_with_size(POOL_SIZE);
+    context.in_use = g_hash_table_new(g_direct_hash, g_direct_equal);
+    g_mutex_init(&context.in_use_mutex);
+
+    for (index = 0; index < NUM_THREADS; index++) {
+        workers[index] = g_thread_new("stress-worker", _stress_worker, &context);
+    }
+    for (index = 0; index < NUM_THREADS; index++) {
+        g_thread_join(workers[index]);
+    }
+
+    _check_try_acquire_exhaustion(&context);
+    _check_stats(&context);
+
+    ds3_connection_pool_dec_ref(context.pool);
+    g_hash_table_destroy(context.in_use);
+    g_mutex_clear(&context.in_use_mutex);
+    curl_global_cleanup();
+
+    if (g_atomic_int_get(&context.failures) != 0) {
+        fprintf(stderr, "%d failures\n", g_atomic_int_get(&context.failures));
+        return 1;
+    }
+    printf("connection pool stress test passed\n");
+    return 0;
+}
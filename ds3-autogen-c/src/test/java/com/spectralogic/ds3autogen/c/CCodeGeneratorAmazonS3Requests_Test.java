@@ -69,6 +69,9 @@ public class CCodeGeneratorAmazonS3Requests_Test {
 
         assertTrue(output.contains("    return _internal_request_dispatcher(client, request, NULL, NULL, NULL, NULL, NULL);"));
 
+        assertTrue(output.contains("ds3_error* ds3_delete_bucket_request_async(const ds3_client* client, const ds3_request* request, ds3_request_callback on_complete, void* on_complete_data) {"));
+        assertTrue(output.contains("    return _internal_request_submitter(async_request, NULL, NULL, NULL, NULL);"));
+
         assertTrue(output.contains("}"));
     }
 
@@ -96,7 +99,11 @@ public class CCodeGeneratorAmazonS3Requests_Test {
 
         assertTrue(output.contains("ds3_error* ds3_get_service_request(const ds3_client* client, const ds3_request* request, ds3_list_all_my_buckets_result_response** response) {"));
 
-        assertTrue(output.contains("    return _parse_top_level_ds3_list_all_my_buckets_result_response(client, request, response, xml_blob);"));
+        assertTrue(output.contains("    return _parse_top_level_ds3_list_all_my_buckets_result_response(client, request, response, parser);"));
+
+        assertTrue(output.contains("ds3_error* ds3_get_service_request_async(const ds3_client* client, const ds3_request* request, ds3_request_callback on_complete, void* on_complete_data) {"));
+        assertTrue(output.contains("static ds3_error* _ds3_get_service_request_async_response(const ds3_client* client, const ds3_request* request, ds3_xml_stream_parser* parser, ds3_string_multimap* return_headers, void** _response) {"));
+        assertTrue(output.contains("    async_request->parser = _init_top_level_ds3_list_all_my_buckets_result_response_parser(client);"));
 
         assertTrue(output.contains("}"));
     }
@@ -120,7 +127,7 @@ public class CCodeGeneratorAmazonS3Requests_Test {
         assertTrue(output.contains("        return ds3_create_error(DS3_ERROR_MISSING_ARGS, \"The bucket name parameter is required.\");"));
         assertTrue(output.contains("    }"));
 
-        assertTrue(output.contains("    return _parse_top_level_ds3_list_bucket_result_response(client, request, response, xml_blob);"));
+        assertTrue(output.contains("    return _parse_top_level_ds3_list_bucket_result_response(client, request, response, parser);"));
 
         assertTrue(output.contains("}"));
     }
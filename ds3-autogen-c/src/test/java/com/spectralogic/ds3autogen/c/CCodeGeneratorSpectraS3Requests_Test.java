@@ -89,7 +89,7 @@ public class CCodeGeneratorSpectraS3Requests_Test {
         final String output = new String(bstream.toByteArray());
 
         assertTrue(output.contains("ds3_error* ds3_get_system_information_spectra_s3_request(const ds3_client* client, const ds3_request* request, ds3_system_information_response** response) {"));
-        assertTrue(output.contains("    return _parse_top_level_ds3_system_information_response(client, request, response, xml_blob);"));
+        assertTrue(output.contains("    return _parse_top_level_ds3_system_information_response(client, request, response, parser);"));
         assertTrue(output.contains("}"));
     }
 
@@ -117,7 +117,7 @@ public class CCodeGeneratorSpectraS3Requests_Test {
         assertTrue(output.contains("        return ds3_create_error(DS3_ERROR_MISSING_ARGS, \"The resource type parameter is required.\");"));
         assertTrue(output.contains("    }"));
 
-        assertTrue(output.contains("    return _parse_top_level_ds3_bucket_response(client, request, response, xml_blob);"));
+        assertTrue(output.contains("    return _parse_top_level_ds3_bucket_response(client, request, response, parser);"));
         assertTrue(output.contains("}"));
     }
 
@@ -137,22 +137,26 @@ public class CCodeGeneratorSpectraS3Requests_Test {
         final String expectedOutput =
             "ds3_error* ds3_get_buckets(const ds3_client* client, const ds3_request* request, ds3_bucket_list_response** response) {" + "\n"
           + "    ds3_error* error;"                                                                                                                      + "\n"
-          + "    GByteArray* xml_blob;"                                                                                                                  + "\n"
+          + "    ds3_xml_stream_parser* parser;"                                                                                                         + "\n"
           + "    ds3_string_multimap* return_headers = NULL;"                                                                                            + "\n"
           + "\n"
           + "    if (request->path->size < 2) {"                                                                                                         + "\n"
           + "        return ds3_create_error(DS3_ERROR_MISSING_ARGS, \"The resource type parameter is required.\");"                                     + "\n"
           + "    }"                                                                                                                                      + "\n"
           + "\n"
-          + "    xml_blob = g_byte_array_new();"                                                                                                         + "\n"
-          + "    error = _internal_request_dispatcher(client, request, xml_blob, ds3_load_buffer, NULL, NULL, &return_headers);"                         + "\n"
+          + "    parser = _init_top_level_ds3_bucket_list_response_parser(client);"                                                                      + "\n"
+          + "    error = _internal_request_dispatcher(client, request, parser, _ds3_xml_stream_parser_write, NULL, NULL, &return_headers);"              + "\n"
           + "    if (error != NULL) {"                                                                                                                   + "\n"
           + "        ds3_string_multimap_free(return_headers);"                                                                                          + "\n"
-          + "        g_byte_array_free(xml_blob, TRUE);"                                                                                                 + "\n"
+          + "        _ds3_xml_stream_parser_free(parser);"                                                                                               + "\n"
           + "        return error;"                                                                                                                      + "\n"
           + "    }"                                                                                                                                      + "\n"
           + "\n"
-          + "    error = _parse_top_level_ds3_bucket_list_response(client, request, response, xml_blob);"                                                + "\n"
+          + "    error = _parse_top_level_ds3_bucket_list_response(client, request, response, parser);"                                                  + "\n"
+          + "    if (error != NULL) {"                                                                                                                   + "\n"
+          + "        ds3_string_multimap_free(return_headers);"                                                                                          + "\n"
+          + "        return error;"                                                                                                                      + "\n"
+          + "    }"                                                                                                                                      + "\n"
           + "\n"
           + "    (*response)->paging = _parse_paging_headers(return_headers);"                                                                           + "\n"
           + "    ds3_string_multimap_free(return_headers);"                                                                                              + "\n"
@@ -102,16 +102,38 @@ public class CCodeGenerator_Test {
         final String output = new String(bstream.toByteArray());
 
         final String expectedOutput = "static ds3_job_status _match_ds3_job_status(const ds3_log* log, const xmlChar* text) {" + "\n"
-                                    + "    if (xmlStrcmp(text, (const xmlChar*) \"IN_PROGRESS\") == 0) {" + "\n"
-                                    + "        return DS3_JOB_STATUS_IN_PROGRESS;" + "\n"
-                                    + "    } else if (xmlStrcmp(text, (const xmlChar*) \"COMPLETED\") == 0) {" + "\n"
-                                    + "        return DS3_JOB_STATUS_COMPLETED;" + "\n"
-                                    + "    } else if (xmlStrcmp(text, (const xmlChar*) \"CANCELED\") == 0) {" + "\n"
-                                    + "        return DS3_JOB_STATUS_CANCELED;" + "\n"
-                                    + "    } else {" + "\n"
-                                    + "        ds3_log_message(log, DS3_ERROR, \"ERROR: Unknown value of '%s'.  Returning DS3_JOB_STATUS_IN_PROGRESS for safety.\", text);" + "\n"
-                                    + "        return DS3_JOB_STATUS_IN_PROGRESS;" + "\n"
+                                    + "    switch (xmlStrlen(text)) {" + "\n"
+                                    + "    case 8:" + "\n"
+                                    + "        switch (text[0]) {" + "\n"
+                                    + "        case 'C':" + "\n"
+                                    + "            if (xmlStrcmp(text, (const xmlChar*) \"CANCELED\") == 0) {" + "\n"
+                                    + "                return DS3_JOB_STATUS_CANCELED;" + "\n"
+                                    + "            }" + "\n"
+                                    + "            break;" + "\n"
+                                    + "        }" + "\n"
+                                    + "        break;" + "\n"
+                                    + "    case 9:" + "\n"
+                                    + "        switch (text[0]) {" + "\n"
+                                    + "        case 'C':" + "\n"
+                                    + "            if (xmlStrcmp(text, (const xmlChar*) \"COMPLETED\") == 0) {" + "\n"
+                                    + "                return DS3_JOB_STATUS_COMPLETED;" + "\n"
+                                    + "            }" + "\n"
+                                    + "            break;" + "\n"
+                                    + "        }" + "\n"
+                                    + "        break;" + "\n"
+                                    + "    case 11:" + "\n"
+                                    + "        switch (text[0]) {" + "\n"
+                                    + "        case 'I':" + "\n"
+                                    + "            if (xmlStrcmp(text, (const xmlChar*) \"IN_PROGRESS\") == 0) {" + "\n"
+                                    + "                return DS3_JOB_STATUS_IN_PROGRESS;" + "\n"
+                                    + "            }" + "\n"
+                                    + "            break;" + "\n"
+                                    + "        }" + "\n"
+                                    + "        break;" + "\n"
                                     + "    }" + "\n"
+                                    + "" + "\n"
+                                    + "    ds3_log_message(log, DS3_ERROR, \"ERROR: Unknown value of '%s'.  Returning DS3_JOB_STATUS_IN_PROGRESS for safety.\", text);" + "\n"
+                                    + "    return DS3_JOB_STATUS_IN_PROGRESS;" + "\n"
                                     + "}" + "\n";
 
         assertThat(expectedOutput, is(output));
@@ -251,6 +273,34 @@ public class CCodeGenerator_Test {
         assertEquals(expectedOutput, output);
     }
 
+    @Test
+    public void testTopLevelFreeTypedefStructWithArena() throws IOException, ParseException, TemplateModelException {
+        final TestFileUtilsImpl fileUtils = new TestFileUtilsImpl();
+        final Map<String,Object> testMap = new HashMap<>();
+        final Struct structEntry = new Struct("ds3_bucket_response",
+                "Bucket",
+                ImmutableList.of(
+                        new StructMember( new FreeableType("ds3_str", false), "name"),
+                        new StructMember( new FreeableType("ds3_response_arena", false), "arena")
+                ),
+                true,
+                false,
+                false,
+                false);
+        testMap.put("structEntry", structEntry);
+
+        final CCodeGenerator codeGenerator = new CCodeGenerator();
+        codeGenerator.processTemplate(testMap, "source-templates/FreeStruct.ftl", fileUtils.getOutputStream());
+
+        final ByteArrayOutputStream bstream = (ByteArrayOutputStream) fileUtils.getOutputStream();
+        final String output = new String(bstream.toByteArray());
+
+        assertTrue(output.contains("    if (response->arena != NULL) {"));
+        assertTrue(output.contains("        ds3_response_arena_free(response->arena);"));
+        assertTrue(output.contains("    ds3_str_free(response->name);"));
+        assertFalse(output.contains("ds3_paging_free"));
+    }
+
     @Test
     public void testComplexFreeTypedefStruct() throws IOException, ParseException, TemplateModelException {
         final String inputSpecFile = "/input/ComplexTypedefStruct.xml";
@@ -346,18 +396,18 @@ public class CCodeGenerator_Test {
         final ByteArrayOutputStream bstream = (ByteArrayOutputStream) fileUtils.getOutputStream();
         final String output = new String(bstream.toByteArray());
 
-        assertTrue(output.contains("static ds3_error* _parse_top_level_ds3_bucket_response(const ds3_client* client, const ds3_request* request, ds3_bucket_response** _response, GByteArray* xml_blob) {"));
-        assertTrue(output.contains("    xmlNodePtr child_node;"));
+        assertTrue(output.contains("static ds3_error* _parse_top_level_ds3_bucket_response(const ds3_client* client, const ds3_request* request, ds3_bucket_response** _response, ds3_xml_stream_parser* parser) {"));
+        assertTrue(output.contains("static ds3_error* _parse_top_level_ds3_bucket_response_child(const ds3_client* client, const xmlDocPtr doc, const xmlNodePtr root, const xmlNodePtr child_node, void* user_data) {"));
         assertTrue(output.contains("    ds3_error* error;"));
-        assertTrue(output.contains("    ds3_bucket_response* response;"));
+        assertTrue(output.contains("    ds3_bucket_response* response = state->response;"));
 
-        assertTrue(output.contains("    error = _get_request_xml_nodes(xml_blob, &doc, &root, \"Data\");"));
+        assertTrue(output.contains("    error = _ds3_xml_stream_parser_finish(parser, &doc, &root);"));
         assertTrue(output.contains("    if (error != NULL) {"));
         assertTrue(output.contains("        return error;"));
         assertTrue(output.contains("    }"));
 
-        assertTrue(output.contains("    response = g_new0(ds3_bucket_response, 1)"));
-        assertTrue(output.contains("    for (child_node = root->xmlChildrenNode; child_node != NULL; child_node = child_node->next) {"));
+        assertTrue(output.contains("    state->response = g_new0(ds3_bucket_response, 1)"));
+        assertTrue(output.contains("    do {"));
         assertTrue(output.contains("        if (element_equal(child_node, \"CreationDate\")) {"));
         assertTrue(output.contains("            response->creation_date = xml_get_string(doc, child_node);"));
         assertTrue(output.contains("        } else if (element_equal(child_node, \"DataPolicyId\")) {"));
@@ -377,12 +427,12 @@ public class CCodeGenerator_Test {
         assertTrue(output.contains("        }"));
         assertTrue(output.contains("    }"));
 
-        assertTrue(output.contains("    xmlFreeDoc(doc);"));
+        assertTrue(output.contains("    _ds3_xml_stream_parser_free(parser);"));
 
         assertTrue(output.contains("    if (error == NULL) {"));
         assertTrue(output.contains("        *_response = response;"));
-        assertTrue(output.contains("    } else {"));
-        assertTrue(output.contains("        ds3_bucket_response_free(response);"));
+        assertTrue(output.contains("        state->response = NULL;"));
+        assertTrue(output.contains("    ds3_bucket_response_free(state->response);"));
         assertTrue(output.contains("    }"));
 
         assertTrue(output.contains("    return error;"));
@@ -411,25 +461,24 @@ public class CCodeGenerator_Test {
         final ByteArrayOutputStream bstream = (ByteArrayOutputStream) fileUtils.getOutputStream();
         final String output = new String(bstream.toByteArray());
 
-        assertTrue(output.contains("static ds3_error* _parse_top_level_ds3_list_all_my_buckets_result_response(const ds3_client* client, const ds3_request* request, ds3_list_all_my_buckets_result_response** _response, GByteArray* xml_blob) {"));
+        assertTrue(output.contains("static ds3_error* _parse_top_level_ds3_list_all_my_buckets_result_response(const ds3_client* client, const ds3_request* request, ds3_list_all_my_buckets_result_response** _response, ds3_xml_stream_parser* parser) {"));
         assertTrue(output.contains("    xmlDocPtr doc;"));
         assertTrue(output.contains("    xmlNodePtr root;"));
-        assertTrue(output.contains("    xmlNodePtr child_node;"));
+        assertTrue(output.contains("static ds3_error* _parse_top_level_ds3_list_all_my_buckets_result_response_child(const ds3_client* client, const xmlDocPtr doc, const xmlNodePtr root, const xmlNodePtr child_node, void* user_data) {"));
         assertTrue(output.contains("    ds3_error* error;"));
-        assertTrue(output.contains("    ds3_list_all_my_buckets_result_response* response;"));
+        assertTrue(output.contains("    ds3_list_all_my_buckets_result_response* response = state->response;"));
 
-        assertTrue(output.contains("    error = _get_request_xml_nodes(xml_blob, &doc, &root, \"Data\");"));
+        assertTrue(output.contains("    error = _ds3_xml_stream_parser_finish(parser, &doc, &root);"));
         assertTrue(output.contains("    if (error != NULL) {"));
         assertTrue(output.contains("        return error;"));
         assertTrue(output.contains("    }"));
 
-        assertTrue(output.contains("    for (child_node = root->xmlChildrenNode; child_node != NULL; child_node = child_node->next) {"));
+        assertTrue(output.contains("    do {"));
         assertTrue(output.contains("        if (element_equal(child_node, \"Buckets\")) {"));
         assertTrue(output.contains("            GPtrArray* buckets_array;"));
         assertTrue(output.contains("            error = _parse_ds3_bucket_details_response_array(client, doc, child_node, &buckets_array);"));
-        assertTrue(output.contains("            response->buckets = (ds3_bucket_details_response**)buckets_array->pdata;"));
         assertTrue(output.contains("            response->num_buckets = buckets_array->len;"));
-        assertTrue(output.contains("            g_ptr_array_free(buckets_array, FALSE);"));
+        assertTrue(output.contains("            response->buckets = (ds3_bucket_details_response**)_ds3_response_array(doc, buckets_array);"));
         assertTrue(output.contains("        } else if (element_equal(child_node, \"Owner\")) {"));
         assertTrue(output.contains("            error = _parse_ds3_user_response(client, doc, child_node, &response->owner);"));
         assertTrue(output.contains("        } else {"));
@@ -438,12 +487,12 @@ public class CCodeGenerator_Test {
 
         assertTrue(output.contains("    }"));
 
-        assertTrue(output.contains("    xmlFreeDoc(doc);"));
+        assertTrue(output.contains("    _ds3_xml_stream_parser_free(parser);"));
 
         assertTrue(output.contains("    if (error == NULL) {"));
         assertTrue(output.contains("        *_response = response;"));
-        assertTrue(output.contains("    } else {"));
-        assertTrue(output.contains("        ds3_list_all_my_buckets_result_response_free(response);"));
+        assertTrue(output.contains("        state->response = NULL;"));
+        assertTrue(output.contains("    ds3_list_all_my_buckets_result_response_free(state->response);"));
         assertTrue(output.contains("    }"));
 
         assertTrue(output.contains("    return error;"));
@@ -476,7 +525,7 @@ public class CCodeGenerator_Test {
         assertTrue(output.contains("    xmlNodePtr child_node;"));
         assertTrue(output.contains("    ds3_blob_response* response;"));
 
-        assertTrue(output.contains("    response = g_new0(ds3_blob_response, 1);"));
+        assertTrue(output.contains("    response = (ds3_blob_response*) _ds3_response_alloc0(doc, sizeof(ds3_blob_response));"));
         assertTrue(output.contains("    for (child_node = root->xmlChildrenNode; child_node != NULL; child_node = child_node->next) {"));
         assertTrue(output.contains("        if (element_equal(child_node, \"ByteOffset\")) {"));
         assertTrue(output.contains("            response->byte_offset = xml_get_uint64(doc, child_node);"));
@@ -608,7 +657,7 @@ public class CCodeGenerator_Test {
         final Pattern arrayParserPattern = Pattern.compile(Pattern.quote(
                 "static ds3_error* _parse_ds3_user_response(const ds3_client* client, const xmlDocPtr doc, const xmlNodePtr root, ds3_user_response** _response) {"));
         final Pattern structParserPattern = Pattern.compile(Pattern.quote(
-                "static ds3_error* _parse_top_level_ds3_list_all_my_buckets_result_response(const ds3_client* client, const ds3_request* request, ds3_list_all_my_buckets_result_response** _response, GByteArray* xml_blob) {"));
+                "static ds3_error* _parse_top_level_ds3_list_all_my_buckets_result_response(const ds3_client* client, const ds3_request* request, ds3_list_all_my_buckets_result_response** _response, ds3_xml_stream_parser* parser) {"));
 
         final Matcher arrayStructParserMatcher = arrayStructParserPattern.matcher(output);
         final Matcher arrayParserMatcher = arrayParserPattern.matcher(output);
@@ -847,6 +896,38 @@ public class CCodeGenerator_Test {
 
         assertEquals("", output);
     }
+
+    @Test
+    public void testGenerateConnectionPoolHeader() throws IOException, TemplateModelException {
+        final CCodeGenerator codeGenerator = new CCodeGenerator();
+        final TestFileUtilsImpl fileUtils = new TestFileUtilsImpl();
+        codeGenerator.processTemplate(null, "other-templates/ds3_connection_h.ftl", fileUtils.getOutputStream());
+
+        final ByteArrayOutputStream bstream = (ByteArrayOutputStream) fileUtils.getOutputStream();
+        final String output = new String(bstream.toByteArray());
+
+        assertTrue(output.contains("}ds3_connection_pool_stats;"));
+        assertTrue(output.contains("ds3_connection* ds3_connection_acquire(ds3_connection_pool* pool);"));
+        assertTrue(output.contains("ds3_connection* ds3_connection_try_acquire(ds3_connection_pool* pool);"));
+        assertTrue(output.contains("void ds3_connection_release(ds3_connection_pool* pool, ds3_connection* handle);"));
+        assertTrue(output.contains("void ds3_connection_pool_get_stats(ds3_connection_pool* pool, ds3_connection_pool_stats* stats);"));
+    }
+
+    @Test
+    public void testGenerateConnectionPoolSource() throws IOException, TemplateModelException {
+        final CCodeGenerator codeGenerator = new CCodeGenerator();
+        final TestFileUtilsImpl fileUtils = new TestFileUtilsImpl();
+        codeGenerator.processTemplate(null, "other-templates/ds3_connection_c.ftl", fileUtils.getOutputStream());
+
+        final ByteArrayOutputStream bstream = (ByteArrayOutputStream) fileUtils.getOutputStream();
+        final String output = new String(bstream.toByteArray());
+
+        assertTrue(output.contains("#include \"ds3_connection.h\""));
+        assertTrue(output.contains("ds3_connection* ds3_connection_acquire(ds3_connection_pool* pool) {"));
+        assertTrue(output.contains("ds3_connection* ds3_connection_try_acquire(ds3_connection_pool* pool) {"));
+        assertTrue(output.contains("void ds3_connection_release(ds3_connection_pool* pool, ds3_connection* connection) {"));
+        assertTrue(output.contains("void ds3_connection_pool_get_stats(ds3_connection_pool* pool, ds3_connection_pool_stats* stats) {"));
+    }
 }
 
 
@@ -0,0 +1,50 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+package com.spectralogic.ds3autogen.c;
+
+import com.spectralogic.ds3autogen.Ds3SpecParserImpl;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3ApiSpec;
+import com.spectralogic.ds3autogen.docspec.Ds3DocSpecEmptyImpl;
+import com.spectralogic.ds3autogen.utils.FileUtilsImpl;
+import freemarker.template.TemplateModelException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Generates the C SDK for a small spec into the directory given as the first argument, so that the
+ * connection pool stress test in src/test/c can be compiled against the generated sources. This is
+ * run by the connectionPoolStressTest Gradle task.
+ */
+public final class ConnectionPoolStressTestSources {
+
+    private static final String INPUT_SPEC = "/input/AmazonS3GetObjectRequest.xml";
+
+    private ConnectionPoolStressTestSources() {}
+
+    public static void main(final String[] args) throws IOException, TemplateModelException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: ConnectionPoolStressTestSources <output directory>");
+        }
+        final Path destDir = Paths.get(args[0]);
+        final Ds3ApiSpec spec = new Ds3SpecParserImpl().getSpec(
+                ConnectionPoolStressTestSources.class.getResourceAsStream(INPUT_SPEC));
+        final FileUtilsImpl fileUtils = new FileUtilsImpl();
+
+        new CCodeGenerator().generate(spec, path -> fileUtils.getOutputFile(destDir.resolve(path)), destDir, new Ds3DocSpecEmptyImpl());
+    }
+}
@@ -16,6 +16,9 @@
 package com.spectralogic.ds3autogen.c;
 
 import com.google.common.collect.ImmutableList;
+import com.spectralogic.ds3autogen.Ds3SpecParserImpl;
+import com.spectralogic.ds3autogen.api.Ds3SpecParser;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3ApiSpec;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3EnumConstant;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3Type;
 import com.spectralogic.ds3autogen.c.converters.EnumConverter;
@@ -23,6 +26,9 @@ import com.spectralogic.ds3autogen.c.helpers.EnumHelper;
 import com.spectralogic.ds3autogen.c.models.Enum;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.text.ParseException;
+
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.*;
@@ -67,16 +73,75 @@ public class EnumHelper_Test {
         final Ds3Type testDs3Type = new Ds3Type("TypePrefix", null, null, enumConstants);
         final Enum testEnum= EnumConverter.toEnum(testDs3Type);
 
-        final String expectedOutput = "    if (input == DS3_TYPE_PREFIX_CHARLIE) {"      + "\n"
-                + "        return \"CHARLIE\";"      + "\n"
-                + "    } else if (input == DS3_TYPE_PREFIX_DELTA) {" + "\n"
-                + "        return \"DELTA\";"        + "\n"
-                + "    } else {"                     + "\n"
-                + "        return \"\";"             + "\n"
-                + "    }"                            + "\n";
+        final String expectedOutput = "    static char* const strings[] = {" + "\n"
+                + "        \"CHARLIE\","            + "\n"
+                + "        \"DELTA\""               + "\n"
+                + "    };"                          + "\n"
+                + ""                                + "\n"
+                + "    if ((int) input < 0 || (size_t) input >= sizeof(strings) / sizeof(strings[0])) {" + "\n"
+                + "        return \"\";"           + "\n"
+                + "    }"                           + "\n"
+                + "    return strings[input];"      + "\n";
         assertThat(EnumHelper.generateToString(testEnum), is(expectedOutput));
     }
 
+    @Test
+    public void testEnumMatcher() {
+        final Ds3EnumConstant alpha = new Ds3EnumConstant("Alpha", null);
+        final Ds3EnumConstant bravo = new Ds3EnumConstant("Bravo", null);
+        final Ds3EnumConstant beta = new Ds3EnumConstant("Beta", null);
+        final ImmutableList<Ds3EnumConstant> enumConstants = ImmutableList.of(alpha, bravo, beta);
+        final Ds3Type testDs3Type = new Ds3Type("TypePrefix", null, null, enumConstants);
+        final Enum testEnum = EnumConverter.toEnum(testDs3Type);
+
+        final String expectedOutput = "    switch (xmlStrlen(text)) {" + "\n"
+                + "    case 4:"                     + "\n"
+                + "        switch (text[0]) {"      + "\n"
+                + "        case 'B':"               + "\n"
+                + "            if (xmlStrcmp(text, (const xmlChar*) \"BETA\") == 0) {" + "\n"
+                + "                return DS3_TYPE_PREFIX_BETA;" + "\n"
+                + "            }"                   + "\n"
+                + "            break;"              + "\n"
+                + "        }"                       + "\n"
+                + "        break;"                  + "\n"
+                + "    case 5:"                     + "\n"
+                + "        switch (text[0]) {"      + "\n"
+                + "        case 'A':"               + "\n"
+                + "            if (xmlStrcmp(text, (const xmlChar*) \"ALPHA\") == 0) {" + "\n"
+                + "                return DS3_TYPE_PREFIX_ALPHA;" + "\n"
+                + "            }"                   + "\n"
+                + "            break;"              + "\n"
+                + "        case 'B':"               + "\n"
+                + "            if (xmlStrcmp(text, (const xmlChar*) \"BRAVO\") == 0) {" + "\n"
+                + "                return DS3_TYPE_PREFIX_BRAVO;" + "\n"
+                + "            }"                   + "\n"
+                + "            break;"              + "\n"
+                + "        }"                       + "\n"
+                + "        break;"                  + "\n"
+                + "    }"                           + "\n"
+                + ""                                + "\n"
+                + "    ds3_log_message(log, DS3_ERROR, \"ERROR: Unknown value of '%s'.  Returning DS3_TYPE_PREFIX_ALPHA for safety.\", text);" + "\n"
+                + "    return DS3_TYPE_PREFIX_ALPHA;";
+        assertThat(EnumHelper.generateMatcher(testEnum), is(expectedOutput));
+    }
+
+    @Test
+    public void testEnumMatcherGroupsOfContractEnums() throws IOException, ParseException {
+        final Ds3SpecParser parser = new Ds3SpecParserImpl();
+        final Ds3ApiSpec spec = parser.getSpec(EnumHelper_Test.class.getResourceAsStream("/input/3_2_2_contract.xml"));
+        final ImmutableList<Enum> allEnums = CCodeGenerator.getAllEnums(spec);
+        assertFalse(allEnums.isEmpty());
+
+        // the xml text of a value is compared against at most the values sharing its length and switch character
+        for (final Enum currentEnum : allEnums) {
+            for (final ImmutableList<String> lengthGroup : EnumHelper.getMatcherLengthGroups(currentEnum).values()) {
+                final int position = EnumHelper.getMatcherCharPosition(currentEnum, lengthGroup);
+                final int maxComparisons = EnumHelper.getMaxGroupSize(EnumHelper.getMatcherCharGroups(currentEnum, lengthGroup, position));
+                assertTrue(currentEnum.getName(), maxComparisons <= 2);
+            }
+        }
+    }
+
     @Test
     public void testNameSpaceType() {
         assertThat(EnumHelper.getDs3Type("TestType"), is("ds3_test_type"));
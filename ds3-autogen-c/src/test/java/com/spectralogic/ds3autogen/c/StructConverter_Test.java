@@ -20,12 +20,14 @@ import com.google.common.collect.ImmutableSet;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3Element;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3Type;
 import com.spectralogic.ds3autogen.c.converters.StructConverter;
+import com.spectralogic.ds3autogen.c.helpers.StructHelper;
 import com.spectralogic.ds3autogen.c.models.Struct;
 import org.junit.Test;
 
 import java.text.ParseException;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 
 public class StructConverter_Test {
@@ -104,4 +106,38 @@ public class StructConverter_Test {
         assertThat(testStruct.getNameToMarshall(), is("ListBucketResult"));
         assertThat(testStruct.getStructMembers().get(0).getNameToMarshall(), is("CommonPrefixes"));
     }
+
+    @Test
+    public void testTopLevelStructHasResponseArena() throws ParseException {
+        final Ds3Element testElement1 = new Ds3Element("BoolElement", "boolean", null, false);
+        final ImmutableList<Ds3Element> elementsList = ImmutableList.of(testElement1);
+        final Ds3Type ds3Type = new Ds3Type("testDs3Type", elementsList);
+        final Struct testStruct = StructConverter.toStruct(
+                ds3Type,
+                ImmutableSet.of(),
+                ImmutableSet.of(StructHelper.getResponseTypeName("testDs3Type")),
+                ImmutableSet.of(),
+                ImmutableSet.of(),
+                ImmutableSet.of());
+        assertThat(testStruct.getStructMembers().size(), is(2));
+        assertThat(testStruct.getStructMembers().get(1).getName(), is("arena"));
+        assertThat(testStruct.getStructMembers().get(1).getType().getTypeName(), is("ds3_response_arena"));
+    }
+
+    @Test
+    public void testEmbeddedStructHasNoResponseArena() throws ParseException {
+        final Ds3Element testElement1 = new Ds3Element("BoolElement", "boolean", null, false);
+        final ImmutableList<Ds3Element> elementsList = ImmutableList.of(testElement1);
+        final Ds3Type ds3Type = new Ds3Type("testDs3Type", elementsList);
+        final Struct testStruct = StructConverter.toStruct(
+                ds3Type,
+                ImmutableSet.of(),
+                ImmutableSet.of(),
+                ImmutableSet.of(),
+                ImmutableSet.of(),
+                ImmutableSet.of());
+        assertThat(testStruct.getStructMembers().size(), is(1));
+        assertFalse(testStruct.getStructMembers().stream()
+                .anyMatch(member -> member.getName().equals("arena")));
+    }
 }
@@ -177,19 +177,19 @@ public class StructHelper_Test {
         final ByteArrayOutputStream bstream = (ByteArrayOutputStream) fileUtils.getOutputStream();
         final String output = new String(bstream.toByteArray());
 
-        assertTrue(output.contains("static ds3_error* _parse_top_level_ds3_system_information_response(const ds3_client* client, const ds3_request* request, ds3_system_information_response** _response, GByteArray* xml_blob) {"));
+        assertTrue(output.contains("static ds3_error* _parse_top_level_ds3_system_information_response(const ds3_client* client, const ds3_request* request, ds3_system_information_response** _response, ds3_xml_stream_parser* parser) {"));
         assertTrue(output.contains("    xmlDocPtr doc;"));
         assertTrue(output.contains("    xmlNodePtr root;"));
-        assertTrue(output.contains("    xmlNodePtr child_node;"));
+        assertTrue(output.contains("static ds3_error* _parse_top_level_ds3_system_information_response_child(const ds3_client* client, const xmlDocPtr doc, const xmlNodePtr root, const xmlNodePtr child_node, void* user_data) {"));
         assertTrue(output.contains("    ds3_error* error;"));
-        assertTrue(output.contains("    ds3_system_information_response* response;"));
+        assertTrue(output.contains("    ds3_system_information_response* response = state->response;"));
 
-        assertTrue(output.contains("    error = _get_request_xml_nodes(xml_blob, &doc, &root, \"Data\");"));
+        assertTrue(output.contains("    error = _ds3_xml_stream_parser_finish(parser, &doc, &root);"));
         assertTrue(output.contains("    if (error != NULL) {"));
         assertTrue(output.contains("        return error;"));
         assertTrue(output.contains("    }"));
 
-        assertTrue(output.contains("    for (child_node = root->xmlChildrenNode; child_node != NULL; child_node = child_node->next) {"));
+        assertTrue(output.contains("    do {"));
         assertTrue(output.contains("        if (element_equal(child_node, \"ApiVersion\")) {"));
         assertTrue(output.contains("            response->api_version = xml_get_string(doc, child_node);"));
         assertTrue(output.contains("        } else if (element_equal(child_node, \"BackendActivated\")) {"));
@@ -209,12 +209,12 @@ public class StructHelper_Test {
         assertTrue(output.contains("        }"));
         assertTrue(output.contains("    }"));
 
-        assertTrue(output.contains("    xmlFreeDoc(doc);"));
+        assertTrue(output.contains("    _ds3_xml_stream_parser_free(parser);"));
 
         assertTrue(output.contains("    if (error == NULL) {"));
         assertTrue(output.contains("        *_response = response;"));
-        assertTrue(output.contains("    } else {"));
-        assertTrue(output.contains("        ds3_system_information_response_free(response);"));
+        assertTrue(output.contains("        state->response = NULL;"));
+        assertTrue(output.contains("    ds3_system_information_response_free(state->response);"));
         assertTrue(output.contains("    }"));
 
         assertTrue(output.contains("    return error;"));
@@ -244,20 +244,20 @@ public class StructHelper_Test {
         final ByteArrayOutputStream bstream = (ByteArrayOutputStream) fileUtils.getOutputStream();
         final String output = new String(bstream.toByteArray());
 
-        assertTrue(output.contains("static ds3_error* _parse_top_level_ds3_system_information_response(const ds3_client* client, const ds3_request* request, ds3_system_information_response** _response, GByteArray* xml_blob) {"));
+        assertTrue(output.contains("static ds3_error* _parse_top_level_ds3_system_information_response(const ds3_client* client, const ds3_request* request, ds3_system_information_response** _response, ds3_xml_stream_parser* parser) {"));
         assertTrue(output.contains("    xmlDocPtr doc;"));
         assertTrue(output.contains("    xmlNodePtr root;"));
-        assertTrue(output.contains("    xmlNodePtr child_node;"));
-        assertTrue(output.contains("    ds3_system_information_response* response;"));
+        assertTrue(output.contains("static ds3_error* _parse_top_level_ds3_system_information_response_child(const ds3_client* client, const xmlDocPtr doc, const xmlNodePtr root, const xmlNodePtr child_node, void* user_data) {"));
+        assertTrue(output.contains("    ds3_system_information_response* response = state->response;"));
         assertTrue(output.contains("    ds3_error* error;"));
 
-        assertTrue(output.contains("    error = _get_request_xml_nodes(xml_blob, &doc, &root, \"Data\");"));
+        assertTrue(output.contains("    error = _ds3_xml_stream_parser_finish(parser, &doc, &root);"));
         assertTrue(output.contains("    if (error != NULL) {"));
         assertTrue(output.contains("        return error;"));
         assertTrue(output.contains("    }"));
 
-        assertTrue(output.contains("    response = g_new0(ds3_system_information_response, 1);"));
-        assertTrue(output.contains("    for (child_node = root->xmlChildrenNode; child_node != NULL; child_node = child_node->next) {"));
+        assertTrue(output.contains("    state->response = g_new0(ds3_system_information_response, 1);"));
+        assertTrue(output.contains("    do {"));
         assertTrue(output.contains("        if (element_equal(child_node, \"ApiVersion\")) {"));
         assertTrue(output.contains("            response->api_version = xml_get_string(doc, child_node);"));
         assertTrue(output.contains("        } else if (element_equal(child_node, \"BackendActivated\")) {"));
@@ -277,12 +277,12 @@ public class StructHelper_Test {
         assertTrue(output.contains("        }"));
         assertTrue(output.contains("    }"));
 
-        assertTrue(output.contains("    xmlFreeDoc(doc);"));
+        assertTrue(output.contains("    _ds3_xml_stream_parser_free(parser);"));
 
         assertTrue(output.contains("    if (error == NULL) {"));
         assertTrue(output.contains("        *_response = response;"));
-        assertTrue(output.contains("    } else {"));
-        assertTrue(output.contains("        ds3_system_information_response_free(response);"));
+        assertTrue(output.contains("        state->response = NULL;"));
+        assertTrue(output.contains("    ds3_system_information_response_free(state->response);"));
         assertTrue(output.contains("    }"));
 
         assertTrue(output.contains("    return error;"));
@@ -332,4 +332,71 @@ public class StructHelper_Test {
         final ImmutableList<Struct> structsList = ImmutableList.of(testOrderOutterStruct, testOrderInnerStruct);
         final ImmutableList<Struct> orderedStructsList = StructHelper.getStructsOrderedList(structsList, ImmutableSet.of());
     }
+
+    @Test
+    public void testGetEachMembers() {
+        final Struct testEachStruct = new Struct("ds3_list_bucket_result_response", "ListBucketResult",
+                ImmutableList.of(
+                        new StructMember(new FreeableType("ds3_str", false), "name", "Name", null, false, false),
+                        new StructMember(new FreeableType("ds3_str", true), "common_prefixes", "CommonPrefixes", "CommonPrefixes", false, false),
+                        new StructMember(new FreeableType("ds3_contents_response", true), "objects", "Contents", null, false, false),
+                        new StructMember(new FreeableType("ds3_bucket_details_response", true), "buckets", "Bucket", "Buckets", false, true)),
+                true, false, true, false);
+        final Struct testNoEachStruct = new Struct("ds3_bucket_response",
+                ImmutableList.of(
+                        new StructMember(new FreeableType("ds3_str", false), "name")));
+
+        final ImmutableList<StructMember> eachMembers = StructHelper.getEachMembers(testEachStruct);
+        assertThat(eachMembers.size(), is(2));
+        assertThat(eachMembers.get(0).getName(), is("objects"));
+        assertThat(eachMembers.get(1).getName(), is("buckets"));
+
+        assertTrue(StructHelper.hasEachMembers(testEachStruct));
+        assertFalse(StructHelper.hasEachMembers(testNoEachStruct));
+
+        final ImmutableSet<String> callbackTypes = StructHelper.getEachCallbackTypes(ImmutableList.of(testEachStruct, testNoEachStruct));
+        assertThat(callbackTypes, is(ImmutableSet.of("ds3_contents_response", "ds3_bucket_details_response")));
+
+        assertThat(StructHelper.getStruct(ImmutableList.of(testEachStruct, testNoEachStruct), "ds3_bucket_response"), is(testNoEachStruct));
+    }
+
+    @Test
+    public void testGenerateEachResponseParser() {
+        final Struct testEachStruct = new Struct("ds3_list_bucket_result_response", "ListBucketResult",
+                ImmutableList.of(
+                        new StructMember(new FreeableType("ds3_contents_response", true), "objects", "Contents", null, false, false),
+                        new StructMember(new FreeableType("ds3_bucket_details_response", true), "buckets", "Bucket", "Buckets", false, true)),
+                true, false, true, false);
+
+        final String expectedOutput =
+                  "    if (element_equal(child_node, \"Contents\")) {\n"
+                + "        ds3_contents_response* element = NULL;\n"
+                + "        error = _parse_ds3_contents_response(client, doc, child_node, &element);\n"
+                + "        if (error == NULL) {\n"
+                + "            state->num_elements++;\n"
+                + "            if (state->objects_callback != NULL && state->objects_callback(element, state->user_data) == False) {\n"
+                + "                state->stopped = True;\n"
+                + "            }\n"
+                + "        }\n"
+                + "        ds3_contents_response_free(element);\n"
+                + "    } else if (element_equal(child_node, \"Buckets\")) {\n"
+                + "        xmlNodePtr loop_node;\n"
+                + "        for (loop_node = child_node->xmlChildrenNode; loop_node != NULL; loop_node = loop_node->next) {\n"
+                + "            ds3_bucket_details_response* element = NULL;\n"
+                + "            error = _parse_ds3_bucket_details_response(client, doc, loop_node, &element);\n"
+                + "            if (error == NULL) {\n"
+                + "                state->num_elements++;\n"
+                + "                if (state->buckets_callback != NULL && state->buckets_callback(element, state->user_data) == False) {\n"
+                + "                    state->stopped = True;\n"
+                + "                }\n"
+                + "            }\n"
+                + "            ds3_bucket_details_response_free(element);\n"
+                + "            if (error != NULL || state->stopped == True) {\n"
+                + "                break;\n"
+                + "            }\n"
+                + "        }\n"
+                + "    }\n";
+
+        assertThat(StructHelper.generateEachResponseParser(testEachStruct), is(expectedOutput));
+    }
 }
@@ -15,36 +15,68 @@
 
 package com.spectralogic.autogen.cli;
 
+import com.google.common.collect.ImmutableList;
 
 public class Arguments {
     private final String targetDir;
-    private final GeneratorType type;
+    private final ImmutableList<GeneratorType> types;
     private final String inputSpec;
     private final boolean help;
     private final boolean generateInternal;
     private final boolean noDoc;
+    private final boolean incremental;
+    private final Integer servePort;
+    private final String serveRoot;
+    private final Integer clientPort;
+    private final boolean shutdown;
+    private final boolean stats;
+    private final boolean statsJson;
+    private final boolean javaXmlReaders;
+    private final int javaThreads;
 
     public Arguments(
             final String targetDir,
-            final GeneratorType type,
+            final ImmutableList<GeneratorType> types,
             final String inputSpec,
             final boolean help,
             final boolean generateInternal,
-            final boolean noDoc) {
+            final boolean noDoc,
+            final boolean incremental,
+            final Integer servePort,
+            final String serveRoot,
+            final Integer clientPort,
+            final boolean shutdown,
+            final boolean stats,
+            final boolean statsJson,
+            final boolean javaXmlReaders,
+            final int javaThreads) {
         this.targetDir = targetDir;
-        this.type = type;
+        this.types = types;
         this.help = help;
         this.inputSpec = inputSpec;
         this.generateInternal = generateInternal;
         this.noDoc = noDoc;
+        this.incremental = incremental;
+        this.servePort = servePort;
+        this.serveRoot = serveRoot;
+        this.clientPort = clientPort;
+        this.shutdown = shutdown;
+        this.stats = stats;
+        this.statsJson = statsJson;
+        this.javaXmlReaders = javaXmlReaders;
+        this.javaThreads = javaThreads;
     }
 
     public String getTargetDir() {
         return targetDir;
     }
 
-    public GeneratorType getType() {
-        return type;
+    /**
+     * Retrieves the languages to generate. If more than one language is specified,
+     * then each language is generated within its own sub directory of the target directory.
+     */
+    public ImmutableList<GeneratorType> getTypes() {
+        return types;
     }
 
     public boolean isHelp() {
@@ -62,4 +94,82 @@ public class Arguments {
     public boolean isNoDoc() {
         return noDoc;
     }
+
+    /**
+     * Determines if only files whose content has changed since the previous run should be written
+     */
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * Determines if a generation server should be run instead of generating code
+     */
+    public boolean isServe() {
+        return servePort != null;
+    }
+
+    /**
+     * Retrieves the port the generation server listens on
+     */
+    public Integer getServePort() {
+        return servePort;
+    }
+
+    /**
+     * Retrieves the directory the generation server is allowed to generate code within,
+     * or null if it is the server's working directory
+     */
+    public String getServeRoot() {
+        return serveRoot;
+    }
+
+    /**
+     * Determines if the arguments should be forwarded to a running generation server
+     */
+    public boolean isClient() {
+        return clientPort != null;
+    }
+
+    /**
+     * Retrieves the port of the generation server the arguments are forwarded to
+     */
+    public Integer getClientPort() {
+        return clientPort;
+    }
+
+    /**
+     * Determines if the generation server the client connects to should be stopped
+     */
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * Determines if generation statistics should be printed as a table
+     */
+    public boolean isStats() {
+        return stats;
+    }
+
+    /**
+     * Determines if generation statistics should be printed as JSON
+     */
+    public boolean isStatsJson() {
+        return statsJson;
+    }
+
+    /**
+     * Determines if the Java SDK is generated with StAX readers that parse the models without reflection
+     */
+    public boolean isJavaXmlReaders() {
+        return javaXmlReaders;
+    }
+
+    /**
+     * Retrieves the number of threads the Java SDK templates are rendered on
+     */
+    public int getJavaThreads() {
+        return javaThreads;
+    }
 }
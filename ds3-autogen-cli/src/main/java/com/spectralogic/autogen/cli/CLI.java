@@ -15,7 +15,8 @@
 
 package com.spectralogic.autogen.cli;
 
-import com.spectralogic.ds3autogen.utils.Guards;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import org.apache.commons.cli.*;
 
 public class CLI {
@@ -24,13 +25,33 @@ public class CLI {
 
     private CLI() {
         this.options = new Options();
-        final Option language = new Option("l", true, "Select the language to generate");
+        final Option language = new Option("l", true, "Select the language to generate. Use a comma separated list or 'all' to generate multiple languages");
         final Option directory = new Option("d", true, "Directory to write generated code to");
         final Option inputSpec = new Option("i", true, "The spec file for the DS3 API");
         final Option help = new Option("h", false, "Print usage");
         final Option generateInternal = new Option("internal", false, "Generate Spectra Internal requests");
         final Option noDoc = new Option(null, false, "Generate with no documentation");
         noDoc.setLongOpt("no-doc");
+        final Option incremental = new Option(null, false, "Only write files whose content has changed and delete files that are no longer generated");
+        incremental.setLongOpt("incremental");
+        final Option serve = new Option(null, true, "Run a generation server on the given local port (default " + GenerationServer.DEFAULT_PORT + ") that keeps parsed specs and compiled templates in memory");
+        serve.setLongOpt("serve");
+        serve.setOptionalArg(true);
+        final Option serveRoot = new Option(null, true, "The directory the generation server is allowed to generate code within (default the server's working directory)");
+        serveRoot.setLongOpt("serve-root");
+        final Option client = new Option(null, true, "Forward the arguments to the generation server on the given local port (default " + GenerationServer.DEFAULT_PORT + ")");
+        client.setLongOpt("client");
+        client.setOptionalArg(true);
+        final Option shutdown = new Option(null, false, "Stop the generation server that '--client' connects to");
+        shutdown.setLongOpt("shutdown");
+        final Option stats = new Option(null, false, "Print a table of the time spent in each phase, the slowest templates, and the files written");
+        stats.setLongOpt("stats");
+        final Option statsJson = new Option(null, false, "Print the time spent in each phase, each template, and the files written as JSON");
+        statsJson.setLongOpt("stats-json");
+        final Option javaXmlReaders = new Option(null, false, "Generate reflection-free StAX readers for the Java SDK models, along with a JMH benchmark comparing them to Jackson");
+        javaXmlReaders.setLongOpt("java-xml-readers");
+        final Option javaThreads = new Option(null, true, "Render the Java SDK templates on the given number of threads (default 1)");
+        javaThreads.setLongOpt("java-threads");
 
         options.addOption(language);
         options.addOption(directory);
@@ -38,6 +59,15 @@ public class CLI {
         options.addOption(help);
         options.addOption(generateInternal);
         options.addOption(noDoc);
+        options.addOption(incremental);
+        options.addOption(serve);
+        options.addOption(serveRoot);
+        options.addOption(client);
+        options.addOption(shutdown);
+        options.addOption(stats);
+        options.addOption(statsJson);
+        options.addOption(javaXmlReaders);
+        options.addOption(javaThreads);
     }
 
     public static Arguments getArguments(final String[] args) throws Exception {
@@ -54,38 +84,103 @@ public class CLI {
         return arguments;
     }
 
+    /**
+     * Parses and validates the arguments without printing the usage when help is requested
+     */
+    public static Arguments parseArguments(final String[] args) throws Exception {
+        return new CLI().processArgs(args);
+    }
+
     private Arguments processArgs(final String[] args) throws Exception {
         final CommandLineParser parser = new BasicParser();
         final CommandLine cmd = parser.parse(options, args);
 
         final String directory = cmd.getOptionValue("d");
-        final GeneratorType language = processLanguageArg(cmd);
+        final ImmutableList<GeneratorType> languages = processLanguageArg(cmd);
         final String inputSpec = cmd.getOptionValue("i");
         final boolean help = cmd.hasOption("h");
         final boolean generateInternal = cmd.hasOption("internal");
         final boolean noDoc = cmd.hasOption("no-doc");
-
-        final Arguments arguments = new Arguments(directory, language, inputSpec, help, generateInternal, noDoc);
+        final boolean incremental = cmd.hasOption("incremental");
+        final Integer servePort = processPortArg(cmd, "serve");
+        final String serveRoot = cmd.getOptionValue("serve-root");
+        final Integer clientPort = processPortArg(cmd, "client");
+        final boolean shutdown = cmd.hasOption("shutdown");
+        final boolean stats = cmd.hasOption("stats");
+        final boolean statsJson = cmd.hasOption("stats-json");
+        final boolean javaXmlReaders = cmd.hasOption("java-xml-readers");
+        final int javaThreads = processThreadsArg(cmd, "java-threads");
+
+        final Arguments arguments = new Arguments(directory, languages, inputSpec, help, generateInternal, noDoc, incremental,
+                servePort, serveRoot, clientPort, shutdown, stats, statsJson, javaXmlReaders, javaThreads);
 
         validateArguments(arguments);
 
         return arguments;
     }
 
-    private GeneratorType processLanguageArg(final CommandLine cmd) {
-        try {
-            return Guards.returnIfNull(cmd.getOptionValue("l").toUpperCase(), GeneratorType::valueOf);
-        } catch (final NullPointerException e) {
+    private ImmutableList<GeneratorType> processLanguageArg(final CommandLine cmd) {
+        final String languageArg = cmd.getOptionValue("l");
+        if (languageArg == null) {
             return null;
+        }
+        if (languageArg.trim().equalsIgnoreCase("all")) {
+            return ImmutableList.copyOf(GeneratorType.values());
+        }
+        final ImmutableSet.Builder<GeneratorType> builder = ImmutableSet.builder();
+        for (final String language : languageArg.split(",")) {
+            builder.add(processLanguage(language.trim()));
+        }
+        return builder.build().asList();
+    }
+
+    private Integer processPortArg(final CommandLine cmd, final String option) {
+        if (!cmd.hasOption(option)) {
+            return null;
+        }
+        final String portArg = cmd.getOptionValue(option);
+        if (portArg == null) {
+            return GenerationServer.DEFAULT_PORT;
+        }
+        try {
+            return Integer.parseInt(portArg.trim());
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException(portArg + " is not a valid port for '--" + option + "'");
+        }
+    }
+
+    private int processThreadsArg(final CommandLine cmd, final String option) {
+        if (!cmd.hasOption(option)) {
+            return 1;
+        }
+        final String threadsArg = cmd.getOptionValue(option);
+        try {
+            final int threads = Integer.parseInt(threadsArg.trim());
+            if (threads > 0) {
+                return threads;
+            }
+        } catch (final NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException(threadsArg + " is not a valid number of threads for '--" + option + "'");
+    }
+
+    private GeneratorType processLanguage(final String language) {
+        try {
+            return GeneratorType.valueOf(language.toUpperCase());
         } catch (final Exception e) {
-            throw new IllegalArgumentException(cmd.getOptionValue("l") + " is not a supported language");
+            throw new IllegalArgumentException(language + " is not a supported language");
         }
     }
 
     private void validateArguments(final Arguments arguments) throws MissingArgumentException {
         if (arguments.isHelp()) return; // Nothing else to verify
+        if (arguments.isServe()) return; // The server receives the remaining arguments from its clients
+        if (arguments.getServeRoot() != null) throw new MissingArgumentException("'--serve-root' requires '--serve'");
+        if (arguments.isClient() && arguments.isShutdown()) return;
+        if (arguments.isShutdown()) throw new MissingArgumentException("'--shutdown' requires '--client'");
         if (arguments.getTargetDir() == null) throw new MissingArgumentException("'-d' is a required argument");
-        if (arguments.getType() == null) throw new MissingArgumentException("'-l' is a required argument");
+        if (arguments.getTypes() == null || arguments.getTypes().isEmpty()) throw new MissingArgumentException("'-l' is a required argument");
         if (arguments.getInputSpec() == null) throw new MissingArgumentException("'-i' is a required argument");
     }
 
@@ -0,0 +1,120 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.autogen.cli;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Forwards command line arguments to a {@link GenerationServer} and prints its output. Requests
+ * are authenticated with the token the server wrote to its token file.
+ */
+public class GenerationClient {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final int port;
+
+    public GenerationClient(final int port) {
+        this.port = port;
+    }
+
+    /**
+     * Asks the server to generate code for the command line arguments
+     * @param workingDir The directory relative paths within the arguments are resolved against
+     * @return True if the code was generated
+     */
+    public boolean generate(
+            final String[] args,
+            final Path workingDir,
+            final PrintStream out,
+            final PrintStream err) throws IOException {
+        final ObjectNode params = mapper.createObjectNode();
+        final ArrayNode argsNode = params.putArray("args");
+        for (final String arg : args) {
+            argsNode.add(arg);
+        }
+        params.put("workingDir", workingDir.toAbsolutePath().toString());
+
+        final JsonNode response = call("generate", params);
+        final JsonNode error = response.get("error");
+        if (error != null) {
+            err.print(error.path("data").path("output").asText(""));
+            err.println(error.path("message").asText());
+            return false;
+        }
+        out.print(response.path("result").path("output").asText());
+        out.println(String.format("Served by the generation server in %d ms", response.path("result").path("elapsedMillis").asLong()));
+        return true;
+    }
+
+    /**
+     * Asks the server to stop
+     */
+    public void shutdown() throws IOException {
+        call("shutdown", null);
+    }
+
+    private JsonNode call(final String method, final ObjectNode params) throws IOException {
+        final ObjectNode request = mapper.createObjectNode();
+        request.put("jsonrpc", "2.0");
+        request.put("id", 1);
+        request.put("method", method);
+        final ObjectNode requestParams = params == null ? mapper.createObjectNode() : params;
+        requestParams.put("token", readToken());
+        request.set("params", requestParams);
+
+        try (final Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            final Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            writer.write(mapper.writeValueAsString(request));
+            writer.write('\n');
+            writer.flush();
+            socket.shutdownOutput();
+
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            final String line = reader.readLine();
+            if (line == null) {
+                throw new IOException("The generation server on port " + port + " closed the connection without responding");
+            }
+            return mapper.readTree(line);
+        }
+    }
+
+    /**
+     * Reads the token of the server listening on the port
+     */
+    private String readToken() throws IOException {
+        final Path tokenFile = GenerationServer.getTokenFile(port);
+        if (!Files.exists(tokenFile)) {
+            throw new IOException("No generation server is running on port " + port + ": " + tokenFile + " does not exist");
+        }
+        return new String(Files.readAllBytes(tokenFile), StandardCharsets.UTF_8).trim();
+    }
+}
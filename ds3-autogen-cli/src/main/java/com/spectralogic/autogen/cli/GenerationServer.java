@@ -0,0 +1,385 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.autogen.cli;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+
+/**
+ * Keeps a warm JVM that generates code for {@link GenerationClient}s. The server listens on the
+ * loopback interface and speaks JSON-RPC 2.0 with one request or response object per line.
+ * Requests are served one at a time, in the order their connections are accepted.
+ *
+ * Every request must have the param "token", which is the random token the server writes to
+ * {@link #getTokenFile(int)} when it starts. The file is only readable by its owner, so only the
+ * user running the server can make requests. The connection is closed after any request that is
+ * not valid JSON or does not have the token, so that a browser cannot send requests within the
+ * body of a cross-protocol HTTP POST. Code is only generated within the server's root directory.
+ * A connection that is idle for {@link #READ_TIMEOUT_MILLIS}, or whose request line is longer than
+ * {@link #MAX_REQUEST_CHARS}, is closed so that it cannot stall the server or exhaust its memory.
+ *
+ * Methods:
+ *   generate: params {"token": "...", "args": [command line arguments], "workingDir": "/path"}
+ *             result {"output": "progress messages", "elapsedMillis": 12}
+ *   ping:     params {"token": "..."}, result "pong"
+ *   shutdown: params {"token": "..."}, stops the server after responding
+ */
+public class GenerationServer {
+
+    static final int DEFAULT_PORT = 47470;
+    static final int MAX_CACHED_SPECS = 8;
+
+    static final int INVALID_REQUEST = -32600;
+    static final int METHOD_NOT_FOUND = -32601;
+    static final int INVALID_PARAMS = -32602;
+    static final int GENERATION_FAILED = -32000;
+    static final int UNAUTHORIZED = -32001;
+
+    static final int READ_TIMEOUT_MILLIS = 30 * 1000;
+    static final int MAX_REQUEST_CHARS = 1024 * 1024;
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final GenerationService service;
+    private final Path root;
+    private final ServerSocket serverSocket;
+    private final byte[] token;
+    private final Path tokenFile;
+
+    private volatile boolean running = true;
+
+    /**
+     * Creates a server listening on the loopback interface, and writes the token clients
+     * authenticate with to the token file of the port
+     * @param port The port to listen on, or zero to use any free port
+     * @param root The directory code may be generated within
+     */
+    public GenerationServer(final GenerationService service, final int port, final Path root) throws IOException {
+        this.service = service;
+        this.root = root.toRealPath();
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        final String newToken = newToken();
+        this.token = newToken.getBytes(StandardCharsets.UTF_8);
+        this.tokenFile = getTokenFile(getPort());
+        try {
+            writeTokenFile(tokenFile, newToken);
+        } catch (final IOException e) {
+            serverSocket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Retrieves the port the server is listening on
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Retrieves the directory code may be generated within
+     */
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Retrieves the file containing the token of the server listening on the port
+     */
+    static Path getTokenFile(final int port) {
+        return Paths.get(System.getProperty("user.home"), ".ds3autogen", "server-" + port + ".token");
+    }
+
+    /**
+     * Serves connections until a shutdown request is received or the server is closed
+     */
+    public void serve() throws IOException {
+        try {
+            while (running) {
+                final Socket socket;
+                try {
+                    socket = serverSocket.accept();
+                } catch (final SocketException e) {
+                    if (!running) {
+                        return;
+                    }
+                    throw e;
+                }
+                try (final Socket connection = socket) {
+                    connection.setSoTimeout(READ_TIMEOUT_MILLIS);
+                    serveConnection(connection);
+                } catch (final IOException e) {
+                    System.err.println("Failed to serve a generation request: " + e);
+                }
+            }
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Stops accepting connections and deletes the token file
+     */
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+        Files.deleteIfExists(tokenFile);
+    }
+
+    private void serveConnection(final Socket socket) throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        while (running) {
+            final String line = readLine(reader, MAX_REQUEST_CHARS);
+            if (line == null) {
+                return;
+            }
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            final ObjectNode response = line.length() > MAX_REQUEST_CHARS
+                    ? error(null, INVALID_REQUEST, "Request is longer than " + MAX_REQUEST_CHARS + " characters", null)
+                    : handle(line);
+            writer.write(mapper.writeValueAsString(response));
+            writer.write('\n');
+            writer.flush();
+            if (isRejected(response)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads a line without its line terminator, or returns null at the end of the stream. Reading
+     * stops after one character more than the max length, so that an oversized line is never
+     * buffered in full and can be detected by its length.
+     */
+    static String readLine(final Reader reader, final int maxLength) throws IOException {
+        final StringBuilder builder = new StringBuilder();
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (c == '\n') {
+                break;
+            }
+            builder.append((char) c);
+            if (builder.length() > maxLength) {
+                return builder.toString();
+            }
+        }
+        if (c == -1 && builder.length() == 0) {
+            return null;
+        }
+        final int length = builder.length();
+        if (length > 0 && builder.charAt(length - 1) == '\r') {
+            builder.setLength(length - 1);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Determines if the response rejects a request that is not valid JSON-RPC or is not authorized,
+     * after which the rest of the connection is not trusted
+     */
+    private static boolean isRejected(final ObjectNode response) {
+        final int code = response.path("error").path("code").asInt();
+        return code == INVALID_REQUEST || code == UNAUTHORIZED;
+    }
+
+    /**
+     * Processes a single JSON-RPC request and creates its response
+     */
+    ObjectNode handle(final String line) {
+        final JsonNode request;
+        try {
+            request = mapper.readTree(line);
+        } catch (final IOException e) {
+            return error(null, INVALID_REQUEST, "Request is not valid JSON: " + e.getMessage(), null);
+        }
+        if (!request.isObject()) {
+            return error(null, INVALID_REQUEST, "Request is not a JSON object", null);
+        }
+        final JsonNode id = request.get("id");
+        if (!isAuthorized(request.path("params").path("token"))) {
+            return error(id, UNAUTHORIZED, "Request does not have the server's token", null);
+        }
+        final JsonNode method = request.get("method");
+        if (method == null || !method.isTextual()) {
+            return error(id, INVALID_REQUEST, "Request does not have a method", null);
+        }
+        switch (method.asText()) {
+            case "generate":
+                return generate(id, request.get("params"));
+            case "ping":
+                return result(id).put("result", "pong");
+            case "shutdown":
+                running = false;
+                return result(id).putNull("result");
+            default:
+                return error(id, METHOD_NOT_FOUND, "Unknown method: " + method.asText(), null);
+        }
+    }
+
+    /**
+     * Determines if the token matches the server's token, taking the same time for every token of the same length
+     */
+    private boolean isAuthorized(final JsonNode requestToken) {
+        return requestToken.isTextual() && MessageDigest.isEqual(token, requestToken.asText().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ObjectNode generate(final JsonNode id, final JsonNode params) {
+        if (!params.path("args").isArray() || !params.path("workingDir").isTextual()) {
+            return error(id, INVALID_PARAMS, "generate requires the params 'args' and 'workingDir'", null);
+        }
+        final Path workingDir = Paths.get(params.get("workingDir").asText());
+        if (!workingDir.isAbsolute()) {
+            return error(id, INVALID_PARAMS, "The working directory must be absolute: " + workingDir, null);
+        }
+        final String[] args = new String[params.get("args").size()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = params.get("args").get(i).asText();
+        }
+
+        final long startTime = System.nanoTime();
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (final PrintStream out = newPrintStream(output)) {
+            try {
+                final Arguments arguments = CLI.parseArguments(args);
+                if (arguments.getTargetDir() == null || arguments.getTypes() == null || arguments.getInputSpec() == null) {
+                    return error(id, INVALID_PARAMS, "generate requires the arguments '-d', '-l' and '-i'", null);
+                }
+                final Path targetDir = workingDir.resolve(arguments.getTargetDir());
+                if (!isWithinRoot(root, targetDir)) {
+                    return error(id, INVALID_PARAMS, "The target directory " + targetDir + " is not within " + root, null);
+                }
+                service.generate(arguments, workingDir, out, out);
+            } catch (final Exception e) {
+                e.printStackTrace(out);
+                out.flush();
+                return error(id, GENERATION_FAILED, "Encountered an error when generating code: " + e.getMessage(), toString(output));
+            }
+        }
+
+        final ObjectNode response = result(id);
+        response.putObject("result")
+                .put("output", toString(output))
+                .put("elapsedMillis", GenerationService.elapsedMillis(startTime));
+        return response;
+    }
+
+    private ObjectNode result(final JsonNode id) {
+        final ObjectNode response = mapper.createObjectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", id);
+        return response;
+    }
+
+    private ObjectNode error(final JsonNode id, final int code, final String message, final String output) {
+        final ObjectNode response = result(id);
+        final ObjectNode error = response.putObject("error")
+                .put("code", code)
+                .put("message", message);
+        if (output != null) {
+            error.putObject("data").put("output", output);
+        }
+        return response;
+    }
+
+    /**
+     * Determines if the path is within the root once symbolic links within the existing part
+     * of the path have been resolved
+     * @param root A real path
+     */
+    static boolean isWithinRoot(final Path root, final Path path) throws IOException {
+        Path existing = path.toAbsolutePath().normalize();
+        Path remaining = existing.getFileSystem().getPath("");
+        while (existing != null && !Files.exists(existing)) {
+            remaining = existing.getFileName().resolve(remaining);
+            existing = existing.getParent();
+        }
+        if (existing == null) {
+            return false;
+        }
+        return existing.toRealPath().resolve(remaining).normalize().startsWith(root);
+    }
+
+    private static String newToken() {
+        final byte[] bytes = new byte[TOKEN_BYTES];
+        new SecureRandom().nextBytes(bytes);
+        final StringBuilder builder = new StringBuilder();
+        for (final byte b : bytes) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Writes the token to a file that only the current user can read
+     */
+    private static void writeTokenFile(final Path file, final String token) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.deleteIfExists(file);
+        if (file.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(file, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            Files.createFile(file);
+            final File legacyFile = file.toFile();
+            if (!legacyFile.setReadable(false, false) || !legacyFile.setReadable(true, true)
+                    || !legacyFile.setWritable(false, false) || !legacyFile.setWritable(true, true)) {
+                Files.deleteIfExists(file);
+                throw new IOException("Unable to restrict the permissions of the token file " + file);
+            }
+        }
+        Files.write(file, token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static PrintStream newPrintStream(final ByteArrayOutputStream output) {
+        try {
+            return new PrintStream(output, true, StandardCharsets.UTF_8.name());
+        } catch (final UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toString(final ByteArrayOutputStream output) {
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
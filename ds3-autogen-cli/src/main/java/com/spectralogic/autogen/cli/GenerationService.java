@@ -0,0 +1,362 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.autogen.cli;
+
+import com.google.common.collect.ImmutableList;
+import com.spectralogic.ds3autogen.Ds3SpecStreamingParserImpl;
+import com.spectralogic.ds3autogen.NameMapper;
+import com.spectralogic.ds3autogen.api.CodeGenerator;
+import com.spectralogic.ds3autogen.api.Ds3DocSpecParser;
+import com.spectralogic.ds3autogen.api.Ds3SpecParser;
+import com.spectralogic.ds3autogen.api.FileUtils;
+import com.spectralogic.ds3autogen.api.instrumentation.GenerationRecorder;
+import com.spectralogic.ds3autogen.api.instrumentation.GenerationStats;
+import com.spectralogic.ds3autogen.api.instrumentation.Instrumentation;
+import com.spectralogic.ds3autogen.api.instrumentation.PhaseTimer;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3ApiSpec;
+import com.spectralogic.ds3autogen.api.models.docspec.Ds3DocSpec;
+import com.spectralogic.ds3autogen.c.CCodeGenerator;
+import com.spectralogic.ds3autogen.docspec.Ds3DocSpecEmptyImpl;
+import com.spectralogic.ds3autogen.docspec.Ds3DocSpecParserImpl;
+import com.spectralogic.ds3autogen.go.GoCodeGenerator;
+import com.spectralogic.ds3autogen.java.JavaCodeGenerator;
+import com.spectralogic.ds3autogen.net.NetCodeGenerator;
+import com.spectralogic.ds3autogen.python.PythonCodeGenerator;
+import com.spectralogic.ds3autogen.python3.Python3CodeGenerator;
+import com.spectralogic.ds3autogen.utils.FileUtilsImpl;
+import com.spectralogic.ds3autogen.utils.IncrementalFileUtilsImpl;
+import com.spectralogic.ds3autogen.utils.InstrumentedFileUtils;
+import com.spectralogic.ds3autogen.utils.TemplateRegistry;
+import freemarker.template.TemplateModelException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses specs and generates code for the command line arguments. A service that caches
+ * specs keeps the most recently used parsed specs, keyed by the SHA-256 hash of the contract,
+ * so that a long lived process only parses a contract the first time it is generated.
+ */
+public class GenerationService {
+
+    /**
+     * The number of rendered Java files held in memory per render thread while waiting to be written
+     */
+    private static final int JAVA_PENDING_FILES_PER_THREAD = 4;
+
+    private final NameMapper nameMapper;
+    private final int maxCachedSpecs;
+    private final Map<String, Ds3ApiSpec> specCache = new LinkedHashMap<>(16, 0.75f, true);
+
+    private Ds3DocSpec docSpec;
+
+    /**
+     * Creates a service that parses the spec every time code is generated
+     */
+    public GenerationService() throws IOException {
+        this(0);
+    }
+
+    /**
+     * @param maxCachedSpecs The number of parsed specs to keep, evicting the least recently used
+     */
+    public GenerationService(final int maxCachedSpecs) throws IOException {
+        this.nameMapper = new NameMapper();
+        this.maxCachedSpecs = maxCachedSpecs;
+    }
+
+    /**
+     * Creates a generator of every type so that their template configurations are registered,
+     * and then compiles all of their templates
+     * @return The number of templates compiled
+     */
+    public int precompileTemplates() throws IOException, TemplateModelException {
+        for (final GeneratorType type : GeneratorType.values()) {
+            getGenerator(type, false, null, 1);
+        }
+        return TemplateRegistry.getDefault().precompile();
+    }
+
+    /**
+     * Generates the code described by the arguments. If statistics were requested, then the
+     * time spent in each phase, the template render times, and the files written are
+     * recorded while generating, and are printed once generation completes.
+     * @param workingDir The directory that relative input and target paths are resolved against
+     * @param out Receives the progress messages and statistics
+     * @param err Receives the failures of individual languages
+     */
+    public void generate(
+            final Arguments args,
+            final Path workingDir,
+            final PrintStream out,
+            final PrintStream err) throws Exception {
+        if (!args.isStats() && !args.isStatsJson()) {
+            generateCode(args, workingDir, out, err);
+            return;
+        }
+
+        final GenerationStats stats = new GenerationStats(true);
+        final GenerationRecorder previousRecorder = Instrumentation.getRecorder();
+        Instrumentation.setRecorder(stats);
+        try {
+            generateCode(args, workingDir, out, err);
+        } finally {
+            Instrumentation.setRecorder(previousRecorder);
+        }
+
+        if (args.isStats()) {
+            out.print(stats.toTable());
+        }
+        if (args.isStatsJson()) {
+            out.println(stats.toJson());
+        }
+    }
+
+    private void generateCode(
+            final Arguments args,
+            final Path workingDir,
+            final PrintStream out,
+            final PrintStream err) throws Exception {
+        out.println("Generating " + args.getTypes().toString() + " ds3 sdk code for the spec " + args.getInputSpec());
+
+        final Ds3ApiSpec spec = getSpec(workingDir.resolve(args.getInputSpec()), args.generateInternal(), out);
+        final Ds3DocSpec docSpec = args.isNoDoc() ? new Ds3DocSpecEmptyImpl() : getDocSpec();
+
+        final Path targetDir = workingDir.resolve(args.getTargetDir());
+        if (args.getTypes().size() == 1) {
+            generate(args.getTypes().get(0), spec, docSpec, targetDir, args, out);
+            return;
+        }
+        generateAll(args.getTypes(), spec, docSpec, targetDir, args, out, err);
+    }
+
+    /**
+     * Retrieves the parsed spec, from the cache if the contract has been parsed before
+     */
+    private Ds3ApiSpec getSpec(
+            final Path inputSpec,
+            final boolean generateInternal,
+            final PrintStream out) throws IOException {
+        if (maxCachedSpecs < 1) {
+            try (final InputStream stream = Files.newInputStream(inputSpec)) {
+                return newParser().getSpec(stream, generateInternal);
+            }
+        }
+
+        final byte[] contract = Files.readAllBytes(inputSpec);
+        final String key = toSpecCacheKey(contract, generateInternal);
+        synchronized (specCache) {
+            final Ds3ApiSpec cached = specCache.get(key);
+            if (cached != null) {
+                out.println("Using the cached spec for " + inputSpec);
+                return cached;
+            }
+        }
+
+        final Ds3ApiSpec spec = newParser().getSpec(new ByteArrayInputStream(contract), generateInternal);
+        synchronized (specCache) {
+            specCache.put(key, spec);
+            while (specCache.size() > maxCachedSpecs) {
+                specCache.remove(specCache.keySet().iterator().next());
+            }
+        }
+        return spec;
+    }
+
+    private Ds3SpecParser newParser() {
+        return new Ds3SpecStreamingParserImpl(nameMapper);
+    }
+
+    /**
+     * Creates the key of a parsed spec, which is the hash of the contract and whether
+     * internal requests were included
+     */
+    static String toSpecCacheKey(final byte[] contract, final boolean generateInternal) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final StringBuilder builder = new StringBuilder();
+            for (final byte b : digest.digest(contract)) {
+                builder.append(String.format("%02x", b));
+            }
+            return builder.append(generateInternal ? ":internal" : ":public").toString();
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * Retrieves the command documentation, which is parsed once
+     */
+    private synchronized Ds3DocSpec getDocSpec() throws IOException {
+        if (docSpec == null) {
+            final Ds3DocSpecParser docSpecParser = new Ds3DocSpecParserImpl(nameMapper);
+            docSpec = docSpecParser.getDocSpec();
+        }
+        return docSpec;
+    }
+
+    /**
+     * Generates each of the languages concurrently from the same spec. Each language is
+     * generated within a sub directory of the target directory named after the language.
+     * If any language fails to generate, then the first failure is thrown after all
+     * languages have finished.
+     */
+    private static void generateAll(
+            final ImmutableList<GeneratorType> types,
+            final Ds3ApiSpec spec,
+            final Ds3DocSpec docSpec,
+            final Path targetDir,
+            final Arguments args,
+            final PrintStream out,
+            final PrintStream err) throws Exception {
+        final long startTime = System.nanoTime();
+        final ExecutorService executor = Executors.newFixedThreadPool(types.size());
+        try {
+            final ImmutableList.Builder<Future<Void>> builder = ImmutableList.builder();
+            for (final GeneratorType type : types) {
+                builder.add(executor.submit(() -> {
+                    generate(type, spec, docSpec, targetDir.resolve(type.toString().toLowerCase()), args, out);
+                    return null;
+                }));
+            }
+            final ImmutableList<Future<Void>> futures = builder.build();
+
+            Exception failure = null;
+            for (int i = 0; i < types.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (final ExecutionException e) {
+                    err.println("Failed to generate " + types.get(i).toString() + " ds3 sdk code: " + e.getCause());
+                    if (failure == null) {
+                        failure = new Exception("Encountered an error when generating " + types.get(i).toString(), e.getCause());
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            executor.shutdown();
+        }
+        out.println(String.format("Generated %d languages in %d ms", types.size(), elapsedMillis(startTime)));
+    }
+
+    /**
+     * Generates a single language within the specified directory and reports the wall time taken.
+     * If incremental, then only changed files are written, and files no longer generated are deleted.
+     * The deletion and manifest update are skipped if the generator fails.
+     */
+    private static void generate(
+            final GeneratorType type,
+            final Ds3ApiSpec spec,
+            final Ds3DocSpec docSpec,
+            final Path destDir,
+            final Arguments args,
+            final PrintStream out) throws IOException, TemplateModelException {
+        final long startTime = System.nanoTime();
+        final ExecutorService renderExecutor = type == GeneratorType.JAVA && args.getJavaThreads() > 1
+                ? Executors.newFixedThreadPool(args.getJavaThreads())
+                : null;
+        try {
+            final CodeGenerator generator = getGenerator(type, args.isJavaXmlReaders(), renderExecutor, args.getJavaThreads());
+            if (!args.isIncremental()) {
+                generate(generator, spec, new FileUtilsImpl(), destDir, docSpec);
+                out.println(String.format("Generated %s ds3 sdk code in %d ms", type.toString(), elapsedMillis(startTime)));
+                return;
+            }
+
+            final IncrementalFileUtilsImpl fileUtils = new IncrementalFileUtilsImpl(destDir);
+            generate(generator, spec, fileUtils, destDir, docSpec);
+            final IncrementalFileUtilsImpl.Summary summary = fileUtils.commit();
+
+            out.println(String.format("Generated %s ds3 sdk code in %d ms (%s)", type.toString(), elapsedMillis(startTime), summary.toString()));
+        } finally {
+            if (renderExecutor != null) {
+                renderExecutor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Runs the generator, recording the time taken and the files written within the generator's scope
+     */
+    private static void generate(
+            final CodeGenerator generator,
+            final Ds3ApiSpec spec,
+            final FileUtils fileUtils,
+            final Path destDir,
+            final Ds3DocSpec docSpec) throws IOException {
+        final GenerationRecorder recorder = Instrumentation.getRecorder();
+        if (recorder == GenerationRecorder.NONE) {
+            generator.generate(spec, fileUtils, destDir, docSpec);
+            return;
+        }
+
+        final String scope = generator.getClass().getSimpleName();
+        try (final PhaseTimer timer = recorder.startPhase(scope, "generate")) {
+            generator.generate(spec, new InstrumentedFileUtils(fileUtils, recorder, scope), destDir, docSpec);
+        }
+    }
+
+    static long elapsedMillis(final long startTime) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    }
+
+    /**
+     * Creates the generator for a language
+     * @param renderExecutor The executor the Java templates are rendered on, or null to render them on the calling thread
+     * @param javaThreads The number of threads of the render executor
+     */
+    private static CodeGenerator getGenerator(
+            final GeneratorType type,
+            final boolean javaXmlReaders,
+            final ExecutorService renderExecutor,
+            final int javaThreads) throws TemplateModelException {
+        switch (type) {
+            case C:
+                return new CCodeGenerator();
+            case JAVA:
+                if (renderExecutor == null) {
+                    return new JavaCodeGenerator(javaXmlReaders);
+                }
+                return new JavaCodeGenerator(renderExecutor, javaThreads * JAVA_PENDING_FILES_PER_THREAD, javaXmlReaders);
+            case NET:
+                return new NetCodeGenerator();
+            case PYTHON:
+                return new PythonCodeGenerator();
+            case PYTHON3:
+                return new Python3CodeGenerator();
+            case GO:
+                return new GoCodeGenerator();
+            default:
+                throw new IllegalArgumentException("Unknown generator typeName " + type.toString());
+        }
+    }
+}
@@ -13,27 +13,11 @@
  * ****************************************************************************
  */
 
-package com.spectralogic.autogen.cli;
 
-import com.spectralogic.ds3autogen.api.models.docspec.Ds3DocSpec;
-import com.spectralogic.ds3autogen.docspec.Ds3DocSpecEmptyImpl;
-import com.spectralogic.ds3autogen.docspec.Ds3DocSpecParserImpl;
-import com.spectralogic.ds3autogen.Ds3SpecParserImpl;
-import com.spectralogic.ds3autogen.NameMapper;
-import com.spectralogic.ds3autogen.api.CodeGenerator;
-import com.spectralogic.ds3autogen.api.Ds3DocSpecParser;
-import com.spectralogic.ds3autogen.api.Ds3SpecParser;
-import com.spectralogic.ds3autogen.api.FileUtils;
-import com.spectralogic.ds3autogen.api.models.apispec.Ds3ApiSpec;
-import com.spectralogic.ds3autogen.c.CCodeGenerator;
-import com.spectralogic.ds3autogen.go.GoCodeGenerator;
-import com.spectralogic.ds3autogen.java.JavaCodeGenerator;
-import com.spectralogic.ds3autogen.net.NetCodeGenerator;
-import com.spectralogic.ds3autogen.python.PythonCodeGenerator;
-import com.spectralogic.ds3autogen.python3.Python3CodeGenerator;
-import com.spectralogic.ds3autogen.utils.FileUtilsImpl;
+package com.spectralogic.autogen.cli;
 
-import java.nio.file.Files;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 
 public class Main {
@@ -41,6 +25,16 @@ public class Main {
 
         try {
             final Arguments arguments = getArgs(args);
+            if (arguments.isServe()) {
+                serve(arguments.getServePort(), arguments.getServeRoot());
+                return;
+            }
+            if (arguments.isClient()) {
+                if (!runClient(arguments, args)) {
+                    System.exit(-1);
+                }
+                return;
+            }
             final Main main = new Main(arguments);
 
             runMain(main);
@@ -67,6 +61,37 @@ public class Main {
         }
     }
 
+    /**
+     * Runs a generation server until a client asks it to shut down
+     */
+    private static void serve(final int port, final String serveRoot) throws Exception {
+        final long startTime = System.nanoTime();
+        final GenerationService service = new GenerationService(GenerationServer.MAX_CACHED_SPECS);
+        final int templateCount = service.precompileTemplates();
+        final Path root = Paths.get(serveRoot == null ? "" : serveRoot);
+        final GenerationServer server = new GenerationServer(service, port, root);
+        System.out.println(String.format("Generation server listening on port %d (%d templates precompiled in %d ms)",
+                server.getPort(), templateCount, GenerationService.elapsedMillis(startTime)));
+        System.out.println(String.format("Generating code within %s, clients authenticate with the token in %s",
+                server.getRoot(), GenerationServer.getTokenFile(server.getPort())));
+        server.serve();
+        System.out.println("Generation server stopped");
+    }
+
+    /**
+     * Forwards the arguments to a generation server, or asks it to shut down
+     * @return True if the request succeeded
+     */
+    private static boolean runClient(final Arguments arguments, final String[] args) throws IOException {
+        final GenerationClient client = new GenerationClient(arguments.getClientPort());
+        if (arguments.isShutdown()) {
+            client.shutdown();
+            System.out.println("Stopped the generation server on port " + arguments.getClientPort());
+            return true;
+        }
+        return client.generate(args, Paths.get(""), System.out, System.err);
+    }
+
     private final Arguments args;
 
     private Main(final Arguments args) {
@@ -74,50 +99,7 @@ public class Main {
     }
 
     public void run() throws Exception {
-        final Ds3SpecParser parser = new Ds3SpecParserImpl();
-
-        System.out.println("Generating " + args.getType().toString() + " ds3 sdk code for the spec " + args.getInputSpec() );
-
         //TODO make the input file also accept a url that we can read from
-
-        final Ds3ApiSpec spec = parser.getSpec(
-                Files.newInputStream(Paths.get(args.getInputSpec())),
-                args.generateInternal());
-
-        final CodeGenerator generator;
-        switch (args.getType()) {
-            case C:
-                generator = new CCodeGenerator();
-                break;
-            case JAVA:
-                generator = new JavaCodeGenerator();
-                break;
-            case NET:
-                generator = new NetCodeGenerator();
-                break;
-            case PYTHON:
-                generator = new PythonCodeGenerator();
-                break;
-            case PYTHON3:
-                generator = new Python3CodeGenerator();
-                break;
-            case GO:
-                generator = new GoCodeGenerator();
-                break;
-            default:
-                throw new IllegalArgumentException("Unknown generator typeName " + args.getType().toString());
-        }
-        final FileUtils fileUtils = new FileUtilsImpl();
-
-
-        final Ds3DocSpec docSpec;
-        if (args.isNoDoc()) {
-            docSpec = new Ds3DocSpecEmptyImpl();
-        } else {
-            final Ds3DocSpecParser docSpecParser = new Ds3DocSpecParserImpl(new NameMapper());
-            docSpec = docSpecParser.getDocSpec();
-        }
-
-        generator.generate(spec, fileUtils, Paths.get(args.getTargetDir()), docSpec);
+        new GenerationService().generate(args, Paths.get(""), System.out, System.err);
     }
 }
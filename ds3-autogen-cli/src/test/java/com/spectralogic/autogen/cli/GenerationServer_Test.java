@@ -0,0 +1,159 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+package com.spectralogic.autogen.cli;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class GenerationServer_Test {
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private String userHome;
+    private Path root;
+    private GenerationServer server;
+    private String token;
+
+    @Before
+    public void setup() throws IOException {
+        userHome = System.getProperty("user.home");
+        System.setProperty("user.home", tempFolder.newFolder("home").getPath());
+        root = tempFolder.newFolder("root").toPath().toRealPath();
+        server = new GenerationServer(new GenerationService(), 0, root);
+        token = new String(Files.readAllBytes(GenerationServer.getTokenFile(server.getPort())), StandardCharsets.UTF_8);
+    }
+
+    @After
+    public void teardown() throws IOException {
+        server.close();
+        System.setProperty("user.home", userHome);
+    }
+
+    private static int errorCode(final ObjectNode response) {
+        return response.path("error").path("code").asInt();
+    }
+
+    @Test
+    public void handle_Ping_Test() {
+        final ObjectNode response = server.handle("{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"ping\",\"params\":{\"token\":\"" + token + "\"}}");
+        assertThat(response.path("result").asText(), is("pong"));
+        assertThat(response.get("error"), is(nullValue()));
+    }
+
+    @Test
+    public void handle_MissingToken_Test() {
+        final ObjectNode response = server.handle("{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"ping\"}");
+        assertThat(errorCode(response), is(GenerationServer.UNAUTHORIZED));
+    }
+
+    @Test
+    public void handle_WrongToken_Test() {
+        final ObjectNode response = server.handle("{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"ping\",\"params\":{\"token\":\"" + token + "0\"}}");
+        assertThat(errorCode(response), is(GenerationServer.UNAUTHORIZED));
+    }
+
+    @Test
+    public void handle_NonTextualToken_Test() {
+        final ObjectNode response = server.handle("{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"ping\",\"params\":{\"token\":1}}");
+        assertThat(errorCode(response), is(GenerationServer.UNAUTHORIZED));
+    }
+
+    @Test
+    public void handle_InvalidJson_Test() {
+        assertThat(errorCode(server.handle("{\"jsonrpc\":")), is(GenerationServer.INVALID_REQUEST));
+        assertThat(errorCode(server.handle("[1, 2]")), is(GenerationServer.INVALID_REQUEST));
+    }
+
+    @Test
+    public void handle_GenerateOutsideRoot_Test() {
+        final ObjectNode response = server.handle("{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"generate\",\"params\":{"
+                + "\"token\":\"" + token + "\","
+                + "\"workingDir\":\"" + root + "\","
+                + "\"args\":[\"-d\",\"../outside\",\"-l\",\"java\",\"-i\",\"spec.xml\"]}}");
+        assertThat(errorCode(response), is(GenerationServer.INVALID_PARAMS));
+    }
+
+    @Test
+    public void handle_GenerateRelativeWorkingDir_Test() {
+        final ObjectNode response = server.handle("{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"generate\",\"params\":{"
+                + "\"token\":\"" + token + "\","
+                + "\"workingDir\":\"relative\","
+                + "\"args\":[\"-d\",\"out\",\"-l\",\"java\",\"-i\",\"spec.xml\"]}}");
+        assertThat(errorCode(response), is(GenerationServer.INVALID_PARAMS));
+    }
+
+    @Test
+    public void isWithinRoot_ExistingPath_Test() throws IOException {
+        final Path dir = Files.createDirectories(root.resolve("a/b"));
+        assertThat(GenerationServer.isWithinRoot(root, dir), is(true));
+        assertThat(GenerationServer.isWithinRoot(root, root), is(true));
+    }
+
+    @Test
+    public void isWithinRoot_NonExistentPath_Test() throws IOException {
+        assertThat(GenerationServer.isWithinRoot(root, root.resolve("not/yet/created")), is(true));
+    }
+
+    @Test
+    public void isWithinRoot_DotDotEscape_Test() throws IOException {
+        assertThat(GenerationServer.isWithinRoot(root, root.resolve("../outside")), is(false));
+        assertThat(GenerationServer.isWithinRoot(root, root.resolve("a/../../outside/not/yet/created")), is(false));
+    }
+
+    @Test
+    public void isWithinRoot_SymlinkEscape_Test() throws IOException {
+        final Path outside = tempFolder.newFolder("outside").toPath();
+        final Path link = Files.createSymbolicLink(root.resolve("link"), outside);
+        assertThat(GenerationServer.isWithinRoot(root, link), is(false));
+        assertThat(GenerationServer.isWithinRoot(root, link.resolve("not/yet/created")), is(false));
+    }
+
+    @Test
+    public void isWithinRoot_SiblingWithRootPrefix_Test() throws IOException {
+        final Path sibling = tempFolder.newFolder("root-sibling").toPath();
+        assertThat(GenerationServer.isWithinRoot(root, sibling), is(false));
+    }
+
+    @Test
+    public void readLine_Test() throws IOException {
+        final StringReader reader = new StringReader("first\r\nsecond\nthird");
+        assertThat(GenerationServer.readLine(reader, 10), is("first"));
+        assertThat(GenerationServer.readLine(reader, 10), is("second"));
+        assertThat(GenerationServer.readLine(reader, 10), is("third"));
+        assertThat(GenerationServer.readLine(reader, 10), is(nullValue()));
+    }
+
+    @Test
+    public void readLine_OversizedLine_Test() throws IOException {
+        final StringReader reader = new StringReader("0123456789abcdef\n");
+        assertThat(GenerationServer.readLine(reader, 10).length(), is(11));
+    }
+}
@@ -20,6 +20,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.spectralogic.ds3autogen.api.CodeGenerator;
 import com.spectralogic.ds3autogen.api.FileUtils;
+import com.spectralogic.ds3autogen.api.instrumentation.Instrumentation;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3ApiSpec;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3Element;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3Request;
@@ -43,8 +44,13 @@ import com.spectralogic.ds3autogen.go.models.parser.TypeParser;
 import com.spectralogic.ds3autogen.go.models.request.Request;
 import com.spectralogic.ds3autogen.go.models.response.Response;
 import com.spectralogic.ds3autogen.go.models.type.Type;
+import com.spectralogic.ds3autogen.utils.Ds3RequestClassificationIndex;
+import com.spectralogic.ds3autogen.utils.Ds3RequestKindTable;
 import com.spectralogic.ds3autogen.utils.Helper;
+import com.spectralogic.ds3autogen.utils.InstrumentedTemplates;
+import com.spectralogic.ds3autogen.utils.TemplateRegistry;
 import com.spectralogic.ds3autogen.utils.collections.GuavaCollectors;
+import com.spectralogic.ds3autogen.utils.models.Ds3RequestKind;
 import freemarker.template.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,30 +61,65 @@ import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.function.Supplier;
 
 import static com.spectralogic.ds3autogen.utils.ConverterUtil.*;
 import static com.spectralogic.ds3autogen.utils.Ds3ElementUtil.hasWrapperAnnotations;
-import static com.spectralogic.ds3autogen.utils.Ds3RequestClassificationUtil.*;
+import static com.spectralogic.ds3autogen.utils.Ds3RequestClassificationIndex.classify;
 import static com.spectralogic.ds3autogen.utils.Ds3TypeClassificationUtil.isJobsApiBean;
 import static com.spectralogic.ds3autogen.utils.ResponsePayloadUtil.hasResponsePayload;
+import static com.spectralogic.ds3autogen.utils.models.Ds3RequestKind.*;
 import static kotlin.text.StringsKt.decapitalize;
 
 public class GoCodeGenerator implements CodeGenerator {
 
     private static final Logger LOG = LoggerFactory.getLogger(GoCodeGenerator.class);
+    private static final String SCOPE = GoCodeGenerator.class.getSimpleName();
     private static final Path BASE_PROJECT_PATH = Paths.get("ds3");
     private static final String COMMANDS_NAMESPACE = "models";
 
-    private final Configuration config = new Configuration(Configuration.VERSION_2_3_23);
+    /*
+     * The templates and model generators of the special cased requests. A request uses the first
+     * entry it matches, so the more specific kinds are listed before the kinds they take precedence over.
+     */
+
+    private static final Ds3RequestKindTable<String> REQUEST_TEMPLATES = Ds3RequestKindTable.<String>builder()
+            .add(GET_OBJECT_AMAZON_S3, "request/get_object_request.ftl")
+            .add(AMAZON_CREATE_OBJECT, "request/put_object_request.ftl")
+            .add(GET_OBJECTS_WITH_LENGTH_OFFSET_PAYLOAD, "request/get_bulk_job_request.ftl")
+            .add(ImmutableSet.of(
+                    PUT_OBJECTS_WITH_SIZE_PAYLOAD,
+                    CREATE_MULTIPART_UPLOAD_PART,
+                    SIMPLE_OBJECTS_PAYLOAD,
+                    STRING_PAYLOAD,
+                    COMPLETE_MULTIPART_UPLOAD,
+                    MULTI_FILE_DELETE,
+                    IDS_PAYLOAD), "request/request_with_stream.ftl")
+            .build();
+
+    private static final Ds3RequestKindTable<Supplier<RequestModelGenerator<?>>> REQUEST_GENERATORS =
+            Ds3RequestKindTable.<Supplier<RequestModelGenerator<?>>>builder()
+                    .add(AMAZON_CREATE_OBJECT, PutObjectRequestGenerator::new)
+                    .add(GET_OBJECT_AMAZON_S3, GetObjectRequestGenerator::new)
+                    .add(CREATE_MULTIPART_UPLOAD_PART, ReaderRequestPayloadGenerator::new)
+                    .add(PUT_OBJECTS_WITH_SIZE_PAYLOAD, Ds3PutObjectPayloadGenerator::new)
+                    .add(GET_OBJECTS_WITH_LENGTH_OFFSET_PAYLOAD, GetBulkJobRequestGenerator::new)
+                    .add(SIMPLE_OBJECTS_PAYLOAD, ObjectNamesPayloadGenerator::new)
+                    .add(IDS_PAYLOAD, IdsPayloadRequestGenerator::new)
+                    .add(STRING_PAYLOAD, StringRequestPayloadGenerator::new)
+                    .add(COMPLETE_MULTIPART_UPLOAD, PartsRequestPayloadGenerator::new)
+                    .add(MULTI_FILE_DELETE, DeleteObjectsRequestGenerator::new)
+                    .build();
+
+    private final Configuration config;
 
     private FileUtils fileUtils;
     private Path destDir;
 
     public GoCodeGenerator() throws TemplateModelException {
-        config.setDefaultEncoding("UTF-8");
-        config.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
-        config.setClassForTemplateLoading(GoCodeGenerator.class, "/tmpls/go/");
-        config.setSharedVariable("helper", Helper.getInstance());
+        config = TemplateRegistry.getDefault().getConfiguration(GoCodeGenerator.class, "/tmpls/go/", cfg -> {
+            cfg.setSharedVariable("helper", Helper.getInstance());
+        });
     }
 
     @Override
@@ -88,39 +129,46 @@ public class GoCodeGenerator implements CodeGenerator {
 
         try {
             final ImmutableList<Ds3Request> ds3Requests = spec.getRequests();
-            final ImmutableMap<String, Ds3Type> typeMap = removeUnusedTypes(
-                    spec.getTypes(),
-                    spec.getRequests());
+            final ImmutableMap<String, Ds3Type> typeMap = Instrumentation.getRecorder()
+                    .timePhase(SCOPE, "removeUnusedTypes", () -> removeUnusedTypes(spec));
+            final Ds3RequestClassificationIndex classificationIndex = Ds3RequestClassificationIndex.of(ds3Requests);
+            LOG.debug("Request classifications:\n{}", classificationIndex.dump());
 
-            generateCommands(ds3Requests);
+            generateCommands(ds3Requests, classificationIndex);
             generateClient(ds3Requests);
             generateAllTypes(typeMap);
-        } catch (final Exception e) {
-            LOG.error("Unable to generate Go SDK code", e);
+        } catch (final TemplateException e) {
+            throw new IOException("Unable to generate Go SDK code", e);
         }
     }
 
     /**
      * Generates Go code for requests and responses
      */
-    private void generateCommands(final ImmutableList<Ds3Request> ds3Requests) throws IOException, TemplateException {
+    private void generateCommands(
+            final ImmutableList<Ds3Request> ds3Requests,
+            final Ds3RequestClassificationIndex classificationIndex) throws IOException, TemplateException {
         if (isEmpty(ds3Requests)) {
             LOG.info("There were no requests to generate.");
             return;
         }
         for (final Ds3Request ds3Request : ds3Requests) {
-            generateRequest(ds3Request);
-            generateResponse(ds3Request);
+            final ImmutableSet<Ds3RequestKind> kinds = classificationIndex.getKinds(ds3Request);
+            generateRequest(ds3Request, kinds);
+            generateResponse(ds3Request, kinds);
         }
     }
 
     /**
      * Generates the Go code for a request handler
      */
-    private void generateRequest(final Ds3Request ds3Request) throws IOException, TemplateException {
-        final Template tmpl = getRequestTemplate(ds3Request);
-        final RequestModelGenerator<?> generator = getRequestGenerator(ds3Request);
-        final Request request = generator.generate(ds3Request);
+    private void generateRequest(
+            final Ds3Request ds3Request,
+            final ImmutableSet<Ds3RequestKind> kinds) throws IOException, TemplateException {
+        final Template tmpl = getRequestTemplate(kinds);
+        final RequestModelGenerator<?> generator = getRequestGenerator(kinds);
+        final Request request = Instrumentation.getRecorder()
+                .timePhase(SCOPE, "convertModels", () -> generator.generate(ds3Request));
         final Path path = destDir.resolve(
                 BASE_PROJECT_PATH.resolve(
                         Paths.get(COMMANDS_NAMESPACE.replace(".", "/") + "/" + decapitalize(request.getName())  + ".go")));
@@ -129,7 +177,7 @@ public class GoCodeGenerator implements CodeGenerator {
 
         try (final OutputStream outputStream = fileUtils.getOutputFile(path);
              final Writer writer = new OutputStreamWriter(outputStream)) {
-            tmpl.process(request, writer);
+            InstrumentedTemplates.process(SCOPE, tmpl, request, writer);
         }
     }
 
@@ -138,71 +186,37 @@ public class GoCodeGenerator implements CodeGenerator {
      * specified {@link Ds3Request}
      */
     static RequestModelGenerator<?> getRequestGenerator(final Ds3Request ds3Request) {
-        if (isAmazonCreateObjectRequest(ds3Request)) {
-            return new PutObjectRequestGenerator();
-        }
-        if (isGetObjectAmazonS3Request(ds3Request)) {
-            return new GetObjectRequestGenerator();
-        }
-        if (isCreateMultiPartUploadPartRequest(ds3Request)) {
-            return new ReaderRequestPayloadGenerator();
-        }
-        if (hasPutObjectsWithSizeRequestPayload(ds3Request)) {
-            return new Ds3PutObjectPayloadGenerator();
-        }
-        if (hasGetObjectsWithLengthOffsetRequestPayload(ds3Request)) {
-            return new GetBulkJobRequestGenerator();
-        }
-        if (hasSimpleObjectsRequestPayload(ds3Request)) {
-            return new ObjectNamesPayloadGenerator();
-        }
-        if (hasIdsRequestPayload(ds3Request)) {
-            return new IdsPayloadRequestGenerator();
-        }
-        if (hasStringRequestPayload(ds3Request)) {
-            return new StringRequestPayloadGenerator();
-        }
-        if (isCompleteMultiPartUploadRequest(ds3Request)) {
-            return new PartsRequestPayloadGenerator();
-        }
-        if (isMultiFileDeleteRequest(ds3Request)) {
-            return new DeleteObjectsRequestGenerator();
-        }
-        return new BaseRequestGenerator();
+        return getRequestGenerator(classify(ds3Request));
+    }
+
+    /**
+     * Retrieves the generator used to create the Go request handler for a
+     * {@link Ds3Request} of the specified kinds
+     */
+    static RequestModelGenerator<?> getRequestGenerator(final ImmutableSet<Ds3RequestKind> kinds) {
+        return REQUEST_GENERATORS.find(kinds)
+                .orElse(BaseRequestGenerator::new)
+                .get();
     }
 
     /**
      * Retrieves the appropriate template that will generate the Go request handler
      */
-    private Template getRequestTemplate(final Ds3Request ds3Request) throws IOException {
-        if (isGetObjectAmazonS3Request(ds3Request)) {
-            return config.getTemplate("request/get_object_request.ftl");
-        }
-        if (isAmazonCreateObjectRequest(ds3Request)) {
-            return config.getTemplate("request/put_object_request.ftl");
-        }
-        if (hasGetObjectsWithLengthOffsetRequestPayload(ds3Request)) {
-            return config.getTemplate("request/get_bulk_job_request.ftl");
-        }
-        if (hasPutObjectsWithSizeRequestPayload(ds3Request)
-                || isCreateMultiPartUploadPartRequest(ds3Request)
-                || hasSimpleObjectsRequestPayload(ds3Request)
-                || hasStringRequestPayload(ds3Request)
-                || isCompleteMultiPartUploadRequest(ds3Request)
-                || isMultiFileDeleteRequest(ds3Request)
-                || hasIdsRequestPayload(ds3Request)) {
-            return config.getTemplate("request/request_with_stream.ftl");
-        }
-        return config.getTemplate("request/request_template.ftl");
+    private Template getRequestTemplate(final ImmutableSet<Ds3RequestKind> kinds) throws IOException {
+        return config.getTemplate(REQUEST_TEMPLATES.find(kinds)
+                .orElse("request/request_template.ftl"));
     }
 
     /**
      * Generates the Go code for a response handler/parser
      */
-    private void generateResponse(final Ds3Request ds3Request) throws IOException, TemplateException {
+    private void generateResponse(
+            final Ds3Request ds3Request,
+            final ImmutableSet<Ds3RequestKind> kinds) throws IOException, TemplateException {
         final Template tmpl = getResponseTemplate(ds3Request);
-        final ResponseModelGenerator<?> generator = getResponseGenerator(ds3Request);
-        final Response response = generator.generate(ds3Request);
+        final ResponseModelGenerator<?> generator = getResponseGenerator(ds3Request, kinds);
+        final Response response = Instrumentation.getRecorder()
+                .timePhase(SCOPE, "convertModels", () -> generator.generate(ds3Request));
         final Path path = destDir.resolve(
                 BASE_PROJECT_PATH.resolve(
                         Paths.get(COMMANDS_NAMESPACE.replace(".", "/") + "/" + decapitalize(response.getName()) + ".go")));
@@ -211,7 +225,7 @@ public class GoCodeGenerator implements CodeGenerator {
 
         try (final OutputStream outputStream = fileUtils.getOutputFile(path);
              final Writer writer = new OutputStreamWriter(outputStream)) {
-            tmpl.process(response, writer);
+            InstrumentedTemplates.process(SCOPE, tmpl, response, writer);
         }
     }
 
@@ -220,7 +234,17 @@ public class GoCodeGenerator implements CodeGenerator {
      * specified {@link Ds3Request}
      */
     static ResponseModelGenerator<?> getResponseGenerator(final Ds3Request ds3Request) {
-        if (isGetObjectAmazonS3Request(ds3Request)) {
+        return getResponseGenerator(ds3Request, classify(ds3Request));
+    }
+
+    /**
+     * Retrieves the generator used to create the Go response handler for the
+     * specified {@link Ds3Request} of the specified kinds
+     */
+    static ResponseModelGenerator<?> getResponseGenerator(
+            final Ds3Request ds3Request,
+            final ImmutableSet<Ds3RequestKind> kinds) {
+        if (kinds.contains(GET_OBJECT_AMAZON_S3)) {
             return new GetObjectResponseGenerator();
         }
         if (!hasResponsePayload(ds3Request.getDs3ResponseCodes())) {
@@ -261,7 +285,8 @@ public class GoCodeGenerator implements CodeGenerator {
         }
         final Template tmpl = config.getTemplate("client/client_template.ftl");
         final ClientModelGenerator<?> generator = new BaseClientGenerator();
-        final Client client = generator.generate(ds3Requests);
+        final Client client = Instrumentation.getRecorder()
+                .timePhase(SCOPE, "convertModels", () -> generator.generate(ds3Requests));
         final Path path = destDir.resolve(
                 BASE_PROJECT_PATH.resolve(
                         Paths.get(getClientFileName(httpVerb) + ".go")));
@@ -270,7 +295,7 @@ public class GoCodeGenerator implements CodeGenerator {
 
         try (final OutputStream outputStream = fileUtils.getOutputFile(path);
              final Writer writer = new OutputStreamWriter(outputStream)) {
-            tmpl.process(client, writer);
+            InstrumentedTemplates.process(SCOPE, tmpl, client, writer);
         }
     }
 
@@ -319,7 +344,8 @@ public class GoCodeGenerator implements CodeGenerator {
         final ImmutableSet<String> typesParsedAsSlices = getTypesParsedAsSlices(typeMap);
         final Template tmpl = getTypeParserTemplate(ds3Type, typesParsedAsSlices);
         final TypeParserModelGenerator<?> generator = getTypeParserGenerator(ds3Type);
-        final TypeParser typeParser = generator.generate(ds3Type, typeMap);
+        final TypeParser typeParser = Instrumentation.getRecorder()
+                .timePhase(SCOPE, "convertModels", () -> generator.generate(ds3Type, typeMap));
         final Path path = destDir.resolve(
                 BASE_PROJECT_PATH.resolve(
                         Paths.get(COMMANDS_NAMESPACE.replace(".", "/") + "/" + decapitalize(typeParser.getName()) + ".go")));
@@ -328,7 +354,7 @@ public class GoCodeGenerator implements CodeGenerator {
 
         try (final OutputStream outputStream = fileUtils.getOutputFile(path);
              final Writer writer = new OutputStreamWriter(outputStream)) {
-            tmpl.process(typeParser, writer);
+            InstrumentedTemplates.process(SCOPE, tmpl, typeParser, writer);
         }
     }
 
@@ -372,7 +398,8 @@ public class GoCodeGenerator implements CodeGenerator {
     private void generateType(final Ds3Type ds3Type) throws IOException, TemplateException {
         final Template tmpl = getTypeTemplate(ds3Type);
         final TypeModelGenerator<?> generator = getTypeGenerator();
-        final Type type = generator.generate(ds3Type);
+        final Type type = Instrumentation.getRecorder()
+                .timePhase(SCOPE, "convertModels", () -> generator.generate(ds3Type));
         final Path path = destDir.resolve(
                 BASE_PROJECT_PATH.resolve(
                         Paths.get(COMMANDS_NAMESPACE.replace(".", "/") + "/" + decapitalize(type.getName()) + ".go")));
@@ -381,7 +408,7 @@ public class GoCodeGenerator implements CodeGenerator {
 
         try (final OutputStream outputStream = fileUtils.getOutputFile(path);
              final Writer writer = new OutputStreamWriter(outputStream)) {
-            tmpl.process(type, writer);
+            InstrumentedTemplates.process(SCOPE, tmpl, type, writer);
         }
     }
 
@@ -17,8 +17,10 @@ package com.spectralogic.ds3autogen.java;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.spectralogic.ds3autogen.api.CodeGenerator;
 import com.spectralogic.ds3autogen.api.FileUtils;
+import com.spectralogic.ds3autogen.api.instrumentation.Instrumentation;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3ApiSpec;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3Request;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3Type;
@@ -28,26 +30,33 @@ import com.spectralogic.ds3autogen.java.generators.requestmodels.*;
 import com.spectralogic.ds3autogen.java.generators.responsemodels.*;
 import com.spectralogic.ds3autogen.java.generators.responseparser.*;
 import com.spectralogic.ds3autogen.java.generators.typemodels.*;
+import com.spectralogic.ds3autogen.java.generators.xmlreaders.XmlReaderGenerator;
 import com.spectralogic.ds3autogen.java.helpers.JavaHelper;
 import com.spectralogic.ds3autogen.java.models.*;
+import com.spectralogic.ds3autogen.utils.Ds3RequestClassificationIndex;
+import com.spectralogic.ds3autogen.utils.Ds3RequestKindTable;
 import com.spectralogic.ds3autogen.utils.Ds3TypeClassificationUtil;
 import com.spectralogic.ds3autogen.utils.Helper;
+import com.spectralogic.ds3autogen.utils.OrderedFileWriter;
+import com.spectralogic.ds3autogen.utils.TemplateRegistry;
+import com.spectralogic.ds3autogen.utils.models.Ds3RequestKind;
 import freemarker.template.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static com.spectralogic.ds3autogen.java.models.Constants.*;
 import static com.spectralogic.ds3autogen.java.utils.JavaModuleUtil.getCommandPackage;
 import static com.spectralogic.ds3autogen.utils.ConverterUtil.*;
-import static com.spectralogic.ds3autogen.utils.Ds3RequestClassificationUtil.*;
+import static com.spectralogic.ds3autogen.utils.Ds3RequestClassificationIndex.classify;
 import static com.spectralogic.ds3autogen.utils.Ds3TypeClassificationUtil.*;
+import static com.spectralogic.ds3autogen.utils.models.Ds3RequestKind.*;
 
 /**
  * Generates Java SDK code based on the contents of a Ds3ApiSpec.
@@ -58,24 +67,144 @@ import static com.spectralogic.ds3autogen.utils.Ds3TypeClassificationUtil.*;
  *   Ds3Client
  *   Ds3ClientImpl
  *   Models
+ *
+ * When enabled, a reflection-free StAX reader is also generated for every Model whose
+ * elements can all be read without Jackson, the response parsers use those readers,
+ * and a JMH benchmark comparing the two is generated within ds3-sdk/src/jmh.
+ *
+ * By default every file is rendered and written on the calling thread. When created
+ * with an executor, the templates for different requests and types are rendered in
+ * parallel, and the rendered files are written in the same order as the sequential
+ * generator, so logs and the first reported error do not depend on thread scheduling.
  */
 public class JavaCodeGenerator implements CodeGenerator {
 
     private static final Logger LOG = LoggerFactory.getLogger(JavaCodeGenerator.class);
 
+    private static final String SCOPE = JavaCodeGenerator.class.getSimpleName();
+
     private static final Path baseProjectPath = Paths.get("ds3-sdk/src/main/java/");
 
-    private final Configuration config = new Configuration(Configuration.VERSION_2_3_23);
+    private static final Path benchmarkProjectPath = Paths.get("ds3-sdk/src/jmh/java/");
+
+    /*
+     * The templates and model generators of the special cased requests. A request uses the first
+     * entry it matches, so the more specific kinds are listed before the kinds they take precedence over.
+     */
 
-    private FileUtils fileUtils;
-    private Path destDir;
+    private static final Ds3RequestKindTable<String> REQUEST_TEMPLATES = Ds3RequestKindTable.<String>builder()
+            .add(BULK, "request/bulk_request_template.ftl")
+            .add(IDS_PAYLOAD, "request/ids_request_payload_template.ftl")
+            .add(STRING_PAYLOAD, "request/request_with_string_payload_template.ftl")
+            .add(ImmutableSet.of(SIMPLE_OBJECTS_PAYLOAD, CREATE_VERIFY_JOB), "request/objects_request_payload_request_template.ftl")
+            .add(MULTI_FILE_DELETE, "request/multi_file_delete_request_template.ftl")
+            .add(GET_OBJECT, "request/get_object_template.ftl")
+            .add(CREATE_OBJECT, "request/create_object_template.ftl")
+            .add(DELETE_NOTIFICATION, "request/delete_notification_request_template.ftl")
+            .add(CREATE_NOTIFICATION, "request/create_notification_request_template.ftl")
+            .add(ImmutableSet.of(GET_NOTIFICATION), Ds3Request::getIncludeInPath, "request/get_notification_request_template.ftl")
+            .add(GET_JOB, "request/get_job_request_template.ftl")
+            .add(COMPLETE_MULTIPART_UPLOAD, "request/complete_multipart_upload_template.ftl")
+            .build();
+
+    private static final Ds3RequestKindTable<Supplier<RequestModelGenerator<?>>> REQUEST_GENERATORS =
+            Ds3RequestKindTable.<Supplier<RequestModelGenerator<?>>>builder()
+                    .add(IDS_PAYLOAD, IdsRequestPayloadGenerator::new)
+                    .add(STRING_PAYLOAD, StringRequestPayloadGenerator::new)
+                    .add(BULK, BulkRequestGenerator::new)
+                    .add(ImmutableSet.of(SIMPLE_OBJECTS_PAYLOAD, CREATE_VERIFY_JOB), ObjectsRequestPayloadGenerator::new)
+                    .add(CREATE_OBJECT, CreateObjectRequestGenerator::new)
+                    .add(CREATE_NOTIFICATION, CreateNotificationRequestGenerator::new)
+                    .add(ImmutableSet.of(GET_NOTIFICATION, DELETE_NOTIFICATION), Ds3Request::getIncludeInPath, NotificationRequestGenerator::new)
+                    .add(GET_OBJECT, GetObjectRequestGenerator::new)
+                    .add(MULTI_FILE_DELETE, MultiFileDeleteRequestGenerator::new)
+                    .add(CREATE_MULTIPART_UPLOAD_PART, StreamRequestPayloadGenerator::new)
+                    .add(COMPLETE_MULTIPART_UPLOAD, CompleteMultipartUploadRequestGenerator::new)
+                    .build();
+
+    //Pagination is listed last so that it does not overwrite any special cased templates or generators
+    private static final Ds3RequestKindTable<String> RESPONSE_TEMPLATES = Ds3RequestKindTable.<String>builder()
+            .add(HEAD_OBJECT, "response/head_object_response.ftl")
+            .add(HEAD_BUCKET, "response/head_bucket_response.ftl")
+            .add(ALLOCATE_JOB_CHUNK, "response/allocate_chunk_response.ftl")
+            .add(GET_JOB_CHUNKS_READY, "response/chunks_ready_response.ftl")
+            .add(BULK, "response/bulk_response.ftl")
+            .add(PAGINATION, "response/pagination_response.ftl")
+            .build();
+
+    private static final Ds3RequestKindTable<Supplier<ResponseModelGenerator<?>>> RESPONSE_GENERATORS =
+            Ds3RequestKindTable.<Supplier<ResponseModelGenerator<?>>>builder()
+                    .add(HEAD_OBJECT, HeadObjectResponseGenerator::new)
+                    .add(HEAD_BUCKET, HeadBucketResponseGenerator::new)
+                    .add(ImmutableSet.of(ALLOCATE_JOB_CHUNK, GET_JOB_CHUNKS_READY), RetryAfterResponseGenerator::new)
+                    .add(BULK, BulkResponseGenerator::new)
+                    .add(GET_OBJECT_AMAZON_S3, GetObjectResponseGenerator::new)
+                    .add(PAGINATION, PaginationResponseGenerator::new)
+                    .build();
+
+    private static final Ds3RequestKindTable<String> RESPONSE_PARSER_TEMPLATES = Ds3RequestKindTable.<String>builder()
+            .add(BULK, "responseparser/bulk_response_parser.ftl")
+            .add(ALLOCATE_JOB_CHUNK, "responseparser/allocate_job_chunk_parser.ftl")
+            .add(HEAD_OBJECT, "responseparser/head_object_parser.ftl")
+            .add(GET_OBJECT_AMAZON_S3, "responseparser/get_object_parser.ftl")
+            .add(GET_JOB_CHUNKS_READY, "responseparser/get_job_chunks_ready_parser.ftl")
+            .build();
+
+    //Each parser generator is created with the names of the models parsed by their generated StAX reader
+    private static final Ds3RequestKindTable<Function<ImmutableSet<String>, ResponseParserGenerator<?>>> RESPONSE_PARSER_GENERATORS =
+            Ds3RequestKindTable.<Function<ImmutableSet<String>, ResponseParserGenerator<?>>>builder()
+                    .add(HEAD_BUCKET, xmlReaderModels -> new HeadBucketParserGenerator())
+                    .add(ALLOCATE_JOB_CHUNK, AllocateJobChunkParserGenerator::new)
+                    .add(HEAD_OBJECT, xmlReaderModels -> new HeadObjectParserGenerator())
+                    .add(GET_OBJECT_AMAZON_S3, xmlReaderModels -> new GetObjectParserGenerator())
+                    .add(GET_JOB_CHUNKS_READY, GetJobChunksReadyParserGenerator::new)
+                    .build();
+
+    private final Configuration config;
+    private final ExecutorService renderExecutor;
+    private final int maxPendingFiles;
+    private final boolean generateXmlReaders;
 
     public JavaCodeGenerator() throws TemplateModelException {
-        config.setDefaultEncoding("UTF-8");
-        config.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
-        config.setClassForTemplateLoading(JavaCodeGenerator.class, "/tmpls/java/");
-        config.setSharedVariable("javaHelper", JavaHelper.getInstance());
-        config.setSharedVariable("helper", Helper.getInstance());
+        this(false);
+    }
+
+    /**
+     * @param generateXmlReaders If the StAX readers and their benchmark are generated
+     */
+    public JavaCodeGenerator(final boolean generateXmlReaders) throws TemplateModelException {
+        this(null, 1, generateXmlReaders);
+    }
+
+    /**
+     * Creates a JavaCodeGenerator that renders files in parallel
+     * @param renderExecutor The executor used to render templates. It is not shut down by the generator.
+     * @param maxPendingFiles The maximum number of rendered files held in memory waiting to be written
+     */
+    public JavaCodeGenerator(
+            final ExecutorService renderExecutor,
+            final int maxPendingFiles) throws TemplateModelException {
+        this(renderExecutor, maxPendingFiles, false);
+    }
+
+    /**
+     * Creates a JavaCodeGenerator that renders files in parallel
+     * @param renderExecutor The executor used to render templates, or null to render on the calling thread.
+     *                       It is not shut down by the generator.
+     * @param maxPendingFiles The maximum number of rendered files held in memory waiting to be written
+     * @param generateXmlReaders If the StAX readers and their benchmark are generated
+     */
+    public JavaCodeGenerator(
+            final ExecutorService renderExecutor,
+            final int maxPendingFiles,
+            final boolean generateXmlReaders) throws TemplateModelException {
+        this.renderExecutor = renderExecutor;
+        this.maxPendingFiles = maxPendingFiles;
+        this.generateXmlReaders = generateXmlReaders;
+        this.config = TemplateRegistry.getDefault().getConfiguration(JavaCodeGenerator.class, "/tmpls/java/", cfg -> {
+            cfg.setSharedVariable("javaHelper", JavaHelper.getInstance());
+            cfg.setSharedVariable("helper", Helper.getInstance());
+        });
     }
 
     @Override
@@ -84,18 +213,25 @@ public class JavaCodeGenerator implements CodeGenerator {
             final FileUtils fileUtils,
             final Path destDir,
             final Ds3DocSpec docSpec) throws IOException {
-        this.fileUtils = fileUtils;
-        this.destDir = destDir;
-
+        final OrderedFileWriter writer = renderExecutor == null
+                ? new OrderedFileWriter(fileUtils, SCOPE)
+                : new OrderedFileWriter(fileUtils, renderExecutor, maxPendingFiles, SCOPE);
         try {
             final ImmutableList<Ds3Request> requests = spec.getRequests();
-            final ImmutableMap<String, Ds3Type> types = removeUnusedTypes(
-                    spec.getTypes(),
-                    spec.getRequests());
-
-            generateCommands(requests, types, docSpec);
+            final ImmutableMap<String, Ds3Type> types = Instrumentation.getRecorder()
+                    .timePhase(SCOPE, "removeUnusedTypes", () -> removeUnusedTypes(spec));
+            final Ds3RequestClassificationIndex classificationIndex = Ds3RequestClassificationIndex.of(requests);
+            LOG.debug("Request classifications:\n{}", classificationIndex.dump());
+            final ImmutableMap<String, Model> xmlReaderModels = generateXmlReaders
+                    ? toXmlReaderModels(types)
+                    : ImmutableMap.of();
+
+            generateCommands(requests, classificationIndex, types, xmlReaderModels, docSpec, destDir, writer);
+            writer.flush();
         } catch (final TemplateException e) {
-            LOG.error("Unable to generate Java SDK code", e);
+            throw new IOException("Unable to generate Java SDK code", e);
+        } finally {
+            writer.close();
         }
     }
 
@@ -106,11 +242,20 @@ public class JavaCodeGenerator implements CodeGenerator {
      */
     private void generateCommands(
             final ImmutableList<Ds3Request> requests,
+            final Ds3RequestClassificationIndex classificationIndex,
             final ImmutableMap<String, Ds3Type> types,
-            final Ds3DocSpec docSpec) throws IOException, TemplateException {
-        generateAllRequests(requests, docSpec);
-        generateAllModels(types);
-        generateClient(requests, docSpec);
+            final ImmutableMap<String, Model> xmlReaderModels,
+            final Ds3DocSpec docSpec,
+            final Path destDir,
+            final OrderedFileWriter writer) throws IOException, TemplateException {
+        generateAllRequests(requests, classificationIndex, xmlReaderModels.keySet(), docSpec, destDir, writer);
+        generateXmlPayload(requests, destDir, writer);
+        generateRangedDownloader(requests, classificationIndex, destDir, writer);
+        generateAllModels(types, destDir, writer);
+        if (generateXmlReaders) {
+            generateAllXmlReaders(types, xmlReaderModels, destDir, writer);
+        }
+        generateClient(requests, types, docSpec, destDir, writer);
     }
 
     /**
@@ -119,13 +264,16 @@ public class JavaCodeGenerator implements CodeGenerator {
      * @throws IOException
      * @throws TemplateException
      */
-    private void generateAllModels(final ImmutableMap<String, Ds3Type> types) throws IOException, TemplateException {
+    private void generateAllModels(
+            final ImmutableMap<String, Ds3Type> types,
+            final Path destDir,
+            final OrderedFileWriter writer) throws IOException, TemplateException {
         if (isEmpty(types)) {
             LOG.info("There were no models to generate");
             return;
         }
         for (final Ds3Type ds3Type : types.values()) {
-            generateModel(ds3Type);
+            generateModel(ds3Type, destDir, writer);
         }
     }
 
@@ -135,23 +283,21 @@ public class JavaCodeGenerator implements CodeGenerator {
      * @throws IOException
      * @throws TemplateException
      */
-    private void generateModel(final Ds3Type ds3Type) throws IOException, TemplateException {
+    private void generateModel(
+            final Ds3Type ds3Type,
+            final Path destDir,
+            final OrderedFileWriter writer) throws IOException, TemplateException {
         final Template modelTmpl = getModelTemplate(ds3Type);
-        final Model model = toModel(ds3Type, getModelPackage());
-        final Path modelPath = toModelFilePath(model.getName());
-
-        LOG.info("Getting outputstream for file: {}", modelPath.toString());
-
-        try (final OutputStream outStream = fileUtils.getOutputFile(modelPath);
-             final Writer writer = new OutputStreamWriter(outStream)) {
-            modelTmpl.process(model, writer);
-        }
+        writer.submit(
+                modelTmpl,
+                () -> toModel(ds3Type, getModelPackage()),
+                model -> toModelFilePath(model.getName(), destDir));
     }
 
     /**
      * Converts a Ds3Type into a Model
      */
-    private Model toModel(final Ds3Type ds3Type, final String packageName) {
+    private static Model toModel(final Ds3Type ds3Type, final String packageName) {
         final TypeModelGenerator<?> modelGenerator = getModelGenerator(ds3Type);
         return modelGenerator.generate(ds3Type, packageName);
     }
@@ -159,7 +305,7 @@ public class JavaCodeGenerator implements CodeGenerator {
     /**
      * Retrieves the associated type model generator for the specified Ds3TYpe
      */
-    private TypeModelGenerator<?> getModelGenerator(final Ds3Type ds3Type) {
+    private static TypeModelGenerator<?> getModelGenerator(final Ds3Type ds3Type) {
         if (isChecksumType(ds3Type)) {
             return new ChecksumTypeGenerator();
         }
@@ -172,6 +318,113 @@ public class JavaCodeGenerator implements CodeGenerator {
         return new BaseTypeGenerator();
     }
 
+    /**
+     * Retrieves the Models that can be read by a generated StAX reader, keyed by the Model name
+     */
+    private static ImmutableMap<String, Model> toXmlReaderModels(final ImmutableMap<String, Ds3Type> types) {
+        final ImmutableMap.Builder<String, Model> candidates = ImmutableMap.builder();
+        for (final Ds3Type ds3Type : types.values()) {
+            if (!isHttpErrorType(ds3Type)
+                    && !isChecksumType(ds3Type)
+                    && isEmpty(ds3Type.getEnumConstants())
+                    && hasContent(ds3Type.getElements())) {
+                candidates.put(ds3Type.getName(), toModel(ds3Type, getModelPackage()));
+            }
+        }
+        final ImmutableMap<String, Model> models = candidates.build();
+        final ImmutableSet<String> readable = XmlReaderGenerator.toReadableModels(types, models);
+
+        final ImmutableMap.Builder<String, Model> builder = ImmutableMap.builder();
+        models.values().stream()
+                .filter(model -> readable.contains(model.getName()))
+                .forEach(model -> builder.put(model.getName(), model));
+        return builder.build();
+    }
+
+    /**
+     * Generates the StAX reader of every readable Model, the functions shared by
+     * the readers, and the benchmark comparing the readers against Jackson
+     */
+    private void generateAllXmlReaders(
+            final ImmutableMap<String, Ds3Type> types,
+            final ImmutableMap<String, Model> xmlReaderModels,
+            final Path destDir,
+            final OrderedFileWriter writer) throws IOException, TemplateException {
+        final ImmutableSet<String> readable = xmlReaderModels.keySet();
+        final Template readerTmpl = config.getTemplate("serializer/xml_reader_template.ftl");
+        for (final Model model : xmlReaderModels.values()) {
+            writer.submit(
+                    readerTmpl,
+                    () -> XmlReaderGenerator.toXmlReader(model, types, readable, XML_READERS_PACKAGE_PATH),
+                    reader -> toXmlReaderFilePath(reader.getName(), destDir));
+        }
+
+        writer.submit(
+                config.getTemplate("serializer/xml_reader_utils_template.ftl"),
+                () -> ImmutableMap.of("packageName", XML_READERS_PACKAGE_PATH),
+                utils -> toXmlReaderFilePath("XmlReaderUtils", destDir));
+
+        writer.submit(
+                config.getTemplate("benchmark/xml_reader_benchmark_template.ftl"),
+                () -> XmlReaderGenerator.toXmlReaderBenchmark(readable, XML_READERS_PACKAGE_PATH),
+                benchmark -> destDir.resolve(benchmarkProjectPath.resolve(
+                        Paths.get(benchmark.getPackageName().replace(".", "/") + "/" + benchmark.getName() + ".java"))));
+    }
+
+    /**
+     * Generates the XmlPayload class that the requests use to stream their xml request payloads
+     */
+    private void generateXmlPayload(
+            final ImmutableList<Ds3Request> requests,
+            final Path destDir,
+            final OrderedFileWriter writer) throws IOException, TemplateException {
+        if (isEmpty(requests)) {
+            return;
+        }
+        writer.submit(
+                config.getTemplate("serializer/xml_payload_template.ftl"),
+                () -> ImmutableMap.of("packageName", SERIALIZER_PACKAGE_PATH),
+                m -> destDir.resolve(baseProjectPath.resolve(
+                        Paths.get(SERIALIZER_PACKAGE_PATH.replace(".", "/") + "/XmlPayload.java"))));
+    }
+
+    /**
+     * Generates the helper that downloads an object with concurrent ranged get object requests,
+     * if the amazon get object request is being generated
+     */
+    private void generateRangedDownloader(
+            final ImmutableList<Ds3Request> requests,
+            final Ds3RequestClassificationIndex classificationIndex,
+            final Path destDir,
+            final OrderedFileWriter writer) throws IOException, TemplateException {
+        if (isEmpty(requests)
+                || requests.stream().noneMatch(request -> classificationIndex.getKinds(request).contains(GET_OBJECT_AMAZON_S3))) {
+            return;
+        }
+        final ImmutableMap<String, String> model = ImmutableMap.of("packageName", RANGED_DOWNLOAD_PACKAGE_PATH);
+        writer.submit(
+                config.getTemplate("helpers/ranged_downloader_template.ftl"),
+                () -> model,
+                m -> toRangedDownloadPath("RangedDownloader.java", destDir));
+        writer.submit(
+                config.getTemplate("helpers/ranged_download_options_template.ftl"),
+                () -> model,
+                m -> toRangedDownloadPath("RangedDownloadOptions.java", destDir));
+    }
+
+    private static Path toRangedDownloadPath(final String fileName, final Path destDir) {
+        return destDir.resolve(baseProjectPath.resolve(
+                Paths.get(RANGED_DOWNLOAD_PACKAGE_PATH.replace(".", "/") + "/" + fileName)));
+    }
+
+    /**
+     * Converts the name of a generated StAX reader into its file path
+     */
+    private static Path toXmlReaderFilePath(final String readerName, final Path destDir) {
+        return destDir.resolve(baseProjectPath.resolve(
+                Paths.get(XML_READERS_PACKAGE_PATH.replace(".", "/") + "/" + readerName + ".java")));
+    }
+
     /**
      * Gets the Model template that is used to generate the given Ds3Type content
      * @param ds3Type A Ds3Type
@@ -218,16 +471,17 @@ public class JavaCodeGenerator implements CodeGenerator {
      * Gets the package name for where the Models will be generated
      * @return The package name of where the Models are going to be generated
      */
-    private String getModelPackage() {
+    private static String getModelPackage() {
         return ROOT_PACKAGE_PATH + MODELS_PACKAGE;
     }
 
     /**
      * Converts a Model name into a Model file path
      * @param modelName The name of a Model
+     * @param destDir The directory the code is generated within
      * @return The file path of a Model
      */
-    private Path toModelFilePath(final String modelName) {
+    private static Path toModelFilePath(final String modelName, final Path destDir) {
         return destDir.resolve(baseProjectPath.resolve(
                 Paths.get(getModelPackage().replace(".", "/") + "/" + modelName + ".java")));
     }
@@ -240,41 +494,46 @@ public class JavaCodeGenerator implements CodeGenerator {
      */
     private void generateAllRequests(
             final ImmutableList<Ds3Request> requests,
-            final Ds3DocSpec docSpec) throws IOException, TemplateException {
+            final Ds3RequestClassificationIndex classificationIndex,
+            final ImmutableSet<String> xmlReaderModels,
+            final Ds3DocSpec docSpec,
+            final Path destDir,
+            final OrderedFileWriter writer) throws IOException, TemplateException {
         if (isEmpty(requests)) {
             LOG.info("There were no requests to generate");
             return;
         }
         for (final Ds3Request request : requests) {
-            generateRequest(request, docSpec);
-            generateResponse(request);
-            generateResponseParser(request);
+            final ImmutableSet<Ds3RequestKind> kinds = classificationIndex.getKinds(request);
+            generateRequest(request, kinds, docSpec, destDir, writer);
+            generateResponse(request, kinds, destDir, writer);
+            generateResponseParser(request, kinds, xmlReaderModels, destDir, writer);
         }
     }
 
     /**
      * Generates the Response Parser code for the specified Ds3Request
      */
-    private void generateResponseParser(final Ds3Request ds3Request) throws IOException, TemplateException {
-        final Template tmpl = getResponseParserTemplate(ds3Request);
-
-        final ResponseParser responseParser = toResponseParser(ds3Request);
-        final Path responsePath = toResponseParserPath(responseParser.getName());
-
-        LOG.info("Getting outputstream for file: {}", responsePath.toString());
-
-        try (final OutputStream outStream = fileUtils.getOutputFile(responsePath);
-             final Writer writer = new OutputStreamWriter(outStream)) {
-            tmpl.process(responseParser, writer);
-        }
+    private void generateResponseParser(
+            final Ds3Request ds3Request,
+            final ImmutableSet<Ds3RequestKind> kinds,
+            final ImmutableSet<String> xmlReaderModels,
+            final Path destDir,
+            final OrderedFileWriter writer) throws IOException, TemplateException {
+        final Template tmpl = getResponseParserTemplate(kinds);
+        writer.submit(
+                tmpl,
+                () -> toResponseParser(ds3Request, kinds, xmlReaderModels),
+                responseParser -> toResponseParserPath(responseParser.getName(), destDir));
     }
 
     /**
      * Converts a file name into the path containing said file within the client path
      * @param fileName The name of a file
+     * @param destDir The directory the code is generated within
      * @return The client path to the given file
      */
-    protected Path toResponseParserPath(final String fileName) {
+    protected static Path toResponseParserPath(final String fileName, final Path destDir) {
         return destDir.resolve(
                 baseProjectPath.resolve(
                         Paths.get(RESPONSE_PARSER_PACKAGE_PATH.replace(".", "/") + "/" + fileName + ".java")));
@@ -283,30 +542,19 @@ public class JavaCodeGenerator implements CodeGenerator {
     /**
      * Retrieves the response parser template used to generate the specified request
      */
-    protected Template getResponseParserTemplate(final Ds3Request ds3Request) throws IOException {
-        if (isBulkRequest(ds3Request)) {
-            return config.getTemplate("responseparser/bulk_response_parser.ftl");
-        }
-        if (isAllocateJobChunkRequest(ds3Request)) {
-            return config.getTemplate("responseparser/allocate_job_chunk_parser.ftl");
-        }
-        if (isHeadObjectRequest(ds3Request)) {
-            return config.getTemplate("responseparser/head_object_parser.ftl");
-        }
-        if (isGetObjectAmazonS3Request(ds3Request)) {
-            return config.getTemplate("responseparser/get_object_parser.ftl");
-        }
-        if (isGetJobChunksReadyForClientProcessingRequest(ds3Request)) {
-            return config.getTemplate("responseparser/get_job_chunks_ready_parser.ftl");
-        }
-        return config.getTemplate("responseparser/response_parser_template.ftl");
+    protected Template getResponseParserTemplate(final ImmutableSet<Ds3RequestKind> kinds) throws IOException {
+        return config.getTemplate(RESPONSE_PARSER_TEMPLATES.find(kinds)
+                .orElse("responseparser/response_parser_template.ftl"));
     }
 
     /**
      * Converts a Ds3Request into a Response Parser model
      */
-    protected static ResponseParser toResponseParser(final Ds3Request ds3Request) {
-        final ResponseParserGenerator<?> generator = getResponseParserGenerator(ds3Request);
+    protected static ResponseParser toResponseParser(
+            final Ds3Request ds3Request,
+            final ImmutableSet<Ds3RequestKind> kinds,
+            final ImmutableSet<String> xmlReaderModels) {
+        final ResponseParserGenerator<?> generator = getResponseParserGenerator(kinds, xmlReaderModels);
         return generator.generate(ds3Request, RESPONSE_PARSER_PACKAGE_PATH);
     }
 
@@ -314,22 +562,26 @@ public class JavaCodeGenerator implements CodeGenerator {
      * Retrieves the response parser generator used to generate the specified request
      */
     protected static ResponseParserGenerator<?> getResponseParserGenerator(final Ds3Request ds3Request) {
-        if (isHeadBucketRequest(ds3Request)) {
-            return new HeadBucketParserGenerator();
-        }
-        if (isAllocateJobChunkRequest(ds3Request)) {
-            return new AllocateJobChunkParserGenerator();
-        }
-        if (isHeadObjectRequest(ds3Request)) {
-            return new HeadObjectParserGenerator();
-        }
-        if (isGetObjectAmazonS3Request(ds3Request)) {
-            return new GetObjectParserGenerator();
-        }
-        if (isGetJobChunksReadyForClientProcessingRequest(ds3Request)) {
-            return new GetJobChunksReadyParserGenerator();
-        }
-        return new BaseResponseParserGenerator();
+        return getResponseParserGenerator(classify(ds3Request));
+    }
+
+    /**
+     * Retrieves the response parser generator used to generate a request of the specified kinds
+     */
+    protected static ResponseParserGenerator<?> getResponseParserGenerator(final ImmutableSet<Ds3RequestKind> kinds) {
+        return getResponseParserGenerator(kinds, ImmutableSet.of());
+    }
+
+    /**
+     * Retrieves the response parser generator used to generate a request of the specified kinds
+     * @param xmlReaderModels The names of the models that are parsed with their generated StAX reader
+     */
+    protected static ResponseParserGenerator<?> getResponseParserGenerator(
+            final ImmutableSet<Ds3RequestKind> kinds,
+            final ImmutableSet<String> xmlReaderModels) {
+        return RESPONSE_PARSER_GENERATORS.find(kinds)
+                .orElse(BaseResponseParserGenerator::new)
+                .apply(xmlReaderModels);
     }
 
     /**
@@ -340,39 +592,56 @@ public class JavaCodeGenerator implements CodeGenerator {
      */
     private void generateClient(
             final ImmutableList<Ds3Request> requests,
-            final Ds3DocSpec docSpec) throws IOException, TemplateException {
+            final ImmutableMap<String, Ds3Type> types,
+            final Ds3DocSpec docSpec,
+            final Path destDir,
+            final OrderedFileWriter writer) throws IOException, TemplateException {
         if (isEmpty(requests)) {
             LOG.info("Not generating client: no requests.");
             return;
         }
         final Template clientTmpl = config.getTemplate("client/ds3client_template.ftl");
-        final Client client = ClientConverter.toClient(requests, ROOT_PACKAGE_PATH, docSpec);
-        final Path clientPath = toClientPath("Ds3Client.java");
-
-        LOG.info("Getting outputstream for file: {}", clientPath.toString());
-
-        try (final OutputStream outStream = fileUtils.getOutputFile(clientPath);
-             final Writer writer = new OutputStreamWriter(outStream)) {
-            clientTmpl.process(client, writer);
-        }
-
         final Template clientImplTmpl = config.getTemplate("client/ds3client_impl_template.ftl");
-        final Path clientImplPath = toClientPath("Ds3ClientImpl.java");
+        final Template asyncClientTmpl = config.getTemplate("client/ds3_async_client_template.ftl");
+        final Template asyncClientImplTmpl = config.getTemplate("client/ds3_async_client_impl_template.ftl");
+        final Client client = Instrumentation.getRecorder()
+                .timePhase(SCOPE, "ClientConverter", () -> ClientConverter.toClient(requests, ROOT_PACKAGE_PATH, docSpec, types));
+
+        writer.submit(clientTmpl, () -> client, c -> toClientPath("Ds3Client.java", destDir));
+        writer.submit(clientImplTmpl, () -> client, c -> toClientPath("Ds3ClientImpl.java", destDir));
+        writer.submit(asyncClientTmpl, () -> client, c -> toClientPath("Ds3AsyncClient.java", destDir));
+        writer.submit(asyncClientImplTmpl, () -> client, c -> toClientPath("Ds3AsyncClientImpl.java", destDir));
+        generatePagination(destDir, writer);
+    }
 
-        LOG.info("Getting outputstream for file: {}", clientPath.toString());
+    /**
+     * Generates the classes used by the Ds3Client to lazily iterate the pages of paginated commands
+     */
+    private void generatePagination(
+            final Path destDir,
+            final OrderedFileWriter writer) throws IOException, TemplateException {
+        final ImmutableMap<String, String> model = ImmutableMap.of("packageName", PAGINATION_PACKAGE_PATH);
+        writer.submit(
+                config.getTemplate("pagination/paginated_iterable_template.ftl"),
+                () -> model,
+                m -> toPaginationPath("PaginatedIterable.java", destDir));
+        writer.submit(
+                config.getTemplate("pagination/pagination_options_template.ftl"),
+                () -> model,
+                m -> toPaginationPath("PaginationOptions.java", destDir));
+    }
 
-        try (final OutputStream outStream = fileUtils.getOutputFile(clientImplPath);
-             final Writer writer = new OutputStreamWriter(outStream)) {
-            clientImplTmpl.process(client, writer);
-        }
+    private static Path toPaginationPath(final String fileName, final Path destDir) {
+        return destDir.resolve(baseProjectPath.resolve(Paths.get(PAGINATION_PACKAGE_PATH.replace(".", "/") + "/" + fileName)));
     }
 
     /**
      * Converts a file name into the path containing said file within the client path
      * @param fileName The name of a file
+     * @param destDir The directory the code is generated within
      * @return The client path to the given file
      */
-    private Path toClientPath(final String fileName) {
+    private static Path toClientPath(final String fileName, final Path destDir) {
         return destDir.resolve(baseProjectPath.resolve(Paths.get(ROOT_PACKAGE_PATH.replace(".", "/") + "/" + fileName)));
     }
 
@@ -382,27 +651,26 @@ public class JavaCodeGenerator implements CodeGenerator {
      * @throws IOException
      * @throws TemplateException
      */
-    private void generateResponse(final Ds3Request ds3Request) throws IOException, TemplateException {
-        final Template tmpl = getResponseTemplate(ds3Request);
-
-        final Response response = toResponse(ds3Request);
-        final Path responsePath = getPathFromPackage(ds3Request, response.getName());
-
-        LOG.info("Getting outputstream for file: {}", responsePath.toString());
-
-        try (final OutputStream outStream = fileUtils.getOutputFile(responsePath);
-             final Writer writer = new OutputStreamWriter(outStream)) {
-            tmpl.process(response, writer);
-        }
+    private void generateResponse(
+            final Ds3Request ds3Request,
+            final ImmutableSet<Ds3RequestKind> kinds,
+            final Path destDir,
+            final OrderedFileWriter writer) throws IOException, TemplateException {
+        final Template tmpl = getResponseTemplate(kinds);
+        writer.submit(
+                tmpl,
+                () -> toResponse(ds3Request, kinds),
+                response -> getPathFromPackage(ds3Request, response.getName(), destDir));
     }
 
     /**
      * Converts a Ds3Request into a Response model
      * @param ds3Request A Ds3Request
+     * @param kinds The classification of the Ds3Request
      * @return A Response
      */
-    private static Response toResponse(final Ds3Request ds3Request) {
-        final ResponseModelGenerator<?> modelGenerator = getResponseGenerator(ds3Request);
+    private static Response toResponse(final Ds3Request ds3Request, final ImmutableSet<Ds3RequestKind> kinds) {
+        final ResponseModelGenerator<?> modelGenerator = getResponseGenerator(kinds);
         return modelGenerator.generate(ds3Request, getCommandPackage(ds3Request));
     }
 
@@ -410,57 +678,28 @@ public class JavaCodeGenerator implements CodeGenerator {
      * Retrieves the associated response generator for the specified Ds3Request
      */
     protected static ResponseModelGenerator<?> getResponseGenerator(final Ds3Request ds3Request) {
-        if (isHeadObjectRequest(ds3Request)) {
-            return new HeadObjectResponseGenerator();
-        }
-        if (isHeadBucketRequest(ds3Request)) {
-            return new HeadBucketResponseGenerator();
-        }
-        if (isAllocateJobChunkRequest(ds3Request)
-                || isGetJobChunksReadyForClientProcessingRequest(ds3Request)) {
-            return new RetryAfterResponseGenerator();
-        }
-        if (isBulkRequest(ds3Request)) {
-            return new BulkResponseGenerator();
-        }
-        if (isGetObjectAmazonS3Request(ds3Request)) {
-            return new GetObjectResponseGenerator();
-        }
-        //This should be the last test so that it does not overwrite any special cased generators
-        if (supportsPaginationRequest(ds3Request)) {
-            return new PaginationResponseGenerator();
-        }
-        return new BaseResponseGenerator();
+        return getResponseGenerator(classify(ds3Request));
+    }
+
+    /**
+     * Retrieves the associated response generator for a Ds3Request of the specified kinds
+     */
+    protected static ResponseModelGenerator<?> getResponseGenerator(final ImmutableSet<Ds3RequestKind> kinds) {
+        return RESPONSE_GENERATORS.find(kinds)
+                .orElse(BaseResponseGenerator::new)
+                .get();
     }
 
     /**
      * Gets the Response template that is used to generate the given Ds3Request's
      * Response handler
-     * @param ds3Request A Ds3Request
+     * @param kinds The classification of the Ds3Request
      * @return The appropriate template to generate the required Response
      * @throws IOException
      */
-    private Template getResponseTemplate(final Ds3Request ds3Request) throws IOException {
-        if (isHeadObjectRequest(ds3Request)) {
-            return config.getTemplate("response/head_object_response.ftl");
-        }
-        if (isHeadBucketRequest(ds3Request)) {
-            return config.getTemplate("response/head_bucket_response.ftl");
-        }
-        if (isAllocateJobChunkRequest(ds3Request)) {
-            return config.getTemplate("response/allocate_chunk_response.ftl");
-        }
-        if (isGetJobChunksReadyForClientProcessingRequest(ds3Request)) {
-            return config.getTemplate("response/chunks_ready_response.ftl");
-        }
-        if (isBulkRequest(ds3Request)) {
-            return config.getTemplate("response/bulk_response.ftl");
-        }
-        //This should be the last test so that it does not overwrite any special cased templates
-        if (supportsPaginationRequest(ds3Request)) {
-            return config.getTemplate("response/pagination_response.ftl");
-        }
-        return config.getTemplate("response/response_template.ftl");
+    private Template getResponseTemplate(final ImmutableSet<Ds3RequestKind> kinds) throws IOException {
+        return config.getTemplate(RESPONSE_TEMPLATES.find(kinds)
+                .orElse("response/response_template.ftl"));
     }
 
     /**
@@ -469,27 +708,27 @@ public class JavaCodeGenerator implements CodeGenerator {
      * @throws IOException
      * @throws TemplateException
      */
-    private void generateRequest(final Ds3Request ds3Request, final Ds3DocSpec docSpec) throws IOException, TemplateException {
-        final Template tmpl = getRequestTemplate(ds3Request);
-
-        final Request request = toRequest(ds3Request, docSpec);
-        final Path requestPath = getPathFromPackage(ds3Request, request.getName());
-
-        LOG.info("Getting outputstream for file: {}", requestPath.toString());
-
-        try (final OutputStream outStream = fileUtils.getOutputFile(requestPath);
-             final Writer writer = new OutputStreamWriter(outStream)) {
-            tmpl.process(request, writer);
-        }
+    private void generateRequest(
+            final Ds3Request ds3Request,
+            final ImmutableSet<Ds3RequestKind> kinds,
+            final Ds3DocSpec docSpec,
+            final Path destDir,
+            final OrderedFileWriter writer) throws IOException, TemplateException {
+        final Template tmpl = getRequestTemplate(ds3Request, kinds);
+        writer.submit(
+                tmpl,
+                () -> toRequest(ds3Request, kinds, docSpec),
+                request -> getPathFromPackage(ds3Request, request.getName(), destDir));
     }
 
     /**
      * Returns the file system path for a request given it's package
      * @param ds3Request A Ds3Request
      * @param fileName The file name to be given to this Ds3Request
+     * @param destDir The directory the code is generated within
      * @return The system path to this Ds3Request's generated code
      */
-    private Path getPathFromPackage(final Ds3Request ds3Request, final String fileName) {
+    private static Path getPathFromPackage(final Ds3Request ds3Request, final String fileName, final Path destDir) {
         return destDir.resolve(baseProjectPath.resolve(
                 Paths.get(getCommandPackage(ds3Request).replace(".", "/") + "/" + fileName + ".java")));
     }
@@ -497,10 +736,14 @@ public class JavaCodeGenerator implements CodeGenerator {
     /**
      * Converts a Ds3Request into a Request model
      * @param ds3Request A Ds3Request
+     * @param kinds The classification of the Ds3Request
      * @return A Request model
      */
-    private Request toRequest(final Ds3Request ds3Request, final Ds3DocSpec docSpec) {
-        final RequestModelGenerator<?> modelGenerator = getRequestGenerator(ds3Request);
+    private static Request toRequest(
+            final Ds3Request ds3Request,
+            final ImmutableSet<Ds3RequestKind> kinds,
+            final Ds3DocSpec docSpec) {
+        final RequestModelGenerator<?> modelGenerator = getRequestGenerator(ds3Request, kinds);
         return modelGenerator.generate(ds3Request, getCommandPackage(ds3Request), docSpec);
     }
 
@@ -508,86 +751,32 @@ public class JavaCodeGenerator implements CodeGenerator {
      * Retrieves the associated request generator for the specified Ds3Request
      */
     static RequestModelGenerator<?> getRequestGenerator(final Ds3Request ds3Request) {
-        if (hasIdsRequestPayload(ds3Request)) {
-            return new IdsRequestPayloadGenerator();
-        }
-        if (hasStringRequestPayload(ds3Request)) {
-            return new StringRequestPayloadGenerator();
-        }
-        if (isBulkRequest(ds3Request)) {
-            return new BulkRequestGenerator();
-        }
-        if (hasSimpleObjectsRequestPayload(ds3Request) || isCreateVerifyJobRequest(ds3Request)) {
-            return new ObjectsRequestPayloadGenerator();
-        }
-        if (isCreateObjectRequest(ds3Request)) {
-            return new CreateObjectRequestGenerator();
-        }
-        if (isCreateNotificationRequest(ds3Request)) {
-            return new CreateNotificationRequestGenerator();
-        }
-        if ((isGetNotificationRequest(ds3Request) || isDeleteNotificationRequest(ds3Request)) && ds3Request.getIncludeInPath()) {
-            return new NotificationRequestGenerator();
-        }
-        if (isGetObjectRequest(ds3Request)) {
-            return new  GetObjectRequestGenerator();
-        }
-        if (isMultiFileDeleteRequest(ds3Request)) {
-            return new MultiFileDeleteRequestGenerator();
-        }
-        if (isCreateMultiPartUploadPartRequest(ds3Request)) {
-            return new StreamRequestPayloadGenerator();
-        }
-        if (isCompleteMultiPartUploadRequest(ds3Request)) {
-            return new CompleteMultipartUploadRequestGenerator();
-        }
-        return new BaseRequestGenerator();
+        return getRequestGenerator(ds3Request, classify(ds3Request));
+    }
+
+    /**
+     * Retrieves the associated request generator for the specified Ds3Request of the specified kinds
+     */
+    static RequestModelGenerator<?> getRequestGenerator(
+            final Ds3Request ds3Request,
+            final ImmutableSet<Ds3RequestKind> kinds) {
+        return REQUEST_GENERATORS.find(ds3Request, kinds)
+                .orElse(BaseRequestGenerator::new)
+                .get();
     }
 
     /**
      * Gets the appropriate template that will generate the code for this
      * Ds3Request's request handler
      * @param ds3Request A Ds3Request
+     * @param kinds The classification of the Ds3Request
      * @return The appropriate template to generate the required Request
      * @throws IOException
      */
-    private Template getRequestTemplate(final Ds3Request ds3Request) throws IOException {
-        if (isBulkRequest(ds3Request)) {
-            return config.getTemplate("request/bulk_request_template.ftl");
-        }
-        if (hasIdsRequestPayload(ds3Request)) {
-            return config.getTemplate("request/ids_request_payload_template.ftl");
-        }
-        if (hasStringRequestPayload(ds3Request)) {
-            return config.getTemplate("request/request_with_string_payload_template.ftl");
-        }
-        if (hasSimpleObjectsRequestPayload(ds3Request) || isCreateVerifyJobRequest(ds3Request)) {
-            return config.getTemplate("request/objects_request_payload_request_template.ftl");
-        }
-        if (isMultiFileDeleteRequest(ds3Request)) {
-            return config.getTemplate("request/multi_file_delete_request_template.ftl");
-        }
-        if (isGetObjectRequest(ds3Request)) {
-            return config.getTemplate("request/get_object_template.ftl");
-        }
-        if (isCreateObjectRequest(ds3Request)) {
-            return config.getTemplate("request/create_object_template.ftl");
-        }
-        if (isDeleteNotificationRequest(ds3Request)) {
-            return config.getTemplate("request/delete_notification_request_template.ftl");
-        }
-        if (isCreateNotificationRequest(ds3Request)) {
-            return config.getTemplate("request/create_notification_request_template.ftl");
-        }
-        if (isGetNotificationRequest(ds3Request) && ds3Request.getIncludeInPath()) {
-            return config.getTemplate("request/get_notification_request_template.ftl");
-        }
-        if (isGetJobRequest(ds3Request)) {
-            return config.getTemplate("request/get_job_request_template.ftl");
-        }
-        if (isCompleteMultiPartUploadRequest(ds3Request)) {
-            return config.getTemplate("request/complete_multipart_upload_template.ftl");
-        }
-        return config.getTemplate("request/request_template.ftl");
+    private Template getRequestTemplate(
+            final Ds3Request ds3Request,
+            final ImmutableSet<Ds3RequestKind> kinds) throws IOException {
+        return config.getTemplate(REQUEST_TEMPLATES.find(ds3Request, kinds)
+                .orElse("request/request_template.ftl"));
     }
 }
@@ -16,19 +16,32 @@
 package com.spectralogic.ds3autogen.java.converters;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3Element;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3Request;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3ResponseType;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3Type;
 import com.spectralogic.ds3autogen.api.models.docspec.Ds3DocSpec;
 import com.spectralogic.ds3autogen.api.models.enums.Classification;
 import com.spectralogic.ds3autogen.java.models.AnnotationInfo;
 import com.spectralogic.ds3autogen.java.models.Client;
 import com.spectralogic.ds3autogen.java.models.Command;
 import com.spectralogic.ds3autogen.java.models.CustomCommand;
+import com.spectralogic.ds3autogen.java.models.PaginatedCommand;
 import com.spectralogic.ds3autogen.utils.ClientGeneratorUtil;
 import com.spectralogic.ds3autogen.utils.collections.GuavaCollectors;
 
+import java.util.Optional;
+
+import static com.spectralogic.ds3autogen.java.generators.responsemodels.BaseResponseGenerator.createDs3ResponseTypeParamName;
+import static com.spectralogic.ds3autogen.java.models.Constants.MODELS_PACKAGE_PATH;
 import static com.spectralogic.ds3autogen.java.utils.JavaDocGenerator.toCommandDocs;
+import static com.spectralogic.ds3autogen.java.utils.ResponseAndParserUtils.convertType;
+import static com.spectralogic.ds3autogen.utils.ConverterUtil.hasContent;
 import static com.spectralogic.ds3autogen.utils.ConverterUtil.isEmpty;
 import static com.spectralogic.ds3autogen.utils.Ds3RequestClassificationUtil.isGetObjectAmazonS3Request;
+import static com.spectralogic.ds3autogen.utils.Ds3RequestClassificationUtil.supportsPaginationRequest;
+import static com.spectralogic.ds3autogen.utils.Helper.capFirst;
 import static com.spectralogic.ds3autogen.utils.NormalizingContractNamesUtil.removePath;
 import static com.spectralogic.ds3autogen.utils.NormalizingContractNamesUtil.toResponseName;
 import static com.spectralogic.ds3autogen.utils.ResponsePayloadUtil.getResponsePayload;
@@ -42,14 +55,17 @@ public class ClientConverter {
     private final String packageName;
     private final ImmutableList<Ds3Request> ds3Requests;
     private final Ds3DocSpec docSpec;
+    private final ImmutableMap<String, Ds3Type> types;
 
     private ClientConverter(
             final ImmutableList<Ds3Request> ds3Requests,
             final String packageName,
-            final Ds3DocSpec docSpec) {
+            final Ds3DocSpec docSpec,
+            final ImmutableMap<String, Ds3Type> types) {
         this.ds3Requests = ds3Requests;
         this.packageName = packageName;
         this.docSpec = docSpec;
+        this.types = types;
     }
 
     /**
@@ -60,7 +76,8 @@ public class ClientConverter {
         return new Client(
                 packageName,
                 toCommandList(ds3Requests, docSpec),
-                toCustomCommandList(ds3Requests, docSpec));
+                toCustomCommandList(ds3Requests, docSpec),
+                toPaginatedCommandList(ds3Requests, types));
     }
 
     /**
@@ -73,11 +90,75 @@ public class ClientConverter {
             final ImmutableList<Ds3Request> ds3Requests,
             final String packageName,
             final Ds3DocSpec docSpec) {
-        final ClientConverter converter = new ClientConverter(ds3Requests, packageName, docSpec);
+        return toClient(ds3Requests, packageName, docSpec, ImmutableMap.of());
+    }
+
+    /**
+     * Converts a list of Ds3Requests and a package name into a Client model
+     * @param types The types of the spec, which are used to find the items of paginated responses
+     * @return A Client model containing information of the Ds3Requests and package name
+     */
+    public static Client toClient(
+            final ImmutableList<Ds3Request> ds3Requests,
+            final String packageName,
+            final Ds3DocSpec docSpec,
+            final ImmutableMap<String, Ds3Type> types) {
+        final ClientConverter converter = new ClientConverter(ds3Requests, packageName, docSpec, types);
 
         return converter.convert();
     }
 
+    /**
+     * Creates the list of paginated commands from the Ds3Requests that support pagination
+     * and whose response payload contains exactly one list
+     */
+    protected static ImmutableList<PaginatedCommand> toPaginatedCommandList(
+            final ImmutableList<Ds3Request> ds3Requests,
+            final ImmutableMap<String, Ds3Type> types) {
+        if (isEmpty(ds3Requests) || isEmpty(types)) {
+            return ImmutableList.of();
+        }
+        return ds3Requests.stream()
+                .filter(ds3Request -> !isCustomCommand(ds3Request) && supportsPaginationRequest(ds3Request))
+                .map(ds3Request -> toPaginatedCommand(ds3Request, types))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(GuavaCollectors.immutableList());
+    }
+
+    /**
+     * Creates a paginated command from a Ds3Request, or an empty optional if the
+     * response payload does not contain exactly one list
+     */
+    protected static Optional<PaginatedCommand> toPaginatedCommand(
+            final Ds3Request ds3Request,
+            final ImmutableMap<String, Ds3Type> types) {
+        final String payload = getResponsePayload(ds3Request.getDs3ResponseCodes());
+        if (isEmpty(payload) || !types.containsKey(payload) || isEmpty(types.get(payload).getElements())) {
+            return Optional.empty();
+        }
+        final ImmutableList<Ds3Element> lists = types.get(payload).getElements().stream()
+                .filter(element -> hasContent(element.getComponentType()))
+                .collect(GuavaCollectors.immutableList());
+        if (lists.size() != 1) {
+            return Optional.empty();
+        }
+
+        final String componentType = lists.get(0).getComponentType();
+        final String itemType = convertType(componentType, null);
+        final String itemImport = componentType.startsWith("java.") ? null : MODELS_PACKAGE_PATH + itemType;
+        return Optional.of(new PaginatedCommand(
+                ClientGeneratorUtil.toCommandName(ds3Request.getName()),
+                removePath(ds3Request.getName()),
+                toResponseName(ds3Request.getName()),
+                itemType,
+                itemImport,
+                removePath(payload),
+                MODELS_PACKAGE_PATH + removePath(payload),
+                "get" + capFirst(createDs3ResponseTypeParamName(new Ds3ResponseType(payload, null))),
+                "get" + capFirst(lists.get(0).getName())));
+    }
+
     /**
      * Creates a list of Custom Commands from the Ds3Request list assuming
      * that the request list contains custom commands.
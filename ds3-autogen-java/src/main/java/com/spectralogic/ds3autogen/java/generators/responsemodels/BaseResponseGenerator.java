@@ -168,7 +168,7 @@ public class BaseResponseGenerator implements ResponseModelGenerator<Response>,
      *   No Component Type:  MyType -> myTypeResult
      *   With Component Type:  MyComponentType -> myComponentTypeListResult
      */
-    protected static String createDs3ResponseTypeParamName(final Ds3ResponseType responseType) {
+    public static String createDs3ResponseTypeParamName(final Ds3ResponseType responseType) {
         if (stripPath(responseType.getType()).equalsIgnoreCase("null")) {
             return "";
         }
@@ -16,6 +16,7 @@
 package com.spectralogic.ds3autogen.java.generators.responseparser;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3ResponseCode;
 import com.spectralogic.ds3autogen.java.models.ResponseCode;
 
@@ -29,6 +30,18 @@ public class AllocateJobChunkParserGenerator extends BaseResponseParserGenerator
 
     protected static final ImmutableList<Integer> EXPECTED_RESPONSE_CODES = ImmutableList.of(200);
 
+    public AllocateJobChunkParserGenerator() {
+        super();
+    }
+
+    /**
+     * @param xmlReaderModels The names of the models that are parsed with their generated xml
+     *                        reader instead of Jackson
+     */
+    public AllocateJobChunkParserGenerator(final ImmutableSet<String> xmlReaderModels) {
+        super(xmlReaderModels);
+    }
+
     /**
      * Gets the non-error response codes required to generate this response
      */
@@ -45,7 +58,7 @@ public class AllocateJobChunkParserGenerator extends BaseResponseParserGenerator
 
         final ResponseCode code200 = new ResponseCode(
                 200,
-                toParsePayloadCode(getDs3ResponseCode(ds3ResponseCodes, 200), responseName));
+                toParsePayloadCode(getDs3ResponseCode(ds3ResponseCodes, 200), responseName, getXmlReaderModels()));
 
         // The switch case for 307 should fall through to the 503 handling
         final ResponseCode code307 = new ResponseCode(307, "");
@@ -61,10 +74,21 @@ public class AllocateJobChunkParserGenerator extends BaseResponseParserGenerator
     protected static String toParsePayloadCode(
             final Ds3ResponseCode ds3ResponseCode,
             final String responseName) {
+        return toParsePayloadCode(ds3ResponseCode, responseName, ImmutableSet.of());
+    }
+
+    /**
+     * Creates the java code for parsing the response payload
+     * @param xmlReaderModels The names of the models that are parsed with their generated xml reader
+     */
+    protected static String toParsePayloadCode(
+            final Ds3ResponseCode ds3ResponseCode,
+            final String responseName,
+            final ImmutableSet<String> xmlReaderModels) {
         final String responseModelName = getResponseModelName(ds3ResponseCode.getDs3ResponseTypes().get(0));
 
         return "try (final InputStream inputStream = response.getResponseStream()) {\n"
-                + indent(5) + "final " + responseModelName + " result = XmlOutput.fromXml(inputStream, " + responseModelName + ".class);\n"
+                + indent(5) + "final " + responseModelName + " result = " + toModelParseCode(responseModelName, xmlReaderModels.contains(responseModelName)) + ";\n"
                 + indent(5) + "return new " + responseName + "(result, 0, " + responseName + ".Status.ALLOCATED, this.getChecksum(), this.getChecksumType());\n"
                 + indent(4) + "}\n";
     }
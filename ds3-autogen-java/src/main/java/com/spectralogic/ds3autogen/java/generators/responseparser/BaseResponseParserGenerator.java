@@ -28,6 +28,7 @@ import com.spectralogic.ds3autogen.utils.collections.GuavaCollectors;
 
 import java.util.stream.Collectors;
 
+import static com.spectralogic.ds3autogen.java.generators.xmlreaders.XmlReaderGenerator.toXmlReaderName;
 import static com.spectralogic.ds3autogen.java.utils.JavaModuleUtil.getCommandPackage;
 import static com.spectralogic.ds3autogen.java.utils.ResponseAndParserUtils.*;
 import static com.spectralogic.ds3autogen.utils.ConverterUtil.isEmpty;
@@ -39,6 +40,27 @@ public class BaseResponseParserGenerator implements ResponseParserGenerator<Resp
 
     private final static String ABSTRACT_PARSER_IMPORT = Constants.RESPONSE_PARSER_PACKAGE_PATH + ".interfaces.AbstractResponseParser";
 
+    private final ImmutableSet<String> xmlReaderModels;
+
+    public BaseResponseParserGenerator() {
+        this(ImmutableSet.of());
+    }
+
+    /**
+     * @param xmlReaderModels The names of the models that are parsed with their generated xml
+     *                        reader instead of Jackson
+     */
+    public BaseResponseParserGenerator(final ImmutableSet<String> xmlReaderModels) {
+        this.xmlReaderModels = xmlReaderModels;
+    }
+
+    /**
+     * Retrieves the names of the models that are parsed with their generated xml reader
+     */
+    protected ImmutableSet<String> getXmlReaderModels() {
+        return xmlReaderModels;
+    }
+
     @Override
     public ResponseParser generate(final Ds3Request ds3Request, final String packageName) {
         final String parserName = toResponseParserName(ds3Request.getName());
@@ -92,7 +114,7 @@ public class BaseResponseParserGenerator implements ResponseParserGenerator<Resp
         final ImmutableList<Ds3ResponseCode> filteredResponseCodes = removeErrorResponseCodes(ds3ResponseCodes);
         final boolean hasResponsePayload = hasResponsePayload(filteredResponseCodes);
         return filteredResponseCodes.stream()
-                .map(rc -> toResponseCode(rc, responseName, hasResponsePayload, hasPaginationHeaders))
+                .map(rc -> toResponseCode(rc, responseName, hasResponsePayload, hasPaginationHeaders, xmlReaderModels))
                 .collect(GuavaCollectors.immutableList());
     }
 
@@ -105,11 +127,26 @@ public class BaseResponseParserGenerator implements ResponseParserGenerator<Resp
             final String responseName,
             final boolean hasResponsePayload,
             final boolean hasPaginationHeaders) {
+        return toResponseCode(ds3ResponseCode, responseName, hasResponsePayload, hasPaginationHeaders, ImmutableSet.of());
+    }
+
+    /**
+     * Converts a Ds3 Response Code into the Response Code model
+     * @param responseName Name of the response handler
+     * @param xmlReaderModels The names of the models that are parsed with their generated xml reader
+     */
+    protected static ResponseCode toResponseCode(
+            final Ds3ResponseCode ds3ResponseCode,
+            final String responseName,
+            final boolean hasResponsePayload,
+            final boolean hasPaginationHeaders,
+            final ImmutableSet<String> xmlReaderModels) {
         final ParseResponse parseResponse = toParseResponse(
                 ds3ResponseCode,
                 responseName,
                 hasResponsePayload,
-                hasPaginationHeaders);
+                hasPaginationHeaders,
+                xmlReaderModels);
 
         return new ResponseCode(
                 ds3ResponseCode.getCode(),
@@ -126,6 +163,21 @@ public class BaseResponseParserGenerator implements ResponseParserGenerator<Resp
             final String responseName,
             final boolean hasResponsePayload,
             final boolean hasPaginationHeaders) {
+        return toParseResponse(ds3ResponseCode, responseName, hasResponsePayload, hasPaginationHeaders, ImmutableSet.of());
+    }
+
+    /**
+     * Converts a Ds3ResponseCode into a Parse Response model which can be used to
+     * generate the java code for parsing a response payload
+     * @param responseName Name of the response handler
+     * @param xmlReaderModels The names of the models that are parsed with their generated xml reader
+     */
+    protected static ParseResponse toParseResponse(
+            final Ds3ResponseCode ds3ResponseCode,
+            final String responseName,
+            final boolean hasResponsePayload,
+            final boolean hasPaginationHeaders,
+            final ImmutableSet<String> xmlReaderModels) {
         if (isEmpty(ds3ResponseCode.getDs3ResponseTypes())) {
             throw new IllegalArgumentException("Response code does not contain any response types: " + ds3ResponseCode.getCode());
         }
@@ -141,7 +193,11 @@ public class BaseResponseParserGenerator implements ResponseParserGenerator<Resp
         if (responseModelName.equalsIgnoreCase("string")) {
             return new StringParseResponse(responseName, hasPaginationHeaders);
         }
-        return new BaseParseResponse(responseName, responseModelName, hasPaginationHeaders);
+        return new BaseParseResponse(
+                responseName,
+                responseModelName,
+                hasPaginationHeaders,
+                xmlReaderModels.contains(responseModelName));
     }
 
     /**
@@ -154,10 +210,17 @@ public class BaseResponseParserGenerator implements ResponseParserGenerator<Resp
             final ImmutableList<Ds3ResponseCode> responseCodes) {
         final ImmutableSet.Builder<String> builder = ImmutableSet.builder();
 
-        builder.addAll(getImportListFromResponseCodes(responseCodes));
-        //If a response type has an associated import, then the XmlOutput import is also needed
-        if (builder.build().size() > 0) {
-            builder.add("com.spectralogic.ds3client.serializer.XmlOutput");
+        final ImmutableSet<String> modelImports = getImportListFromResponseCodes(responseCodes);
+        builder.addAll(modelImports);
+        //If a response type has an associated import, then either the XmlOutput import or the
+        //import of the model's generated xml reader is also needed
+        for (final String modelImport : modelImports) {
+            final String modelName = removePath(modelImport);
+            if (xmlReaderModels.contains(modelName)) {
+                builder.add(Constants.XML_READERS_PACKAGE_PATH + "." + toXmlReaderName(modelName));
+            } else {
+                builder.add("com.spectralogic.ds3client.serializer.XmlOutput");
+            }
             builder.add("java.io.InputStream");
         }
         if (builder.build().contains("java.lang.String") || builder.build().contains("String")) {
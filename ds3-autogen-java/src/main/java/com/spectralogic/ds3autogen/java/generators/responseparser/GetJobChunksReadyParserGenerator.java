@@ -16,12 +16,14 @@
 package com.spectralogic.ds3autogen.java.generators.responseparser;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3ResponseCode;
 import com.spectralogic.ds3autogen.java.models.ResponseCode;
 
 import static com.spectralogic.ds3autogen.java.utils.ResponseAndParserUtils.getDs3ResponseCode;
 import static com.spectralogic.ds3autogen.java.utils.ResponseAndParserUtils.getResponseCodes;
 import static com.spectralogic.ds3autogen.java.utils.ResponseAndParserUtils.getResponseModelName;
+import static com.spectralogic.ds3autogen.java.utils.ResponseAndParserUtils.toModelParseCode;
 import static com.spectralogic.ds3autogen.utils.Helper.indent;
 
 /**
@@ -31,6 +33,18 @@ public class GetJobChunksReadyParserGenerator extends BaseResponseParserGenerato
 
     protected static final ImmutableList<Integer> EXPECTED_RESPONSE_CODES = ImmutableList.of(200);
 
+    public GetJobChunksReadyParserGenerator() {
+        super();
+    }
+
+    /**
+     * @param xmlReaderModels The names of the models that are parsed with their generated xml
+     *                        reader instead of Jackson
+     */
+    public GetJobChunksReadyParserGenerator(final ImmutableSet<String> xmlReaderModels) {
+        super(xmlReaderModels);
+    }
+
     /**
      * Gets the non-error response codes required to generate this response
      */
@@ -46,7 +60,7 @@ public class GetJobChunksReadyParserGenerator extends BaseResponseParserGenerato
         }
 
         final Ds3ResponseCode ds3ResponseCode = getDs3ResponseCode(ds3ResponseCodes, 200);
-        final ResponseCode code200 = new ResponseCode(200, toParsePayloadCode(ds3ResponseCode, responseName));
+        final ResponseCode code200 = new ResponseCode(200, toParsePayloadCode(ds3ResponseCode, responseName, getXmlReaderModels()));
 
         return ImmutableList.of(code200);
     }
@@ -57,10 +71,21 @@ public class GetJobChunksReadyParserGenerator extends BaseResponseParserGenerato
     protected static String toParsePayloadCode(
             final Ds3ResponseCode ds3ResponseCode,
             final String responseName) {
+        return toParsePayloadCode(ds3ResponseCode, responseName, ImmutableSet.of());
+    }
+
+    /**
+     * Creates the java code for parsing the response payload
+     * @param xmlReaderModels The names of the models that are parsed with their generated xml reader
+     */
+    protected static String toParsePayloadCode(
+            final Ds3ResponseCode ds3ResponseCode,
+            final String responseName,
+            final ImmutableSet<String> xmlReaderModels) {
         final String responseModelName = getResponseModelName(ds3ResponseCode.getDs3ResponseTypes().get(0));
 
         return "try (final InputStream inputStream = response.getResponseStream()) {\n" +
-                indent(5) + "final " + responseModelName + " result = XmlOutput.fromXml(inputStream, " + responseModelName + ".class);\n" +
+                indent(5) + "final " + responseModelName + " result = " + toModelParseCode(responseModelName, xmlReaderModels.contains(responseModelName)) + ";\n" +
                 indent(5) + "if (isNullOrEmpty(result.getObjects())) {\n" +
                 indent(6) + "return new " + responseName + "(result, parseRetryAfter(response), " + responseName +".Status.RETRYLATER, this.getChecksum(), this.getChecksumType());\n" +
                 indent(5) + "}\n" +
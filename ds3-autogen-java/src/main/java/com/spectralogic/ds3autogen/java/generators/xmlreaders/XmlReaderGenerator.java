@@ -0,0 +1,340 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+package com.spectralogic.ds3autogen.java.generators.xmlreaders;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3Type;
+import com.spectralogic.ds3autogen.java.models.Element;
+import com.spectralogic.ds3autogen.java.models.Model;
+import com.spectralogic.ds3autogen.java.models.XmlReader;
+import com.spectralogic.ds3autogen.java.models.XmlReaderBenchmark;
+import com.spectralogic.ds3autogen.java.models.XmlReaderProperty;
+import com.spectralogic.ds3autogen.utils.collections.GuavaCollectors;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.spectralogic.ds3autogen.java.models.Constants.MODELS_PACKAGE_PATH;
+import static com.spectralogic.ds3autogen.java.utils.ResponseAndParserUtils.convertType;
+import static com.spectralogic.ds3autogen.utils.ConverterUtil.hasContent;
+import static com.spectralogic.ds3autogen.utils.ConverterUtil.isEmpty;
+import static com.spectralogic.ds3autogen.utils.Helper.capFirst;
+
+/**
+ * Generates the reflection-free StAX readers for Models. A Model can only be read
+ * when every one of its elements is a primitive, String, Date, UUID, enum, or another
+ * Model that can be read. All other Models continue to be parsed by Jackson.
+ */
+public final class XmlReaderGenerator {
+
+    private static final String READER_SUFFIX = "XmlReader";
+    private static final String CHECKSUM_TYPE = "ChecksumType.Type";
+    private static final String BENCHMARK_NAME = "XmlReaderBenchmark";
+
+    private static final ImmutableList<String> BENCHMARK_ANNOTATIONS = ImmutableList.of(
+            "Benchmark", "BenchmarkMode", "Fork", "Measurement", "Mode", "OutputTimeUnit",
+            "Param", "Scope", "Setup", "State", "Warmup");
+
+    /**
+     * Maps the java type of a scalar value to the XmlReaderUtils method that parses it
+     */
+    private static final ImmutableMap<String, String> SCALAR_PARSERS = ImmutableMap.<String, String>builder()
+            .put("boolean", "toBoolean")
+            .put("Boolean", "toBooleanObject")
+            .put("int", "toInt")
+            .put("Integer", "toInteger")
+            .put("long", "toLong")
+            .put("Long", "toLongObject")
+            .put("double", "toDouble")
+            .put("Double", "toDoubleObject")
+            .put("Date", "toDate")
+            .put("UUID", "toUuid")
+            .build();
+
+    private XmlReaderGenerator() {
+        //pass
+    }
+
+    /**
+     * Retrieves the name of the reader generated for the specified Model
+     */
+    public static String toXmlReaderName(final String modelName) {
+        return modelName + READER_SUFFIX;
+    }
+
+    /**
+     * Determines the names of the Models that can be read without reflection. Models are
+     * removed until every remaining Model only references scalar values, enums, or other
+     * remaining Models, which allows Models that contain themselves.
+     * @param types All types being generated, keyed by their contract name
+     * @param models The candidate Models, keyed by the contract name of their type
+     */
+    public static ImmutableSet<String> toReadableModels(
+            final ImmutableMap<String, Ds3Type> types,
+            final ImmutableMap<String, Model> models) {
+        final Set<String> readable = new HashSet<>();
+        models.values().forEach(model -> readable.add(model.getName()));
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (final Model model : models.values()) {
+                if (readable.contains(model.getName()) && !isReadable(model, types, readable)) {
+                    readable.remove(model.getName());
+                    changed = true;
+                }
+            }
+        }
+        return readable.stream()
+                .sorted()
+                .collect(GuavaCollectors.immutableSet());
+    }
+
+    /**
+     * Determines if all elements of a Model can be read, and that no two elements
+     * share the same xml name
+     */
+    private static boolean isReadable(
+            final Model model,
+            final ImmutableMap<String, Ds3Type> types,
+            final Set<String> readable) {
+        if (isEmpty(model.getElements())) {
+            return false;
+        }
+        final Set<String> attributeNames = new HashSet<>();
+        final Set<String> elementNames = new HashSet<>();
+        for (final Element element : model.getElements()) {
+            if (element.isAttribute()) {
+                if (hasContent(element.getComponentType())
+                        || getValueKind(element.getType(), types, readable) != ValueKind.SCALAR
+                        || !attributeNames.add(toXmlName(element))) {
+                    return false;
+                }
+            } else if (getValueKind(getItemType(element), types, readable) == ValueKind.UNSUPPORTED
+                    || !elementNames.add(toXmlName(element))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates the reader for a Model that is known to be readable
+     * @param readable The names of all readable Models
+     */
+    public static XmlReader toXmlReader(
+            final Model model,
+            final ImmutableMap<String, Ds3Type> types,
+            final ImmutableSet<String> readable,
+            final String packageName) {
+        final ImmutableSet.Builder<String> imports = ImmutableSet.builder();
+        imports.add(MODELS_PACKAGE_PATH + model.getName());
+        imports.add("java.io.IOException");
+        imports.add("java.io.InputStream");
+        imports.add("javax.xml.stream.XMLStreamException");
+        imports.add("javax.xml.stream.XMLStreamReader");
+
+        final ImmutableList.Builder<XmlReaderProperty> attributes = ImmutableList.builder();
+        final ImmutableList.Builder<XmlReaderProperty> elements = ImmutableList.builder();
+        for (final Element element : model.getElements()) {
+            final String itemType = element.isAttribute() ? element.getType() : getItemType(element);
+            final String javaType = convertType(itemType, null);
+            if (CHECKSUM_TYPE.equals(javaType) || getValueKind(itemType, types, readable) == ValueKind.ENUM) {
+                imports.add(MODELS_PACKAGE_PATH + javaType.replace(".Type", ""));
+            }
+
+            if (element.isAttribute()) {
+                attributes.add(new XmlReaderProperty(
+                        toXmlName(element),
+                        toSetterCode(element, toValueCode(itemType, "reader.getAttributeValue(i)", types, readable))));
+            } else {
+                elements.add(new XmlReaderProperty(
+                        toXmlName(element),
+                        toElementParseCode(element, types, readable)));
+            }
+        }
+
+        return new XmlReader(
+                packageName,
+                toXmlReaderName(model.getName()),
+                model.getName(),
+                attributes.build(),
+                elements.build(),
+                imports.build().stream()
+                        .sorted()
+                        .collect(GuavaCollectors.immutableList()));
+    }
+
+    /**
+     * Creates the JMH benchmark that compares Jackson against the readers of the specified Models
+     */
+    public static XmlReaderBenchmark toXmlReaderBenchmark(
+            final ImmutableSet<String> readable,
+            final String packageName) {
+        final ImmutableSet.Builder<String> imports = ImmutableSet.builder();
+        readable.forEach(modelName -> imports.add(MODELS_PACKAGE_PATH + modelName));
+        imports.add("com.spectralogic.ds3client.serializer.XmlOutput");
+        imports.add("org.apache.commons.io.IOUtils");
+        imports.add("java.io.ByteArrayInputStream");
+        imports.add("java.io.IOException");
+        imports.add("java.io.InputStream");
+        imports.add("java.nio.charset.StandardCharsets");
+        imports.add("java.util.HashMap");
+        imports.add("java.util.Map");
+        imports.add("java.util.concurrent.TimeUnit");
+        imports.add("java.util.function.Supplier");
+        BENCHMARK_ANNOTATIONS.forEach(annotation -> imports.add("org.openjdk.jmh.annotations." + annotation));
+
+        return new XmlReaderBenchmark(
+                packageName,
+                BENCHMARK_NAME,
+                readable.asList(),
+                imports.build().stream()
+                        .sorted()
+                        .collect(GuavaCollectors.immutableList()));
+    }
+
+    /**
+     * Creates the java code that parses a child element and stores it within the result
+     */
+    protected static String toElementParseCode(
+            final Element element,
+            final ImmutableMap<String, Ds3Type> types,
+            final ImmutableSet<String> readable) {
+        final String itemType = getItemType(element);
+        if (isEmpty(element.getComponentType())) {
+            return toSetterCode(element, toElementValueCode(itemType, "reader", types, readable));
+        }
+        if (element.hasWrapper()) {
+            return toSetterCode(element, "XmlReaderUtils.readList(reader, " + toItemReaderCode(itemType, types, readable) + ")");
+        }
+        return "result.get" + capFirst(element.getName()) + "().add(" + toElementValueCode(itemType, "reader", types, readable) + ");";
+    }
+
+    /**
+     * Creates the java code for reading a single item of a wrapped list
+     */
+    private static String toItemReaderCode(
+            final String type,
+            final ImmutableMap<String, Ds3Type> types,
+            final ImmutableSet<String> readable) {
+        if (getValueKind(type, types, readable) == ValueKind.MODEL) {
+            return toXmlReaderName(convertType(type, null)) + "::read";
+        }
+        return "r -> " + toElementValueCode(type, "r", types, readable);
+    }
+
+    /**
+     * Creates the java expression that reads the value of the element the reader is positioned on
+     */
+    private static String toElementValueCode(
+            final String type,
+            final String readerName,
+            final ImmutableMap<String, Ds3Type> types,
+            final ImmutableSet<String> readable) {
+        if (getValueKind(type, types, readable) == ValueKind.MODEL) {
+            return toXmlReaderName(convertType(type, null)) + ".read(" + readerName + ")";
+        }
+        return toValueCode(type, readerName + ".getElementText()", types, readable);
+    }
+
+    /**
+     * Creates the java expression that converts xml text into the specified scalar or enum type
+     * @param text The java expression that retrieves the xml text
+     */
+    protected static String toValueCode(
+            final String type,
+            final String text,
+            final ImmutableMap<String, Ds3Type> types,
+            final ImmutableSet<String> readable) {
+        final String javaType = convertType(type, null);
+        switch (getValueKind(type, types, readable)) {
+            case SCALAR:
+                if (javaType.equals("String")) {
+                    return text;
+                }
+                return "XmlReaderUtils." + SCALAR_PARSERS.get(javaType) + "(" + text + ")";
+            case ENUM:
+                return "XmlReaderUtils.toEnum(" + text + ", " + javaType + ".class)";
+            default:
+                throw new IllegalArgumentException("Type cannot be parsed from xml text: " + type);
+        }
+    }
+
+    private static String toSetterCode(final Element element, final String valueCode) {
+        return "result.set" + capFirst(element.getName()) + "(" + valueCode + ");";
+    }
+
+    /**
+     * Retrieves the xml name that Jackson maps to the element, which mirrors the
+     * annotations generated for the Model variables
+     */
+    protected static String toXmlName(final Element element) {
+        if (element.isAttribute()) {
+            return element.getXmlTagName();
+        }
+        if (element.hasWrapper()) {
+            return capFirst(element.getName());
+        }
+        return capFirst(element.getXmlTagName());
+    }
+
+    /**
+     * Retrieves the type of the element, or the type of its items if it is a list
+     */
+    private static String getItemType(final Element element) {
+        if (hasContent(element.getComponentType())) {
+            return element.getComponentType();
+        }
+        return element.getType();
+    }
+
+    private enum ValueKind {
+        SCALAR, ENUM, MODEL, UNSUPPORTED
+    }
+
+    /**
+     * Determines how a value of the specified contract type is read
+     */
+    private static ValueKind getValueKind(
+            final String type,
+            final ImmutableMap<String, Ds3Type> types,
+            final Set<String> readable) {
+        if (isEmpty(type) || type.equalsIgnoreCase("array")) {
+            return ValueKind.UNSUPPORTED;
+        }
+        final String javaType = convertType(type, null);
+        if (javaType.equals("String") || SCALAR_PARSERS.containsKey(javaType)) {
+            return ValueKind.SCALAR;
+        }
+        if (CHECKSUM_TYPE.equals(javaType)) {
+            return ValueKind.ENUM;
+        }
+        final Ds3Type ds3Type = types.get(type);
+        if (ds3Type == null) {
+            return ValueKind.UNSUPPORTED;
+        }
+        if (hasContent(ds3Type.getEnumConstants())) {
+            return ValueKind.ENUM;
+        }
+        if (readable.contains(javaType)) {
+            return ValueKind.MODEL;
+        }
+        return ValueKind.UNSUPPORTED;
+    }
+}
@@ -56,18 +56,17 @@ public final class JavaHelper {
     }
 
     /**
-     * Creates the Java code for converting an object list into an Xml formatted String.
-     * @param outputStringName The name of the String that will contain the Xml formatted
-     *                         object list
+     * Creates the Java code for converting an object list into a streamed Xml payload.
+     * @param payloadName The name of the XmlPayload that will stream the object list
      * @param objectListName The name of the object list that is being converted
      * @param operation The Operation of the Ds3Request whose generation utilizes this function
      */
-    public static String toXmlLine(
-            final String outputStringName,
+    public static String toXmlPayloadLine(
+            final String payloadName,
             final String objectListName,
             final Operation operation) {
         final StringBuilder builder = new StringBuilder();
-        builder.append("final String ").append(outputStringName).append(" = XmlOutput.toXml(").append(objectListName).append(", ");
+        builder.append("final XmlPayload<Ds3Object> ").append(payloadName).append(" = XmlPayload.ofDs3Objects(").append(objectListName).append(", ");
         if (operation == Operation.START_BULK_PUT) {
             return builder.append("true);").toString();
         }
@@ -16,20 +16,35 @@
 package com.spectralogic.ds3autogen.java.models;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.spectralogic.ds3autogen.utils.ConverterUtil;
+import com.spectralogic.ds3autogen.utils.collections.GuavaCollectors;
+
+import java.util.stream.Stream;
 
 public class Client {
 
     private final String packageName;
     private final ImmutableList<Command> commands;
     private final ImmutableList<CustomCommand> customCommands;
+    private final ImmutableList<PaginatedCommand> paginatedCommands;
 
     public Client(
             final String packageName,
             final ImmutableList<Command> commands,
             final ImmutableList<CustomCommand> customCommands) {
+        this(packageName, commands, customCommands, ImmutableList.of());
+    }
+
+    public Client(
+            final String packageName,
+            final ImmutableList<Command> commands,
+            final ImmutableList<CustomCommand> customCommands,
+            final ImmutableList<PaginatedCommand> paginatedCommands) {
         this.packageName = packageName;
         this.commands = commands;
         this.customCommands = customCommands;
+        this.paginatedCommands = paginatedCommands;
     }
 
     public ImmutableList<Command> getCommands() {
@@ -43,4 +58,19 @@ public class Client {
     public ImmutableList<CustomCommand> getCustomCommands() {
         return customCommands;
     }
+
+    public ImmutableList<PaginatedCommand> getPaginatedCommands() {
+        return paginatedCommands;
+    }
+
+    /**
+     * Retrieves the imports of the payload models and item types used by the paginated commands
+     */
+    public ImmutableSet<String> getPaginatedImports() {
+        return paginatedCommands.stream()
+                .flatMap(cmd -> Stream.of(cmd.getPayloadImport(), cmd.getItemImport()))
+                .filter(ConverterUtil::hasContent)
+                .sorted()
+                .collect(GuavaCollectors.immutableSet());
+    }
 }
@@ -21,6 +21,10 @@ public final class Constants {
     public static final String COMMANDS_PACKAGE_PATH = ROOT_PACKAGE_PATH + ".commands";
     public final static String CONTRACT_PACKAGE_PATH = "com.spectralogic";
     public final static String RESPONSE_PARSER_PACKAGE_PATH = COMMANDS_PACKAGE_PATH + ".parsers";
+    public final static String PAGINATION_PACKAGE_PATH = ROOT_PACKAGE_PATH + ".helpers.pagination";
+    public final static String RANGED_DOWNLOAD_PACKAGE_PATH = ROOT_PACKAGE_PATH + ".helpers.ranged";
+    public final static String SERIALIZER_PACKAGE_PATH = ROOT_PACKAGE_PATH + ".serializer";
+    public final static String XML_READERS_PACKAGE_PATH = SERIALIZER_PACKAGE_PATH + ".readers";
 
     public static final String SPECTRA_DS3_PACKAGE = ".spectrads3";
     public static final String SPECTRA_INTERNAL_PACKAGE = ".internal";
@@ -0,0 +1,101 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+package com.spectralogic.ds3autogen.java.models;
+
+/**
+ * A command that supports pagination, and whose response payload contains a single
+ * list of items, which allows the client to iterate the items of every page
+ */
+public class PaginatedCommand {
+    private final String name;
+    private final String requestName;
+    private final String responseName;
+    private final String itemType;
+    private final String itemImport;
+    private final String payloadType;
+    private final String payloadImport;
+    private final String payloadGetter;
+    private final String itemsGetter;
+
+    public PaginatedCommand(
+            final String name,
+            final String requestName,
+            final String responseName,
+            final String itemType,
+            final String itemImport,
+            final String payloadType,
+            final String payloadImport,
+            final String payloadGetter,
+            final String itemsGetter) {
+        this.name = name;
+        this.requestName = requestName;
+        this.responseName = responseName;
+        this.itemType = itemType;
+        this.itemImport = itemImport;
+        this.payloadType = payloadType;
+        this.payloadImport = payloadImport;
+        this.payloadGetter = payloadGetter;
+        this.itemsGetter = itemsGetter;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getRequestName() {
+        return requestName;
+    }
+
+    public String getResponseName() {
+        return responseName;
+    }
+
+    public String getItemType() {
+        return itemType;
+    }
+
+    /**
+     * Retrieves the import of the item type, or null if it does not need to be imported
+     */
+    public String getItemImport() {
+        return itemImport;
+    }
+
+    public String getPayloadType() {
+        return payloadType;
+    }
+
+    /**
+     * Retrieves the import of the payload model
+     */
+    public String getPayloadImport() {
+        return payloadImport;
+    }
+
+    /**
+     * Retrieves the name of the response getter that returns the payload model
+     */
+    public String getPayloadGetter() {
+        return payloadGetter;
+    }
+
+    /**
+     * Retrieves the name of the payload model getter that returns the list of items
+     */
+    public String getItemsGetter() {
+        return itemsGetter;
+    }
+}
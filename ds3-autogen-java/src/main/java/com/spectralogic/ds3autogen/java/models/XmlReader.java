@@ -0,0 +1,69 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+package com.spectralogic.ds3autogen.java.models;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Describes the reflection-free StAX reader that is generated for a Model
+ */
+public class XmlReader {
+
+    private final String packageName;
+    private final String name;
+    private final String modelName;
+    private final ImmutableList<XmlReaderProperty> attributes;
+    private final ImmutableList<XmlReaderProperty> elements;
+    private final ImmutableList<String> imports;
+
+    public XmlReader(final String packageName,
+                     final String name,
+                     final String modelName,
+                     final ImmutableList<XmlReaderProperty> attributes,
+                     final ImmutableList<XmlReaderProperty> elements,
+                     final ImmutableList<String> imports) {
+        this.packageName = packageName;
+        this.name = name;
+        this.modelName = modelName;
+        this.attributes = attributes;
+        this.elements = elements;
+        this.imports = imports;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getModelName() {
+        return modelName;
+    }
+
+    public ImmutableList<XmlReaderProperty> getAttributes() {
+        return attributes;
+    }
+
+    public ImmutableList<XmlReaderProperty> getElements() {
+        return elements;
+    }
+
+    public ImmutableList<String> getImports() {
+        return imports;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+package com.spectralogic.ds3autogen.java.models;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Describes the JMH benchmark that compares Jackson against the generated xml readers
+ */
+public class XmlReaderBenchmark {
+
+    private final String packageName;
+    private final String name;
+    private final ImmutableList<String> modelNames;
+    private final ImmutableList<String> imports;
+
+    public XmlReaderBenchmark(final String packageName,
+                              final String name,
+                              final ImmutableList<String> modelNames,
+                              final ImmutableList<String> imports) {
+        this.packageName = packageName;
+        this.name = name;
+        this.modelNames = modelNames;
+        this.imports = imports;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ImmutableList<String> getModelNames() {
+        return modelNames;
+    }
+
+    public ImmutableList<String> getImports() {
+        return imports;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+package com.spectralogic.ds3autogen.java.models;
+
+/**
+ * An xml attribute or child element that a generated xml reader parses, along with
+ * the java code that stores its value within the model being read
+ */
+public class XmlReaderProperty {
+
+    private final String xmlName;
+    private final String parseCode;
+
+    public XmlReaderProperty(final String xmlName, final String parseCode) {
+        this.xmlName = xmlName;
+        this.parseCode = parseCode;
+    }
+
+    public String getXmlName() {
+        return xmlName;
+    }
+
+    public String getParseCode() {
+        return parseCode;
+    }
+}
@@ -15,6 +15,7 @@
 
 package com.spectralogic.ds3autogen.java.models.parseresponse;
 
+import static com.spectralogic.ds3autogen.java.utils.ResponseAndParserUtils.toModelParseCode;
 import static com.spectralogic.ds3autogen.utils.Helper.indent;
 
 /**
@@ -27,6 +28,7 @@ public class BaseParseResponse implements ParseResponse {
     private final String responseName;
     private final String responseModelName;
     private final boolean hasPaginationHeaders;
+    private final boolean hasXmlReader;
 
     public BaseParseResponse(final String responseName, final String responseModelName) {
         this(responseName, responseModelName, false);
@@ -36,15 +38,27 @@ public class BaseParseResponse implements ParseResponse {
             final String responseName,
             final String responseModelName,
             final boolean hasPaginationHeaders) {
+        this(responseName, responseModelName, hasPaginationHeaders, false);
+    }
+
+    /**
+     * @param hasXmlReader If the response model is parsed with its generated xml reader instead of Jackson
+     */
+    public BaseParseResponse(
+            final String responseName,
+            final String responseModelName,
+            final boolean hasPaginationHeaders,
+            final boolean hasXmlReader) {
         this.responseName = responseName;
         this.responseModelName = responseModelName;
         this.hasPaginationHeaders = hasPaginationHeaders;
+        this.hasXmlReader = hasXmlReader;
     }
 
     @Override
     public String toJavaCode() {
         return "try (final InputStream inputStream = response.getResponseStream()) {\n"
-                + indent(INDENT + 1) + "final " + responseModelName + " result = XmlOutput.fromXml(inputStream, " + responseModelName + ".class);\n"
+                + indent(INDENT + 1) + "final " + responseModelName + " result = " + toModelParseCode(responseModelName, hasXmlReader) + ";\n"
                 + indent(INDENT + 1) + "return new " + responseName + "(" + getConstructorParams(hasPaginationHeaders) + ");\n"
                 + indent(INDENT) + "}\n";
     }
@@ -26,6 +26,7 @@ import com.spectralogic.ds3autogen.utils.collections.GuavaCollectors;
 
 import java.util.NoSuchElementException;
 
+import static com.spectralogic.ds3autogen.java.generators.xmlreaders.XmlReaderGenerator.toXmlReaderName;
 import static com.spectralogic.ds3autogen.utils.ConverterUtil.hasContent;
 import static com.spectralogic.ds3autogen.utils.ConverterUtil.isEmpty;
 import static com.spectralogic.ds3autogen.utils.Helper.stripPath;
@@ -130,6 +131,17 @@ public final class ResponseAndParserUtils {
                 .get();
     }
 
+    /**
+     * Creates the java expression that parses the response stream into the response model
+     * @param hasXmlReader If the generated xml reader is used instead of Jackson
+     */
+    public static String toModelParseCode(final String responseModelName, final boolean hasXmlReader) {
+        if (hasXmlReader) {
+            return toXmlReaderName(responseModelName) + ".read(inputStream)";
+        }
+        return "XmlOutput.fromXml(inputStream, " + responseModelName + ".class)";
+    }
+
     /**
      * Creates the Java type from elements, converting component types into a List.
      */
@@ -0,0 +1,74 @@
+<#include "../copyright.ftl"/>
+
+package ${packageName};
+
+<#include "../imports.ftl"/>
+
+/**
+ * Compares parsing each model with Jackson against parsing it with its generated xml reader.
+ * The payload of a model is read from the /payloads/{model}.xml resource when one exists,
+ * otherwise it is the Jackson serialization of a newly created model.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ${name} {
+
+    private static final Map<String, BenchmarkCase<?>> CASES = new HashMap<>();
+
+    static {
+        <#list modelNames as modelName>
+        CASES.put("${modelName}", new BenchmarkCase<>(${modelName}.class, ${modelName}::new, ${modelName}XmlReader::read));
+        </#list>
+    }
+
+    @Param({<#list modelNames as modelName>"${modelName}"<#sep>, </#sep></#list>})
+    public String model;
+
+    private BenchmarkCase<?> benchmarkCase;
+    private byte[] payload;
+
+    @Setup
+    public void setup() throws IOException {
+        benchmarkCase = CASES.get(model);
+        payload = loadPayload(model, benchmarkCase);
+    }
+
+    @Benchmark
+    public Object jackson() throws IOException {
+        return XmlOutput.fromXml(new ByteArrayInputStream(payload), benchmarkCase.type);
+    }
+
+    @Benchmark
+    public Object xmlReader() throws IOException {
+        return benchmarkCase.reader.read(new ByteArrayInputStream(payload));
+    }
+
+    private static byte[] loadPayload(final String model, final BenchmarkCase<?> benchmarkCase) throws IOException {
+        try (final InputStream stream = ${name}.class.getResourceAsStream("/payloads/" + model + ".xml")) {
+            if (stream != null) {
+                return IOUtils.toByteArray(stream);
+            }
+        }
+        return XmlOutput.toXml(benchmarkCase.factory.get()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private interface PayloadReader<T> {
+        T read(final InputStream inputStream) throws IOException;
+    }
+
+    private static final class BenchmarkCase<T> {
+        private final Class<T> type;
+        private final Supplier<T> factory;
+        private final PayloadReader<T> reader;
+
+        private BenchmarkCase(final Class<T> type, final Supplier<T> factory, final PayloadReader<T> reader) {
+            this.type = type;
+            this.factory = factory;
+            this.reader = reader;
+        }
+    }
+}
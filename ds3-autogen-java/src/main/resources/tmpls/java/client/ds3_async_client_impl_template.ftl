@@ -0,0 +1,85 @@
+<#include "../copyright.ftl"/>
+
+package ${packageName};
+
+import com.spectralogic.ds3client.commands.*;
+import com.spectralogic.ds3client.commands.spectrads3.*;
+import com.spectralogic.ds3client.commands.spectrads3.notifications.*;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Performs the commands of a {@link Ds3Client} on an executor. The executor is not owned by this
+ * client and is not shut down when the client is closed.
+ */
+public class Ds3AsyncClientImpl implements Ds3AsyncClient {
+
+    /**
+     * A command performed on the calling thread
+     */
+    @FunctionalInterface
+    protected interface BlockingCall<T> {
+        T call() throws IOException;
+    }
+
+    private final Ds3Client client;
+    private final Executor executor;
+
+    public Ds3AsyncClientImpl(final Ds3Client client, final Executor executor) {
+        this.client = client;
+        this.executor = executor;
+    }
+
+    protected Ds3Client getClient() {
+        return this.client;
+    }
+
+    protected Executor getExecutor() {
+        return this.executor;
+    }
+
+    <#list commands as cmd>
+    @Override
+    public CompletableFuture<${cmd.getResponseName()}> ${cmd.getName()?uncap_first}Async(final ${cmd.getRequestName()} request) {
+        return submit(() -> this.client.${cmd.getName()?uncap_first}(request));
+    }
+
+    </#list>
+    <#list customCommands as cmd>
+    @Override
+    public CompletableFuture<${cmd.getResponseName()}> ${cmd.getName()?uncap_first}Async(final ${cmd.getRequestName()} request) {
+        return submit(() -> this.client.${cmd.getName()?uncap_first}(request));
+    }
+
+    </#list>
+    /**
+     * Runs a blocking call on the executor. Subclasses built on a non-blocking network client can
+     * override the commands so that a request in flight does not hold a thread.
+     */
+    protected <T> CompletableFuture<T> submit(final BlockingCall<T> call) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            this.executor.execute(() -> {
+                if (future.isDone()) {
+                    return;
+                }
+                try {
+                    future.complete(call.call());
+                } catch (final Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.client.close();
+    }
+}
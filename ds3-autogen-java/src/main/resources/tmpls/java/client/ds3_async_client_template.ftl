@@ -0,0 +1,32 @@
+<#include "../copyright.ftl"/>
+
+package ${packageName};
+
+import com.spectralogic.ds3client.commands.*;
+import com.spectralogic.ds3client.commands.spectrads3.*;
+import com.spectralogic.ds3client.commands.spectrads3.notifications.*;
+
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Performs the same commands as {@link Ds3Client} without blocking the calling thread. Failures,
+ * including any {@link java.io.IOException}, complete the returned future exceptionally.
+ */
+public interface Ds3AsyncClient extends Closeable {
+
+    <#list commands as cmd>
+    /**
+     * Asynchronously performs {@link Ds3Client#${cmd.getName()?uncap_first}}
+     */
+    CompletableFuture<${cmd.getResponseName()}> ${cmd.getName()?uncap_first}Async(final ${cmd.getRequestName()} request);
+
+    </#list>
+    <#list customCommands as cmd>
+    /**
+     * Asynchronously performs {@link Ds3Client#${cmd.getName()?uncap_first}}
+     */
+    CompletableFuture<${cmd.getResponseName()}> ${cmd.getName()?uncap_first}Async(final ${cmd.getRequestName()} request);
+
+    </#list>
+}
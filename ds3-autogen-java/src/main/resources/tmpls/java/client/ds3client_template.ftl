@@ -8,7 +8,12 @@ import com.spectralogic.ds3client.annotations.ResponsePayloadModel;
 import com.spectralogic.ds3client.commands.*;
 import com.spectralogic.ds3client.commands.spectrads3.*;
 import com.spectralogic.ds3client.commands.spectrads3.notifications.*;
+import com.spectralogic.ds3client.helpers.pagination.PaginatedIterable;
+import com.spectralogic.ds3client.helpers.pagination.PaginationOptions;
 import com.spectralogic.ds3client.models.JobNode;
+<#list paginatedImports as paginatedImport>
+import ${paginatedImport};
+</#list>
 import com.spectralogic.ds3client.networking.ConnectionDetails;
 
 import com.spectralogic.ds3client.commands.parsers.interfaces.GetObjectCustomParserParameters;
@@ -16,6 +21,7 @@ import com.spectralogic.ds3client.commands.parsers.utils.Function;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.stream.Stream;
 
 public interface Ds3Client extends Closeable {
 
@@ -34,6 +40,30 @@ public interface Ds3Client extends Closeable {
     ${cmd.getResponseName()} ${cmd.getName()?uncap_first}(final ${cmd.getRequestName()} request)
             throws IOException;
 
+    </#list>
+    <#list paginatedCommands as cmd>
+    /**
+     * Lazily iterates the ${cmd.getItemType()} items of every page returned by {@link #${cmd.getName()?uncap_first}}.
+     * The page offset and page length of the request are overwritten for each page.
+     */
+    default PaginatedIterable<${cmd.getItemType()}> ${cmd.getName()?uncap_first}Iterable(final ${cmd.getRequestName()} request,
+            final PaginationOptions options) {
+        return new PaginatedIterable<>(options, (pageOffset, pageLength) -> {
+            final ${cmd.getResponseName()} response = ${cmd.getName()?uncap_first}(request.withPageOffset(pageOffset).withPageLength(pageLength));
+            final ${cmd.getPayloadType()} payload = response.${cmd.getPayloadGetter()}();
+            return new PaginatedIterable.Page<>(payload == null ? null : payload.${cmd.getItemsGetter()}(), response.getPagingTruncated());
+        });
+    }
+
+    /**
+     * Lazily streams the ${cmd.getItemType()} items of every page returned by {@link #${cmd.getName()?uncap_first}}.
+     * The page offset and page length of the request are overwritten for each page.
+     */
+    default Stream<${cmd.getItemType()}> ${cmd.getName()?uncap_first}Stream(final ${cmd.getRequestName()} request,
+            final PaginationOptions options) {
+        return ${cmd.getName()?uncap_first}Iterable(request, options).stream();
+    }
+
     </#list>
 
     GetObjectResponse getObject(final GetObjectRequest request,
@@ -0,0 +1,142 @@
+<#include "../copyright.ftl"/>
+
+package ${packageName};
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Configures how a {@link RangedDownloader} splits an object into ranged requests
+ */
+public final class RangedDownloadOptions {
+
+    private static final long DEFAULT_PART_SIZE = 64L * 1024 * 1024;
+    private static final int DEFAULT_CONCURRENCY = 4;
+    private static final int DEFAULT_MAX_RETRIES = 3;
+    private static final long DEFAULT_INITIAL_BACKOFF_MILLIS = 500;
+    private static final long DEFAULT_MAX_BACKOFF_MILLIS = 10 * 1000;
+
+    private static final ExecutorService DEFAULT_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        final Thread thread = new Thread(runnable, "ds3-ranged-download");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public static final RangedDownloadOptions DEFAULT = new RangedDownloadOptions(
+            DEFAULT_PART_SIZE, DEFAULT_CONCURRENCY, DEFAULT_MAX_RETRIES,
+            DEFAULT_INITIAL_BACKOFF_MILLIS, DEFAULT_MAX_BACKOFF_MILLIS, DEFAULT_EXECUTOR);
+
+    private final long partSize;
+    private final int concurrency;
+    private final int maxRetries;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Executor executor;
+
+    private RangedDownloadOptions(
+            final long partSize,
+            final int concurrency,
+            final int maxRetries,
+            final long initialBackoffMillis,
+            final long maxBackoffMillis,
+            final Executor executor) {
+        this.partSize = partSize;
+        this.concurrency = concurrency;
+        this.maxRetries = maxRetries;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.executor = executor;
+    }
+
+    /**
+     * The number of bytes requested by each ranged request
+     */
+    public RangedDownloadOptions withPartSize(final long partSize) {
+        if (partSize <= 0) {
+            throw new IllegalArgumentException("The part size must be positive");
+        }
+        return new RangedDownloadOptions(
+                partSize, concurrency, maxRetries, initialBackoffMillis, maxBackoffMillis, executor);
+    }
+
+    /**
+     * The number of ranged requests that are in flight at the same time
+     */
+    public RangedDownloadOptions withConcurrency(final int concurrency) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("The concurrency must be positive");
+        }
+        return new RangedDownloadOptions(
+                partSize, concurrency, maxRetries, initialBackoffMillis, maxBackoffMillis, executor);
+    }
+
+    /**
+     * The number of times a range that failed with a transient error is requested again
+     * before the download fails
+     */
+    public RangedDownloadOptions withMaxRetries(final int maxRetries) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("The max retries cannot be negative");
+        }
+        return new RangedDownloadOptions(
+                partSize, concurrency, maxRetries, initialBackoffMillis, maxBackoffMillis, executor);
+    }
+
+    /**
+     * The wait before the first retry of a range, which doubles with each further retry
+     */
+    public RangedDownloadOptions withInitialBackoffMillis(final long initialBackoffMillis) {
+        if (initialBackoffMillis < 0) {
+            throw new IllegalArgumentException("The initial backoff cannot be negative");
+        }
+        return new RangedDownloadOptions(
+                partSize, concurrency, maxRetries, initialBackoffMillis, maxBackoffMillis, executor);
+    }
+
+    /**
+     * The longest wait before a retry of a range
+     */
+    public RangedDownloadOptions withMaxBackoffMillis(final long maxBackoffMillis) {
+        if (maxBackoffMillis < 0) {
+            throw new IllegalArgumentException("The max backoff cannot be negative");
+        }
+        return new RangedDownloadOptions(
+                partSize, concurrency, maxRetries, initialBackoffMillis, maxBackoffMillis, executor);
+    }
+
+    /**
+     * The executor that the ranged requests are performed on
+     */
+    public RangedDownloadOptions withExecutor(final Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("The executor cannot be null");
+        }
+        return new RangedDownloadOptions(
+                partSize, concurrency, maxRetries, initialBackoffMillis, maxBackoffMillis, executor);
+    }
+
+    public long getPartSize() {
+        return partSize;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public long getInitialBackoffMillis() {
+        return initialBackoffMillis;
+    }
+
+    public long getMaxBackoffMillis() {
+        return maxBackoffMillis;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+}
@@ -0,0 +1,233 @@
+<#include "../copyright.ftl"/>
+
+package ${packageName};
+
+import com.spectralogic.ds3client.Ds3Client;
+import com.spectralogic.ds3client.commands.GetObjectRequest;
+import com.spectralogic.ds3client.commands.GetObjectResponse;
+import com.spectralogic.ds3client.exceptions.ContentLengthNotMatchException;
+import com.spectralogic.ds3client.models.common.Range;
+import com.spectralogic.ds3client.networking.FailedRequestException;
+import org.apache.http.NoHttpResponseException;
+import org.apache.http.conn.ConnectTimeoutException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Downloads an object with concurrent ranged get object requests. Each range is written to its
+ * own position of the destination channel. A range that fails with a transient error, which is a
+ * connection failure, a server error, or a length mismatch, is requested again up to
+ * {@link RangedDownloadOptions#getMaxRetries()} times after an exponential backoff.
+ */
+public class RangedDownloader {
+
+    /**
+     * Creates the get object request for one range, which must write to the provided channel
+     */
+    @FunctionalInterface
+    public interface RequestFactory {
+        GetObjectRequest newRequest(final WritableByteChannel channel);
+    }
+
+    private final Ds3Client client;
+    private final RangedDownloadOptions options;
+
+    public RangedDownloader(final Ds3Client client) {
+        this(client, RangedDownloadOptions.DEFAULT);
+    }
+
+    public RangedDownloader(final Ds3Client client, final RangedDownloadOptions options) {
+        this.client = client;
+        this.options = options == null ? RangedDownloadOptions.DEFAULT : options;
+    }
+
+    /**
+     * Downloads an object into the destination channel, which is not closed
+     * @param objectName The name of the object, which is used in error messages
+     * @param objectSize The size of the object, which the downloaded byte count is validated against
+     * @param requestFactory Creates the get object request for each range
+     * @param destination The channel the object is written to. A {@link FileChannel} is written to
+     *                    concurrently, while other channels are written to one range at a time.
+     * @return The number of bytes downloaded
+     */
+    public long download(
+            final String objectName,
+            final long objectSize,
+            final RequestFactory requestFactory,
+            final SeekableByteChannel destination) throws IOException {
+        if (objectSize <= 0) {
+            return 0;
+        }
+        final long partSize = options.getPartSize();
+        final long partCount = (objectSize + partSize - 1) / partSize;
+        final AtomicLong nextPart = new AtomicLong(0);
+        final AtomicLong totalBytes = new AtomicLong(0);
+        final AtomicBoolean failed = new AtomicBoolean(false);
+
+        final int workerCount = (int) Math.min(options.getConcurrency(), partCount);
+        final CompletableFuture<?>[] workers = new CompletableFuture<?>[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = CompletableFuture.runAsync(() -> {
+                long part;
+                while (!failed.get() && (part = nextPart.getAndIncrement()) < partCount) {
+                    final long start = part * partSize;
+                    final long end = Math.min(start + partSize, objectSize) - 1;
+                    try {
+                        totalBytes.addAndGet(downloadRange(objectName, start, end, requestFactory, destination));
+                    } catch (final IOException e) {
+                        failed.set(true);
+                        throw new UncheckedIOException(e);
+                    } catch (final RuntimeException e) {
+                        failed.set(true);
+                        throw e;
+                    }
+                }
+            }, options.getExecutor());
+        }
+
+        try {
+            CompletableFuture.allOf(workers).join();
+        } catch (final CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+
+        if (totalBytes.get() != objectSize) {
+            throw new ContentLengthNotMatchException(objectName, objectSize, totalBytes.get());
+        }
+        return totalBytes.get();
+    }
+
+    /**
+     * Downloads the inclusive range [start, end], retrying on transient failures. A retried
+     * range overwrites the bytes written by the failed attempt.
+     */
+    private long downloadRange(
+            final String objectName,
+            final long start,
+            final long end,
+            final RequestFactory requestFactory,
+            final SeekableByteChannel destination) throws IOException {
+        final long rangeLength = end - start + 1;
+        int attempt = 0;
+        while (true) {
+            final PositionedChannel channel = new PositionedChannel(destination, start);
+            try {
+                final GetObjectResponse response = client.getObject(
+                        requestFactory.newRequest(channel).withByteRanges(new Range(start, end)));
+                final long responseSize = response.getObjectSize();
+                if ((responseSize != -1 && responseSize != rangeLength) || channel.getBytesWritten() != rangeLength) {
+                    throw new ContentLengthNotMatchException(objectName, rangeLength, channel.getBytesWritten());
+                }
+                return rangeLength;
+            } catch (final IOException e) {
+                if (attempt >= options.getMaxRetries() || !isTransient(e)) {
+                    throw e;
+                }
+                backoff(attempt++);
+            }
+        }
+    }
+
+    /**
+     * Determines if a failed range may succeed when requested again. Client errors such as
+     * 403, 404 and 416, and failures writing to the destination, are not retried.
+     */
+    private static boolean isTransient(final IOException e) {
+        if (e instanceof FailedRequestException) {
+            return ((FailedRequestException) e).getStatusCode() >= 500;
+        }
+        return e instanceof ContentLengthNotMatchException
+                || e instanceof SocketException
+                || e instanceof SocketTimeoutException
+                || e instanceof ConnectTimeoutException
+                || e instanceof NoHttpResponseException;
+    }
+
+    /**
+     * Waits before a retry for an exponential backoff from the initial backoff, capped at
+     * the max backoff, with random jitter so that concurrent ranges do not retry together
+     */
+    private void backoff(final int attempt) throws IOException {
+        final long delay = Math.min(
+                options.getMaxBackoffMillis(),
+                options.getInitialBackoffMillis() << Math.min(attempt, 20));
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry a ranged get object request");
+        }
+    }
+
+    /**
+     * Writes to the destination starting at a fixed position. Closing it leaves the
+     * destination open, since the destination is shared by every range.
+     */
+    private static class PositionedChannel implements WritableByteChannel {
+        private final SeekableByteChannel destination;
+        private final long start;
+        private long bytesWritten = 0;
+        private boolean open = true;
+
+        PositionedChannel(final SeekableByteChannel destination, final long start) {
+            this.destination = destination;
+            this.start = start;
+        }
+
+        long getBytesWritten() {
+            return bytesWritten;
+        }
+
+        @Override
+        public int write(final ByteBuffer src) throws IOException {
+            final int length = src.remaining();
+            if (destination instanceof FileChannel) {
+                final FileChannel fileChannel = (FileChannel) destination;
+                while (src.hasRemaining()) {
+                    bytesWritten += fileChannel.write(src, start + bytesWritten);
+                }
+            } else {
+                synchronized (destination) {
+                    destination.position(start + bytesWritten);
+                    while (src.hasRemaining()) {
+                        bytesWritten += destination.write(src);
+                    }
+                }
+            }
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+}
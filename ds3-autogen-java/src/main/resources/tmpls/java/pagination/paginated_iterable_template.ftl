@@ -0,0 +1,165 @@
+<#include "../copyright.ftl"/>
+
+package ${packageName};
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily iterates the items of every page of a paginated command. Pages are requested
+ * one at a time in order, and up to {@link PaginationOptions#getPrefetchDepth()} pages
+ * are fetched in the background ahead of the page being iterated. Iteration stops once
+ * the server reports no further results, or, when the server does not report the paging
+ * truncated header, once a page is shorter than the page length.
+ */
+public class PaginatedIterable<T> implements Iterable<T> {
+
+    /**
+     * Retrieves one page of a paginated command
+     */
+    @FunctionalInterface
+    public interface PageFetcher<T> {
+        Page<T> fetch(final int pageOffset, final int pageLength) throws IOException;
+    }
+
+    /**
+     * The items of one page and the paging truncated header that was returned with them
+     */
+    public static class Page<T> {
+        private final List<T> items;
+        private final Integer truncated;
+
+        public Page(final List<T> items, final Integer truncated) {
+            this.items = items == null ? Collections.emptyList() : items;
+            this.truncated = truncated;
+        }
+
+        public List<T> getItems() {
+            return items;
+        }
+
+        public Integer getTruncated() {
+            return truncated;
+        }
+
+        /**
+         * The paging truncated header is authoritative when present, since a server may
+         * return fewer items than the page length before the last page. An empty page
+         * always ends the iteration so that a misreported header cannot loop forever.
+         */
+        boolean isLast(final int pageLength) {
+            if (truncated != null) {
+                return truncated <= 0 || items.isEmpty();
+            }
+            return items.size() < pageLength;
+        }
+    }
+
+    private final PaginationOptions options;
+    private final PageFetcher<T> fetcher;
+
+    public PaginatedIterable(final PaginationOptions options, final PageFetcher<T> fetcher) {
+        this.options = options == null ? PaginationOptions.DEFAULT : options;
+        this.fetcher = fetcher;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new PrefetchingIterator();
+    }
+
+    /**
+     * Creates a sequential stream over the items of every page. Pages are only
+     * requested as the stream is consumed.
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED),
+                false);
+    }
+
+    private class PrefetchingIterator implements Iterator<T> {
+        private final Deque<CompletableFuture<Page<T>>> pending = new ArrayDeque<>();
+        private CompletableFuture<Page<T>> lastRequested;
+        private int nextPageOffset = 0;
+        private boolean done = false;
+        private Iterator<T> current = Collections.emptyIterator();
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (done) {
+                    return false;
+                }
+                final Page<T> page = nextPage();
+                done = page.isLast(options.getPageLength());
+                if (done) {
+                    pending.forEach(future -> future.cancel(false));
+                    pending.clear();
+                }
+                current = page.getItems().iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        private Page<T> nextPage() {
+            while (pending.size() <= options.getPrefetchDepth()) {
+                pending.addLast(requestPage(nextPageOffset++));
+            }
+            try {
+                return pending.removeFirst().join();
+            } catch (final CompletionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof UncheckedIOException) {
+                    throw (UncheckedIOException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * Chains each page onto the previous one so that requests are never sent
+         * concurrently, which allows the same request object to be reused for every page
+         */
+        private CompletableFuture<Page<T>> requestPage(final int pageOffset) {
+            final int pageLength = options.getPageLength();
+            final CompletableFuture<Page<T>> previous = lastRequested == null
+                    ? CompletableFuture.completedFuture(null)
+                    : lastRequested;
+            lastRequested = previous.thenApplyAsync(previousPage -> {
+                if (previousPage != null && previousPage.isLast(pageLength)) {
+                    return new Page<T>(null, 0);
+                }
+                try {
+                    return fetcher.fetch(pageOffset, pageLength);
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, options.getExecutor());
+            return lastRequested;
+        }
+    }
+}
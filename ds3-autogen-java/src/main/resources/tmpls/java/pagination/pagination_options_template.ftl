@@ -0,0 +1,78 @@
+<#include "../copyright.ftl"/>
+
+package ${packageName};
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Configures how a {@link PaginatedIterable} requests its pages
+ */
+public final class PaginationOptions {
+
+    private static final int DEFAULT_PAGE_LENGTH = 1000;
+    private static final int DEFAULT_PREFETCH_DEPTH = 1;
+
+    private static final ExecutorService DEFAULT_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        final Thread thread = new Thread(runnable, "ds3-pagination");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public static final PaginationOptions DEFAULT =
+            new PaginationOptions(DEFAULT_PAGE_LENGTH, DEFAULT_PREFETCH_DEPTH, DEFAULT_EXECUTOR);
+
+    private final int pageLength;
+    private final int prefetchDepth;
+    private final Executor executor;
+
+    private PaginationOptions(final int pageLength, final int prefetchDepth, final Executor executor) {
+        this.pageLength = pageLength;
+        this.prefetchDepth = prefetchDepth;
+        this.executor = executor;
+    }
+
+    /**
+     * The number of items requested per page
+     */
+    public PaginationOptions withPageLength(final int pageLength) {
+        if (pageLength <= 0) {
+            throw new IllegalArgumentException("The page length must be positive");
+        }
+        return new PaginationOptions(pageLength, prefetchDepth, executor);
+    }
+
+    /**
+     * The number of pages fetched ahead of the page being iterated, where zero
+     * only fetches a page once the previous page has been consumed
+     */
+    public PaginationOptions withPrefetchDepth(final int prefetchDepth) {
+        if (prefetchDepth < 0) {
+            throw new IllegalArgumentException("The prefetch depth cannot be negative");
+        }
+        return new PaginationOptions(pageLength, prefetchDepth, executor);
+    }
+
+    /**
+     * The executor that the pages are fetched on
+     */
+    public PaginationOptions withExecutor(final Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("The executor cannot be null");
+        }
+        return new PaginationOptions(pageLength, prefetchDepth, executor);
+    }
+
+    public int getPageLength() {
+        return pageLength;
+    }
+
+    public int getPrefetchDepth() {
+        return prefetchDepth;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+}
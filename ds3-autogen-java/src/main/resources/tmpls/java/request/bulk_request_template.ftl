@@ -4,6 +4,8 @@ package ${packageName};
 
 import com.spectralogic.ds3client.BulkCommand;
 import com.spectralogic.ds3client.models.bulk.Ds3Object;
+import com.spectralogic.ds3client.serializer.XmlPayload;
+import java.io.InputStream;
 <#include "../imports.ftl"/>
 
 public class ${name} extends ${parentClass} {
@@ -14,6 +16,7 @@ public class ${name} extends ${parentClass} {
     </#if>
 
     <#include "common/variables.ftl"/>
+    private long payloadSize = 0;
 
     // Constructor
     <#list constructors as constructor>
@@ -34,6 +37,19 @@ public class ${name} extends ${parentClass} {
 
     <#include "common/getters.ftl"/>
 
+    @Override
+    public InputStream getStream() {
+        ${javaHelper.toXmlPayloadLine("payload", "getObjects()", operation)}
+
+        this.payloadSize = payload.getSize();
+        return payload.newInputStream();
+    }
+
+    @Override
+    public long getSize() {
+        return this.payloadSize;
+    }
+
     @Override
     public BulkCommand getCommand() {
         return BulkCommand.${helper.getBulkVerb(operation)};
@@ -4,15 +4,11 @@ package ${packageName};
 
 import com.spectralogic.ds3client.networking.HttpVerb;
 import com.spectralogic.ds3client.models.Contents;
-import com.spectralogic.ds3client.models.delete.Delete;
-import com.spectralogic.ds3client.models.delete.DeleteObject;
-import com.spectralogic.ds3client.serializer.XmlOutput;
+import com.spectralogic.ds3client.serializer.XmlPayload;
 
-import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
-import java.nio.charset.Charset;
 <#include "../imports.ftl"/>
 
 public class ${name} extends ${parentClass} {
@@ -43,22 +39,9 @@ public class ${name} extends ${parentClass} {
 
     @Override
     public InputStream getStream() {
-
-        final Delete delete = new Delete();
-        delete.setQuiet(quiet);
-        final List<DeleteObject> deleteObjects = new ArrayList<>();
-
-        for(final String objName : objects) {
-            deleteObjects.add(new DeleteObject(objName));
-        }
-
-        delete.setDeleteObjectList(deleteObjects);
-
-        final String xmlOutput = XmlOutput.toXml(delete);
-        final byte[] stringBytes = xmlOutput.getBytes(Charset.forName("UTF-8"));
-        this.size = stringBytes.length;
-
-        return new ByteArrayInputStream(stringBytes);
+        final XmlPayload<String> payload = XmlPayload.ofDeleteKeys(objects, quiet);
+        this.size = payload.getSize();
+        return payload.newInputStream();
     }
 
     <#include "common/getters_verb_path.ftl"/>
@@ -4,14 +4,11 @@ package ${packageName};
 
 import com.spectralogic.ds3client.networking.HttpVerb;
 import com.spectralogic.ds3client.models.bulk.Ds3Object;
-import com.spectralogic.ds3client.models.bulk.Ds3ObjectList;
-import com.spectralogic.ds3client.serializer.XmlOutput;
+import com.spectralogic.ds3client.serializer.XmlPayload;
 import com.spectralogic.ds3client.utils.Guard;
 
-import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.util.List;
-import java.nio.charset.Charset;
 <#include "../imports.ftl"/>
 
 public class ${name} extends ${parentClass} {
@@ -30,14 +27,10 @@ public class ${name} extends ${parentClass} {
         if (Guard.isNullOrEmpty(objects)) {
             return null;
         }
-        final Ds3ObjectList objects = new Ds3ObjectList();
-        objects.setObjects(this.objects);
+        ${javaHelper.toXmlPayloadLine("payload", "this.objects", operation)}
 
-        ${javaHelper.toXmlLine("xmlOutput", "objects", operation)}
-
-        final byte[] stringBytes = xmlOutput.getBytes(Charset.forName("UTF-8"));
-        this.size = stringBytes.length;
-        return new ByteArrayInputStream(stringBytes);
+        this.size = payload.getSize();
+        return payload.newInputStream();
     }
 
     @Override
@@ -0,0 +1,230 @@
+<#include "../copyright.ftl"/>
+
+package ${packageName};
+
+import com.spectralogic.ds3client.models.bulk.Ds3Object;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.function.Function;
+
+/**
+ * An xml request payload that is serialized one element at a time while it is read, so
+ * the payload is never held in memory. The size is computed up front by serializing each
+ * element once without keeping the result.
+ */
+public final class XmlPayload<T> {
+
+    private final byte[] header;
+    private final Iterable<T> elements;
+    private final Function<T, String> elementWriter;
+    private final byte[] footer;
+    private final long size;
+
+    public XmlPayload(
+            final String header,
+            final Iterable<T> elements,
+            final Function<T, String> elementWriter,
+            final String footer) {
+        this.header = header.getBytes(StandardCharsets.UTF_8);
+        this.elements = elements == null ? Collections.emptyList() : elements;
+        this.elementWriter = elementWriter;
+        this.footer = footer.getBytes(StandardCharsets.UTF_8);
+        this.size = computeSize();
+    }
+
+    /**
+     * Creates the payload {@code <Objects><Object Name="..." Size="..."/>...</Objects>}
+     * @param includeSize Whether the Size attribute is written, which is only done for bulk puts
+     */
+    public static XmlPayload<Ds3Object> ofDs3Objects(final Iterable<Ds3Object> objects, final boolean includeSize) {
+        return new XmlPayload<>(
+                "<Objects>",
+                objects,
+                object -> {
+                    final StringBuilder builder = new StringBuilder("<Object Name=\"")
+                            .append(escape(object.getName()))
+                            .append('"');
+                    if (includeSize) {
+                        builder.append(" Size=\"").append(object.getSize()).append('"');
+                    }
+                    return builder.append("/>").toString();
+                },
+                "</Objects>");
+    }
+
+    /**
+     * Creates the multi object delete payload {@code <Delete><Quiet>...</Quiet><Object><Key>...</Key></Object>...</Delete>}
+     */
+    public static XmlPayload<String> ofDeleteKeys(final Iterable<String> keys, final boolean quiet) {
+        return new XmlPayload<>(
+                "<Delete><Quiet>" + quiet + "</Quiet>",
+                keys,
+                key -> "<Object><Key>" + escape(key) + "</Key></Object>",
+                "</Delete>");
+    }
+
+    /**
+     * Escapes the characters that cannot appear in xml text or attribute values
+     */
+    static String escape(final String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder builder = null;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            final String replacement;
+            switch (c) {
+                case '&':
+                    replacement = "&amp;";
+                    break;
+                case '<':
+                    replacement = "&lt;";
+                    break;
+                case '>':
+                    replacement = "&gt;";
+                    break;
+                case '"':
+                    replacement = "&quot;";
+                    break;
+                default:
+                    replacement = c < 0x20 ? "&#" + (int) c + ";" : null;
+            }
+            if (replacement != null && builder == null) {
+                builder = new StringBuilder(value.length() + 16).append(value, 0, i);
+            }
+            if (builder != null) {
+                if (replacement != null) {
+                    builder.append(replacement);
+                } else {
+                    builder.append(c);
+                }
+            }
+        }
+        return builder == null ? value : builder.toString();
+    }
+
+    /**
+     * The number of bytes in the payload
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Creates a new stream over the payload. Each stream serializes the elements again,
+     * so the elements must not be modified while the payload is in use.
+     */
+    public InputStream newInputStream() {
+        return new PayloadInputStream();
+    }
+
+    private long computeSize() {
+        long total = header.length + footer.length;
+        for (final T element : elements) {
+            total += toBytes(element).length;
+        }
+        return total;
+    }
+
+    private byte[] toBytes(final T element) {
+        return elementWriter.apply(element).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private class PayloadInputStream extends InputStream {
+        private Iterator<T> iterator;
+        private byte[] buffer;
+        private int bufferPosition;
+        private boolean footerWritten;
+        private long position;
+        private long markPosition;
+
+        PayloadInputStream() {
+            restart();
+        }
+
+        private void restart() {
+            this.iterator = elements.iterator();
+            this.buffer = header;
+            this.bufferPosition = 0;
+            this.footerWritten = false;
+            this.position = 0;
+        }
+
+        /**
+         * Moves to the next non-empty chunk of the payload, returning false once the footer has been read
+         */
+        private boolean fill() {
+            while (bufferPosition >= buffer.length) {
+                if (iterator.hasNext()) {
+                    buffer = toBytes(iterator.next());
+                } else if (!footerWritten) {
+                    buffer = footer;
+                    footerWritten = true;
+                } else {
+                    return false;
+                }
+                bufferPosition = 0;
+            }
+            return true;
+        }
+
+        @Override
+        public int read() {
+            if (!fill()) {
+                return -1;
+            }
+            position++;
+            return buffer[bufferPosition++] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) {
+            if (length == 0) {
+                return 0;
+            }
+            int read = 0;
+            while (read < length && fill()) {
+                final int count = Math.min(length - read, buffer.length - bufferPosition);
+                System.arraycopy(buffer, bufferPosition, bytes, offset + read, count);
+                bufferPosition += count;
+                read += count;
+            }
+            position += read;
+            return read == 0 ? -1 : read;
+        }
+
+        @Override
+        public int available() {
+            return buffer.length - bufferPosition;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public synchronized void mark(final int readLimit) {
+            markPosition = position;
+        }
+
+        /**
+         * Returns to the mark by serializing the payload again from the start
+         */
+        @Override
+        public synchronized void reset() throws IOException {
+            final long target = markPosition;
+            restart();
+            while (position < target) {
+                if (skip(target - position) <= 0) {
+                    throw new IOException("The payload ended before the mark was reached");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+<#include "../copyright.ftl"/>
+
+package ${packageName};
+
+<#include "../imports.ftl"/>
+
+/**
+ * Reads a ${modelName} from xml without the reflection used by Jackson
+ */
+public final class ${name} {
+
+    private ${name}() {
+        //pass
+    }
+
+    /**
+     * Reads a ${modelName} from an xml document
+     */
+    public static ${modelName} read(final InputStream inputStream) throws IOException {
+        return XmlReaderUtils.readDocument(inputStream, ${name}::read);
+    }
+
+    /**
+     * Reads a ${modelName} from the element that the reader is positioned on, and
+     * leaves the reader positioned on the end of that element
+     */
+    public static ${modelName} read(final XMLStreamReader reader) throws XMLStreamException {
+        final ${modelName} result = new ${modelName}();
+        <#if attributes?has_content>
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            switch (reader.getAttributeLocalName(i)) {
+            <#list attributes as attribute>
+            case "${attribute.xmlName}":
+                ${attribute.parseCode}
+                break;
+            </#list>
+            default:
+                break;
+            }
+        }
+        </#if>
+        while (XmlReaderUtils.nextChildElement(reader)) {
+            switch (reader.getLocalName()) {
+            <#list elements as element>
+            case "${element.xmlName}":
+                ${element.parseCode}
+                break;
+            </#list>
+            default:
+                XmlReaderUtils.skipElement(reader);
+                break;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,179 @@
+<#include "../copyright.ftl"/>
+
+package ${packageName};
+
+import com.fasterxml.jackson.databind.util.StdDateFormat;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Functions used by the generated xml readers. Values are converted the same way that
+ * Jackson converts them, where an empty element is null for boxed types and the
+ * default value for primitive types.
+ */
+public final class XmlReaderUtils {
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private static final ThreadLocal<StdDateFormat> DATE_FORMAT = ThreadLocal.withInitial(StdDateFormat::new);
+
+    private XmlReaderUtils() {
+        //pass
+    }
+
+    /**
+     * Reads a value from the element that the reader is positioned on
+     */
+    @FunctionalInterface
+    public interface ElementReader<T> {
+        T read(final XMLStreamReader reader) throws XMLStreamException;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    /**
+     * Reads the root element of an xml document
+     */
+    public static <T> T readDocument(final InputStream inputStream, final ElementReader<T> rootReader) throws IOException {
+        XMLStreamReader reader = null;
+        try {
+            reader = INPUT_FACTORY.createXMLStreamReader(inputStream);
+            while (reader.getEventType() != XMLStreamConstants.START_ELEMENT) {
+                if (!reader.hasNext()) {
+                    throw new XMLStreamException("The xml document does not contain a root element");
+                }
+                reader.next();
+            }
+            return rootReader.read(reader);
+        } catch (final XMLStreamException | IllegalArgumentException e) {
+            throw new IOException("Unable to parse the xml document", e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (final XMLStreamException e) {
+                    //the stream is owned and closed by the caller
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the reader to the next child element of the current element
+     * @return false once the end of the current element is reached
+     */
+    public static boolean nextChildElement(final XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+            case XMLStreamConstants.START_ELEMENT:
+                return true;
+            case XMLStreamConstants.END_ELEMENT:
+                return false;
+            default:
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Skips the element that the reader is positioned on, including all of its children
+     */
+    public static void skipElement(final XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            switch (reader.next()) {
+            case XMLStreamConstants.START_ELEMENT:
+                depth++;
+                break;
+            case XMLStreamConstants.END_ELEMENT:
+                depth--;
+                break;
+            default:
+                break;
+            }
+        }
+    }
+
+    /**
+     * Reads every child of a wrapper element as an item of a list
+     */
+    public static <T> List<T> readList(final XMLStreamReader reader, final ElementReader<T> itemReader) throws XMLStreamException {
+        final List<T> list = new ArrayList<>();
+        while (nextChildElement(reader)) {
+            list.add(itemReader.read(reader));
+        }
+        return list;
+    }
+
+    private static boolean isEmpty(final String text) {
+        return text == null || text.trim().isEmpty();
+    }
+
+    public static boolean toBoolean(final String text) {
+        return !isEmpty(text) && Boolean.parseBoolean(text.trim());
+    }
+
+    public static Boolean toBooleanObject(final String text) {
+        return isEmpty(text) ? null : Boolean.valueOf(text.trim());
+    }
+
+    public static int toInt(final String text) {
+        return isEmpty(text) ? 0 : Integer.parseInt(text.trim());
+    }
+
+    public static Integer toInteger(final String text) {
+        return isEmpty(text) ? null : Integer.valueOf(text.trim());
+    }
+
+    public static long toLong(final String text) {
+        return isEmpty(text) ? 0L : Long.parseLong(text.trim());
+    }
+
+    public static Long toLongObject(final String text) {
+        return isEmpty(text) ? null : Long.valueOf(text.trim());
+    }
+
+    public static double toDouble(final String text) {
+        return isEmpty(text) ? 0.0 : Double.parseDouble(text.trim());
+    }
+
+    public static Double toDoubleObject(final String text) {
+        return isEmpty(text) ? null : Double.valueOf(text.trim());
+    }
+
+    public static UUID toUuid(final String text) {
+        return isEmpty(text) ? null : UUID.fromString(text.trim());
+    }
+
+    public static Date toDate(final String text) {
+        if (isEmpty(text)) {
+            return null;
+        }
+        try {
+            return DATE_FORMAT.get().parse(text.trim());
+        } catch (final ParseException e) {
+            throw new IllegalArgumentException("Unable to parse date: " + text, e);
+        }
+    }
+
+    public static <T extends Enum<T>> T toEnum(final String text, final Class<T> enumType) {
+        return isEmpty(text) ? null : Enum.valueOf(enumType, text.trim());
+    }
+}
@@ -15,14 +15,30 @@
 
 package com.spectralogic.ds3autogen.java;
 
+import com.spectralogic.ds3autogen.Ds3SpecParserImpl;
+import com.spectralogic.ds3autogen.api.FileUtils;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3ApiSpec;
+import com.spectralogic.ds3autogen.docspec.Ds3DocSpecEmptyImpl;
 import com.spectralogic.ds3autogen.java.generators.requestmodels.*;
 import com.spectralogic.ds3autogen.java.generators.responsemodels.*;
 import com.spectralogic.ds3autogen.java.generators.responseparser.*;
+import freemarker.template.TemplateModelException;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import static com.spectralogic.ds3autogen.java.JavaCodeGenerator.*;
 import static com.spectralogic.ds3autogen.testutil.Ds3ModelFixtures.*;
 import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.junit.Assert.assertThat;
 
@@ -85,4 +101,41 @@ public class JavaCodeGenerator_Test {
         assertThat(getRequestGenerator(getBlobsOnPoolSpectraS3Request()), not(instanceOf(ObjectsRequestPayloadGenerator.class)));
         assertThat(getRequestGenerator(getBlobsOnDs3TargetSpectraS3Request()), not(instanceOf(ObjectsRequestPayloadGenerator.class)));
     }
+
+    /**
+     * Generates the spec and returns the contents of each generated file in the order they were written
+     */
+    private static Map<Path, String> generateFiles(
+            final JavaCodeGenerator generator,
+            final Ds3ApiSpec spec) throws IOException {
+        final Map<Path, ByteArrayOutputStream> outputStreams = new LinkedHashMap<>();
+        final FileUtils fileUtils = path -> {
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            outputStreams.put(path, outputStream);
+            return outputStream;
+        };
+        generator.generate(spec, fileUtils, Paths.get("."), new Ds3DocSpecEmptyImpl());
+
+        final Map<Path, String> files = new LinkedHashMap<>();
+        outputStreams.forEach((path, outputStream) -> files.put(path, new String(outputStream.toByteArray())));
+        return files;
+    }
+
+    @Test
+    public void parallelGeneration_MatchesSequentialGeneration_Test() throws IOException, TemplateModelException {
+        final Ds3ApiSpec spec = new Ds3SpecParserImpl().getSpec(
+                JavaCodeGenerator_Test.class.getResourceAsStream("/input/fullXml.xml"));
+
+        final Map<Path, String> sequentialFiles = generateFiles(new JavaCodeGenerator(), spec);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Map<Path, String> parallelFiles = generateFiles(new JavaCodeGenerator(executor, 8), spec);
+
+            assertThat(new ArrayList<>(parallelFiles.keySet()), is(new ArrayList<>(sequentialFiles.keySet())));
+            assertThat(parallelFiles, is(sequentialFiles));
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
@@ -50,7 +50,9 @@ import static com.spectralogic.ds3autogen.java.generators.requestmodels.BaseRequ
 import static com.spectralogic.ds3autogen.java.test.helpers.JavaCodeGeneratorTestHelper.*;
 import static com.spectralogic.ds3autogen.java.utils.TestHelper.*;
 import static com.spectralogic.ds3autogen.utils.ArgumentsUtil.modifyType;
+import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
@@ -92,11 +94,61 @@ public class JavaFunctionalTests {
         CODE_LOGGER.logFile(ds3ClientImplGeneratedCode, FileTypeToLog.CLIENT);
         testDs3ClientImpl(requestName, ds3ClientImplGeneratedCode);
 
+        //Test that the custom command is performed asynchronously
+        final String ds3AsyncClientGeneratedCode = testGeneratedCode.getDs3AsyncClientGeneratedCode();
+        CODE_LOGGER.logFile(ds3AsyncClientGeneratedCode, FileTypeToLog.CLIENT);
+        testDs3AsyncClient(requestName, ds3AsyncClientGeneratedCode);
+        assertThat(countAsyncCommands(ds3AsyncClientGeneratedCode), is(1));
+
+        final String ds3AsyncClientImplGeneratedCode = testGeneratedCode.getDs3AsyncClientImplGeneratedCode();
+        CODE_LOGGER.logFile(ds3AsyncClientImplGeneratedCode, FileTypeToLog.CLIENT);
+        testDs3AsyncClientImpl(requestName, ds3AsyncClientImplGeneratedCode);
+        assertThat(countAsyncCommands(ds3AsyncClientImplGeneratedCode), is(1));
+
         final String responseParserCode = testGeneratedCode.getResponseParserGeneratedCode();
         CODE_LOGGER.logFile(responseParserCode, FileTypeToLog.PARSER);
         assertTrue(isOfPackage("com.spectralogic.ds3client.commands.parsers", responseParserCode));
     }
 
+    @Test
+    public void rangedDownloader_AmazonGetObject_Test() throws IOException, TemplateModelException {
+        final FileUtils fileUtils = mock(FileUtils.class);
+        final TestGeneratedCode testGeneratedCode = new TestGeneratedCode(
+                fileUtils,
+                "GetObjectRequest",
+                "./ds3-sdk/src/main/java/com/spectralogic/ds3client/commands/");
+
+        testGeneratedCode.generateCode(fileUtils, "/input/getObjectRequestHandler.xml");
+
+        final String rangedDownloaderCode = testGeneratedCode.getRangedDownloaderGeneratedCode();
+        CODE_LOGGER.logFile(rangedDownloaderCode, FileTypeToLog.MODEL);
+        assertTrue(hasCopyright(rangedDownloaderCode));
+        assertTrue(isOfPackage("com.spectralogic.ds3client.helpers.ranged", rangedDownloaderCode));
+        assertTrue(rangedDownloaderCode.contains("public class RangedDownloader {"));
+        assertTrue(hasImport("com.spectralogic.ds3client.commands.GetObjectRequest", rangedDownloaderCode));
+        assertTrue(hasImport("com.spectralogic.ds3client.networking.FailedRequestException", rangedDownloaderCode));
+
+        final String rangedDownloadOptionsCode = testGeneratedCode.getRangedDownloadOptionsGeneratedCode();
+        CODE_LOGGER.logFile(rangedDownloadOptionsCode, FileTypeToLog.MODEL);
+        assertTrue(hasCopyright(rangedDownloadOptionsCode));
+        assertTrue(isOfPackage("com.spectralogic.ds3client.helpers.ranged", rangedDownloadOptionsCode));
+        assertTrue(rangedDownloadOptionsCode.contains("public final class RangedDownloadOptions {"));
+    }
+
+    @Test
+    public void rangedDownloader_NoAmazonGetObject_Test() throws IOException, TemplateModelException {
+        final FileUtils fileUtils = mock(FileUtils.class);
+        final TestGeneratedCode testGeneratedCode = new TestGeneratedCode(
+                fileUtils,
+                "CompleteMultiPartUploadRequest",
+                "./ds3-sdk/src/main/java/com/spectralogic/ds3client/commands/");
+
+        testGeneratedCode.generateCode(fileUtils, "/input/completeMultiPartUploadRequest.xml");
+
+        assertTrue(testGeneratedCode.getRangedDownloaderGeneratedCode().isEmpty());
+        assertTrue(testGeneratedCode.getRangedDownloadOptionsGeneratedCode().isEmpty());
+    }
+
     @Test
     public void completeMultiPartUploadRequest() throws IOException, TemplateModelException {
         final String requestName = "CompleteMultiPartUploadRequest";
@@ -349,9 +401,9 @@ public class JavaFunctionalTests {
         assertTrue(hasImport("com.spectralogic.ds3client.networking.HttpVerb", requestGeneratedCode));
         assertTrue(hasImport("com.spectralogic.ds3client.models.Priority", requestGeneratedCode));
         assertTrue(hasImport("com.spectralogic.ds3client.models.bulk.Ds3Object", requestGeneratedCode));
-        assertTrue(hasImport("com.spectralogic.ds3client.models.bulk.Ds3ObjectList", requestGeneratedCode));
-        assertTrue(hasImport("com.spectralogic.ds3client.serializer.XmlOutput", requestGeneratedCode));
-        assertTrue(hasImport("java.io.ByteArrayInputStream", requestGeneratedCode));
+        assertTrue(hasImport("com.spectralogic.ds3client.serializer.XmlPayload", requestGeneratedCode));
+        assertFalse(hasImport("com.spectralogic.ds3client.serializer.XmlOutput", requestGeneratedCode));
+        assertFalse(hasImport("java.io.ByteArrayInputStream", requestGeneratedCode));
         assertTrue(hasImport("java.io.InputStream", requestGeneratedCode));
         assertTrue(hasImport("com.spectralogic.ds3client.commands.interfaces.AbstractRequest", requestGeneratedCode));
 
@@ -442,6 +494,7 @@ public class JavaFunctionalTests {
         assertFalse(requestGeneratedCode.contains("RestOperationType"));
         assertTrue(hasOperation(Operation.START_BULK_GET, requestGeneratedCode));
         assertTrue(hasCopyright(requestGeneratedCode));
+        checkBulkRequestPayloadCode(false, requestGeneratedCode);
 
         final ImmutableList<Arguments> constructorArgs = ImmutableList.of(
                 new Arguments("String", "BucketName"),
@@ -519,12 +572,18 @@ public class JavaFunctionalTests {
         assertFalse(requestGeneratedCode.contains("RestOperationType"));
         assertTrue(hasOperation(Operation.START_BULK_PUT, requestGeneratedCode));
         assertTrue(hasCopyright(requestGeneratedCode));
+        checkBulkRequestPayloadCode(true, requestGeneratedCode);
 
         final ImmutableList<Arguments> constructorArgs = ImmutableList.of(
                 new Arguments("String", "BucketName"),
                 new Arguments("Iterable<Ds3Object>", "Objects"));
         assertTrue(hasConstructor(requestName, constructorArgs, requestGeneratedCode));
 
+        //Test the generated XmlPayload
+        final String xmlPayloadGeneratedCode = testGeneratedCode.getXmlPayloadGeneratedCode();
+        CODE_LOGGER.logFile(xmlPayloadGeneratedCode, FileTypeToLog.MODEL);
+        checkXmlPayloadCode(xmlPayloadGeneratedCode);
+
         //Test the generated response
         final String responseGeneratedCode = testGeneratedCode.getResponseGeneratedCode();
         CODE_LOGGER.logFile(responseGeneratedCode, FileTypeToLog.RESPONSE);
@@ -589,9 +648,9 @@ public class JavaFunctionalTests {
         assertTrue(hasImport("com.spectralogic.ds3client.networking.HttpVerb", requestGeneratedCode));
         assertTrue(hasImport("java.util.UUID", requestGeneratedCode));
         assertTrue(hasImport("com.spectralogic.ds3client.models.bulk.Ds3Object", requestGeneratedCode));
-        assertTrue(hasImport("com.spectralogic.ds3client.models.bulk.Ds3ObjectList", requestGeneratedCode));
-        assertTrue(hasImport("com.spectralogic.ds3client.serializer.XmlOutput", requestGeneratedCode));
-        assertTrue(hasImport("java.io.ByteArrayInputStream", requestGeneratedCode));
+        assertTrue(hasImport("com.spectralogic.ds3client.serializer.XmlPayload", requestGeneratedCode));
+        assertFalse(hasImport("com.spectralogic.ds3client.serializer.XmlOutput", requestGeneratedCode));
+        assertFalse(hasImport("java.io.ByteArrayInputStream", requestGeneratedCode));
         assertTrue(hasImport("java.io.InputStream", requestGeneratedCode));
         assertTrue(hasImport("com.spectralogic.ds3client.commands.interfaces.AbstractRequest", requestGeneratedCode));
 
@@ -681,12 +740,12 @@ public class JavaFunctionalTests {
         assertTrue(hasImport("com.spectralogic.ds3client.networking.HttpVerb", requestGeneratedCode));
         assertTrue(hasImport("java.util.UUID", requestGeneratedCode));
         assertTrue(hasImport("com.spectralogic.ds3client.models.bulk.Ds3Object", requestGeneratedCode));
-        assertTrue(hasImport("com.spectralogic.ds3client.models.bulk.Ds3ObjectList", requestGeneratedCode));
-        assertTrue(hasImport("com.spectralogic.ds3client.serializer.XmlOutput", requestGeneratedCode));
-        assertTrue(hasImport("java.io.ByteArrayInputStream", requestGeneratedCode));
+        assertTrue(hasImport("com.spectralogic.ds3client.serializer.XmlPayload", requestGeneratedCode));
+        assertFalse(hasImport("com.spectralogic.ds3client.serializer.XmlOutput", requestGeneratedCode));
+        assertFalse(hasImport("java.io.ByteArrayInputStream", requestGeneratedCode));
         assertTrue(hasImport("java.io.InputStream", requestGeneratedCode));
         assertTrue(hasImport("com.spectralogic.ds3client.commands.interfaces.AbstractRequest", requestGeneratedCode));
-        assertTrue(hasImport("java.nio.charset.Charset", requestGeneratedCode));
+        assertFalse(hasImport("java.nio.charset.Charset", requestGeneratedCode));
 
         assertTrue(isOfPackage("com.spectralogic.ds3client.commands.spectrads3", requestGeneratedCode));
         assertFalse(requestGeneratedCode.contains("RestOperationType"));
@@ -767,12 +826,12 @@ public class JavaFunctionalTests {
         assertTrue(hasImport("java.util.UUID", requestGeneratedCode));
         assertTrue(hasImport("java.util.List", requestGeneratedCode));
         assertTrue(hasImport("com.spectralogic.ds3client.models.bulk.Ds3Object", requestGeneratedCode));
-        assertTrue(hasImport("com.spectralogic.ds3client.models.bulk.Ds3ObjectList", requestGeneratedCode));
-        assertTrue(hasImport("com.spectralogic.ds3client.serializer.XmlOutput", requestGeneratedCode));
-        assertTrue(hasImport("java.io.ByteArrayInputStream", requestGeneratedCode));
+        assertTrue(hasImport("com.spectralogic.ds3client.serializer.XmlPayload", requestGeneratedCode));
+        assertFalse(hasImport("com.spectralogic.ds3client.serializer.XmlOutput", requestGeneratedCode));
+        assertFalse(hasImport("java.io.ByteArrayInputStream", requestGeneratedCode));
         assertTrue(hasImport("java.io.InputStream", requestGeneratedCode));
         assertTrue(hasImport("com.spectralogic.ds3client.commands.interfaces.AbstractRequest", requestGeneratedCode));
-        assertTrue(hasImport("java.nio.charset.Charset", requestGeneratedCode));
+        assertFalse(hasImport("java.nio.charset.Charset", requestGeneratedCode));
 
         assertTrue(isOfPackage("com.spectralogic.ds3client.commands.spectrads3", requestGeneratedCode));
         assertFalse(requestGeneratedCode.contains("RestOperationType"));
@@ -857,12 +916,12 @@ public class JavaFunctionalTests {
         assertTrue(hasImport("java.util.UUID", requestGeneratedCode));
         assertTrue(hasImport("java.util.List", requestGeneratedCode));
         assertTrue(hasImport("com.spectralogic.ds3client.models.bulk.Ds3Object", requestGeneratedCode));
-        assertTrue(hasImport("com.spectralogic.ds3client.models.bulk.Ds3ObjectList", requestGeneratedCode));
-        assertTrue(hasImport("com.spectralogic.ds3client.serializer.XmlOutput", requestGeneratedCode));
-        assertTrue(hasImport("java.io.ByteArrayInputStream", requestGeneratedCode));
+        assertTrue(hasImport("com.spectralogic.ds3client.serializer.XmlPayload", requestGeneratedCode));
+        assertFalse(hasImport("com.spectralogic.ds3client.serializer.XmlOutput", requestGeneratedCode));
+        assertFalse(hasImport("java.io.ByteArrayInputStream", requestGeneratedCode));
         assertTrue(hasImport("java.io.InputStream", requestGeneratedCode));
         assertTrue(hasImport("com.spectralogic.ds3client.commands.interfaces.AbstractRequest", requestGeneratedCode));
-        assertTrue(hasImport("java.nio.charset.Charset", requestGeneratedCode));
+        assertFalse(hasImport("java.nio.charset.Charset", requestGeneratedCode));
 
         assertTrue(isOfPackage("com.spectralogic.ds3client.commands.spectrads3", requestGeneratedCode));
         assertFalse(requestGeneratedCode.contains("RestOperationType"));
@@ -940,16 +999,19 @@ public class JavaFunctionalTests {
 
         assertTrue(hasImport("com.spectralogic.ds3client.networking.HttpVerb", requestGeneratedCode));
         assertTrue(hasImport("com.spectralogic.ds3client.models.Contents", requestGeneratedCode));
-        assertTrue(hasImport("com.spectralogic.ds3client.models.delete.Delete", requestGeneratedCode));
-        assertTrue(hasImport("com.spectralogic.ds3client.models.delete.DeleteObject", requestGeneratedCode));
-        assertTrue(hasImport("com.spectralogic.ds3client.serializer.XmlOutput", requestGeneratedCode));
-        assertTrue(hasImport("java.io.ByteArrayInputStream", requestGeneratedCode));
+        assertTrue(hasImport("com.spectralogic.ds3client.serializer.XmlPayload", requestGeneratedCode));
+        assertFalse(hasImport("com.spectralogic.ds3client.models.delete.DeleteObject", requestGeneratedCode));
+        assertFalse(hasImport("com.spectralogic.ds3client.serializer.XmlOutput", requestGeneratedCode));
+        assertFalse(hasImport("java.io.ByteArrayInputStream", requestGeneratedCode));
         assertTrue(hasImport("java.io.InputStream", requestGeneratedCode));
         assertTrue(hasImport("java.util.ArrayList", requestGeneratedCode));
         assertTrue(hasImport("java.util.List", requestGeneratedCode));
-        assertTrue(hasImport("java.nio.charset.Charset", requestGeneratedCode));
+        assertFalse(hasImport("java.nio.charset.Charset", requestGeneratedCode));
         assertFalse(hasImport("com.spectralogic.ds3client.commands.AbstractRequest", requestGeneratedCode));
 
+        assertTrue(requestGeneratedCode.contains("final XmlPayload<String> payload = XmlPayload.ofDeleteKeys(objects, quiet);"));
+        assertTrue(requestGeneratedCode.contains("return payload.newInputStream();"));
+
         assertTrue(isOfPackage("com.spectralogic.ds3client.commands", requestGeneratedCode));
         assertTrue(doesNotHaveOperation(requestGeneratedCode));
         assertTrue(hasCopyright(requestGeneratedCode));
@@ -2361,10 +2423,37 @@ public class JavaFunctionalTests {
         assertTrue(ds3ClientGeneratedCode.contains("@Action(\"LIST\")"));
         assertTrue(ds3ClientGeneratedCode.contains("@Resource(\"BUCKET\")"));
 
+        //Test the paginated default methods of the Ds3Client
+        assertTrue(hasImport("com.spectralogic.ds3client.helpers.pagination.PaginatedIterable", ds3ClientGeneratedCode));
+        assertTrue(hasImport("com.spectralogic.ds3client.helpers.pagination.PaginationOptions", ds3ClientGeneratedCode));
+        assertTrue(hasImport("com.spectralogic.ds3client.models.Bucket", ds3ClientGeneratedCode));
+        assertTrue(hasImport("com.spectralogic.ds3client.models.BucketList", ds3ClientGeneratedCode));
+        assertTrue(ds3ClientGeneratedCode.contains(
+                "default PaginatedIterable<Bucket> getBucketsSpectraS3Iterable(final GetBucketsSpectraS3Request request,"));
+        assertTrue(ds3ClientGeneratedCode.contains(
+                "final GetBucketsSpectraS3Response response = getBucketsSpectraS3(request.withPageOffset(pageOffset).withPageLength(pageLength));"));
+        assertTrue(ds3ClientGeneratedCode.contains("final BucketList payload = response.getBucketListResult();"));
+        assertTrue(ds3ClientGeneratedCode.contains(
+                "return new PaginatedIterable.Page<>(payload == null ? null : payload.getBuckets(), response.getPagingTruncated());"));
+        assertTrue(ds3ClientGeneratedCode.contains(
+                "default Stream<Bucket> getBucketsSpectraS3Stream(final GetBucketsSpectraS3Request request,"));
+
         final String ds3ClientImplGeneratedCode = testGeneratedCode.getDs3ClientImplGeneratedCode();
         CODE_LOGGER.logFile(ds3ClientImplGeneratedCode, FileTypeToLog.CLIENT);
         testDs3ClientImpl(requestName, ds3ClientImplGeneratedCode);
 
+        //Test the Ds3AsyncClient, which has one asynchronous method per command
+        final String ds3AsyncClientGeneratedCode = testGeneratedCode.getDs3AsyncClientGeneratedCode();
+        CODE_LOGGER.logFile(ds3AsyncClientGeneratedCode, FileTypeToLog.CLIENT);
+        testDs3AsyncClient(requestName, ds3AsyncClientGeneratedCode);
+        assertThat(countAsyncCommands(ds3AsyncClientGeneratedCode), is(1));
+        assertFalse(ds3AsyncClientGeneratedCode.contains("Iterable"));
+
+        final String ds3AsyncClientImplGeneratedCode = testGeneratedCode.getDs3AsyncClientImplGeneratedCode();
+        CODE_LOGGER.logFile(ds3AsyncClientImplGeneratedCode, FileTypeToLog.CLIENT);
+        testDs3AsyncClientImpl(requestName, ds3AsyncClientImplGeneratedCode);
+        assertThat(countAsyncCommands(ds3AsyncClientImplGeneratedCode), is(1));
+
         //Test the response parser
         final String responseParserCode = testGeneratedCode.getResponseParserGeneratedCode();
         CODE_LOGGER.logFile(responseParserCode, FileTypeToLog.PARSER);
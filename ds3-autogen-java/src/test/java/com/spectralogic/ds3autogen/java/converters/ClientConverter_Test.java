@@ -17,10 +17,12 @@ package com.spectralogic.ds3autogen.java.converters;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3Element;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3Param;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3Request;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3ResponseCode;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3ResponseType;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3Type;
 import com.spectralogic.ds3autogen.api.models.docspec.Ds3DocSpec;
 import com.spectralogic.ds3autogen.api.models.enums.*;
 import com.spectralogic.ds3autogen.docspec.Ds3DocSpecEmptyImpl;
@@ -28,13 +30,18 @@ import com.spectralogic.ds3autogen.docspec.Ds3DocSpecImpl;
 import com.spectralogic.ds3autogen.java.models.AnnotationInfo;
 import com.spectralogic.ds3autogen.java.models.Command;
 import com.spectralogic.ds3autogen.java.models.CustomCommand;
+import com.spectralogic.ds3autogen.java.models.PaginatedCommand;
 import org.junit.Test;
 
+import java.util.Optional;
+
 import static com.spectralogic.ds3autogen.java.converters.ClientConverter.*;
 import static com.spectralogic.ds3autogen.testutil.Ds3ModelFixtures.*;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 public class ClientConverter_Test {
 
@@ -200,4 +207,91 @@ public class ClientConverter_Test {
         assertThat(result.size(), is(1));
         assertThat(result.get(0).getName(), is("GetObjectHandler"));
     }
+
+    private static Ds3Request getPaginatedUsersRequest() {
+        return new Ds3Request(
+                "com.spectralogic.s3.server.handler.reqhandler.spectrads3.user.GetUsersSpectraS3Request",
+                HttpVerb.GET,
+                Classification.spectrads3,
+                null, // bucketRequirement
+                null, // objectRequirement
+                Action.LIST,
+                Resource.USER,
+                ResourceType.NON_SINGLETON,
+                null, // operation
+                false,
+                ImmutableList.of(
+                        new Ds3ResponseCode(
+                                200,
+                                ImmutableList.of(new Ds3ResponseType("com.spectralogic.s3.server.domain.SpectraUserList", null)))),
+                ImmutableList.of(
+                        new Ds3Param("LastPage", "void", false),
+                        new Ds3Param("PageLength", "int", false),
+                        new Ds3Param("PageOffset", "int", false),
+                        new Ds3Param("PageStartMarker", "java.util.UUID", false)), // optional params
+                null); // required params
+    }
+
+    private static ImmutableMap<String, Ds3Type> getPaginatedUsersTypes() {
+        return ImmutableMap.of(
+                "com.spectralogic.s3.server.domain.SpectraUserList",
+                new Ds3Type(
+                        "com.spectralogic.s3.server.domain.SpectraUserList",
+                        ImmutableList.of(new Ds3Element(
+                                "SpectraUsers",
+                                "array",
+                                "com.spectralogic.s3.server.domain.SpectraUser",
+                                false))));
+    }
+
+    @Test
+    public void toPaginatedCommand_Test() {
+        final Optional<PaginatedCommand> result = toPaginatedCommand(getPaginatedUsersRequest(), getPaginatedUsersTypes());
+        assertTrue(result.isPresent());
+        assertThat(result.get().getName(), is("GetUsersSpectraS3"));
+        assertThat(result.get().getRequestName(), is("GetUsersSpectraS3Request"));
+        assertThat(result.get().getResponseName(), is("GetUsersSpectraS3Response"));
+        assertThat(result.get().getItemType(), is("SpectraUser"));
+        assertThat(result.get().getItemImport(), is("com.spectralogic.ds3client.models.SpectraUser"));
+        assertThat(result.get().getPayloadType(), is("SpectraUserList"));
+        assertThat(result.get().getPayloadImport(), is("com.spectralogic.ds3client.models.SpectraUserList"));
+        assertThat(result.get().getPayloadGetter(), is("getSpectraUserListResult"));
+        assertThat(result.get().getItemsGetter(), is("getSpectraUsers"));
+    }
+
+    @Test
+    public void toPaginatedCommand_NoListElement_Test() {
+        final ImmutableMap<String, Ds3Type> types = ImmutableMap.of(
+                "com.spectralogic.s3.server.domain.SpectraUserList",
+                new Ds3Type(
+                        "com.spectralogic.s3.server.domain.SpectraUserList",
+                        ImmutableList.of(new Ds3Element("Name", "java.lang.String", null, false))));
+
+        assertFalse(toPaginatedCommand(getPaginatedUsersRequest(), types).isPresent());
+    }
+
+    @Test
+    public void toPaginatedCommand_UnknownPayload_Test() {
+        assertFalse(toPaginatedCommand(getPaginatedUsersRequest(), ImmutableMap.of()).isPresent());
+    }
+
+    @Test
+    public void toPaginatedCommandList_Test() {
+        final ImmutableList<Ds3Request> requests = ImmutableList.of(
+                getPaginatedUsersRequest(),
+                getTestRequest(),
+                getRequestAmazonS3GetObject());
+
+        final ImmutableList<PaginatedCommand> result = toPaginatedCommandList(requests, getPaginatedUsersTypes());
+        assertThat(result.size(), is(1));
+        assertThat(result.get(0).getName(), is("GetUsersSpectraS3"));
+    }
+
+    @Test
+    public void toPaginatedCommandList_EmptyTypes_Test() {
+        final ImmutableList<PaginatedCommand> result = toPaginatedCommandList(
+                ImmutableList.of(getPaginatedUsersRequest()),
+                ImmutableMap.of());
+        assertThat(result.size(), is(0));
+    }
 }
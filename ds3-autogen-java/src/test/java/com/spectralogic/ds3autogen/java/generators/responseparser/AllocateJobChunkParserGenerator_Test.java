@@ -16,6 +16,7 @@
 package com.spectralogic.ds3autogen.java.generators.responseparser;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3ResponseCode;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3ResponseType;
 import com.spectralogic.ds3autogen.java.models.ResponseCode;
@@ -51,6 +52,21 @@ public class AllocateJobChunkParserGenerator_Test {
         assertThat(result, is(expected));
     }
 
+    @Test
+    public void toParsePayloadCode_XmlReader_Test() {
+        final String expected = "try (final InputStream inputStream = response.getResponseStream()) {\n" +
+                "                    final JobChunkApiBean result = JobChunkApiBeanXmlReader.read(inputStream);\n" +
+                "                    return new MyResponse(result, 0, MyResponse.Status.ALLOCATED, this.getChecksum(), this.getChecksumType());\n" +
+                "                }\n";
+
+        final Ds3ResponseCode ds3ResponseCode = new Ds3ResponseCode(
+                200,
+                ImmutableList.of(new Ds3ResponseType("com.spectralogic.s3.server.domain.JobChunkApiBean", null)));
+
+        final String result = toParsePayloadCode(ds3ResponseCode, "MyResponse", ImmutableSet.of("JobChunkApiBean"));
+        assertThat(result, is(expected));
+    }
+
     @Test (expected = IllegalArgumentException.class)
     public void toResponseCodeList_Error_Test() {
         generator.toResponseCodeList(ImmutableList.of(), "TestResponse", false);
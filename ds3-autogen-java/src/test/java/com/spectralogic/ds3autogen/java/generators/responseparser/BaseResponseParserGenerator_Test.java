@@ -118,6 +118,24 @@ public class BaseResponseParserGenerator_Test {
         assertTrue(result.contains("java.io.InputStream"));
     }
 
+    @Test
+    public void toImportList_XmlReader_Test() {
+        final ImmutableList<Ds3ResponseCode> responseCodes = ImmutableList.of(
+                createPopulatedResponseCode("_v1"),
+                createPopulatedErrorResponseCode("_v2"));
+
+        final ImmutableSet<String> result = new BaseResponseParserGenerator(ImmutableSet.of("Type_v1")).toImportList(
+                "TestResponse",
+                createEmptyDs3Request(),
+                responseCodes);
+
+        assertThat(result.size(), is(8));
+        hasRequiredInputs(result);
+        assertTrue(result.contains("com.spectralogic.ds3client.models.Type_v1"));
+        assertTrue(result.contains("com.spectralogic.ds3client.serializer.readers.Type_v1XmlReader"));
+        assertTrue(result.contains("java.io.InputStream"));
+    }
+
     @Test
     public void requiredImportList_Test() {
         final ImmutableSet<String> result = requiredImportList();
@@ -0,0 +1,214 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+package com.spectralogic.ds3autogen.java.generators.xmlreaders;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3EnumConstant;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3Type;
+import com.spectralogic.ds3autogen.java.models.Element;
+import com.spectralogic.ds3autogen.java.models.Model;
+import com.spectralogic.ds3autogen.java.models.XmlReader;
+import com.spectralogic.ds3autogen.java.models.XmlReaderBenchmark;
+import org.junit.Test;
+
+import static com.spectralogic.ds3autogen.java.generators.xmlreaders.XmlReaderGenerator.*;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class XmlReaderGenerator_Test {
+
+    private static final String DOMAIN = "com.spectralogic.s3.server.domain.";
+
+    private static final ImmutableMap<String, Ds3Type> TYPES = ImmutableMap.of(
+            DOMAIN + "Bucket", new Ds3Type(DOMAIN + "Bucket", ImmutableList.of()),
+            DOMAIN + "ListBucketResult", new Ds3Type(DOMAIN + "ListBucketResult", ImmutableList.of()),
+            DOMAIN + "Unreadable", new Ds3Type(DOMAIN + "Unreadable", ImmutableList.of()),
+            DOMAIN + "Priority", new Ds3Type(
+                    DOMAIN + "Priority",
+                    null,
+                    ImmutableList.of(),
+                    ImmutableList.of(new Ds3EnumConstant("HIGH", null))));
+
+    private static Model getBucket() {
+        return new Model(
+                "com.spectralogic.ds3client.models",
+                "Bucket",
+                null,
+                ImmutableList.of(
+                        new Element("Id", "Id", true, false, "java.util.UUID", null),
+                        new Element("Name", "Name", false, false, "java.lang.String", null),
+                        new Element("Priority", "Priority", false, false, DOMAIN + "Priority", null),
+                        new Element("Size", "Size", false, false, "java.lang.Long", null)),
+                ImmutableList.of(),
+                ImmutableList.of());
+    }
+
+    private static Model getListBucketResult() {
+        return new Model(
+                "com.spectralogic.ds3client.models",
+                "ListBucketResult",
+                null,
+                ImmutableList.of(
+                        new Element("Buckets", "Bucket", false, true, "array", DOMAIN + "Bucket"),
+                        new Element("Contents", "Contents", false, false, "array", DOMAIN + "Bucket"),
+                        new Element("Names", "Name", false, true, "array", "java.lang.String"),
+                        new Element("Truncated", "IsTruncated", false, false, "boolean", null)),
+                ImmutableList.of(),
+                ImmutableList.of());
+    }
+
+    private static Model getUnreadable() {
+        return new Model(
+                "com.spectralogic.ds3client.models",
+                "Unreadable",
+                null,
+                ImmutableList.of(new Element("Properties", "Properties", false, false, "java.util.Set", null)),
+                ImmutableList.of(),
+                ImmutableList.of());
+    }
+
+    private static ImmutableMap<String, Model> getModels() {
+        return ImmutableMap.of(
+                DOMAIN + "Bucket", getBucket(),
+                DOMAIN + "ListBucketResult", getListBucketResult(),
+                DOMAIN + "Unreadable", getUnreadable());
+    }
+
+    @Test
+    public void toXmlReaderName_Test() {
+        assertThat(toXmlReaderName("Bucket"), is("BucketXmlReader"));
+    }
+
+    @Test
+    public void toReadableModels_Test() {
+        final ImmutableSet<String> result = toReadableModels(TYPES, getModels());
+        assertThat(result, is(ImmutableSet.of("Bucket", "ListBucketResult")));
+    }
+
+    @Test
+    public void toReadableModels_UnreadableChild_Test() {
+        final Model parent = new Model(
+                "com.spectralogic.ds3client.models",
+                "ListBucketResult",
+                null,
+                ImmutableList.of(new Element("Child", "Child", false, false, DOMAIN + "Unreadable", null)),
+                ImmutableList.of(),
+                ImmutableList.of());
+
+        final ImmutableSet<String> result = toReadableModels(
+                TYPES,
+                ImmutableMap.of(DOMAIN + "ListBucketResult", parent, DOMAIN + "Unreadable", getUnreadable()));
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void toReadableModels_DuplicateXmlName_Test() {
+        final Model model = new Model(
+                "com.spectralogic.ds3client.models",
+                "Bucket",
+                null,
+                ImmutableList.of(
+                        new Element("Name", "Name", false, false, "java.lang.String", null),
+                        new Element("OtherName", "Name", false, false, "java.lang.String", null)),
+                ImmutableList.of(),
+                ImmutableList.of());
+
+        assertTrue(toReadableModels(TYPES, ImmutableMap.of(DOMAIN + "Bucket", model)).isEmpty());
+    }
+
+    @Test
+    public void toXmlName_Test() {
+        assertThat(toXmlName(new Element("Id", "id", true, false, "java.util.UUID", null)), is("id"));
+        assertThat(toXmlName(new Element("buckets", "Bucket", false, true, "array", DOMAIN + "Bucket")), is("Buckets"));
+        assertThat(toXmlName(new Element("Contents", "contents", false, false, "array", DOMAIN + "Bucket")), is("Contents"));
+    }
+
+    @Test
+    public void toValueCode_Test() {
+        final ImmutableSet<String> readable = ImmutableSet.of("Bucket");
+        assertThat(toValueCode("java.lang.String", "text", TYPES, readable), is("text"));
+        assertThat(toValueCode("int", "text", TYPES, readable), is("XmlReaderUtils.toInt(text)"));
+        assertThat(toValueCode("java.lang.Integer", "text", TYPES, readable), is("XmlReaderUtils.toInteger(text)"));
+        assertThat(toValueCode("java.util.Date", "text", TYPES, readable), is("XmlReaderUtils.toDate(text)"));
+        assertThat(toValueCode(DOMAIN + "Priority", "text", TYPES, readable), is("XmlReaderUtils.toEnum(text, Priority.class)"));
+        assertThat(toValueCode("com.spectralogic.util.security.ChecksumType", "text", TYPES, readable),
+                is("XmlReaderUtils.toEnum(text, ChecksumType.Type.class)"));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void toValueCode_Model_Test() {
+        toValueCode(DOMAIN + "Bucket", "text", TYPES, ImmutableSet.of("Bucket"));
+    }
+
+    @Test
+    public void toElementParseCode_Test() {
+        final ImmutableSet<String> readable = ImmutableSet.of("Bucket", "ListBucketResult");
+        final ImmutableList<Element> elements = getListBucketResult().getElements();
+
+        assertThat(toElementParseCode(elements.get(0), TYPES, readable),
+                is("result.setBuckets(XmlReaderUtils.readList(reader, BucketXmlReader::read));"));
+        assertThat(toElementParseCode(elements.get(1), TYPES, readable),
+                is("result.getContents().add(BucketXmlReader.read(reader));"));
+        assertThat(toElementParseCode(elements.get(2), TYPES, readable),
+                is("result.setNames(XmlReaderUtils.readList(reader, r -> r.getElementText()));"));
+        assertThat(toElementParseCode(elements.get(3), TYPES, readable),
+                is("result.setTruncated(XmlReaderUtils.toBoolean(reader.getElementText()));"));
+    }
+
+    @Test
+    public void toXmlReader_Test() {
+        final XmlReader result = toXmlReader(
+                getBucket(),
+                TYPES,
+                ImmutableSet.of("Bucket"),
+                "com.spectralogic.ds3client.serializer.readers");
+
+        assertThat(result.getName(), is("BucketXmlReader"));
+        assertThat(result.getModelName(), is("Bucket"));
+
+        assertThat(result.getAttributes().size(), is(1));
+        assertThat(result.getAttributes().get(0).getXmlName(), is("Id"));
+        assertThat(result.getAttributes().get(0).getParseCode(),
+                is("result.setId(XmlReaderUtils.toUuid(reader.getAttributeValue(i)));"));
+
+        assertThat(result.getElements().size(), is(3));
+        assertThat(result.getElements().get(0).getParseCode(), is("result.setName(reader.getElementText());"));
+        assertThat(result.getElements().get(1).getParseCode(),
+                is("result.setPriority(XmlReaderUtils.toEnum(reader.getElementText(), Priority.class));"));
+        assertThat(result.getElements().get(2).getParseCode(),
+                is("result.setSize(XmlReaderUtils.toLongObject(reader.getElementText()));"));
+
+        assertTrue(result.getImports().contains("com.spectralogic.ds3client.models.Bucket"));
+        assertTrue(result.getImports().contains("com.spectralogic.ds3client.models.Priority"));
+        assertTrue(result.getImports().contains("javax.xml.stream.XMLStreamReader"));
+    }
+
+    @Test
+    public void toXmlReaderBenchmark_Test() {
+        final XmlReaderBenchmark result = toXmlReaderBenchmark(
+                ImmutableSet.of("Bucket", "ListBucketResult"),
+                "com.spectralogic.ds3client.serializer.readers");
+
+        assertThat(result.getName(), is("XmlReaderBenchmark"));
+        assertThat(result.getModelNames(), is(ImmutableList.of("Bucket", "ListBucketResult")));
+        assertTrue(result.getImports().contains("com.spectralogic.ds3client.models.Bucket"));
+        assertTrue(result.getImports().contains("com.spectralogic.ds3client.serializer.XmlOutput"));
+        assertTrue(result.getImports().contains("org.openjdk.jmh.annotations.Benchmark"));
+    }
+}
@@ -233,13 +233,13 @@ public class JavaHelper_Test {
     }
 
     @Test
-    public void toXmlLine_Test() {
-        final String bulkPutExpectedResult = "final String OutputStringName = XmlOutput.toXml(ObjectListName, true);";
-        final String bulkPutResult = toXmlLine("OutputStringName", "ObjectListName", Operation.START_BULK_PUT);
+    public void toXmlPayloadLine_Test() {
+        final String bulkPutExpectedResult = "final XmlPayload<Ds3Object> PayloadName = XmlPayload.ofDs3Objects(ObjectListName, true);";
+        final String bulkPutResult = toXmlPayloadLine("PayloadName", "ObjectListName", Operation.START_BULK_PUT);
         assertThat(bulkPutResult, is(bulkPutExpectedResult));
 
-        final String bulkGetExpectedResult = "final String OutputStringName = XmlOutput.toXml(ObjectListName, false);";
-        final String bulkGetResult = toXmlLine("OutputStringName", "ObjectListName", Operation.START_BULK_GET);
+        final String bulkGetExpectedResult = "final XmlPayload<Ds3Object> PayloadName = XmlPayload.ofDs3Objects(ObjectListName, false);";
+        final String bulkGetResult = toXmlPayloadLine("PayloadName", "ObjectListName", Operation.START_BULK_GET);
         assertThat(bulkGetResult, is(bulkGetExpectedResult));
     }
 
@@ -93,4 +93,14 @@ public class ParseResponse_Test {
         final BaseParseResponse result = new BaseParseResponse("TestResponse", "TestType", true);
         assertThat(result.toJavaCode(), is(expected));
     }
+
+    @Test
+    public void baseParseResponse_WithXmlReader_Test() {
+        final String expected = "try (final InputStream inputStream = response.getResponseStream()) {\n" +
+                "                    final TestType result = TestTypeXmlReader.read(inputStream);\n" +
+                "                    return new TestResponse(result, this.getChecksum(), this.getChecksumType());\n" +
+                "                }\n";
+        final BaseParseResponse result = new BaseParseResponse("TestResponse", "TestType", false, true);
+        assertThat(result.toJavaCode(), is(expected));
+    }
 }
@@ -16,6 +16,7 @@
 package com.spectralogic.ds3autogen.java.test.helpers;
 
 import static com.spectralogic.ds3autogen.java.utils.TestHelper.*;
+import static com.spectralogic.ds3autogen.utils.Helper.uncapFirst;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -52,6 +53,52 @@ public final class JavaCodeGeneratorTestHelper {
         assertTrue(hasImport("com.spectralogic.ds3client.networking.NetworkClient", ds3ClientImplGeneratedCode));
     }
 
+    /**
+     * Checks that the generated Java Ds3AsyncClient is of correct syntax and contains the specified request
+     */
+    public static void testDs3AsyncClient(final String requestName, final String ds3AsyncClientGeneratedCode) {
+        assertTrue(hasCopyright(ds3AsyncClientGeneratedCode));
+        assertTrue(hasAsyncCommand(requestName, ds3AsyncClientGeneratedCode));
+        assertTrue(ds3AsyncClientGeneratedCode.contains(
+                "Asynchronously performs {@link Ds3Client#" + uncapFirst(requestName.replace("Request", "")) + "}"));
+
+        assertTrue(isOfPackage("com.spectralogic.ds3client", ds3AsyncClientGeneratedCode));
+        assertTrue(extendsInterface("Ds3AsyncClient", "Closeable", ds3AsyncClientGeneratedCode));
+
+        testAsyncClientImports(ds3AsyncClientGeneratedCode);
+        assertTrue(hasImport("java.io.Closeable", ds3AsyncClientGeneratedCode));
+    }
+
+    /**
+     * Checks that the generated Java Ds3AsyncClientImpl is of correct syntax and delegates the
+     * specified request to the Ds3Client
+     */
+    public static void testDs3AsyncClientImpl(final String requestName, final String ds3AsyncClientImplGeneratedCode) {
+        assertTrue(hasCopyright(ds3AsyncClientImplGeneratedCode));
+        assertTrue(hasAsyncCommand(requestName, Scope.PUBLIC, ds3AsyncClientImplGeneratedCode));
+        assertTrue(ds3AsyncClientImplGeneratedCode.contains(
+                "return submit(() -> this.client." + uncapFirst(requestName.replace("Request", "")) + "(request));"));
+
+        assertTrue(isOfPackage("com.spectralogic.ds3client", ds3AsyncClientImplGeneratedCode));
+        assertTrue(implementsInterface("Ds3AsyncClientImpl", "Ds3AsyncClient", ds3AsyncClientImplGeneratedCode));
+
+        testAsyncClientImports(ds3AsyncClientImplGeneratedCode);
+        assertTrue(hasImport("java.io.IOException", ds3AsyncClientImplGeneratedCode));
+        assertTrue(hasImport("java.util.concurrent.Executor", ds3AsyncClientImplGeneratedCode));
+        assertTrue(hasImport("java.util.concurrent.RejectedExecutionException", ds3AsyncClientImplGeneratedCode));
+    }
+
+    /**
+     * Checks that the provided code has all required imports for the Java Ds3AsyncClient and Ds3AsyncClientImpl
+     */
+    public static void testAsyncClientImports(final String clientCode) {
+        assertTrue(hasImport("com.spectralogic.ds3client.commands.*", clientCode));
+        assertTrue(hasImport("com.spectralogic.ds3client.commands.spectrads3.*", clientCode));
+        assertTrue(hasImport("com.spectralogic.ds3client.commands.spectrads3.notifications.*", clientCode));
+
+        assertTrue(hasImport("java.util.concurrent.CompletableFuture", clientCode));
+    }
+
     /**
      * Checks that the provided code has all required imports for the Java Ds3Client and Ds3ClientImpl
      */
@@ -36,11 +36,21 @@ public class TestGeneratedCode {
     protected final ByteArrayOutputStream responseParserOutputStream;
     protected final ByteArrayOutputStream ds3ClientOutputStream;
     protected final ByteArrayOutputStream ds3ClientImplOutputStream;
+    protected final ByteArrayOutputStream ds3AsyncClientOutputStream;
+    protected final ByteArrayOutputStream ds3AsyncClientImplOutputStream;
+    protected final ByteArrayOutputStream rangedDownloaderOutputStream;
+    protected final ByteArrayOutputStream rangedDownloadOptionsOutputStream;
+    protected final ByteArrayOutputStream xmlPayloadOutputStream;
     protected String requestGeneratedCode;
     protected String responseGeneratedCode;
     protected String responseParserGeneratedCode;
     protected String ds3ClientGeneratedCode;
     protected String ds3ClientImplGeneratedCode;
+    protected String ds3AsyncClientGeneratedCode;
+    protected String ds3AsyncClientImplGeneratedCode;
+    protected String rangedDownloaderGeneratedCode;
+    protected String rangedDownloadOptionsGeneratedCode;
+    protected String xmlPayloadGeneratedCode;
 
     public TestGeneratedCode(
             final FileUtils fileUtils,
@@ -51,6 +61,12 @@ public class TestGeneratedCode {
         this.responseParserOutputStream = setupOutputStream(fileUtils, getPathName(requestName, PARSER_PATH, PathType.RESPONSE_PARSER));
         this.ds3ClientOutputStream = setupOutputStream(fileUtils, CLIENT_PATH + "Ds3Client.java");
         this.ds3ClientImplOutputStream = setupOutputStream(fileUtils, CLIENT_PATH + "Ds3ClientImpl.java");
+        setupClientSupportOutputStreams(fileUtils);
+        this.ds3AsyncClientOutputStream = setupOutputStream(fileUtils, CLIENT_PATH + "Ds3AsyncClient.java");
+        this.ds3AsyncClientImplOutputStream = setupOutputStream(fileUtils, CLIENT_PATH + "Ds3AsyncClientImpl.java");
+        this.rangedDownloaderOutputStream = setupOutputStream(fileUtils, RANGED_DOWNLOAD_PATH + "RangedDownloader.java");
+        this.rangedDownloadOptionsOutputStream = setupOutputStream(fileUtils, RANGED_DOWNLOAD_PATH + "RangedDownloadOptions.java");
+        this.xmlPayloadOutputStream = setupOutputStream(fileUtils, CLIENT_PATH + "serializer/XmlPayload.java");
     }
 
     public void generateCode(
@@ -74,6 +90,11 @@ public class TestGeneratedCode {
         responseParserGeneratedCode = new String(responseParserOutputStream.toByteArray());
         ds3ClientGeneratedCode = new String(ds3ClientOutputStream.toByteArray());
         ds3ClientImplGeneratedCode = new String(ds3ClientImplOutputStream.toByteArray());
+        ds3AsyncClientGeneratedCode = new String(ds3AsyncClientOutputStream.toByteArray());
+        ds3AsyncClientImplGeneratedCode = new String(ds3AsyncClientImplOutputStream.toByteArray());
+        rangedDownloaderGeneratedCode = new String(rangedDownloaderOutputStream.toByteArray());
+        rangedDownloadOptionsGeneratedCode = new String(rangedDownloadOptionsOutputStream.toByteArray());
+        xmlPayloadGeneratedCode = new String(xmlPayloadOutputStream.toByteArray());
     }
 
     public String getRequestGeneratedCode() {
@@ -95,4 +116,24 @@ public class TestGeneratedCode {
     public String getDs3ClientImplGeneratedCode() {
         return ds3ClientImplGeneratedCode;
     }
+
+    public String getDs3AsyncClientGeneratedCode() {
+        return ds3AsyncClientGeneratedCode;
+    }
+
+    public String getDs3AsyncClientImplGeneratedCode() {
+        return ds3AsyncClientImplGeneratedCode;
+    }
+
+    public String getRangedDownloaderGeneratedCode() {
+        return rangedDownloaderGeneratedCode;
+    }
+
+    public String getRangedDownloadOptionsGeneratedCode() {
+        return rangedDownloadOptionsGeneratedCode;
+    }
+
+    public String getXmlPayloadGeneratedCode() {
+        return xmlPayloadGeneratedCode;
+    }
 }
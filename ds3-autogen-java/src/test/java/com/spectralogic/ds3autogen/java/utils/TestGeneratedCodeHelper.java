@@ -30,6 +30,8 @@ public final class TestGeneratedCodeHelper {
 
     public final static String CLIENT_PATH = "./ds3-sdk/src/main/java/com/spectralogic/ds3client/";
     public final static String PARSER_PATH = CLIENT_PATH + "commands/parsers/";
+    public final static String PAGINATION_PATH = CLIENT_PATH + "helpers/pagination/";
+    public final static String RANGED_DOWNLOAD_PATH = CLIENT_PATH + "helpers/ranged/";
 
     public enum PathType { REQUEST, RESPONSE, RESPONSE_PARSER }
 
@@ -61,4 +63,17 @@ public final class TestGeneratedCodeHelper {
         when(fileUtils.getOutputFile(path)).thenReturn(outputStream);
         return outputStream;
     }
+
+    /**
+     * Sets up the output streams of the support files that are generated for every spec with requests
+     */
+    public static void setupClientSupportOutputStreams(final FileUtils fileUtils) throws IOException {
+        setupOutputStream(fileUtils, CLIENT_PATH + "serializer/XmlPayload.java");
+        setupOutputStream(fileUtils, CLIENT_PATH + "Ds3AsyncClient.java");
+        setupOutputStream(fileUtils, CLIENT_PATH + "Ds3AsyncClientImpl.java");
+        setupOutputStream(fileUtils, PAGINATION_PATH + "PaginatedIterable.java");
+        setupOutputStream(fileUtils, PAGINATION_PATH + "PaginationOptions.java");
+        setupOutputStream(fileUtils, RANGED_DOWNLOAD_PATH + "RangedDownloader.java");
+        setupOutputStream(fileUtils, RANGED_DOWNLOAD_PATH + "RangedDownloadOptions.java");
+    }
 }
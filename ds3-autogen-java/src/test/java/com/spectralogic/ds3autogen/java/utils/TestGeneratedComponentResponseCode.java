@@ -65,6 +65,11 @@ public class TestGeneratedComponentResponseCode extends TestGeneratedCode {
 
         ds3ClientGeneratedCode = new String(ds3ClientOutputStream.toByteArray());
         ds3ClientImplGeneratedCode = new String(ds3ClientImplOutputStream.toByteArray());
+        ds3AsyncClientGeneratedCode = new String(ds3AsyncClientOutputStream.toByteArray());
+        ds3AsyncClientImplGeneratedCode = new String(ds3AsyncClientImplOutputStream.toByteArray());
+        rangedDownloaderGeneratedCode = new String(rangedDownloaderOutputStream.toByteArray());
+        rangedDownloadOptionsGeneratedCode = new String(rangedDownloadOptionsOutputStream.toByteArray());
+        xmlPayloadGeneratedCode = new String(xmlPayloadOutputStream.toByteArray());
     }
 
     public String getEncapsulatingTypeGeneratedCode() {
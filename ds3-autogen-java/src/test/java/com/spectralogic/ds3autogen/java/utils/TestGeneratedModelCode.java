@@ -53,6 +53,7 @@ public class TestGeneratedModelCode {
         this.responseParserOutputStream = setupOutputStream(fileUtils, TestGeneratedCodeHelper.getPathName(placeHolderName, PARSER_PATH, PathType.RESPONSE_PARSER));
         this.ds3ClientOutputStream = setupOutputStream(fileUtils, CLIENT_PATH + "Ds3Client.java");
         this.ds3ClientImplOutputStream = setupOutputStream(fileUtils, CLIENT_PATH + "Ds3ClientImpl.java");
+        setupClientSupportOutputStreams(fileUtils);
     }
 
     private static String getPathName(final String modelName, final String pathName) {
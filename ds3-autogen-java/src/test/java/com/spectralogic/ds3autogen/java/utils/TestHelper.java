@@ -237,6 +237,27 @@ public final class TestHelper {
         return code.contains(scope.toString().toLowerCase() + " " + commandLine(requestName));
     }
 
+    public static boolean hasAsyncCommand(final String requestName, final String code) {
+        return code.contains(asyncCommandLine(requestName));
+    }
+
+    public static boolean hasAsyncCommand(final String requestName, final Scope scope, final String code) {
+        return code.contains(scope.toString().toLowerCase() + " " + asyncCommandLine(requestName));
+    }
+
+    /**
+     * Counts the asynchronous commands declared or implemented within the code
+     */
+    public static int countAsyncCommands(final String code) {
+        return code.split("Async\\(final ", -1).length - 1;
+    }
+
+    private static String asyncCommandLine(final String requestName) {
+        return "CompletableFuture<" + requestName.replace("Request", "Response") + "> "
+                + Helper.uncapFirst(requestName.replace("Request", ""))
+                + "Async(final " + requestName + " request)";
+    }
+
     private static String commandLine(final String requestName) {
         return requestName.replace("Request", "Response")
                 + " " + Helper.uncapFirst(requestName.replace("Request", ""))
@@ -349,4 +370,88 @@ public final class TestHelper {
 
         assertTrue(expectedParsing.matcher(code).find());
     }
+
+    /**
+     * Checks that a bulk request streams its object list through XmlPayload
+     * @param includeSize Whether the payload is expected to write the object sizes
+     */
+    public static void checkBulkRequestPayloadCode(final boolean includeSize, final String code) {
+        assertTrue(hasImport("com.spectralogic.ds3client.serializer.XmlPayload", code));
+        assertTrue(hasImport("java.io.InputStream", code));
+
+        final Pattern expectedPayload = Pattern.compile(
+                "@Override"
+                        + "\\s+public InputStream getStream\\(\\) \\{"
+                        + "\\s+final XmlPayload<Ds3Object> payload = XmlPayload\\.ofDs3Objects\\(getObjects\\(\\), " + includeSize + "\\);"
+                        + "\\s+this\\.payloadSize = payload\\.getSize\\(\\);"
+                        + "\\s+return payload\\.newInputStream\\(\\);"
+                        + "\\s+}"
+                        + "\\s+@Override"
+                        + "\\s+public long getSize\\(\\) \\{"
+                        + "\\s+return this\\.payloadSize;"
+                        + "\\s+}",
+                Pattern.MULTILINE | Pattern.UNIX_LINES);
+
+        assertTrue(expectedPayload.matcher(code).find());
+    }
+
+    /**
+     * Checks the generated XmlPayload class: the Objects and Delete payload structures,
+     * the escaping of xml text, and the mark/reset support of its stream
+     */
+    public static void checkXmlPayloadCode(final String code) {
+        assertTrue(isOfPackage("com.spectralogic.ds3client.serializer", code));
+        assertTrue(hasImport("com.spectralogic.ds3client.models.bulk.Ds3Object", code));
+        assertTrue(code.contains("public final class XmlPayload<T> {"));
+
+        final Pattern expectedObjects = Pattern.compile(
+                "public static XmlPayload<Ds3Object> ofDs3Objects\\(final Iterable<Ds3Object> objects, final boolean includeSize\\) \\{"
+                        + "\\s+return new XmlPayload<>\\("
+                        + "\\s+\"<Objects>\","
+                        + "\\s+objects,"
+                        + "\\s+object -> \\{"
+                        + "\\s+final StringBuilder builder = new StringBuilder\\(\"<Object Name=\\\\\"\"\\)"
+                        + "\\s+\\.append\\(escape\\(object\\.getName\\(\\)\\)\\)"
+                        + "\\s+\\.append\\('\"'\\);"
+                        + "\\s+if \\(includeSize\\) \\{"
+                        + "\\s+builder\\.append\\(\" Size=\\\\\"\"\\)\\.append\\(object\\.getSize\\(\\)\\)\\.append\\('\"'\\);"
+                        + "\\s+}"
+                        + "\\s+return builder\\.append\\(\"/>\"\\)\\.toString\\(\\);"
+                        + "\\s+},"
+                        + "\\s+\"</Objects>\"\\);",
+                Pattern.MULTILINE | Pattern.UNIX_LINES);
+        assertTrue(expectedObjects.matcher(code).find());
+
+        final Pattern expectedDelete = Pattern.compile(
+                "public static XmlPayload<String> ofDeleteKeys\\(final Iterable<String> keys, final boolean quiet\\) \\{"
+                        + "\\s+return new XmlPayload<>\\("
+                        + "\\s+\"<Delete><Quiet>\" \\+ quiet \\+ \"</Quiet>\","
+                        + "\\s+keys,"
+                        + "\\s+key -> \"<Object><Key>\" \\+ escape\\(key\\) \\+ \"</Key></Object>\","
+                        + "\\s+\"</Delete>\"\\);",
+                Pattern.MULTILINE | Pattern.UNIX_LINES);
+        assertTrue(expectedDelete.matcher(code).find());
+
+        final Pattern expectedEscaping = Pattern.compile(
+                "case '&':\\s+replacement = \"&amp;\";\\s+break;"
+                        + "\\s+case '<':\\s+replacement = \"&lt;\";\\s+break;"
+                        + "\\s+case '>':\\s+replacement = \"&gt;\";\\s+break;"
+                        + "\\s+case '\"':\\s+replacement = \"&quot;\";\\s+break;"
+                        + "\\s+default:"
+                        + "\\s+replacement = c < 0x20 \\? \"&#\" \\+ \\(int\\) c \\+ \";\" : null;",
+                Pattern.MULTILINE | Pattern.UNIX_LINES);
+        assertTrue(expectedEscaping.matcher(code).find());
+
+        assertTrue(code.contains("public long getSize() {"));
+        assertTrue(code.contains("public InputStream newInputStream() {"));
+        assertTrue(code.contains("private class PayloadInputStream extends InputStream {"));
+
+        final Pattern expectedMarkSupport = Pattern.compile(
+                "public boolean markSupported\\(\\) \\{"
+                        + "\\s+return true;"
+                        + "\\s+}",
+                Pattern.MULTILINE | Pattern.UNIX_LINES);
+        assertTrue(expectedMarkSupport.matcher(code).find());
+        assertTrue(code.contains("public synchronized void reset() throws IOException {"));
+    }
 }
@@ -17,8 +17,10 @@ package com.spectralogic.ds3autogen.net;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.spectralogic.ds3autogen.api.CodeGenerator;
 import com.spectralogic.ds3autogen.api.FileUtils;
+import com.spectralogic.ds3autogen.api.instrumentation.Instrumentation;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3ApiSpec;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3Request;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3ResponseCode;
@@ -44,8 +46,13 @@ import com.spectralogic.ds3autogen.net.model.request.BaseRequest;
 import com.spectralogic.ds3autogen.net.model.response.BaseResponse;
 import com.spectralogic.ds3autogen.net.model.type.BaseType;
 import com.spectralogic.ds3autogen.net.model.typeparser.BaseTypeParserSet;
+import com.spectralogic.ds3autogen.utils.Ds3RequestClassificationIndex;
+import com.spectralogic.ds3autogen.utils.Ds3RequestKindTable;
 import com.spectralogic.ds3autogen.utils.Helper;
+import com.spectralogic.ds3autogen.utils.InstrumentedTemplates;
 import com.spectralogic.ds3autogen.utils.ResponsePayloadUtil;
+import com.spectralogic.ds3autogen.utils.TemplateRegistry;
+import com.spectralogic.ds3autogen.utils.models.Ds3RequestKind;
 import freemarker.template.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,12 +63,15 @@ import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 import static com.spectralogic.ds3autogen.net.utils.GeneratorUtils.hasResponseHandlerAndParser;
 import static com.spectralogic.ds3autogen.utils.ConverterUtil.*;
-import static com.spectralogic.ds3autogen.utils.Ds3RequestClassificationUtil.*;
+import static com.spectralogic.ds3autogen.utils.Ds3RequestClassificationIndex.classify;
 import static com.spectralogic.ds3autogen.utils.Ds3TypeClassificationUtil.*;
 import static com.spectralogic.ds3autogen.utils.ResponsePayloadUtil.hasSpecifiedPayload;
+import static com.spectralogic.ds3autogen.utils.models.Ds3RequestKind.*;
 
 /**
  * Generates the .Net SDK code based on the contents of the Ds3ApiSpec
@@ -69,6 +79,7 @@ import static com.spectralogic.ds3autogen.utils.ResponsePayloadUtil.hasSpecified
 public class NetCodeGenerator implements CodeGenerator {
 
     private static final Logger LOG = LoggerFactory.getLogger(NetCodeGenerator.class);
+    private static final String SCOPE = NetCodeGenerator.class.getSimpleName();
     private static final String COMMANDS_NAMESPACE = "Ds3.Calls";
     private static final String CLIENT_NAMESPACE = "Ds3.";
     private static final String MODEL_PARSER_NAMESPACE = "Ds3.ResponseParsers";
@@ -76,18 +87,70 @@ public class NetCodeGenerator implements CodeGenerator {
     private static final String TYPES_NAMESPACE = CLIENT_NAMESPACE + "Models";
     private static final Path BASE_PROJECT_PATH = Paths.get("");
 
-    private final Configuration config = new Configuration(Configuration.VERSION_2_3_23);
+    /*
+     * The templates and model generators of the special cased requests. A request uses the first
+     * entry it matches, so the more specific kinds are listed before the kinds they take precedence over.
+     * Bulk gets also have a get objects with length and offset payload, so BULK_GET comes first.
+     */
+
+    private static final Ds3RequestKindTable<String> REQUEST_TEMPLATES = Ds3RequestKindTable.<String>builder()
+            .add(COMPLETE_MULTIPART_UPLOAD, "request/parts_request_payload.ftl")
+            .add(GET_OBJECT, "request/get_object_request.ftl")
+            .add(BULK_PUT, "request/bulk_put_request.ftl")
+            .add(BULK_GET, "request/bulk_get_request.ftl")
+            .add(GET_OBJECTS_WITH_LENGTH_OFFSET_PAYLOAD, "request/partial_objects_request_payload.ftl")
+            .add(CREATE_OBJECT, "request/put_object_request.ftl")
+            .add(CREATE_MULTIPART_UPLOAD_PART, "request/stream_request_payload.ftl")
+            .add(SIMPLE_OBJECTS_PAYLOAD, "request/object_names_request_payload.ftl")
+            .add(MULTI_FILE_DELETE, "request/multi_file_delete_request.ftl")
+            .add(IDS_PAYLOAD, "request/ids_request_payload.ftl")
+            .add(STRING_PAYLOAD, "request/string_request_payload.ftl")
+            .build();
+
+    private static final Ds3RequestKindTable<Supplier<RequestModelGenerator<?>>> REQUEST_GENERATORS =
+            Ds3RequestKindTable.<Supplier<RequestModelGenerator<?>>>builder()
+                    .add(COMPLETE_MULTIPART_UPLOAD, PartsRequestPayloadGenerator::new)
+                    .add(GET_OBJECT, GetObjectRequestGenerator::new)
+                    .add(BULK_PUT, BulkPutRequestGenerator::new)
+                    .add(BULK_GET, BulkGetRequestGenerator::new)
+                    .add(GET_OBJECTS_WITH_LENGTH_OFFSET_PAYLOAD, PartialObjectRequestPayloadGenerator::new)
+                    .add(CREATE_OBJECT, PutObjectRequestGenerator::new)
+                    .add(CREATE_MULTIPART_UPLOAD_PART, StreamRequestPayloadGenerator::new)
+                    .add(ImmutableSet.of(SIMPLE_OBJECTS_PAYLOAD, MULTI_FILE_DELETE), ObjectsRequestPayloadGenerator::new)
+                    .add(STRING_PAYLOAD, StringRequestPayloadGenerator::new)
+                    .add(IDS_PAYLOAD, IdsRequestPayloadGenerator::new)
+                    .build();
+
+    private static final Ds3RequestKindTable<String> RESPONSE_TEMPLATES = Ds3RequestKindTable.<String>builder()
+            .add(PAGINATION, "response/pagination_headers_response.ftl")
+            .add(ALLOCATE_JOB_CHUNK, "response/allocate_job_chunk_response.ftl")
+            .add(GET_JOB_CHUNKS_READY, "response/get_job_chunks_response.ftl")
+            .add(GET_OBJECT_AMAZON_S3, "response/get_object_response.ftl")
+            .add(HEAD_BUCKET, "response/head_bucket_response.ftl")
+            .add(HEAD_OBJECT, "response/head_object_response.ftl")
+            .build();
+
+    private static final Ds3RequestKindTable<String> RESPONSE_PARSER_TEMPLATES = Ds3RequestKindTable.<String>builder()
+            .add(PAGINATION, "parsers/response/pagination_headers_response_parser.ftl")
+            .add(ALLOCATE_JOB_CHUNK, "parsers/response/allocate_job_chunk_parser.ftl")
+            .add(GET_JOB_CHUNKS_READY, "parsers/response/get_job_chunks_parser.ftl")
+            .add(GET_OBJECT_AMAZON_S3, "parsers/response/get_object_parser.ftl")
+            .add(HEAD_BUCKET, "parsers/response/head_bucket_parser.ftl")
+            .add(HEAD_OBJECT, "parsers/response/head_object_parser.ftl")
+            .build();
+
+    private final Configuration config;
 
     private Ds3ApiSpec spec;
+    private Ds3RequestClassificationIndex classificationIndex;
     private FileUtils fileUtils;
     private Path destDir;
 
     public NetCodeGenerator() throws TemplateModelException {
-        config.setDefaultEncoding("UTF-8");
-        config.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
-        config.setClassForTemplateLoading(NetCodeGenerator.class, "/tmpls/net");
-        config.setSharedVariable("netHelper", NetHelper.getInstance());
-        config.setSharedVariable("helper", Helper.getInstance());
+        config = TemplateRegistry.getDefault().getConfiguration(NetCodeGenerator.class, "/tmpls/net", cfg -> {
+            cfg.setSharedVariable("netHelper", NetHelper.getInstance());
+            cfg.setSharedVariable("helper", Helper.getInstance());
+        });
     }
 
     @Override
@@ -102,16 +165,18 @@ public class NetCodeGenerator implements CodeGenerator {
 
         try {
             final ImmutableList<Ds3Request> requests = spec.getRequests();
-            final ImmutableMap<String, Ds3Type> typeMap = removeUnusedTypes(
-                    spec.getTypes(),
-                    spec.getRequests());
+            this.classificationIndex = Ds3RequestClassificationIndex.of(requests);
+            LOG.debug("Request classifications:\n{}", classificationIndex.dump());
+
+            final ImmutableMap<String, Ds3Type> typeMap = Instrumentation.getRecorder()
+                    .timePhase(SCOPE, "removeUnusedTypes", () -> removeUnusedTypes(spec));
 
             generateCommands(requests, typeMap, docSpec);
             generateClient(requests, docSpec);
             generateModelParsers(typeMap);
             generateAllTypes(typeMap);
         } catch (final TemplateException e) {
-            LOG.error("Unable to generate Net SDK code", e);
+            throw new IOException("Unable to generate Net SDK code", e);
         }
     }
 
@@ -126,7 +191,8 @@ public class NetCodeGenerator implements CodeGenerator {
         }
         final Template tmpl = config.getTemplate("parsers/typeset/all_type_parsers.ftl");
         final TypeParserSetGenerator<?> generator = new BaseTypeParserSetGenerator();
-        final BaseTypeParserSet parser = generator.generate(typeMap);
+        final BaseTypeParserSet parser = Instrumentation.getRecorder()
+                .timePhase(SCOPE, "convertModels", () -> generator.generate(typeMap));
         final Path path = destDir.resolve(
                 BASE_PROJECT_PATH.resolve(Paths.get(MODEL_PARSER_NAMESPACE.replace(".", "/") + "/ModelParsers.cs")));
 
@@ -134,7 +200,7 @@ public class NetCodeGenerator implements CodeGenerator {
 
         try (final OutputStream outStream = fileUtils.getOutputFile(path);
              final Writer writer = new OutputStreamWriter(outStream)) {
-            tmpl.process(parser, writer);
+            InstrumentedTemplates.process(SCOPE, tmpl, parser, writer);
         }
     }
 
@@ -157,14 +223,15 @@ public class NetCodeGenerator implements CodeGenerator {
     private void generateType(final Ds3Type ds3Type, final ImmutableMap<String, Ds3Type> typeMap) throws IOException, TemplateException {
         final Template tmpl = getTypeTemplate(ds3Type);
         final TypeModelGenerator<?> modelGenerator = getTypeGenerator(ds3Type);
-        final BaseType type = modelGenerator.generate(ds3Type, typeMap);
+        final BaseType type = Instrumentation.getRecorder()
+                .timePhase(SCOPE, "convertModels", () -> modelGenerator.generate(ds3Type, typeMap));
         final Path requestPath = destDir.resolve(BASE_PROJECT_PATH.resolve(Paths.get(TYPES_NAMESPACE.replace(".", "/") + "/" + type.getName() + ".cs")));
 
         LOG.info("Getting OutputStream for file:" + requestPath.toString());
 
         try (final OutputStream outStream = fileUtils.getOutputFile(requestPath);
              final Writer writer = new OutputStreamWriter(outStream)) {
-            tmpl.process(type, writer);
+            InstrumentedTemplates.process(SCOPE, tmpl, type, writer);
         }
     }
 
@@ -209,14 +276,15 @@ public class NetCodeGenerator implements CodeGenerator {
         }
         final Template clientTmpl = config.getTemplate("client/ds3_client.ftl");
         final ClientModelGenerator<?> clientGenerator = new BaseClientGenerator();
-        final BaseClient client = clientGenerator.generate(requests, docSpec);
+        final BaseClient client = Instrumentation.getRecorder()
+                .timePhase(SCOPE, "convertModels", () -> clientGenerator.generate(requests, docSpec));
         final Path clientPath = toClientPath("Ds3Client.cs");
 
         LOG.info("Getting OutputStream for file:" + clientPath.toString());
 
         try (final OutputStream outStream = fileUtils.getOutputFile(clientPath);
              final Writer writer = new OutputStreamWriter(outStream)) {
-            clientTmpl.process(client, writer);
+            InstrumentedTemplates.process(SCOPE, clientTmpl, client, writer);
         }
 
         final Template ids3ClientTmpl = config.getTemplate("client/ids3_client.ftl");
@@ -226,7 +294,7 @@ public class NetCodeGenerator implements CodeGenerator {
 
         try (final OutputStream outStream = fileUtils.getOutputFile(ids3ClientPath);
              final Writer writer = new OutputStreamWriter(outStream)) {
-            ids3ClientTmpl.process(client, writer);
+            InstrumentedTemplates.process(SCOPE, ids3ClientTmpl, client, writer);
         }
     }
 
@@ -249,20 +317,23 @@ public class NetCodeGenerator implements CodeGenerator {
             return;
         }
         for (final Ds3Request request : requests) {
-            generateRequest(request, typeMap, docSpec);
-            generateResponseAndParser(request);
+            final ImmutableSet<Ds3RequestKind> kinds = classificationIndex.getKinds(request);
+            generateRequest(request, kinds, typeMap, docSpec);
+            generateResponseAndParser(request, kinds);
         }
     }
 
     /**
      * Generates the .net code for the response handler and parser described in the Ds3Request
      */
-    private void generateResponseAndParser(final Ds3Request ds3Request) throws IOException, TemplateException {
+    private void generateResponseAndParser(
+            final Ds3Request ds3Request,
+            final ImmutableSet<Ds3RequestKind> kinds) throws IOException, TemplateException {
         if (!ResponsePayloadUtil.hasResponsePayload(ds3Request.getDs3ResponseCodes())) {
             //Check if the request is an exception for generating response and parser files
             if (hasResponseHandlerAndParser(ds3Request)) {
-                generateResponse(ds3Request, null);
-                generateResponseParser(ds3Request, null);
+                generateResponse(ds3Request, kinds, null);
+                generateResponseParser(ds3Request, kinds, null);
             }
             //There is no payload for this Ds3Request, so do not generate any response handling code
             return;
@@ -276,24 +347,28 @@ public class NetCodeGenerator implements CodeGenerator {
             throw new IllegalArgumentException("Cannot generate a response because there are no non-error payloads: " + ds3Request.getName());
         }
 
-        generateResponse(ds3Request, responsePayloadType);
+        generateResponse(ds3Request, kinds, responsePayloadType);
 
         if (responsePayloadType.equalsIgnoreCase("java.lang.String")) {
-            generateResponseParser(ds3Request, null);
+            generateResponseParser(ds3Request, kinds, null);
         } else {
             final Ds3Type ds3TypePayload = spec.getTypes().get(responsePayloadType);
-            generateResponseParser(ds3Request, ds3TypePayload);
+            generateResponseParser(ds3Request, kinds, ds3TypePayload);
         }
     }
 
     /**
      * Generates the .net code for the response parser
      */
-    private void generateResponseParser(final Ds3Request ds3Request, final Ds3Type responsePayload) throws IOException, TemplateException {
-        final Template tmpl = getResponseParserTemplate(ds3Request);
+    private void generateResponseParser(
+            final Ds3Request ds3Request,
+            final ImmutableSet<Ds3RequestKind> kinds,
+            final Ds3Type responsePayload) throws IOException, TemplateException {
+        final Template tmpl = getResponseParserTemplate(ds3Request, kinds);
         final ResponseParserModelGenerator<?> parserGenerator = getResponseParserGenerator(responsePayload);
 
-        final BaseParser parser = generateBaseParser(ds3Request, responsePayload, parserGenerator);
+        final BaseParser parser = Instrumentation.getRecorder()
+                .timePhase(SCOPE, "convertModels", () -> generateBaseParser(ds3Request, responsePayload, parserGenerator));
         final Path parserPath = destDir.resolve(BASE_PROJECT_PATH.resolve(
                 Paths.get(PARSER_NAMESPACE.replace(".", "/") + "/" + parser.getName() + ".cs")));
 
@@ -301,7 +376,7 @@ public class NetCodeGenerator implements CodeGenerator {
 
         try (final OutputStream outStream = fileUtils.getOutputFile(parserPath);
              final Writer writer = new OutputStreamWriter(outStream)) {
-            tmpl.process(parser, writer);
+            InstrumentedTemplates.process(SCOPE, tmpl, parser, writer);
         }
     }
 
@@ -329,24 +404,12 @@ public class NetCodeGenerator implements CodeGenerator {
     /**
      * Retrieves the response parser template for the specified Ds3Request
      */
-    private Template getResponseParserTemplate(final Ds3Request ds3Request) throws IOException {
-        if (supportsPaginationRequest(ds3Request)) {
-            return config.getTemplate("parsers/response/pagination_headers_response_parser.ftl");
-        }
-        if (isAllocateJobChunkRequest(ds3Request)) {
-            return config.getTemplate("parsers/response/allocate_job_chunk_parser.ftl");
-        }
-        if (isGetJobChunksReadyForClientProcessingRequest(ds3Request)) {
-            return config.getTemplate("parsers/response/get_job_chunks_parser.ftl");
-        }
-        if (isGetObjectAmazonS3Request(ds3Request)) {
-            return config.getTemplate("parsers/response/get_object_parser.ftl");
-        }
-        if (isHeadBucketRequest(ds3Request)) {
-            return config.getTemplate("parsers/response/head_bucket_parser.ftl");
-        }
-        if (isHeadObjectRequest(ds3Request)) {
-            return config.getTemplate("parsers/response/head_object_parser.ftl");
+    private Template getResponseParserTemplate(
+            final Ds3Request ds3Request,
+            final ImmutableSet<Ds3RequestKind> kinds) throws IOException {
+        final Optional<String> specialCasedTemplate = RESPONSE_PARSER_TEMPLATES.find(kinds);
+        if (specialCasedTemplate.isPresent()) {
+            return config.getTemplate(specialCasedTemplate.get());
         }
         //Perform this check last so that individual special cased requests take precedence
         if (hasSpecifiedPayload(ds3Request, "MasterObjectList")) {
@@ -361,10 +424,14 @@ public class NetCodeGenerator implements CodeGenerator {
     /**
      * Generates the .net code for the response handler
      */
-    private void generateResponse(final Ds3Request ds3Request, final String responsePayload) throws IOException, TemplateException {
-        final Template tmpl = getResponseTemplate(ds3Request);
+    private void generateResponse(
+            final Ds3Request ds3Request,
+            final ImmutableSet<Ds3RequestKind> kinds,
+            final String responsePayload) throws IOException, TemplateException {
+        final Template tmpl = getResponseTemplate(kinds);
         final ResponseModelGenerator<?> responseGenerator = getResponseGenerator();
-        final BaseResponse response = responseGenerator.generate(ds3Request, responsePayload);
+        final BaseResponse response = Instrumentation.getRecorder()
+                .timePhase(SCOPE, "convertModels", () -> responseGenerator.generate(ds3Request, responsePayload));
         final Path responsePath = destDir.resolve(BASE_PROJECT_PATH.resolve(
                 Paths.get(COMMANDS_NAMESPACE.replace(".", "/") + "/" +
                         response.getName() + ".cs")));
@@ -373,7 +440,7 @@ public class NetCodeGenerator implements CodeGenerator {
 
         try (final OutputStream outStream = fileUtils.getOutputFile(responsePath);
              final Writer writer = new OutputStreamWriter(outStream)) {
-            tmpl.process(response, writer);
+            InstrumentedTemplates.process(SCOPE, tmpl, response, writer);
         }
     }
 
@@ -404,28 +471,11 @@ public class NetCodeGenerator implements CodeGenerator {
 
     /**
      * Retrieves the appropriate template that will generate the .net response handler
-     * code for this Ds3Request
+     * code for a Ds3Request of the specified kinds
      */
-    private Template getResponseTemplate(final Ds3Request ds3Request) throws IOException {
-        if (supportsPaginationRequest(ds3Request)) {
-            return config.getTemplate("response/pagination_headers_response.ftl");
-        }
-        if (isAllocateJobChunkRequest(ds3Request)) {
-            return config.getTemplate("response/allocate_job_chunk_response.ftl");
-        }
-        if (isGetJobChunksReadyForClientProcessingRequest(ds3Request)) {
-            return config.getTemplate("response/get_job_chunks_response.ftl");
-        }
-        if (isGetObjectAmazonS3Request(ds3Request)) {
-            return config.getTemplate("response/get_object_response.ftl");
-        }
-        if (isHeadBucketRequest(ds3Request)) {
-            return config.getTemplate("response/head_bucket_response.ftl");
-        }
-        if (isHeadObjectRequest(ds3Request)) {
-            return config.getTemplate("response/head_object_response.ftl");
-        }
-        return config.getTemplate("response/response_template.ftl");
+    private Template getResponseTemplate(final ImmutableSet<Ds3RequestKind> kinds) throws IOException {
+        return config.getTemplate(RESPONSE_TEMPLATES.find(kinds)
+                .orElse("response/response_template.ftl"));
     }
 
     /**
@@ -433,18 +483,20 @@ public class NetCodeGenerator implements CodeGenerator {
      */
     private void generateRequest(
             final Ds3Request ds3Request,
+            final ImmutableSet<Ds3RequestKind> kinds,
             final ImmutableMap<String, Ds3Type> typeMap,
             final Ds3DocSpec docSpec) throws IOException, TemplateException {
-        final Template tmpl = getRequestTemplate(ds3Request);
-        final RequestModelGenerator<?> modelGenerator = getTemplateModelGenerator(ds3Request);
-        final BaseRequest request = modelGenerator.generate(ds3Request, typeMap, docSpec);
+        final Template tmpl = getRequestTemplate(kinds);
+        final RequestModelGenerator<?> modelGenerator = getTemplateModelGenerator(kinds);
+        final BaseRequest request = Instrumentation.getRecorder()
+                .timePhase(SCOPE, "convertModels", () -> modelGenerator.generate(ds3Request, typeMap, docSpec));
         final Path requestPath = destDir.resolve(BASE_PROJECT_PATH.resolve(Paths.get(COMMANDS_NAMESPACE.replace(".", "/") + "/" + request.getName() + ".cs")));
 
         LOG.info("Getting OutputStream for file:" + requestPath.toString());
 
         try (final OutputStream outStream = fileUtils.getOutputFile(requestPath);
              final Writer writer = new OutputStreamWriter(outStream)) {
-            tmpl.process(request, writer);
+            InstrumentedTemplates.process(SCOPE, tmpl, request, writer);
         }
     }
 
@@ -452,78 +504,24 @@ public class NetCodeGenerator implements CodeGenerator {
      * Retrieves the associated .net request generator for the specified Ds3Request
      */
     static RequestModelGenerator<?> getTemplateModelGenerator(final Ds3Request ds3Request) {
-        if (isCompleteMultiPartUploadRequest(ds3Request)) {
-            return new PartsRequestPayloadGenerator();
-        }
-        if (isGetObjectRequest(ds3Request)) {
-            return new GetObjectRequestGenerator();
-        }
-        if (isBulkPutRequest(ds3Request)) {
-            return new BulkPutRequestGenerator();
-        }
-        if (isBulkGetRequest(ds3Request)) { //Note: this must come before hasGetObjectsWithLengthOffsetRequestPayload
-            return new BulkGetRequestGenerator();
-        }
-        if (hasGetObjectsWithLengthOffsetRequestPayload(ds3Request)) {
-            return new PartialObjectRequestPayloadGenerator();
-        }
-        if (isCreateObjectRequest(ds3Request)) {
-            return new PutObjectRequestGenerator();
-        }
-        if (isCreateMultiPartUploadPartRequest(ds3Request)) {
-            return new StreamRequestPayloadGenerator();
-        }
-        if (hasSimpleObjectsRequestPayload(ds3Request)
-                || isMultiFileDeleteRequest(ds3Request)) {
-            return new ObjectsRequestPayloadGenerator();
-        }
-        if (hasStringRequestPayload(ds3Request)) {
-            return new StringRequestPayloadGenerator();
-        }
-        if (hasIdsRequestPayload(ds3Request)) {
-            return new IdsRequestPayloadGenerator();
-        }
-        return new BaseRequestGenerator();
+        return getTemplateModelGenerator(classify(ds3Request));
+    }
+
+    /**
+     * Retrieves the associated .net request generator for a Ds3Request of the specified kinds
+     */
+    static RequestModelGenerator<?> getTemplateModelGenerator(final ImmutableSet<Ds3RequestKind> kinds) {
+        return REQUEST_GENERATORS.find(kinds)
+                .orElse(BaseRequestGenerator::new)
+                .get();
     }
 
     /**
      * Retrieves the appropriate template that will generate the .net request handler
-     * code for this Ds3Request
+     * code for a Ds3Request of the specified kinds
      */
-    private Template getRequestTemplate(final Ds3Request ds3Request) throws IOException {
-        if (isCompleteMultiPartUploadRequest(ds3Request)) {
-            return config.getTemplate("request/parts_request_payload.ftl");
-        }
-        if (isGetObjectRequest(ds3Request)) {
-            return config.getTemplate("request/get_object_request.ftl");
-        }
-        if (isBulkPutRequest(ds3Request)) {
-            return config.getTemplate("request/bulk_put_request.ftl");
-        }
-        if (isBulkGetRequest(ds3Request)) { //Note: this must come before hasGetObjectsWithLengthOffsetRequestPayload
-            return config.getTemplate("request/bulk_get_request.ftl");
-        }
-        if (hasGetObjectsWithLengthOffsetRequestPayload(ds3Request)) {
-            return config.getTemplate("request/partial_objects_request_payload.ftl");
-        }
-        if (isCreateObjectRequest(ds3Request)) {
-            return config.getTemplate("request/put_object_request.ftl");
-        }
-        if (isCreateMultiPartUploadPartRequest(ds3Request)) {
-            return config.getTemplate("request/stream_request_payload.ftl");
-        }
-        if (hasSimpleObjectsRequestPayload(ds3Request)) {
-            return config.getTemplate("request/object_names_request_payload.ftl");
-        }
-        if (isMultiFileDeleteRequest(ds3Request)) {
-            return config.getTemplate("request/multi_file_delete_request.ftl");
-        }
-        if (hasIdsRequestPayload(ds3Request)) {
-            return config.getTemplate("request/ids_request_payload.ftl");
-        }
-        if (hasStringRequestPayload(ds3Request)) {
-            return config.getTemplate("request/string_request_payload.ftl");
-        }
-        return config.getTemplate("request/request_template.ftl");
+    private Template getRequestTemplate(final ImmutableSet<Ds3RequestKind> kinds) throws IOException {
+        return config.getTemplate(REQUEST_TEMPLATES.find(kinds)
+                .orElse("request/request_template.ftl"));
     }
 }
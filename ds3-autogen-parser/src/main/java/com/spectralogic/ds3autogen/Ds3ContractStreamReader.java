@@ -0,0 +1,423 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen;
+
+import com.ctc.wstx.stax.WstxInputFactory;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.spectralogic.ds3autogen.api.models.apispec.*;
+import com.spectralogic.ds3autogen.api.models.enums.*;
+import org.codehaus.stax2.XMLInputFactory2;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static com.spectralogic.ds3autogen.utils.ConverterUtil.isEmpty;
+import static com.spectralogic.ds3autogen.utils.NullableVariableUtil.isNullableElement;
+import static com.spectralogic.ds3autogen.utils.NullableVariableUtil.isNullableType;
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+
+/**
+ * Reads a contract with a StAX pull parser, creating the Ds3Requests and Ds3Types
+ * as each RequestHandler and Type element is encountered. This produces the same
+ * un-normalized models as binding the contract to the rawspec models and calling
+ * {@link com.spectralogic.ds3autogen.models.xml.rawspec.Contract#getDs3Requests()} and
+ * {@link com.spectralogic.ds3autogen.models.xml.rawspec.Contract#getDs3Types()},
+ * without holding the intermediate rawspec object graph in memory.
+ */
+final class Ds3ContractStreamReader {
+
+    private static final XMLInputFactory INPUT_FACTORY = initInputFactory();
+
+    private Ds3ContractStreamReader() { }
+
+    private static XMLInputFactory initInputFactory() {
+        final XMLInputFactory factory = new WstxInputFactory();
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory2.P_AUTO_CLOSE_INPUT, true);
+        return factory;
+    }
+
+    /**
+     * Reads a contract into a Ds3ApiSpec whose request and type names have not yet been
+     * converted to SDK names. If the contract does not contain a RequestHandlers or Types
+     * element, then the corresponding value within the spec is null.
+     */
+    static Ds3ApiSpec readContract(final InputStream stream) throws IOException {
+        XMLStreamReader reader = null;
+        try {
+            reader = INPUT_FACTORY.createXMLStreamReader(stream);
+            reader.nextTag(); // Moves to the root 'Data' element
+            Ds3ApiSpec spec = new Ds3ApiSpec(null, null);
+            while (nextChildElement(reader)) {
+                if (reader.getLocalName().equals("Contract")) {
+                    spec = readContractElement(reader);
+                } else {
+                    skipElement(reader);
+                }
+            }
+            return spec;
+        } catch (final XMLStreamException e) {
+            throw new IOException("Could not parse the contract", e);
+        } finally {
+            closeReader(reader);
+        }
+    }
+
+    private static void closeReader(final XMLStreamReader reader) throws IOException {
+        if (reader == null) {
+            return;
+        }
+        try {
+            reader.close();
+        } catch (final XMLStreamException e) {
+            throw new IOException("Could not close the contract reader", e);
+        }
+    }
+
+    /**
+     * Reads the 'Contract' element, converting the request handlers and types
+     * into Ds3Requests and Ds3Types
+     */
+    private static Ds3ApiSpec readContractElement(final XMLStreamReader reader) throws XMLStreamException {
+        ImmutableList<Ds3Request> requests = null;
+        ImmutableMap<String, Ds3Type> types = null;
+        while (nextChildElement(reader)) {
+            switch (reader.getLocalName()) {
+                case "RequestHandlers":
+                    requests = readList(reader, Ds3ContractStreamReader::readRequestHandler);
+                    break;
+                case "Types":
+                    types = readTypes(reader);
+                    break;
+                default:
+                    skipElement(reader);
+                    break;
+            }
+        }
+        return new Ds3ApiSpec(requests, types);
+    }
+
+    /**
+     * Reads the children of the 'Types' element into a map of Ds3Types keyed by type name
+     */
+    private static ImmutableMap<String, Ds3Type> readTypes(final XMLStreamReader reader) throws XMLStreamException {
+        final ImmutableMap.Builder<String, Ds3Type> builder = ImmutableMap.builder();
+        while (nextChildElement(reader)) {
+            final Ds3Type type = readType(reader);
+            builder.put(type.getName(), type);
+        }
+        return builder.build();
+    }
+
+    private static Ds3Request readRequestHandler(final XMLStreamReader reader) throws XMLStreamException {
+        final String name = attribute(reader, "Name");
+        final Classification classification = enumAttribute(reader, "Classification", Classification.class);
+
+        RequestElement request = new RequestElement();
+        ImmutableList<Ds3ResponseCode> responseCodes = ImmutableList.of();
+        while (nextChildElement(reader)) {
+            switch (reader.getLocalName()) {
+                case "Request":
+                    request = readRequest(reader);
+                    break;
+                case "ResponseCodes":
+                    responseCodes = readList(reader, Ds3ContractStreamReader::readResponseCode);
+                    break;
+                default:
+                    skipElement(reader);
+                    break;
+            }
+        }
+
+        return new Ds3Request(
+                name,
+                request.httpVerb,
+                classification,
+                request.bucketRequirement,
+                request.objectRequirement,
+                request.action,
+                request.resource,
+                request.resourceType,
+                request.operation,
+                request.includeIdInPath,
+                responseCodes,
+                request.optionalQueryParams,
+                request.requiredQueryParams);
+    }
+
+    private static RequestElement readRequest(final XMLStreamReader reader) throws XMLStreamException {
+        final RequestElement request = new RequestElement();
+        request.bucketRequirement = enumAttribute(reader, "BucketRequirement", Requirement.class);
+        request.httpVerb = enumAttribute(reader, "HttpVerb", HttpVerb.class);
+        request.objectRequirement = enumAttribute(reader, "ObjectRequirement", Requirement.class);
+        request.action = enumAttribute(reader, "Action", Action.class);
+        request.resource = enumAttribute(reader, "Resource", Resource.class);
+        request.resourceType = enumAttribute(reader, "ResourceType", ResourceType.class);
+        request.operation = enumAttribute(reader, "Operation", Operation.class);
+        request.includeIdInPath = Boolean.parseBoolean(attribute(reader, "IncludeIdInPath"));
+
+        while (nextChildElement(reader)) {
+            switch (reader.getLocalName()) {
+                case "OptionalQueryParams":
+                    request.optionalQueryParams = readList(reader, Ds3ContractStreamReader::readParam);
+                    break;
+                case "RequiredQueryParams":
+                    request.requiredQueryParams = readList(reader, Ds3ContractStreamReader::readParam);
+                    break;
+                default:
+                    skipElement(reader);
+                    break;
+            }
+        }
+        return request;
+    }
+
+    private static Ds3Param readParam(final XMLStreamReader reader) throws XMLStreamException {
+        final String type = attribute(reader, "Type");
+        final Ds3Param param = new Ds3Param(attribute(reader, "Name"), type, isNullableType(type));
+        skipElement(reader);
+        return param;
+    }
+
+    private static Ds3ResponseCode readResponseCode(final XMLStreamReader reader) throws XMLStreamException {
+        int code = 0;
+        ImmutableList<Ds3ResponseType> responseTypes = ImmutableList.of();
+        while (nextChildElement(reader)) {
+            switch (reader.getLocalName()) {
+                case "Code":
+                    code = readInt(reader);
+                    break;
+                case "ResponseTypes":
+                    responseTypes = readList(reader, Ds3ContractStreamReader::readResponseType);
+                    break;
+                default:
+                    skipElement(reader);
+                    break;
+            }
+        }
+        return new Ds3ResponseCode(code, responseTypes);
+    }
+
+    private static Ds3ResponseType readResponseType(final XMLStreamReader reader) throws XMLStreamException {
+        final Ds3ResponseType responseType = new Ds3ResponseType(
+                attribute(reader, "Type"),
+                attribute(reader, "ComponentType"));
+        skipElement(reader);
+        return responseType;
+    }
+
+    private static Ds3Type readType(final XMLStreamReader reader) throws XMLStreamException {
+        final String name = attribute(reader, "Name");
+        final String nameToMarshal = attribute(reader, "NameToMarshal");
+
+        ImmutableList<Ds3Element> elements = null;
+        ImmutableList<Ds3EnumConstant> enumConstants = null;
+        while (nextChildElement(reader)) {
+            switch (reader.getLocalName()) {
+                case "Elements":
+                    elements = readList(reader, Ds3ContractStreamReader::readElement);
+                    break;
+                case "EnumConstants":
+                    enumConstants = readList(reader, Ds3ContractStreamReader::readEnumConstant);
+                    break;
+                default:
+                    skipElement(reader);
+                    break;
+            }
+        }
+        return new Ds3Type(name, nameToMarshal, elements, enumConstants);
+    }
+
+    private static Ds3Element readElement(final XMLStreamReader reader) throws XMLStreamException {
+        final String name = attribute(reader, "Name");
+        final String type = attribute(reader, "Type");
+        final String componentType = attribute(reader, "ComponentType");
+
+        ImmutableList<Ds3Annotation> annotations = null;
+        while (nextChildElement(reader)) {
+            if (reader.getLocalName().equals("Annotations")) {
+                annotations = readList(reader, Ds3ContractStreamReader::readAnnotation);
+            } else {
+                skipElement(reader);
+            }
+        }
+        return new Ds3Element(name, type, componentType, annotations, isNullableElement(type, annotations));
+    }
+
+    private static Ds3Annotation readAnnotation(final XMLStreamReader reader) throws XMLStreamException {
+        final String name = attribute(reader, "Name");
+
+        ImmutableList<Ds3AnnotationElement> annotationElements = null;
+        while (nextChildElement(reader)) {
+            if (reader.getLocalName().equals("AnnotationElements")) {
+                annotationElements = readList(reader, Ds3ContractStreamReader::readAnnotationElement);
+            } else {
+                skipElement(reader);
+            }
+        }
+        return new Ds3Annotation(name, annotationElements);
+    }
+
+    private static Ds3AnnotationElement readAnnotationElement(final XMLStreamReader reader) throws XMLStreamException {
+        final Ds3AnnotationElement annotationElement = new Ds3AnnotationElement(
+                attribute(reader, "Name"),
+                attribute(reader, "Value"),
+                attribute(reader, "ValueType"));
+        skipElement(reader);
+        return annotationElement;
+    }
+
+    private static Ds3EnumConstant readEnumConstant(final XMLStreamReader reader) throws XMLStreamException {
+        final String name = attribute(reader, "Name");
+
+        ImmutableList<Ds3Property> properties = null;
+        while (nextChildElement(reader)) {
+            if (reader.getLocalName().equals("Properties")) {
+                properties = readList(reader, Ds3ContractStreamReader::readProperty);
+            } else {
+                skipElement(reader);
+            }
+        }
+        return new Ds3EnumConstant(name, properties);
+    }
+
+    private static Ds3Property readProperty(final XMLStreamReader reader) throws XMLStreamException {
+        final Ds3Property property = new Ds3Property(
+                attribute(reader, "Name"),
+                attribute(reader, "Value"),
+                attribute(reader, "ValueType"));
+        skipElement(reader);
+        return property;
+    }
+
+    /**
+     * Reads every child of the current wrapper element with the specified element reader.
+     * An empty wrapper element results in an empty list.
+     */
+    private static <T> ImmutableList<T> readList(
+            final XMLStreamReader reader,
+            final ElementReader<T> elementReader) throws XMLStreamException {
+        final ImmutableList.Builder<T> builder = ImmutableList.builder();
+        while (nextChildElement(reader)) {
+            builder.add(elementReader.read(reader));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Advances the reader to the start of the next child element of the current element.
+     * Returns false once the end of the current element has been reached.
+     */
+    private static boolean nextChildElement(final XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case START_ELEMENT:
+                    return true;
+                case END_ELEMENT:
+                    return false;
+                default:
+                    break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Advances the reader past the end of the current element, ignoring all of its content
+     */
+    private static void skipElement(final XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            switch (reader.next()) {
+                case START_ELEMENT:
+                    depth++;
+                    break;
+                case END_ELEMENT:
+                    depth--;
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private static int readInt(final XMLStreamReader reader) throws XMLStreamException {
+        final String text = reader.getElementText().trim();
+        try {
+            return Integer.parseInt(text);
+        } catch (final NumberFormatException e) {
+            throw new XMLStreamException("Expected an integer but found: " + text, reader.getLocation(), e);
+        }
+    }
+
+    /**
+     * Retrieves the value of an attribute on the current element, or null if not present
+     */
+    private static String attribute(final XMLStreamReader reader, final String name) {
+        return reader.getAttributeValue(null, name);
+    }
+
+    /**
+     * Retrieves the value of an attribute on the current element as an enum,
+     * or null if the attribute is not present
+     */
+    private static <E extends Enum<E>> E enumAttribute(
+            final XMLStreamReader reader,
+            final String name,
+            final Class<E> enumClass) throws XMLStreamException {
+        final String value = attribute(reader, name);
+        if (isEmpty(value)) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(enumClass, value);
+        } catch (final IllegalArgumentException e) {
+            throw new XMLStreamException(
+                    "Unknown " + enumClass.getSimpleName() + " value for attribute " + name + ": " + value,
+                    reader.getLocation(),
+                    e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ElementReader<T> {
+        T read(final XMLStreamReader reader) throws XMLStreamException;
+    }
+
+    /**
+     * Holds the attributes and query params of a 'Request' element until
+     * the enclosing request handler has been fully read
+     */
+    private static final class RequestElement {
+        private HttpVerb httpVerb;
+        private Requirement bucketRequirement;
+        private Requirement objectRequirement;
+        private Action action;
+        private Resource resource;
+        private ResourceType resourceType;
+        private Operation operation;
+        private boolean includeIdInPath;
+        private ImmutableList<Ds3Param> optionalQueryParams;
+        private ImmutableList<Ds3Param> requiredQueryParams;
+    }
+}
@@ -16,25 +16,27 @@
 package com.spectralogic.ds3autogen;
 
 import com.google.common.collect.ImmutableList;
+import com.spectralogic.ds3autogen.api.Ds3SpecTransform;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3ApiSpec;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3Request;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3ResponseCode;
+import com.spectralogic.ds3autogen.converters.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import static com.spectralogic.ds3autogen.converters.NameConverter.renameRequests;
-import static com.spectralogic.ds3autogen.converters.RemoveDollarSignConverter.removeDollarSigns;
-import static com.spectralogic.ds3autogen.converters.RemoveSpectraInternalConverter.removeInternalRequestsFromSpec;
-import static com.spectralogic.ds3autogen.converters.ResponseTypeConverter.convertResponseTypes;
-import static com.spectralogic.ds3autogen.converters.UpdateElementsConverter.updateElementsInSpec;
 import static com.spectralogic.ds3autogen.utils.ConverterUtil.hasContent;
 import static com.spectralogic.ds3autogen.utils.ConverterUtil.isEmpty;
 
 
 /**
  * Creates a simple interface from which to launch the various Ds3ApiSpec converters
- * with guaranteed proper order of execution.
+ * with guaranteed proper order of execution. The converters are run as a pipeline of
+ * per-node transforms, so the spec is traversed and rebuilt only once.
  */
 public final class Ds3SpecNormalizer {
 
+    private static final Logger LOG = LoggerFactory.getLogger(Ds3SpecNormalizer.class);
+
     private Ds3SpecNormalizer() { }
 
     /**
@@ -47,12 +49,36 @@ public final class Ds3SpecNormalizer {
     public static Ds3ApiSpec convertSpec(
             final Ds3ApiSpec spec,
             final boolean generateInternal) {
+        return convertSpec(spec, generateInternal, ImmutableList.of());
+    }
+
+    /**
+     * Normalizes the spec to conform to Autogen standards, and then applies the additional
+     * transforms within the same traversal of the spec.
+     * @param spec The spec to be normalized
+     * @param generateInternal Whether the spectra internal requests should be generated
+     * @param additionalTransforms Transforms applied in order after the Autogen normalization
+     * @return Spec with normalized data
+     */
+    public static Ds3ApiSpec convertSpec(
+            final Ds3ApiSpec spec,
+            final boolean generateInternal,
+            final ImmutableList<Ds3SpecTransform> additionalTransforms) {
         verifySingleResponsePayloadRequests(spec.getRequests());
-        return updateElementsInSpec( //Updates Ds3Elements to account for ExcludeFromMarshaler values
-                renameRequests( //Rename requests from RequestHandler to Request
-                convertResponseTypes( //Converts response types with components into new encapsulating types
-                removeDollarSigns( //Converts all type names containing '$' into proper type names
-                removeInternalRequestsFromSpec(spec, generateInternal))))); //Removes/keeps spectra internal requests
+        if (generateInternal) {
+            LOG.info("Generating Spectra Internal requests");
+        } else {
+            LOG.info("Removing Spectra Internal requests from Ds3ApiSpec");
+        }
+        final ImmutableList<Ds3SpecTransform> transforms = ImmutableList.<Ds3SpecTransform>builder()
+                .add(new RemoveSpectraInternalTransform(generateInternal)) //Removes/keeps spectra internal requests
+                .add(new RemoveDollarSignTransform()) //Converts all type names containing '$' into proper type names
+                .add(new ResponseTypeTransform()) //Converts response types with components into new encapsulating types
+                .add(new NameTransform()) //Rename requests from RequestHandler to Request
+                .add(new UpdateElementsTransform()) //Updates Ds3Elements to account for ExcludeFromMarshaler values
+                .addAll(additionalTransforms)
+                .build();
+        return new Ds3SpecTransformPipeline(transforms).apply(spec);
     }
 
     /**
@@ -19,8 +19,16 @@ import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import com.fasterxml.jackson.dataformat.xml.JacksonXmlModule;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.fasterxml.jackson.datatype.guava.GuavaModule;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.spectralogic.ds3autogen.api.Ds3SpecParser;
+import com.spectralogic.ds3autogen.api.Ds3SpecTransform;
+import com.spectralogic.ds3autogen.api.instrumentation.GenerationRecorder;
+import com.spectralogic.ds3autogen.api.instrumentation.Instrumentation;
+import com.spectralogic.ds3autogen.api.instrumentation.PhaseTimer;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3ApiSpec;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3Request;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3Type;
 import com.spectralogic.ds3autogen.models.xml.rawspec.RawSpec;
 
 import java.io.IOException;
@@ -28,6 +36,9 @@ import java.io.InputStream;
 
 public class Ds3SpecParserImpl implements Ds3SpecParser {
 
+    /** The scope that the parsing phases are recorded under */
+    static final String SCOPE = "parser";
+
     private final JacksonXmlModule module;
     private final XmlMapper mapper;
 
@@ -49,17 +60,40 @@ public class Ds3SpecParserImpl implements Ds3SpecParser {
     public Ds3ApiSpec getSpec(
             final InputStream stream,
             final boolean generateInternal) throws IOException {
-        return toSpec(mapper.readValue(stream, RawSpec.class), generateInternal);
+        final RawSpec contract;
+        try (final PhaseTimer timer = Instrumentation.getRecorder().startPhase(SCOPE, "read")) {
+            contract = mapper.readValue(stream, RawSpec.class);
+        }
+        return toSpec(contract, generateInternal);
     }
 
     private static Ds3ApiSpec toSpec(
             final RawSpec contract,
             final boolean generateInternal) throws IOException {
-        final NameMapper nameMapper = new NameMapper();
-        final Ds3ApiSpec ds3ApiSpec = new Ds3ApiSpec(
-                Ds3SpecConverter.convertRequests(contract.getContract().getDs3Requests(), nameMapper),
-                Ds3SpecConverter.convertTypes(contract.getContract().getDs3Types(), nameMapper));
+        return toSpec(
+                contract.getContract().getDs3Requests(),
+                contract.getContract().getDs3Types(),
+                new NameMapper(),
+                generateInternal,
+                ImmutableList.of());
+    }
+
+    /**
+     * Converts the contract names of the requests and types into SDK names, and
+     * normalizes the resulting spec along with any additional transforms
+     */
+    static Ds3ApiSpec toSpec(
+            final ImmutableList<Ds3Request> requests,
+            final ImmutableMap<String, Ds3Type> types,
+            final NameMapper nameMapper,
+            final boolean generateInternal,
+            final ImmutableList<Ds3SpecTransform> additionalTransforms) {
+        final GenerationRecorder recorder = Instrumentation.getRecorder();
+        final Ds3ApiSpec ds3ApiSpec = recorder.timePhase(SCOPE, "nameMapping", () -> new Ds3ApiSpec(
+                Ds3SpecConverter.convertRequests(requests, nameMapper),
+                Ds3SpecConverter.convertTypes(types, nameMapper)));
 
-        return Ds3SpecNormalizer.convertSpec(ds3ApiSpec, generateInternal);
+        return recorder.timePhase(SCOPE, "normalize",
+                () -> Ds3SpecNormalizer.convertSpec(ds3ApiSpec, generateInternal, additionalTransforms));
     }
 }
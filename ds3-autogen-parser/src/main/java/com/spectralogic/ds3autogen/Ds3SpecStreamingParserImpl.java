@@ -0,0 +1,99 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen;
+
+import com.google.common.collect.ImmutableList;
+import com.spectralogic.ds3autogen.api.Ds3SpecParser;
+import com.spectralogic.ds3autogen.api.Ds3SpecTransform;
+import com.spectralogic.ds3autogen.api.instrumentation.Instrumentation;
+import com.spectralogic.ds3autogen.api.instrumentation.PhaseTimer;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3ApiSpec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Supplier;
+
+import static com.spectralogic.ds3autogen.Ds3SpecParserImpl.SCOPE;
+import static com.spectralogic.ds3autogen.Ds3SpecParserImpl.toSpec;
+
+/**
+ * Parses a contract by streaming it through a StAX reader, converting each RequestHandler
+ * and Type element into a Ds3Request or Ds3Type as it is read. Unlike {@link Ds3SpecParserImpl}
+ * the contract is never bound to the intermediate rawspec models, so the memory used while
+ * reading scales with the largest single element instead of the whole contract. The
+ * resulting spec is identical to the one produced by {@link Ds3SpecParserImpl}.
+ */
+public class Ds3SpecStreamingParserImpl implements Ds3SpecParser {
+
+    private final NameMapper nameMapper;
+    private final ImmutableList<Supplier<Ds3SpecTransform>> transformSuppliers;
+
+    /**
+     * Creates a Ds3SpecStreamingParserImpl that loads the default NameMapper each time a spec is parsed
+     */
+    public Ds3SpecStreamingParserImpl() {
+        this(null, ImmutableList.of());
+    }
+
+    /**
+     * Creates a Ds3SpecStreamingParserImpl that converts contract names with the specified NameMapper
+     */
+    public Ds3SpecStreamingParserImpl(final NameMapper nameMapper) {
+        this(nameMapper, ImmutableList.of());
+    }
+
+    /**
+     * Creates a Ds3SpecStreamingParserImpl that converts contract names with the specified NameMapper,
+     * and applies the supplied transforms after the spec is normalized. A new instance of each
+     * transform is retrieved from its supplier for every spec that is parsed.
+     */
+    public Ds3SpecStreamingParserImpl(
+            final NameMapper nameMapper,
+            final ImmutableList<Supplier<Ds3SpecTransform>> transformSuppliers) {
+        this.nameMapper = nameMapper;
+        this.transformSuppliers = transformSuppliers;
+    }
+
+    @Override
+    public Ds3ApiSpec getSpec(final InputStream stream) throws IOException {
+        return getSpec(stream, false); //Defaults to removing Spectra Internal requests from spec
+    }
+
+    @Override
+    public Ds3ApiSpec getSpec(
+            final InputStream stream,
+            final boolean generateInternal) throws IOException {
+        final Ds3ApiSpec contract;
+        try (final PhaseTimer timer = Instrumentation.getRecorder().startPhase(SCOPE, "read")) {
+            contract = Ds3ContractStreamReader.readContract(stream);
+        }
+        return toSpec(
+                contract.getRequests(),
+                contract.getTypes(),
+                nameMapper != null ? nameMapper : new NameMapper(),
+                generateInternal,
+                getTransforms());
+    }
+
+    private ImmutableList<Ds3SpecTransform> getTransforms() {
+        final ImmutableList.Builder<Ds3SpecTransform> builder = ImmutableList.builder();
+        for (final Supplier<Ds3SpecTransform> supplier : transformSuppliers) {
+            builder.add(supplier.get());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.spectralogic.ds3autogen.api.Ds3SpecTransform;
+import com.spectralogic.ds3autogen.api.TypeRenamingConflictException;
+import com.spectralogic.ds3autogen.api.models.apispec.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Applies a list of {@link Ds3SpecTransform} to a Ds3ApiSpec within a single traversal.
+ * Each node is passed through every transform in order before its children are visited,
+ * and a node is only copied if a transform changed it or one of its children. Nodes that
+ * no transform touched are shared with the original spec. Null lists are normalized to
+ * empty lists.
+ */
+public final class Ds3SpecTransformPipeline {
+
+    private final ImmutableList<Ds3SpecTransform> transforms;
+
+    public Ds3SpecTransformPipeline(final ImmutableList<Ds3SpecTransform> transforms) {
+        this.transforms = transforms;
+    }
+
+    /**
+     * Transforms the spec. Types created by a transform are added after the transformed
+     * type map, and are only passed through the transforms that come after it.
+     */
+    public Ds3ApiSpec apply(final Ds3ApiSpec spec) {
+        final ImmutableList<Ds3Request> requests = transformList(
+                spec.getRequests(),
+                request -> transformRequest(request, transforms));
+
+        ImmutableMap<String, Ds3Type> types = transformTypes(spec.getTypes(), transforms);
+        for (int i = 0; i < transforms.size(); i++) {
+            final ImmutableMap<String, Ds3Type> createdTypes = transforms.get(i).createTypes(types);
+            if (createdTypes == null || createdTypes.isEmpty()) {
+                continue;
+            }
+            types = ImmutableMap.<String, Ds3Type>builder()
+                    .putAll(types)
+                    .putAll(transformTypes(createdTypes, transforms.subList(i + 1, transforms.size())))
+                    .build();
+        }
+
+        if (requests == spec.getRequests() && types == spec.getTypes()) {
+            return spec;
+        }
+        return new Ds3ApiSpec(requests, types);
+    }
+
+    /**
+     * Transforms each item of a list, removing items that are transformed into null. The
+     * original list is returned if no item was changed.
+     */
+    private static <T> ImmutableList<T> transformList(final ImmutableList<T> list, final Function<T, T> transform) {
+        if (list == null) {
+            return ImmutableList.of();
+        }
+        ImmutableList.Builder<T> builder = null;
+        for (int i = 0; i < list.size(); i++) {
+            final T original = list.get(i);
+            final T updated = transform.apply(original);
+            if (builder == null && updated != original) {
+                builder = ImmutableList.builder();
+                builder.addAll(list.subList(0, i));
+            }
+            if (builder != null && updated != null) {
+                builder.add(updated);
+            }
+        }
+        return builder == null ? list : builder.build();
+    }
+
+    private static Ds3Request transformRequest(final Ds3Request request, final ImmutableList<Ds3SpecTransform> transforms) {
+        Ds3Request current = request;
+        for (final Ds3SpecTransform transform : transforms) {
+            current = transform.transformRequest(current);
+            if (current == null) {
+                return null;
+            }
+        }
+        final ImmutableList<Ds3ResponseCode> responseCodes = transformList(
+                current.getDs3ResponseCodes(),
+                responseCode -> transformResponseCode(responseCode, transforms));
+        final ImmutableList<Ds3Param> optionalParams = transformList(
+                current.getOptionalQueryParams(),
+                param -> transformParam(param, transforms));
+        final ImmutableList<Ds3Param> requiredParams = transformList(
+                current.getRequiredQueryParams(),
+                param -> transformParam(param, transforms));
+
+        if (responseCodes == current.getDs3ResponseCodes()
+                && optionalParams == current.getOptionalQueryParams()
+                && requiredParams == current.getRequiredQueryParams()) {
+            return current;
+        }
+        return new Ds3Request(
+                current.getName(),
+                current.getHttpVerb(),
+                current.getClassification(),
+                current.getBucketRequirement(),
+                current.getObjectRequirement(),
+                current.getAction(),
+                current.getResource(),
+                current.getResourceType(),
+                current.getOperation(),
+                current.getIncludeInPath(),
+                responseCodes,
+                optionalParams,
+                requiredParams);
+    }
+
+    private static Ds3Param transformParam(final Ds3Param param, final ImmutableList<Ds3SpecTransform> transforms) {
+        Ds3Param current = param;
+        for (final Ds3SpecTransform transform : transforms) {
+            current = transform.transformParam(current);
+        }
+        return current;
+    }
+
+    private static Ds3ResponseCode transformResponseCode(final Ds3ResponseCode responseCode, final ImmutableList<Ds3SpecTransform> transforms) {
+        final ImmutableList<Ds3ResponseType> responseTypes = transformList(
+                responseCode.getDs3ResponseTypes(),
+                responseType -> transformResponseType(responseType, transforms));
+        if (responseTypes == responseCode.getDs3ResponseTypes()) {
+            return responseCode;
+        }
+        return new Ds3ResponseCode(responseCode.getCode(), responseTypes);
+    }
+
+    private static Ds3ResponseType transformResponseType(final Ds3ResponseType responseType, final ImmutableList<Ds3SpecTransform> transforms) {
+        Ds3ResponseType current = responseType;
+        for (final Ds3SpecTransform transform : transforms) {
+            current = transform.transformResponseType(current);
+        }
+        return current;
+    }
+
+    /**
+     * Transforms the keys and values of the type map. If two types are renamed to the same
+     * name, then the duplicate is removed if both types are equal, else an exception is thrown.
+     * @throws TypeRenamingConflictException Exception thrown if a renamed type conflicts with
+     *         a different type of the same name
+     */
+    private static ImmutableMap<String, Ds3Type> transformTypes(
+            final ImmutableMap<String, Ds3Type> types,
+            final ImmutableList<Ds3SpecTransform> transforms) {
+        if (types == null) {
+            return ImmutableMap.of();
+        }
+        boolean changed = false;
+        final Map<String, Ds3Type> result = new LinkedHashMap<>();
+        for (final Map.Entry<String, Ds3Type> entry : types.entrySet()) {
+            String typeName = entry.getKey();
+            for (final Ds3SpecTransform transform : transforms) {
+                typeName = transform.transformTypeName(typeName);
+            }
+            final Ds3Type type = transformType(entry.getValue(), transforms);
+            changed |= !typeName.equals(entry.getKey()) || type != entry.getValue();
+
+            final Ds3Type existingType = result.get(typeName);
+            if (existingType == null) {
+                result.put(typeName, type);
+            } else if (existingType.equals(type)) {
+                changed = true;
+            } else {
+                throw new TypeRenamingConflictException(typeName);
+            }
+        }
+        return changed ? ImmutableMap.copyOf(result) : types;
+    }
+
+    private static Ds3Type transformType(final Ds3Type type, final ImmutableList<Ds3SpecTransform> transforms) {
+        Ds3Type current = type;
+        for (final Ds3SpecTransform transform : transforms) {
+            current = transform.transformType(current);
+        }
+        final ImmutableList<Ds3Element> elements = transformList(
+                current.getElements(),
+                element -> transformElement(element, transforms));
+        if (elements == current.getElements()) {
+            return current;
+        }
+        return new Ds3Type(
+                current.getName(),
+                current.getNameToMarshal(),
+                elements,
+                current.getEnumConstants());
+    }
+
+    private static Ds3Element transformElement(final Ds3Element element, final ImmutableList<Ds3SpecTransform> transforms) {
+        Ds3Element current = element;
+        for (final Ds3SpecTransform transform : transforms) {
+            current = transform.transformElement(current);
+            if (current == null) {
+                return null;
+            }
+        }
+        final ImmutableList<Ds3Annotation> annotations = transformList(
+                current.getDs3Annotations(),
+                annotation -> transformAnnotation(annotation, transforms));
+        if (annotations == current.getDs3Annotations()) {
+            return current;
+        }
+        return new Ds3Element(
+                current.getName(),
+                current.getType(),
+                current.getComponentType(),
+                annotations,
+                current.getNullable());
+    }
+
+    private static Ds3Annotation transformAnnotation(final Ds3Annotation annotation, final ImmutableList<Ds3SpecTransform> transforms) {
+        Ds3Annotation current = annotation;
+        for (final Ds3SpecTransform transform : transforms) {
+            current = transform.transformAnnotation(current);
+        }
+        final ImmutableList<Ds3AnnotationElement> annotationElements = transformList(
+                current.getDs3AnnotationElements(),
+                annotationElement -> transformAnnotationElement(annotationElement, transforms));
+        if (annotationElements == current.getDs3AnnotationElements()) {
+            return current;
+        }
+        return new Ds3Annotation(current.getName(), annotationElements);
+    }
+
+    private static Ds3AnnotationElement transformAnnotationElement(
+            final Ds3AnnotationElement annotationElement,
+            final ImmutableList<Ds3SpecTransform> transforms) {
+        Ds3AnnotationElement current = annotationElement;
+        for (final Ds3SpecTransform transform : transforms) {
+            current = transform.transformAnnotationElement(current);
+        }
+        return current;
+    }
+}
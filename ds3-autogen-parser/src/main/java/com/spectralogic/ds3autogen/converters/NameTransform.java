@@ -0,0 +1,53 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.converters;
+
+import com.spectralogic.ds3autogen.api.Ds3SpecTransform;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3Request;
+
+import java.util.Objects;
+
+import static com.spectralogic.ds3autogen.converters.NameConverter.toUpdatedDs3RequestName;
+
+/**
+ * Renames requests to conform to the module naming scheme and name spacing. This is
+ * the per-node equivalent of {@link NameConverter}.
+ */
+public class NameTransform implements Ds3SpecTransform {
+
+    @Override
+    public Ds3Request transformRequest(final Ds3Request request) {
+        final String name = toUpdatedDs3RequestName(request.getName(), request.getClassification());
+        if (Objects.equals(name, request.getName())) {
+            return request;
+        }
+        return new Ds3Request(
+                name,
+                request.getHttpVerb(),
+                request.getClassification(),
+                request.getBucketRequirement(),
+                request.getObjectRequirement(),
+                request.getAction(),
+                request.getResource(),
+                request.getResourceType(),
+                request.getOperation(),
+                request.getIncludeInPath(),
+                request.getDs3ResponseCodes(),
+                request.getOptionalQueryParams(),
+                request.getRequiredQueryParams());
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.converters;
+
+import com.spectralogic.ds3autogen.api.Ds3SpecTransform;
+import com.spectralogic.ds3autogen.api.models.apispec.*;
+
+import java.util.Objects;
+
+import static com.spectralogic.ds3autogen.converters.RemoveDollarSignConverter.removeDollarSignFromName;
+
+/**
+ * Removes all instances of '$' from request names and type names. This is the
+ * per-node equivalent of {@link RemoveDollarSignConverter}.
+ */
+public class RemoveDollarSignTransform implements Ds3SpecTransform {
+
+    @Override
+    public Ds3Request transformRequest(final Ds3Request request) {
+        final String name = removeDollarSignFromName(request.getName());
+        if (Objects.equals(name, request.getName())) {
+            return request;
+        }
+        return new Ds3Request(
+                name,
+                request.getHttpVerb(),
+                request.getClassification(),
+                request.getBucketRequirement(),
+                request.getObjectRequirement(),
+                request.getAction(),
+                request.getResource(),
+                request.getResourceType(),
+                request.getOperation(),
+                request.getIncludeInPath(),
+                request.getDs3ResponseCodes(),
+                request.getOptionalQueryParams(),
+                request.getRequiredQueryParams());
+    }
+
+    @Override
+    public Ds3Param transformParam(final Ds3Param param) {
+        final String type = removeDollarSignFromName(param.getType());
+        if (Objects.equals(type, param.getType())) {
+            return param;
+        }
+        return new Ds3Param(param.getName(), type, param.getNullable());
+    }
+
+    @Override
+    public Ds3ResponseType transformResponseType(final Ds3ResponseType responseType) {
+        final String type = removeDollarSignFromName(responseType.getType());
+        final String componentType = removeDollarSignFromName(responseType.getComponentType());
+        if (Objects.equals(type, responseType.getType())
+                && Objects.equals(componentType, responseType.getComponentType())) {
+            return responseType;
+        }
+        return new Ds3ResponseType(type, componentType, responseType.getOriginalTypeName());
+    }
+
+    @Override
+    public String transformTypeName(final String typeName) {
+        return removeDollarSignFromName(typeName);
+    }
+
+    @Override
+    public Ds3Type transformType(final Ds3Type type) {
+        final String name = removeDollarSignFromName(type.getName());
+        if (Objects.equals(name, type.getName())) {
+            return type;
+        }
+        return new Ds3Type(name, type.getNameToMarshal(), type.getElements(), type.getEnumConstants());
+    }
+
+    @Override
+    public Ds3Element transformElement(final Ds3Element element) {
+        final String type = removeDollarSignFromName(element.getType());
+        final String componentType = removeDollarSignFromName(element.getComponentType());
+        if (Objects.equals(type, element.getType())
+                && Objects.equals(componentType, element.getComponentType())) {
+            return element;
+        }
+        return new Ds3Element(
+                element.getName(),
+                type,
+                componentType,
+                element.getDs3Annotations(),
+                element.getNullable());
+    }
+
+    @Override
+    public Ds3Annotation transformAnnotation(final Ds3Annotation annotation) {
+        final String name = removeDollarSignFromName(annotation.getName());
+        if (Objects.equals(name, annotation.getName())) {
+            return annotation;
+        }
+        return new Ds3Annotation(name, annotation.getDs3AnnotationElements());
+    }
+
+    @Override
+    public Ds3AnnotationElement transformAnnotationElement(final Ds3AnnotationElement annotationElement) {
+        final String valueType = removeDollarSignFromName(annotationElement.getValueType());
+        if (Objects.equals(valueType, annotationElement.getValueType())) {
+            return annotationElement;
+        }
+        return new Ds3AnnotationElement(annotationElement.getName(), annotationElement.getValue(), valueType);
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.converters;
+
+import com.spectralogic.ds3autogen.api.Ds3SpecTransform;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3Request;
+import com.spectralogic.ds3autogen.api.models.enums.Classification;
+
+/**
+ * Removes Spectra Internal requests unless generateInternal is specified. This is the
+ * per-node equivalent of {@link RemoveSpectraInternalConverter}.
+ */
+public class RemoveSpectraInternalTransform implements Ds3SpecTransform {
+
+    private final boolean generateInternal;
+
+    public RemoveSpectraInternalTransform(final boolean generateInternal) {
+        this.generateInternal = generateInternal;
+    }
+
+    @Override
+    public Ds3Request transformRequest(final Ds3Request request) {
+        if (!generateInternal && request.getClassification() == Classification.spectrainternal) {
+            return null;
+        }
+        return request;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.converters;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.spectralogic.ds3autogen.api.Ds3SpecTransform;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3ResponseType;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3Type;
+import com.spectralogic.ds3autogen.models.EncapsulatingTypeNames;
+
+import static com.spectralogic.ds3autogen.converters.ResponseTypeConverter.toDs3Type;
+import static com.spectralogic.ds3autogen.converters.ResponseTypeConverter.toUpdatedDs3ResponseType;
+import static com.spectralogic.ds3autogen.utils.ConverterUtil.hasContent;
+
+/**
+ * Converts response types with component types into new encapsulating types, which are
+ * added to the spec once all requests have been transformed. This is the per-node
+ * equivalent of {@link ResponseTypeConverter}, and it records the encapsulating types
+ * seen during a traversal, so a new instance must be used for each spec.
+ */
+public class ResponseTypeTransform implements Ds3SpecTransform {
+
+    private final ImmutableSet.Builder<EncapsulatingTypeNames> encapsulatingTypes = ImmutableSet.builder();
+
+    @Override
+    public Ds3ResponseType transformResponseType(final Ds3ResponseType responseType) {
+        if (hasContent(responseType.getComponentType())) {
+            encapsulatingTypes.add(new EncapsulatingTypeNames(
+                    responseType.getComponentType(),
+                    responseType.getOriginalTypeName()));
+        }
+        return toUpdatedDs3ResponseType(responseType);
+    }
+
+    @Override
+    public ImmutableMap<String, Ds3Type> createTypes(final ImmutableMap<String, Ds3Type> types) {
+        final ImmutableMap.Builder<String, Ds3Type> builder = ImmutableMap.builder();
+        for (final EncapsulatingTypeNames encapsulatingType : encapsulatingTypes.build()) {
+            final Ds3Type ds3Type = toDs3Type(encapsulatingType, types);
+            builder.put(ds3Type.getName(), ds3Type);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.converters;
+
+import com.spectralogic.ds3autogen.api.Ds3SpecTransform;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3Element;
+
+import static com.spectralogic.ds3autogen.converters.UpdateElementsConverter.updateElement;
+
+/**
+ * Removes elements marked as exclude-always and marks elements with exclude-when-value-is-null
+ * as nullable. This is the per-node equivalent of {@link UpdateElementsConverter}.
+ */
+public class UpdateElementsTransform implements Ds3SpecTransform {
+
+    @Override
+    public Ds3Element transformElement(final Ds3Element element) {
+        return updateElement(element);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen;
+
+import com.spectralogic.ds3autogen.api.Ds3SpecParser;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3ApiSpec;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3Request;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3Type;
+import com.spectralogic.ds3autogen.api.models.enums.Classification;
+import com.spectralogic.ds3autogen.api.models.enums.HttpVerb;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class Ds3SpecStreamingParserImpl_Test {
+
+    private static final Ds3SpecParser jacksonParser = new Ds3SpecParserImpl();
+    private static final Ds3SpecParser streamingParser = new Ds3SpecStreamingParserImpl();
+
+    /**
+     * Parses the spec resource with both the Jackson and streaming parsers,
+     * and verifies that the resulting specs are identical
+     */
+    private static Ds3ApiSpec assertSameSpec(final String resource, final boolean generateInternal) throws IOException {
+        final Ds3ApiSpec expected = jacksonParser.getSpec(
+                Ds3SpecStreamingParserImpl_Test.class.getResourceAsStream(resource), generateInternal);
+        final Ds3ApiSpec result = streamingParser.getSpec(
+                Ds3SpecStreamingParserImpl_Test.class.getResourceAsStream(resource), generateInternal);
+        assertThat(result, is(expected));
+        return result;
+    }
+
+    @Test
+    public void singleRequestHandler() throws IOException {
+        final Ds3ApiSpec spec = assertSameSpec("/specs/singleRequestHandler.xml", false);
+        assertThat(spec.getRequests().size(), is(1));
+
+        final Ds3Request ds3Request = spec.getRequests().get(0);
+        assertThat(ds3Request.getName(), is("com.spectralogic.s3.server.handler.reqhandler.amazons3.GetObjectRequest"));
+        assertThat(ds3Request.getHttpVerb(), is(HttpVerb.GET));
+        assertThat(ds3Request.getClassification(), is(Classification.amazons3));
+        assertThat(ds3Request.getOptionalQueryParams().size(), is(0));
+        assertThat(ds3Request.getRequiredQueryParams().size(), is(1));
+    }
+
+    @Test
+    public void twoRequestHandlers() throws IOException {
+        assertSameSpec("/specs/twoRequestHandlers.xml", false);
+    }
+
+    @Test
+    public void twoRequestHandlersAndOneType() throws IOException {
+        final Ds3ApiSpec spec = assertSameSpec("/specs/twoRequestHandlersAndOneType.xml", false);
+        assertThat(spec.getTypes().size(), is(1));
+
+        final Ds3Type ds3Type = spec.getTypes().get("com.spectralogic.s3.common.dao.domain.ds3.Priority");
+        assertThat(ds3Type, is(notNullValue()));
+        assertThat(ds3Type.getElements().get(0).getDs3Annotations().size(), is(0));
+        assertThat(ds3Type.getEnumConstants().size(), is(6));
+    }
+
+    @Test
+    public void twoRequestHandlersAndTwoTypes() throws IOException {
+        assertSameSpec("/specs/twoRequestHandlersAndTwoTypes.xml", false);
+    }
+
+    @Test
+    public void blobApiBean() throws IOException {
+        assertSameSpec("/specs/blobApiBean.xml", false);
+    }
+
+    @Test
+    public void fullXml() throws IOException {
+        assertSameSpec("/specs/fullXml.xml", false);
+    }
+
+    @Test
+    public void fullXml_3_2() throws IOException {
+        assertSameSpec("/specs/3_2_fullXml.xml", false);
+    }
+
+    @Test
+    public void fullXml_3_4() throws IOException {
+        assertSameSpec("/specs/3_4_0_contract.xml", false);
+    }
+
+    @Test
+    public void fullXml_3_4_GenerateInternal() throws IOException {
+        assertSameSpec("/specs/3_4_0_contract.xml", true);
+    }
+
+    @Test
+    public void noTypes() throws IOException {
+        final String contract = "<Data><Contract><RequestHandlers/></Contract></Data>";
+        final Ds3ApiSpec spec = streamingParser.getSpec(
+                new ByteArrayInputStream(contract.getBytes(StandardCharsets.UTF_8)));
+        assertThat(spec.getRequests().size(), is(0));
+        assertThat(spec.getTypes().size(), is(0));
+    }
+
+    @Test (expected = IOException.class)
+    public void unknownEnumValue() throws IOException {
+        final String contract = "<Data><Contract><RequestHandlers>"
+                + "<RequestHandler Classification=\"amazons3\" Name=\"com.test.TestRequestHandler\">"
+                + "<Request HttpVerb=\"PATCH\"/>"
+                + "</RequestHandler>"
+                + "</RequestHandlers></Contract></Data>";
+        streamingParser.getSpec(new ByteArrayInputStream(contract.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.spectralogic.ds3autogen.api.Ds3SpecTransform;
+import com.spectralogic.ds3autogen.api.TypeRenamingConflictException;
+import com.spectralogic.ds3autogen.api.models.apispec.*;
+import com.spectralogic.ds3autogen.api.models.enums.Classification;
+import com.spectralogic.ds3autogen.converters.RemoveDollarSignTransform;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static com.spectralogic.ds3autogen.converters.NameConverter.renameRequests;
+import static com.spectralogic.ds3autogen.converters.RemoveDollarSignConverter.removeDollarSigns;
+import static com.spectralogic.ds3autogen.converters.RemoveSpectraInternalConverter.removeInternalRequestsFromSpec;
+import static com.spectralogic.ds3autogen.converters.ResponseTypeConverter.convertResponseTypes;
+import static com.spectralogic.ds3autogen.converters.UpdateElementsConverter.updateElementsInSpec;
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class Ds3SpecTransformPipeline_Test {
+
+    /**
+     * Reads the spec resource and converts the contract names, without normalizing the spec
+     */
+    private static Ds3ApiSpec getConvertedSpec(final String resource) throws IOException {
+        try (final InputStream stream = Ds3SpecTransformPipeline_Test.class.getResourceAsStream(resource)) {
+            final Ds3ApiSpec contract = Ds3ContractStreamReader.readContract(stream);
+            final NameMapper nameMapper = new NameMapper();
+            return new Ds3ApiSpec(
+                    Ds3SpecConverter.convertRequests(contract.getRequests(), nameMapper),
+                    Ds3SpecConverter.convertTypes(contract.getTypes(), nameMapper));
+        }
+    }
+
+    /**
+     * Normalizes the spec by running each converter over the whole spec in sequence
+     */
+    private static Ds3ApiSpec convertSpecSequentially(final Ds3ApiSpec spec, final boolean generateInternal) {
+        return updateElementsInSpec(
+                renameRequests(
+                convertResponseTypes(
+                removeDollarSigns(
+                removeInternalRequestsFromSpec(spec, generateInternal)))));
+    }
+
+    private static void assertSameAsSequential(final String resource, final boolean generateInternal) throws IOException {
+        final Ds3ApiSpec spec = getConvertedSpec(resource);
+        final Ds3ApiSpec expected = convertSpecSequentially(spec, generateInternal);
+        final Ds3ApiSpec result = Ds3SpecNormalizer.convertSpec(spec, generateInternal);
+        assertThat(result.getRequests(), is(expected.getRequests()));
+        assertThat(ImmutableList.copyOf(result.getTypes().entrySet()), is(ImmutableList.copyOf(expected.getTypes().entrySet())));
+    }
+
+    @Test
+    public void convertSpec_MatchesSequentialConverters_Test() throws IOException {
+        final String[] resources = {
+                "/specs/singleRequestHandler.xml",
+                "/specs/twoRequestHandlers.xml",
+                "/specs/twoRequestHandlersAndOneType.xml",
+                "/specs/twoRequestHandlersAndTwoTypes.xml",
+                "/specs/blobApiBean.xml",
+                "/specs/fullXml.xml",
+                "/specs/3_2_fullXml.xml",
+                "/specs/3_4_0_contract.xml" };
+        for (final String resource : resources) {
+            assertSameAsSequential(resource, false);
+            assertSameAsSequential(resource, true);
+        }
+    }
+
+    @Test
+    public void apply_UntouchedNodesAreShared_Test() {
+        final Ds3Type untouchedType = new Ds3Type(
+                "com.test.Untouched",
+                null,
+                ImmutableList.of(new Ds3Element("Name", "java.lang.String", null, ImmutableList.of(), false)),
+                ImmutableList.of());
+        final Ds3Type renamedType = new Ds3Type(
+                "com.test.Outer$Renamed",
+                null,
+                ImmutableList.of(),
+                ImmutableList.of());
+        final Ds3ApiSpec spec = new Ds3ApiSpec(
+                ImmutableList.of(),
+                ImmutableMap.of(
+                        untouchedType.getName(), untouchedType,
+                        renamedType.getName(), renamedType));
+
+        final Ds3ApiSpec result = new Ds3SpecTransformPipeline(
+                ImmutableList.of(new RemoveDollarSignTransform())).apply(spec);
+
+        assertThat(result.getTypes().get("com.test.Untouched"), is(sameInstance(untouchedType)));
+        assertThat(result.getTypes().get("com.test.Renamed").getName(), is("com.test.Renamed"));
+        assertThat(result.getTypes().get("com.test.Renamed").getElements(), is(sameInstance(renamedType.getElements())));
+
+        final Ds3ApiSpec unchanged = new Ds3ApiSpec(ImmutableList.of(), ImmutableMap.of(untouchedType.getName(), untouchedType));
+        assertThat(new Ds3SpecTransformPipeline(ImmutableList.of(new RemoveDollarSignTransform())).apply(unchanged),
+                is(sameInstance(unchanged)));
+    }
+
+    @Test (expected = TypeRenamingConflictException.class)
+    public void apply_TypeRenamingConflict_Test() {
+        final Ds3Type type1 = new Ds3Type("com.test.Type", null, ImmutableList.of(), ImmutableList.of());
+        final Ds3Type type2 = new Ds3Type("com.test.Outer$Type", "Other", ImmutableList.of(), ImmutableList.of());
+        final Ds3ApiSpec spec = new Ds3ApiSpec(
+                ImmutableList.of(),
+                ImmutableMap.of(type1.getName(), type1, type2.getName(), type2));
+
+        new Ds3SpecTransformPipeline(ImmutableList.of(new RemoveDollarSignTransform())).apply(spec);
+    }
+
+    @Test
+    public void convertSpec_AdditionalTransform_Test() throws IOException {
+        final Ds3SpecTransform markAllNullable = new Ds3SpecTransform() {
+            @Override
+            public Ds3Element transformElement(final Ds3Element element) {
+                if (element.getNullable()) {
+                    return element;
+                }
+                return new Ds3Element(
+                        element.getName(),
+                        element.getType(),
+                        element.getComponentType(),
+                        element.getDs3Annotations(),
+                        true);
+            }
+
+            @Override
+            public Ds3Request transformRequest(final Ds3Request request) {
+                //Runs after the requests have been renamed
+                assertThat(request.getName().endsWith("Handler"), is(false));
+                return request;
+            }
+        };
+
+        final Ds3ApiSpec spec = Ds3SpecNormalizer.convertSpec(
+                getConvertedSpec("/specs/fullXml.xml"),
+                false,
+                ImmutableList.of(markAllNullable));
+
+        for (final Ds3Request request : spec.getRequests()) {
+            assertThat(request.getClassification(), is(not(Classification.spectrainternal)));
+        }
+        for (final Ds3Type type : spec.getTypes().values()) {
+            for (final Ds3Element element : type.getElements()) {
+                assertThat(element.getNullable(), is(true));
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.benchmark;
+
+import com.spectralogic.ds3autogen.Ds3SpecParserImpl;
+import com.spectralogic.ds3autogen.Ds3SpecStreamingParserImpl;
+import com.spectralogic.ds3autogen.api.Ds3SpecParser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compares the parse time and allocated bytes of the Jackson based {@link Ds3SpecParserImpl}
+ * against the {@link Ds3SpecStreamingParserImpl} for every contract within a directory.
+ * Run with: ./gradlew ds3-autogen-parser:benchmarkParser
+ */
+public final class ContractParserBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 10;
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private ContractParserBenchmark() { }
+
+    public static void main(final String[] args) throws IOException {
+        final Path contractDir = Paths.get(args.length > 0 ? args[0] : "contracts");
+        final Ds3SpecParser jacksonParser = new Ds3SpecParserImpl();
+        final Ds3SpecParser streamingParser = new Ds3SpecStreamingParserImpl();
+
+        System.out.println(String.format("%-30s %-10s %12s %16s", "Contract", "Parser", "Avg ms", "Avg alloc MB"));
+        for (final Path contract : getContracts(contractDir)) {
+            final byte[] contents = Files.readAllBytes(contract);
+            printResult(contract, "jackson", measure(jacksonParser, contents));
+            printResult(contract, "streaming", measure(streamingParser, contents));
+        }
+    }
+
+    private static List<Path> getContracts(final Path contractDir) throws IOException {
+        final List<Path> contracts = new ArrayList<>();
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(contractDir, "*.xml")) {
+            for (final Path contract : stream) {
+                contracts.add(contract);
+            }
+        }
+        Collections.sort(contracts);
+        return contracts;
+    }
+
+    /**
+     * Parses the contract repeatedly and returns the average nanoseconds and allocated bytes per parse
+     */
+    private static long[] measure(final Ds3SpecParser parser, final byte[] contents) throws IOException {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            parser.getSpec(new ByteArrayInputStream(contents));
+        }
+
+        final long threadId = Thread.currentThread().getId();
+        final long startBytes = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+        final long startNanos = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            parser.getSpec(new ByteArrayInputStream(contents));
+        }
+        final long elapsedNanos = System.nanoTime() - startNanos;
+        final long allocatedBytes = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - startBytes;
+
+        return new long[] { elapsedNanos / MEASURED_ITERATIONS, allocatedBytes / MEASURED_ITERATIONS };
+    }
+
+    private static void printResult(final Path contract, final String parserName, final long[] result) {
+        System.out.println(String.format("%-30s %-10s %12.2f %16.2f",
+                contract.getFileName(),
+                parserName,
+                result[0] / 1_000_000.0,
+                result[1] / (1024.0 * 1024.0)));
+    }
+}
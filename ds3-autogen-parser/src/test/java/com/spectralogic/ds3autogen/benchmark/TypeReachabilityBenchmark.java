@@ -0,0 +1,115 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.spectralogic.ds3autogen.Ds3SpecStreamingParserImpl;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3ApiSpec;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3Request;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3Type;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3TypeDependencyIndex;
+import com.spectralogic.ds3autogen.utils.ConverterUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Compares the previous fixpoint implementation of finding the used types, which rebuilt and
+ * re-scanned the set of used types on every pass, against the worklist traversal of the
+ * {@link Ds3TypeDependencyIndex} used by {@link ConverterUtil#removeUnusedTypes}.
+ * Run with: ./gradlew ds3-autogen-parser:benchmarkTypeReachability
+ */
+public final class TypeReachabilityBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 1000;
+
+    private TypeReachabilityBenchmark() { }
+
+    public static void main(final String[] args) throws IOException {
+        final Path contract = Paths.get(args.length > 0 ? args[0] : "contracts/4_0_0_contract.xml");
+        final Ds3ApiSpec spec;
+        try (final InputStream inputStream = Files.newInputStream(contract)) {
+            spec = new Ds3SpecStreamingParserImpl().getSpec(inputStream, true);
+        }
+
+        final ImmutableSet<String> fixpointResult = fixpointUsedTypes(spec.getTypes(), spec.getRequests());
+        final ImmutableSet<String> worklistResult = new Ds3TypeDependencyIndex(spec.getTypes()).getTypesRequiredBy(spec.getRequests());
+        if (!fixpointResult.equals(worklistResult)) {
+            throw new IllegalStateException("The fixpoint and worklist implementations found different used types");
+        }
+
+        System.out.println(String.format("%s: %d requests, %d types, %d used types",
+                contract.getFileName(), spec.getRequests().size(), spec.getTypes().size(), worklistResult.size()));
+        System.out.println(String.format("%-30s %12s", "Implementation", "Avg us"));
+        printResult("fixpoint", measure(() -> fixpointUsedTypes(spec.getTypes(), spec.getRequests())));
+        printResult("worklist (new index)", measure(() -> ConverterUtil.removeUnusedTypes(spec.getTypes(), spec.getRequests())));
+        printResult("worklist (spec index)", measure(() -> ConverterUtil.removeUnusedTypes(spec)));
+    }
+
+    /**
+     * Runs the task repeatedly and returns the average nanoseconds per run
+     */
+    private static long measure(final Runnable task) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            task.run();
+        }
+        final long startNanos = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            task.run();
+        }
+        return (System.nanoTime() - startNanos) / MEASURED_ITERATIONS;
+    }
+
+    private static void printResult(final String name, final long nanos) {
+        System.out.println(String.format("%-30s %12.2f", name, nanos / 1_000.0));
+    }
+
+    /**
+     * The previous implementation: repeatedly rebuilds the set of used types and re-scans
+     * every type within it until no new types are found
+     */
+    private static ImmutableSet<String> fixpointUsedTypes(
+            final ImmutableMap<String, Ds3Type> typeMap,
+            final ImmutableList<Ds3Request> requests) {
+        final ImmutableSet.Builder<String> rootBuilder = ImmutableSet.builder();
+        for (final Ds3Request request : requests) {
+            rootBuilder.addAll(Ds3TypeDependencyIndex.typesUsedByRequest(request));
+        }
+        ImmutableSet<String> usedTypes = rootBuilder.build();
+        while (true) {
+            final ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+            builder.addAll(usedTypes);
+            for (final String type : usedTypes) {
+                final Ds3Type ds3Type = typeMap.get(type);
+                if (ds3Type != null) {
+                    builder.addAll(Ds3TypeDependencyIndex.typesUsedByType(ds3Type));
+                }
+            }
+            final ImmutableSet<String> newUsedTypes = builder.build();
+            if (newUsedTypes.size() == usedTypes.size()) {
+                return newUsedTypes;
+            }
+            usedTypes = newUsedTypes;
+        }
+    }
+}
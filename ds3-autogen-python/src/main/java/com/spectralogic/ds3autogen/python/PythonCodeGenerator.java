@@ -19,6 +19,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.spectralogic.ds3autogen.api.CodeGenerator;
 import com.spectralogic.ds3autogen.api.FileUtils;
+import com.spectralogic.ds3autogen.api.instrumentation.Instrumentation;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3ApiSpec;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3Request;
 import com.spectralogic.ds3autogen.api.models.apispec.Ds3Type;
@@ -36,6 +37,8 @@ import com.spectralogic.ds3autogen.python.model.request.BaseRequest;
 import com.spectralogic.ds3autogen.python.model.response.BaseResponse;
 import com.spectralogic.ds3autogen.python.model.type.TypeDescriptor;
 import com.spectralogic.ds3autogen.utils.Helper;
+import com.spectralogic.ds3autogen.utils.InstrumentedTemplates;
+import com.spectralogic.ds3autogen.utils.TemplateRegistry;
 import com.spectralogic.ds3autogen.utils.collections.GuavaCollectors;
 import freemarker.template.*;
 import org.slf4j.Logger;
@@ -58,33 +61,38 @@ public class PythonCodeGenerator implements CodeGenerator, PythonCodeGeneratorIn
     private static final Logger LOG = LoggerFactory.getLogger(PythonCodeGenerator.class);
     private static final Path BASE_PROJECT_PATH = Paths.get("ds3");
 
-    private final Configuration config = new Configuration(Configuration.VERSION_2_3_23);
+    private final Configuration config;
 
     private FileUtils fileUtils;
     private Path destDir;
 
     public PythonCodeGenerator() throws TemplateModelException {
-        config.setDefaultEncoding("UTF-8");
-        config.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
-        config.setClassForTemplateLoading(PythonCodeGenerator.class, "/tmpls");
-        config.setSharedVariable("pythonHelper", PythonHelper.getInstance());
-        config.setSharedVariable("helper", Helper.getInstance());
+        config = TemplateRegistry.getDefault().getConfiguration(PythonCodeGenerator.class, "/tmpls", getTemplateDirectories(), cfg -> {
+            cfg.setSharedVariable("pythonHelper", PythonHelper.getInstance());
+            cfg.setSharedVariable("helper", Helper.getInstance());
+        });
+    }
+
+    /**
+     * Retrieves the template directories, relative to the template base path, used by this generator
+     */
+    protected ImmutableList<String> getTemplateDirectories() {
+        return ImmutableList.of("python");
     }
 
     @Override
-    public void generate(final Ds3ApiSpec spec, final FileUtils fileUtils, final Path destDir, final Ds3DocSpec docSpec) {
+    public void generate(final Ds3ApiSpec spec, final FileUtils fileUtils, final Path destDir, final Ds3DocSpec docSpec) throws IOException {
         this.fileUtils = fileUtils;
         this.destDir = destDir;
 
         try {
             final ImmutableList<Ds3Request> requests = spec.getRequests();
-            final ImmutableMap<String, Ds3Type> typeMap = removeUnusedTypes(
-                    spec.getTypes(),
-                    spec.getRequests());
+            final ImmutableMap<String, Ds3Type> typeMap = Instrumentation.getRecorder()
+                    .timePhase(getScope(), "removeUnusedTypes", () -> removeUnusedTypes(spec));
 
             generateCommands(requests, typeMap, docSpec);
-        } catch (final Exception e) {
-            LOG.error("Unable to generate Python SDK code", e);
+        } catch (final TemplateException e) {
+            throw new IOException("Unable to generate Python SDK code", e);
         }
     }
 
@@ -102,12 +110,13 @@ public class PythonCodeGenerator implements CodeGenerator, PythonCodeGeneratorIn
             return;
         }
 
-        final ImmutableList<BaseRequest> baseRequests = toRequestModelList(ds3Requests, docSpec);
-        final ImmutableList<BaseResponse> baseResponses = toResponseModelList(ds3Requests);
-        final ImmutableList<TypeDescriptor> baseTypes = toTypeDescriptorList(typeMap);
-        final ImmutableList<BaseClient> clientCommands = toClientCommands(ds3Requests, docSpec);
-
-        final CommandSet commandSet = new CommandSet(baseRequests, baseResponses, baseTypes, clientCommands);
+        final CommandSet commandSet = Instrumentation.getRecorder().timePhase(getScope(), "convertModels", () -> {
+            final ImmutableList<BaseRequest> baseRequests = toRequestModelList(ds3Requests, docSpec);
+            final ImmutableList<BaseResponse> baseResponses = toResponseModelList(ds3Requests);
+            final ImmutableList<TypeDescriptor> baseTypes = toTypeDescriptorList(typeMap);
+            final ImmutableList<BaseClient> clientCommands = toClientCommands(ds3Requests, docSpec);
+            return new CommandSet(baseRequests, baseResponses, baseTypes, clientCommands);
+        });
 
         final Template tmpl = getCommandTemplate(config);
         final Path path = toBaseProjectPath("ds3.py");
@@ -116,10 +125,17 @@ public class PythonCodeGenerator implements CodeGenerator, PythonCodeGeneratorIn
 
         try (final OutputStream outStream = fileUtils.getOutputFile(path);
              final Writer writer = new OutputStreamWriter(outStream)) {
-            tmpl.process(commandSet, writer);
+            InstrumentedTemplates.process(getScope(), tmpl, commandSet, writer);
         }
     }
 
+    /**
+     * Retrieves the name that measurements are recorded under, which distinguishes subclasses
+     */
+    private String getScope() {
+        return getClass().getSimpleName();
+    }
+
     /**
      * Retrieves the base command template used to generate ds3.py
      */
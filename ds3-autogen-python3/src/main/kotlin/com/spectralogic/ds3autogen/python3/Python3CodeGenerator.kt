@@ -15,6 +15,7 @@
 
 package com.spectralogic.ds3autogen.python3
 
+import com.google.common.collect.ImmutableList
 import com.spectralogic.ds3autogen.python.PythonCodeGenerator
 import com.spectralogic.ds3autogen.python.generators.request.BaseRequestGenerator
 import com.spectralogic.ds3autogen.python3.generators.request.P3PutObjectRequestGenerator
@@ -23,6 +24,14 @@ import freemarker.template.Template
 
 class Python3CodeGenerator() : PythonCodeGenerator() {
 
+    /**
+     * Retrieves the template directories used by the Python 3 generator, which also
+     * uses the Python templates
+     */
+    override fun getTemplateDirectories(): ImmutableList<String> {
+        return ImmutableList.of("python", "python3")
+    }
+
     /**
      * Retrieves the base command template used to generate the Python 3 ds3.py
      */
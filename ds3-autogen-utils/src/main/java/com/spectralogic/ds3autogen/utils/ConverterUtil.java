@@ -28,7 +28,6 @@ import java.util.Map;
 public final class ConverterUtil {
 
     private static final Logger LOG = LoggerFactory.getLogger(ConverterUtil.class);
-    private static final String CONTRACT_DEFINED_TYPE = "com.spectralogic.";
 
     private ConverterUtil() { }
 
@@ -84,11 +83,27 @@ public final class ConverterUtil {
         if (isEmpty(types) || isEmpty(requests)) {
             return ImmutableMap.of();
         }
+        return removeUnusedTypes(types, requests, new Ds3TypeDependencyIndex(types));
+    }
+
+    /**
+     * Removes all unused types from the spec's Ds3Type map using the spec's type dependency
+     * index, which is only computed once per spec.
+     * @param spec A Ds3ApiSpec
+     */
+    public static ImmutableMap<String, Ds3Type> removeUnusedTypes(final Ds3ApiSpec spec) {
+        if (isEmpty(spec.getTypes()) || isEmpty(spec.getRequests())) {
+            return ImmutableMap.of();
+        }
+        return removeUnusedTypes(spec.getTypes(), spec.getRequests(), spec.getTypeDependencyIndex());
+    }
 
-        final ImmutableSet.Builder<String> usedTypesBuilder = ImmutableSet.builder();
-        usedTypesBuilder.addAll(getUsedTypesFromRequests(requests));
-        usedTypesBuilder.addAll(getUsedTypesFromAllTypes(types, usedTypesBuilder.build()));
-        final ImmutableSet<String> usedTypes = usedTypesBuilder.build();
+    private static ImmutableMap<String, Ds3Type> removeUnusedTypes(
+            final ImmutableMap<String, Ds3Type> types,
+            final ImmutableList<Ds3Request> requests,
+            final Ds3TypeDependencyIndex index) {
+        final ImmutableSet<String> usedTypes = index.getTypesRequiredBy(requests);
+        logMissingTypes(usedTypes, index);
 
         final ImmutableMap.Builder<String, Ds3Type> builder = ImmutableMap.builder();
         for (final Map.Entry<String, Ds3Type> entry : types.entrySet()) {
@@ -108,43 +123,30 @@ public final class ConverterUtil {
         if (isEmpty(usedTypes) || isEmpty(typeMap)) {
             return ImmutableSet.of();
         }
-        final ImmutableSet.Builder<String> builder = ImmutableSet.builder();
-        builder.addAll(usedTypes);
+        final Ds3TypeDependencyIndex index = new Ds3TypeDependencyIndex(typeMap);
+        final ImmutableSet<String> reachableTypes = index.getReachableTypes(usedTypes);
+        logMissingTypes(reachableTypes, index);
+        return reachableTypes;
+    }
+
+    /**
+     * Logs the used types that are not within the type map
+     */
+    private static void logMissingTypes(final ImmutableSet<String> usedTypes, final Ds3TypeDependencyIndex index) {
         for (final String type : usedTypes) {
-            final Ds3Type ds3Type = typeMap.get(type);
-            if (ds3Type != null) {
-                builder.addAll(getUsedTypesFromType(ds3Type));
-            } else {
+            if (!index.containsType(type)) {
                 //Log but do not throw an exception because there are cases where a type
                 //doesn't need to be generated. Especially true during testing.
                 LOG.error("Could not find used type in Type Map: " + type);
             }
         }
-        final ImmutableSet<String> newUsedTypes = builder.build();
-        if (newUsedTypes.size() > usedTypes.size()) {
-            return getUsedTypesFromAllTypes(typeMap, newUsedTypes);
-        }
-        return newUsedTypes;
     }
 
     /**
      * Gets a set of type names used within a Ds3Type
      */
     protected static ImmutableSet<String> getUsedTypesFromType(final Ds3Type ds3Type) {
-        if (isEnum(ds3Type) || isEmpty(ds3Type.getElements())) {
-            return ImmutableSet.of();
-        }
-        final ImmutableSet.Builder<String> builder = ImmutableSet.builder();
-        for (final Ds3Element ds3Element : ds3Type.getElements()) {
-            if (includeType(ds3Element.getType())) {
-                builder.add(ds3Element.getType());
-            }
-            if (hasContent(ds3Element.getComponentType())
-                    && includeType(ds3Element.getComponentType())) {
-                builder.add(ds3Element.getComponentType());
-            }
-        }
-        return builder.build();
+        return Ds3TypeDependencyIndex.typesUsedByType(ds3Type);
     }
 
     /**
@@ -158,7 +160,7 @@ public final class ConverterUtil {
      * Determines if a type name is a Spectra defined type
      */
     protected static boolean includeType(final String type) {
-        return hasContent(type) && type.startsWith(CONTRACT_DEFINED_TYPE);
+        return Ds3TypeDependencyIndex.isContractDefinedType(type);
     }
 
     /**
@@ -171,9 +173,7 @@ public final class ConverterUtil {
         }
         final ImmutableSet.Builder<String> builder = ImmutableSet.builder();
         for (final Ds3Request request : requests) {
-            builder.addAll(getUsedTypesFromParams(request.getRequiredQueryParams()));
-            builder.addAll(getUsedTypesFromParams(request.getOptionalQueryParams()));
-            builder.addAll(getUsedTypesFromResponseCodes(request.getDs3ResponseCodes()));
+            builder.addAll(Ds3TypeDependencyIndex.typesUsedByRequest(request));
         }
         return builder.build();
     }
@@ -182,48 +182,21 @@ public final class ConverterUtil {
      * Gets a set of type names used within a list of Ds3Params
      */
     protected static ImmutableSet<String> getUsedTypesFromParams(final ImmutableList<Ds3Param> params) {
-        if (isEmpty(params)) {
-            return ImmutableSet.of();
-        }
-        final ImmutableSet.Builder<String> builder = ImmutableSet.builder();
-        for (final Ds3Param param : params) {
-            if (includeType(param.getType())) {
-                builder.add(param.getType());
-            }
-        }
-        return builder.build();
+        return Ds3TypeDependencyIndex.typesUsedByParams(params);
     }
 
     /**
      * Gets a set of type names used within a list of Ds3ResponseCodes
      */
     protected static ImmutableSet<String> getUsedTypesFromResponseCodes(final ImmutableList<Ds3ResponseCode> responseCodes){
-        if (isEmpty(responseCodes)) {
-            return ImmutableSet.of();
-        }
-        final ImmutableSet.Builder<String> builder = ImmutableSet.builder();
-        for (final Ds3ResponseCode responseCode : responseCodes) {
-            if (hasContent(responseCode.getDs3ResponseTypes())) {
-                builder.addAll(getUsedTypesFromResponseTypes(responseCode.getDs3ResponseTypes()));
-            }
-        }
-        return builder.build();
+        return Ds3TypeDependencyIndex.typesUsedByResponseCodes(responseCodes);
     }
 
     /**
      * Gets a set of type names used within a list of Ds3ResponseTypes
      */
     protected static ImmutableSet<String> getUsedTypesFromResponseTypes(final ImmutableList<Ds3ResponseType> responseTypes) {
-        if (isEmpty(responseTypes)) {
-            return ImmutableSet.of();
-        }
-        final ImmutableSet.Builder<String> builder = ImmutableSet.builder();
-        for (final Ds3ResponseType responseType : responseTypes) {
-            if (includeResponseType(responseType)) {
-                builder.add(getTypeFromResponseType(responseType));
-            }
-        }
-        return builder.build();
+        return Ds3TypeDependencyIndex.typesUsedByResponseTypes(responseTypes);
     }
 
     /**
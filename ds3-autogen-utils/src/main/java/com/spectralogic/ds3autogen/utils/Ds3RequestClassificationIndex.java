@@ -0,0 +1,121 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.utils;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3Request;
+import com.spectralogic.ds3autogen.utils.models.Ds3RequestKind;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.spectralogic.ds3autogen.utils.ConverterUtil.isEmpty;
+
+/**
+ * Classifies every request within a spec once, so that code generators can dispatch on the
+ * precomputed {@link Ds3RequestKind}s of a request instead of re-evaluating the
+ * {@link Ds3RequestClassificationUtil} predicates for every template and generator lookup.
+ */
+public final class Ds3RequestClassificationIndex {
+
+    private final ImmutableMap<String, ImmutableSet<Ds3RequestKind>> kindsByName;
+
+    private Ds3RequestClassificationIndex(final ImmutableMap<String, ImmutableSet<Ds3RequestKind>> kindsByName) {
+        this.kindsByName = kindsByName;
+    }
+
+    /**
+     * Creates the classification index for the specified requests. If two requests share
+     * a name, the first one is indexed.
+     */
+    public static Ds3RequestClassificationIndex of(final ImmutableList<Ds3Request> ds3Requests) {
+        if (isEmpty(ds3Requests)) {
+            return new Ds3RequestClassificationIndex(ImmutableMap.of());
+        }
+        final Map<String, ImmutableSet<Ds3RequestKind>> kindsByName = new LinkedHashMap<>();
+        for (final Ds3Request ds3Request : ds3Requests) {
+            kindsByName.computeIfAbsent(ds3Request.getName(), name -> classify(ds3Request));
+        }
+        return new Ds3RequestClassificationIndex(ImmutableMap.copyOf(kindsByName));
+    }
+
+    /**
+     * Evaluates every {@link Ds3RequestKind} against the specified request
+     * @return The kinds the request matches, which is empty for requests that are not special cased
+     */
+    public static ImmutableSet<Ds3RequestKind> classify(final Ds3Request ds3Request) {
+        final EnumSet<Ds3RequestKind> kinds = EnumSet.noneOf(Ds3RequestKind.class);
+        for (final Ds3RequestKind kind : Ds3RequestKind.values()) {
+            if (kind.matches(ds3Request)) {
+                kinds.add(kind);
+            }
+        }
+        return Sets.immutableEnumSet(kinds);
+    }
+
+    /**
+     * Retrieves the kinds of the specified request. Requests that were not part of the
+     * indexed spec are classified on demand.
+     */
+    public ImmutableSet<Ds3RequestKind> getKinds(final Ds3Request ds3Request) {
+        final ImmutableSet<Ds3RequestKind> kinds = kindsByName.get(ds3Request.getName());
+        if (kinds != null) {
+            return kinds;
+        }
+        return classify(ds3Request);
+    }
+
+    /**
+     * Determines if the specified request is of the specified kind
+     */
+    public boolean is(final Ds3Request ds3Request, final Ds3RequestKind kind) {
+        return getKinds(ds3Request).contains(kind);
+    }
+
+    /**
+     * Retrieves the number of indexed requests
+     */
+    public int size() {
+        return kindsByName.size();
+    }
+
+    /**
+     * Creates a table of every indexed request and its kinds, with one request per line,
+     * which is used to inspect how the generators will treat each request. Requests that
+     * are not special cased are listed with a kind of "-".
+     */
+    public String dump() {
+        final int nameWidth = kindsByName.keySet().stream()
+                .mapToInt(String::length)
+                .max()
+                .orElse(0);
+        final StringBuilder builder = new StringBuilder();
+        for (final Map.Entry<String, ImmutableSet<Ds3RequestKind>> entry : kindsByName.entrySet()) {
+            builder.append(String.format("%-" + Math.max(nameWidth, 1) + "s  ", entry.getKey()))
+                    .append(entry.getValue().isEmpty() ? "-" : entry.getValue().stream()
+                            .map(Ds3RequestKind::name)
+                            .collect(Collectors.joining(", ")))
+                    .append(System.lineSeparator());
+        }
+        return builder.toString();
+    }
+}
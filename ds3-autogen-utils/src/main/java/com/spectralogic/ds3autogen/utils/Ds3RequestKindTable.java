@@ -0,0 +1,136 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+package com.spectralogic.ds3autogen.utils;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3Request;
+import com.spectralogic.ds3autogen.utils.models.Ds3RequestKind;
+
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * An ordered table of the values, such as templates or model generators, that code generators
+ * select for a request based on its {@link Ds3RequestKind}s. The first entry the request matches
+ * is selected, so entries must be listed from the most to the least specific. A request that
+ * matches no entry is left to the caller's default.
+ */
+public final class Ds3RequestKindTable<T> {
+
+    private final ImmutableList<Entry<T>> entries;
+    private final boolean hasConditions;
+
+    private Ds3RequestKindTable(final ImmutableList<Entry<T>> entries) {
+        this.entries = entries;
+        this.hasConditions = entries.stream().anyMatch(entry -> entry.condition != null);
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Retrieves the value of the first entry that matches a request of the specified kinds.
+     * Tables with entries that are conditioned on the request must use {@link #find(Ds3Request, ImmutableSet)}.
+     */
+    public Optional<T> find(final ImmutableSet<Ds3RequestKind> kinds) {
+        if (hasConditions) {
+            throw new IllegalStateException("This table has entries that are conditioned on the request, which must be specified");
+        }
+        return find(null, kinds);
+    }
+
+    /**
+     * Retrieves the value of the first entry that matches the specified request of the specified kinds
+     */
+    public Optional<T> find(final Ds3Request ds3Request, final ImmutableSet<Ds3RequestKind> kinds) {
+        for (final Entry<T> entry : entries) {
+            if (entry.matches(ds3Request, kinds)) {
+                return Optional.of(entry.value);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Retrieves the number of entries in the table
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private static final class Entry<T> {
+        private final ImmutableSet<Ds3RequestKind> anyOf;
+        private final Predicate<Ds3Request> condition;
+        private final T value;
+
+        private Entry(final ImmutableSet<Ds3RequestKind> anyOf, final Predicate<Ds3Request> condition, final T value) {
+            this.anyOf = anyOf;
+            this.condition = condition;
+            this.value = value;
+        }
+
+        private boolean matches(final Ds3Request ds3Request, final ImmutableSet<Ds3RequestKind> kinds) {
+            if (anyOf.stream().noneMatch(kinds::contains)) {
+                return false;
+            }
+            return condition == null || condition.test(ds3Request);
+        }
+    }
+
+    public static final class Builder<T> {
+        private final ImmutableList.Builder<Entry<T>> entries = ImmutableList.builder();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds an entry that matches requests of the specified kind
+         */
+        public Builder<T> add(final Ds3RequestKind kind, final T value) {
+            return add(ImmutableSet.of(kind), null, value);
+        }
+
+        /**
+         * Adds an entry that matches requests of any of the specified kinds
+         */
+        public Builder<T> add(final ImmutableSet<Ds3RequestKind> anyOf, final T value) {
+            return add(anyOf, null, value);
+        }
+
+        /**
+         * Adds an entry that matches requests of any of the specified kinds that also satisfy the condition
+         */
+        public Builder<T> add(
+                final ImmutableSet<Ds3RequestKind> anyOf,
+                final Predicate<Ds3Request> condition,
+                final T value) {
+            if (anyOf == null || anyOf.isEmpty()) {
+                throw new IllegalArgumentException("An entry must match at least one request kind");
+            }
+            if (value == null) {
+                throw new IllegalArgumentException("An entry must have a value");
+            }
+            entries.add(new Entry<>(anyOf, condition, value));
+            return this;
+        }
+
+        public Ds3RequestKindTable<T> build() {
+            return new Ds3RequestKindTable<>(entries.build());
+        }
+    }
+}
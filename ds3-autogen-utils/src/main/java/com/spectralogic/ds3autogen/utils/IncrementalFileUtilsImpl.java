@@ -0,0 +1,229 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.utils;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.spectralogic.ds3autogen.api.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+
+/**
+ * A FileUtils that only writes files whose content has changed since the previous run.
+ * Rendered content is buffered in memory and hashed when the stream is closed. The hash
+ * is compared against the manifest stored within the target directory, and the file is
+ * only written if the content differs or the file no longer exists on disk.
+ *
+ * Once generation has completed, {@link #commit()} must be called to delete the files
+ * that were generated by the previous run but not by this run, and to save the manifest.
+ * If generation fails, {@link #commit()} must not be called, so that a partial run does not
+ * delete the files of the previous run or record an incomplete manifest.
+ */
+public class IncrementalFileUtilsImpl implements FileUtils {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IncrementalFileUtilsImpl.class);
+
+    public static final String MANIFEST_FILE_NAME = ".ds3autogen-manifest";
+
+    private final FileUtils fileUtils = new FileUtilsImpl();
+    private final Path targetDir;
+    private final Path manifestPath;
+    private final ImmutableMap<String, String> previousManifest;
+    private final Map<String, String> currentManifest = new ConcurrentHashMap<>();
+
+    private final AtomicInteger written = new AtomicInteger();
+    private final AtomicInteger unchanged = new AtomicInteger();
+
+    public IncrementalFileUtilsImpl(final Path targetDir) throws IOException {
+        this.targetDir = targetDir.toAbsolutePath().normalize();
+        this.manifestPath = this.targetDir.resolve(MANIFEST_FILE_NAME);
+        this.previousManifest = readManifest(manifestPath);
+    }
+
+    @Override
+    public OutputStream getOutputFile(final Path path) throws IOException {
+        return new ByteArrayOutputStream(1024 * 8) {
+            private boolean closed = false;
+
+            @Override
+            public void close() throws IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                writeIfChanged(path, toByteArray());
+            }
+        };
+    }
+
+    private void writeIfChanged(final Path path, final byte[] contents) throws IOException {
+        final Path absolutePath = path.toAbsolutePath().normalize();
+        if (!absolutePath.startsWith(targetDir)) {
+            // Files outside of the target directory cannot be tracked by the manifest
+            writeFile(absolutePath, contents);
+            return;
+        }
+
+        final String key = toManifestKey(absolutePath);
+        final String hash = hash(contents);
+        currentManifest.put(key, hash);
+
+        if (hash.equals(previousManifest.get(key)) && Files.exists(absolutePath)) {
+            unchanged.incrementAndGet();
+            return;
+        }
+        writeFile(absolutePath, contents);
+    }
+
+    private void writeFile(final Path path, final byte[] contents) throws IOException {
+        LOG.debug("Writing changed file: {}", path);
+        try (final OutputStream outputStream = fileUtils.getOutputFile(path)) {
+            outputStream.write(contents);
+        }
+        written.incrementAndGet();
+    }
+
+    /**
+     * Deletes all files that were listed in the previous manifest but were not generated
+     * during this run, saves the manifest for this run, and returns the summary of the run.
+     */
+    public synchronized Summary commit() throws IOException {
+        int deleted = 0;
+        for (final String key : previousManifest.keySet()) {
+            if (currentManifest.containsKey(key)) {
+                continue;
+            }
+            final Path stalePath = targetDir.resolve(key);
+            if (Files.deleteIfExists(stalePath)) {
+                LOG.debug("Deleted stale file: {}", stalePath);
+                deleted++;
+                deleteEmptyDirectories(stalePath.getParent());
+            }
+        }
+        writeManifest(manifestPath, currentManifest);
+        return new Summary(written.get(), unchanged.get(), deleted);
+    }
+
+    /**
+     * Deletes the specified directory and its parents while they are empty, stopping at the target directory
+     */
+    private void deleteEmptyDirectories(final Path directory) throws IOException {
+        Path current = directory;
+        while (current != null && current.startsWith(targetDir) && !current.equals(targetDir)) {
+            try (final DirectoryStream<Path> stream = Files.newDirectoryStream(current)) {
+                if (stream.iterator().hasNext()) {
+                    return;
+                }
+            }
+            Files.delete(current);
+            current = current.getParent();
+        }
+    }
+
+    private String toManifestKey(final Path absolutePath) {
+        return targetDir.relativize(absolutePath).toString().replace('\\', '/');
+    }
+
+    private static String hash(final byte[] contents) {
+        final HashCode hashCode = Hashing.sha256().hashBytes(contents);
+        return hashCode.toString();
+    }
+
+    /**
+     * Reads the manifest where each line is the content hash followed by the file path
+     * relative to the target directory. Returns an empty map if the manifest does not exist.
+     */
+    static ImmutableMap<String, String> readManifest(final Path manifestPath) throws IOException {
+        if (!Files.exists(manifestPath)) {
+            return ImmutableMap.of();
+        }
+        final ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
+        try (final BufferedReader reader = Files.newBufferedReader(manifestPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final int separator = line.indexOf(' ');
+                if (separator <= 0) {
+                    continue;
+                }
+                builder.put(line.substring(separator + 1), line.substring(0, separator));
+            }
+        }
+        return builder.build();
+    }
+
+    private static void writeManifest(final Path manifestPath, final Map<String, String> manifest) throws IOException {
+        Files.createDirectories(manifestPath.getParent());
+        try (final BufferedWriter writer = Files.newBufferedWriter(manifestPath, StandardCharsets.UTF_8, CREATE, TRUNCATE_EXISTING)) {
+            for (final Map.Entry<String, String> entry : new TreeMap<>(manifest).entrySet()) {
+                writer.write(entry.getValue());
+                writer.write(' ');
+                writer.write(entry.getKey());
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * The number of files that were written, left unchanged, and deleted during a run
+     */
+    public static class Summary {
+        private final int written;
+        private final int unchanged;
+        private final int deleted;
+
+        public Summary(final int written, final int unchanged, final int deleted) {
+            this.written = written;
+            this.unchanged = unchanged;
+            this.deleted = deleted;
+        }
+
+        public int getWritten() {
+            return written;
+        }
+
+        public int getUnchanged() {
+            return unchanged;
+        }
+
+        public int getDeleted() {
+            return deleted;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d written, %d unchanged, %d deleted", written, unchanged, deleted);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.utils;
+
+import com.spectralogic.ds3autogen.api.FileUtils;
+import com.spectralogic.ds3autogen.api.instrumentation.GenerationRecorder;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+/**
+ * Reports every file opened through the wrapped FileUtils to a recorder once it is closed,
+ * along with the number of bytes written and the time spent writing and closing it
+ */
+public class InstrumentedFileUtils implements FileUtils {
+
+    private final FileUtils fileUtils;
+    private final GenerationRecorder recorder;
+    private final String scope;
+
+    public InstrumentedFileUtils(final FileUtils fileUtils, final GenerationRecorder recorder, final String scope) {
+        this.fileUtils = fileUtils;
+        this.recorder = recorder;
+        this.scope = scope;
+    }
+
+    @Override
+    public OutputStream getOutputFile(final Path path) throws IOException {
+        final long startTime = System.nanoTime();
+        final OutputStream outputStream = fileUtils.getOutputFile(path);
+        return new CountingOutputStream(outputStream, path, System.nanoTime() - startTime);
+    }
+
+    private final class CountingOutputStream extends FilterOutputStream {
+        private final Path path;
+        private long bytes;
+        private long writeNanos;
+        private boolean closed;
+
+        private CountingOutputStream(final OutputStream out, final Path path, final long openNanos) {
+            super(out);
+            this.path = path;
+            this.writeNanos = openNanos;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            final long startTime = System.nanoTime();
+            out.write(b);
+            bytes++;
+            writeNanos += System.nanoTime() - startTime;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            final long startTime = System.nanoTime();
+            out.write(b, off, len);
+            bytes += len;
+            writeNanos += System.nanoTime() - startTime;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            final long startTime = System.nanoTime();
+            out.flush();
+            writeNanos += System.nanoTime() - startTime;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            final long startTime = System.nanoTime();
+            try {
+                out.close();
+            } finally {
+                writeNanos += System.nanoTime() - startTime;
+                recorder.recordFile(scope, path, bytes, writeNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.utils;
+
+import com.spectralogic.ds3autogen.api.instrumentation.Instrumentation;
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Processes templates while reporting their render time to the current generation recorder
+ */
+public final class InstrumentedTemplates {
+
+    private InstrumentedTemplates() { }
+
+    /**
+     * Processes the template with the model into the writer, recording the time taken
+     * against the template's name within the scope. Templates created without a name
+     * are recorded as "unnamed".
+     */
+    public static void process(
+            final String scope,
+            final Template template,
+            final Object model,
+            final Writer writer) throws IOException, TemplateException {
+        final long startTime = System.nanoTime();
+        try {
+            template.process(model, writer);
+        } finally {
+            final String name = template.getName() == null ? "unnamed" : template.getName();
+            Instrumentation.getRecorder().recordTemplate(scope, name, System.nanoTime() - startTime);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.utils;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.spectralogic.ds3autogen.api.FileUtils;
+import com.spectralogic.ds3autogen.api.instrumentation.Instrumentation;
+import com.spectralogic.ds3autogen.api.instrumentation.PhaseTimer;
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Renders generated files on an executor and writes them through a FileUtils in the
+ * order in which they were submitted. At most maxPendingFiles rendered files are held
+ * in memory before the oldest is written. All writing, logging of written files, and
+ * reporting of errors happens on the thread that submits the files, so the FileUtils does
+ * not need to be thread safe, and the output order and the first reported error are the
+ * same regardless of how many threads render the files.
+ */
+public class OrderedFileWriter implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OrderedFileWriter.class);
+
+    private final FileUtils fileUtils;
+    private final ExecutorService renderExecutor;
+    private final boolean ownsRenderExecutor;
+    private final int maxPendingFiles;
+    private final String scope;
+    private final Deque<Future<RenderedFile>> pendingFiles = new ArrayDeque<>();
+
+    /**
+     * Creates an OrderedFileWriter that renders each file on the calling thread
+     * and writes it before the next file is submitted
+     */
+    public OrderedFileWriter(final FileUtils fileUtils) {
+        this(fileUtils, OrderedFileWriter.class.getSimpleName());
+    }
+
+    /**
+     * Creates an OrderedFileWriter that renders each file on the calling thread, and
+     * reports the render time of each template within the specified scope
+     */
+    public OrderedFileWriter(final FileUtils fileUtils, final String scope) {
+        this(fileUtils, MoreExecutors.newDirectExecutorService(), true, 1, scope);
+    }
+
+    /**
+     * Creates an OrderedFileWriter that renders files on the specified executor.
+     * The executor is owned by the caller and is not shut down by this writer.
+     * @param fileUtils Used to open the output file for each rendered file
+     * @param renderExecutor The executor that renders files
+     * @param maxPendingFiles The maximum number of rendered files waiting to be written
+     */
+    public OrderedFileWriter(
+            final FileUtils fileUtils,
+            final ExecutorService renderExecutor,
+            final int maxPendingFiles) {
+        this(fileUtils, renderExecutor, maxPendingFiles, OrderedFileWriter.class.getSimpleName());
+    }
+
+    /**
+     * Creates an OrderedFileWriter that renders files on the specified executor, and
+     * reports the render time of each template within the specified scope
+     * @param scope The name that template render times are recorded under, usually the generator's name
+     */
+    public OrderedFileWriter(
+            final FileUtils fileUtils,
+            final ExecutorService renderExecutor,
+            final int maxPendingFiles,
+            final String scope) {
+        this(fileUtils, renderExecutor, false, maxPendingFiles, scope);
+    }
+
+    private OrderedFileWriter(
+            final FileUtils fileUtils,
+            final ExecutorService renderExecutor,
+            final boolean ownsRenderExecutor,
+            final int maxPendingFiles,
+            final String scope) {
+        if (maxPendingFiles < 1) {
+            throw new IllegalArgumentException("The maximum number of pending files must be at least 1: " + maxPendingFiles);
+        }
+        this.fileUtils = fileUtils;
+        this.renderExecutor = renderExecutor;
+        this.ownsRenderExecutor = ownsRenderExecutor;
+        this.maxPendingFiles = maxPendingFiles;
+        this.scope = scope;
+    }
+
+    /**
+     * Submits a file to be rendered. If the maximum number of rendered files are already
+     * waiting to be written, then the oldest pending file is written first.
+     */
+    public void submit(final FileRenderer renderer) throws IOException, TemplateException {
+        while (pendingFiles.size() >= maxPendingFiles) {
+            writeNext();
+        }
+        pendingFiles.add(renderExecutor.submit((Callable<RenderedFile>) renderer::render));
+    }
+
+    /**
+     * Submits a file whose contents are generated by processing the template with the
+     * model. The path may depend on the model, so both are created by the renderer.
+     */
+    public <T> void submit(
+            final Template template,
+            final ModelSupplier<T> modelSupplier,
+            final PathSupplier<T> pathSupplier) throws IOException, TemplateException {
+        submit(() -> {
+            final T model;
+            try (final PhaseTimer timer = Instrumentation.getRecorder().startPhase(scope, "convertModels")) {
+                model = modelSupplier.get();
+            }
+            return new RenderedFile(pathSupplier.get(model), processTemplate(scope, template, model));
+        });
+    }
+
+    /**
+     * Writes all pending files in submission order
+     */
+    public void flush() throws IOException, TemplateException {
+        while (!pendingFiles.isEmpty()) {
+            writeNext();
+        }
+    }
+
+    /**
+     * Cancels all files that have not yet been written
+     */
+    public void cancel() {
+        for (final Future<RenderedFile> pendingFile : pendingFiles) {
+            pendingFile.cancel(true);
+        }
+        pendingFiles.clear();
+    }
+
+    /**
+     * Cancels all files that have not yet been written, and shuts down the render
+     * executor if it was created by this writer
+     */
+    @Override
+    public void close() {
+        cancel();
+        if (ownsRenderExecutor) {
+            renderExecutor.shutdown();
+        }
+    }
+
+    private void writeNext() throws IOException, TemplateException {
+        final Future<RenderedFile> next = pendingFiles.remove();
+        try {
+            write(getRenderedFile(next));
+        } catch (final IOException | TemplateException | RuntimeException e) {
+            cancel();
+            throw e;
+        }
+    }
+
+    private void write(final RenderedFile renderedFile) throws IOException {
+        LOG.info("Getting outputstream for file: {}", renderedFile.getPath().toString());
+
+        try (final OutputStream outStream = fileUtils.getOutputFile(renderedFile.getPath());
+             final Writer writer = new OutputStreamWriter(outStream)) {
+            writer.write(renderedFile.getContents());
+        }
+    }
+
+    /**
+     * Waits for a file to be rendered, rethrowing the exception that caused rendering to fail
+     */
+    private static RenderedFile getRenderedFile(final Future<RenderedFile> future) throws IOException, TemplateException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a file to render", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof TemplateException) {
+                throw (TemplateException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException("Unable to render file", cause);
+        }
+    }
+
+    /**
+     * Processes the template with the model into a string
+     */
+    public static String processTemplate(final Template template, final Object model) throws IOException, TemplateException {
+        return processTemplate(OrderedFileWriter.class.getSimpleName(), template, model);
+    }
+
+    /**
+     * Processes the template with the model into a string, recording the render time within the scope
+     */
+    public static String processTemplate(
+            final String scope,
+            final Template template,
+            final Object model) throws IOException, TemplateException {
+        final StringWriter writer = new StringWriter();
+        InstrumentedTemplates.process(scope, template, model, writer);
+        return writer.toString();
+    }
+
+    /**
+     * The contents of a generated file and the path it is written to
+     */
+    public static final class RenderedFile {
+        private final Path path;
+        private final String contents;
+
+        public RenderedFile(final Path path, final String contents) {
+            this.path = path;
+            this.contents = contents;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public String getContents() {
+            return contents;
+        }
+    }
+
+    @FunctionalInterface
+    public interface FileRenderer {
+        RenderedFile render() throws IOException, TemplateException;
+    }
+
+    @FunctionalInterface
+    public interface ModelSupplier<T> {
+        T get() throws IOException, TemplateException;
+    }
+
+    @FunctionalInterface
+    public interface PathSupplier<T> {
+        Path get(final T model);
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.utils;
+
+/**
+ * How a {@link TemplateRegistry} holds on to the templates it has compiled
+ */
+public enum TemplateCacheStorage {
+    /** Compiled templates are kept for the life of the registry */
+    STRONG,
+    /** Compiled templates are kept until the garbage collector needs the memory */
+    SOFT,
+    /** At most a fixed number of compiled templates are kept, evicting the least recently used */
+    LRU
+}
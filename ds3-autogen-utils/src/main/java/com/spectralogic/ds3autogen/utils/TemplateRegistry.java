@@ -0,0 +1,444 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.utils;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
+import freemarker.cache.CacheStorage;
+import freemarker.cache.MruCacheStorage;
+import freemarker.cache.SoftCacheStorage;
+import freemarker.cache.StrongCacheStorage;
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import freemarker.template.TemplateExceptionHandler;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Shares FreeMarker Configurations, and the templates compiled by them, between code generator
+ * instances. Each generator asks for the Configuration of its template loader class and base
+ * path, and every generator of the same kind receives the same Configuration, so a template is
+ * parsed once per registry instead of once per generator. Generators that share a Configuration
+ * must initialize it with the same shared variables.
+ *
+ * Templates are loaded from the classpath and never change while the registry is in use, so
+ * compiled templates are never checked for modification. Configurations and templates are safe
+ * to use from several threads once they have been retrieved.
+ */
+public class TemplateRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TemplateRegistry.class);
+
+    private static final String TEMPLATE_EXTENSION = ".ftl";
+
+    private static volatile TemplateRegistry defaultRegistry = new TemplateRegistry();
+
+    private final TemplateCacheStorage cacheStorage;
+    private final int maxTemplates;
+    private final TemplateRegistryMetrics metrics;
+    private final Map<String, RegisteredConfiguration> configurations = new LinkedHashMap<>();
+
+    /**
+     * Initializes a newly created Configuration, usually by setting its shared variables
+     */
+    @FunctionalInterface
+    public interface ConfigurationInitializer {
+        void initialize(final Configuration config) throws TemplateModelException;
+    }
+
+    /**
+     * Creates a registry that keeps every compiled template and discards all timings
+     */
+    public TemplateRegistry() {
+        this(TemplateCacheStorage.STRONG, 0, TemplateRegistryMetrics.NONE);
+    }
+
+    /**
+     * @param cacheStorage How compiled templates are held by each Configuration
+     * @param maxTemplates The number of templates each Configuration keeps when using
+     *                     {@link TemplateCacheStorage#LRU}. It is ignored otherwise.
+     * @param metrics Receives the configuration creation and template retrieval timings
+     */
+    public TemplateRegistry(
+            final TemplateCacheStorage cacheStorage,
+            final int maxTemplates,
+            final TemplateRegistryMetrics metrics) {
+        if (cacheStorage == TemplateCacheStorage.LRU && maxTemplates < 1) {
+            throw new IllegalArgumentException("An LRU template cache must hold at least one template: " + maxTemplates);
+        }
+        this.cacheStorage = cacheStorage;
+        this.maxTemplates = maxTemplates;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Retrieves the registry used by code generators that are not given one
+     */
+    public static TemplateRegistry getDefault() {
+        return defaultRegistry;
+    }
+
+    /**
+     * Replaces the registry used by code generators that are not given one. Only generators
+     * created afterwards use the new registry.
+     */
+    public static void setDefault(final TemplateRegistry registry) {
+        defaultRegistry = registry;
+    }
+
+    /**
+     * Retrieves the shared Configuration that loads templates relative to the specified class
+     * and base path, creating it if this is the first request for it. All templates within the
+     * base path are compiled by {@link #precompile()}.
+     * @param loaderClass The class whose class loader loads the templates
+     * @param basePath The classpath directory containing the templates
+     * @param initializer Initializes the Configuration when it is created
+     * @throws IllegalStateException If the Configuration was created with different shared variables
+     */
+    public Configuration getConfiguration(
+            final Class<?> loaderClass,
+            final String basePath,
+            final ConfigurationInitializer initializer) throws TemplateModelException {
+        return getConfiguration(loaderClass, basePath, ImmutableList.of(""), initializer);
+    }
+
+    /**
+     * Retrieves the shared Configuration that loads templates relative to the specified class
+     * and base path, creating it if this is the first request for it. When the Configuration
+     * already exists, the initializer is only used to verify that it sets the same shared
+     * variables that the Configuration was created with.
+     * @param loaderClass The class whose class loader loads the templates
+     * @param basePath The classpath directory containing the templates
+     * @param templateDirectories The directories, relative to the base path, whose templates are
+     *                            compiled by {@link #precompile()}. An empty directory is the base path.
+     * @param initializer Initializes the Configuration when it is created
+     * @throws IllegalStateException If the Configuration was created with different shared variables
+     */
+    public Configuration getConfiguration(
+            final Class<?> loaderClass,
+            final String basePath,
+            final ImmutableList<String> templateDirectories,
+            final ConfigurationInitializer initializer) throws TemplateModelException {
+        final String name = toConfigurationName(loaderClass, basePath);
+        synchronized (configurations) {
+            final RegisteredConfiguration existing = configurations.get(name);
+            if (existing != null) {
+                final Map<String, Object> sharedVariables = recordSharedVariables(initializer);
+                if (!sharedVariables.equals(existing.sharedVariables)) {
+                    throw new IllegalStateException("The template configuration " + name
+                            + " was created with the shared variables " + existing.sharedVariables.keySet()
+                            + " and cannot be shared with an initializer that sets " + sharedVariables.keySet());
+                }
+                existing.templateDirectories.addAll(templateDirectories);
+                return existing.config;
+            }
+            final long start = System.nanoTime();
+            final Map<String, Object> sharedVariables = recordSharedVariables(initializer);
+            final MeteredConfiguration config = createConfiguration(name, loaderClass, basePath);
+            initializer.initialize(config);
+            configurations.put(name, new RegisteredConfiguration(config, loaderClass, basePath, sharedVariables, templateDirectories));
+            metrics.configurationCreated(name, System.nanoTime() - start);
+            return config;
+        }
+    }
+
+    /**
+     * Compiles every template found under the template directories of every Configuration
+     * created so far, so that generators do not parse templates while generating code
+     * @return The number of templates compiled
+     */
+    public int precompile() throws IOException {
+        final ImmutableList<Map.Entry<String, RegisteredConfiguration>> entries;
+        final Map<String, ImmutableList<String>> templateDirectories = new LinkedHashMap<>();
+        synchronized (configurations) {
+            entries = ImmutableList.copyOf(configurations.entrySet());
+            for (final Map.Entry<String, RegisteredConfiguration> entry : entries) {
+                templateDirectories.put(entry.getKey(), ImmutableList.copyOf(entry.getValue().templateDirectories));
+            }
+        }
+        int count = 0;
+        for (final Map.Entry<String, RegisteredConfiguration> entry : entries) {
+            final RegisteredConfiguration registered = entry.getValue();
+            final ImmutableSortedSet<String> templateNames = findTemplateNames(
+                    registered.loaderClass,
+                    registered.basePath,
+                    templateDirectories.get(entry.getKey()));
+            for (final String templateName : templateNames) {
+                final long start = System.nanoTime();
+                registered.config.compile(templateName);
+                metrics.templatePrecompiled(entry.getKey(), templateName, System.nanoTime() - start);
+                count++;
+            }
+        }
+        LOG.debug("Precompiled {} templates for {} configurations", count, entries.size());
+        return count;
+    }
+
+    /**
+     * Retrieves the names of the Configurations created so far
+     */
+    public ImmutableList<String> getConfigurationNames() {
+        synchronized (configurations) {
+            return ImmutableList.copyOf(configurations.keySet());
+        }
+    }
+
+    /**
+     * Runs the initializer against a Configuration that only records the shared variables it is given
+     */
+    private static Map<String, Object> recordSharedVariables(
+            final ConfigurationInitializer initializer) throws TemplateModelException {
+        final SharedVariableRecorder recorder = new SharedVariableRecorder();
+        initializer.initialize(recorder);
+        return recorder.sharedVariables;
+    }
+
+    private MeteredConfiguration createConfiguration(
+            final String name,
+            final Class<?> loaderClass,
+            final String basePath) {
+        final MeteredConfiguration config = new MeteredConfiguration(name, metrics);
+        config.setDefaultEncoding("UTF-8");
+        config.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
+        config.setClassForTemplateLoading(loaderClass, basePath);
+        config.setCacheStorage(toCacheStorage(cacheStorage, maxTemplates));
+        config.setTemplateUpdateDelayMilliseconds(Long.MAX_VALUE);
+        return config;
+    }
+
+    /**
+     * Creates the FreeMarker cache storage for the specified storage kind
+     */
+    static CacheStorage toCacheStorage(final TemplateCacheStorage cacheStorage, final int maxTemplates) {
+        switch (cacheStorage) {
+            case STRONG:
+                return new StrongCacheStorage();
+            case SOFT:
+                return new SoftCacheStorage();
+            case LRU:
+                return new MruCacheStorage(maxTemplates, 0);
+            default:
+                throw new IllegalArgumentException("Unknown template cache storage: " + cacheStorage);
+        }
+    }
+
+    /**
+     * Creates the name of the Configuration for the specified template loader class and base path
+     */
+    static String toConfigurationName(final Class<?> loaderClass, final String basePath) {
+        return loaderClass.getName() + ":" + toResourceDirectory(basePath);
+    }
+
+    /**
+     * Removes the leading and trailing slashes from a classpath directory
+     */
+    static String toResourceDirectory(final String basePath) {
+        String directory = basePath;
+        while (directory.startsWith("/")) {
+            directory = directory.substring(1);
+        }
+        while (directory.endsWith("/")) {
+            directory = directory.substring(0, directory.length() - 1);
+        }
+        return directory;
+    }
+
+    /**
+     * Finds the names, relative to the base path, of all templates within the specified
+     * directories of the base path
+     */
+    static ImmutableSortedSet<String> findTemplateNames(
+            final Class<?> loaderClass,
+            final String basePath,
+            final Iterable<String> templateDirectories) throws IOException {
+        final ImmutableSortedSet.Builder<String> builder = ImmutableSortedSet.naturalOrder();
+        for (final String templateDirectory : templateDirectories) {
+            final String directory = toResourceDirectory(templateDirectory);
+            if (directory.isEmpty()) {
+                builder.addAll(findTemplateNames(loaderClass, basePath));
+                continue;
+            }
+            for (final String templateName : findTemplateNames(loaderClass, toResourceDirectory(basePath) + "/" + directory)) {
+                builder.add(directory + "/" + templateName);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Finds the names, relative to the base path, of all templates within the base path
+     * in every classpath entry visible to the loader class
+     */
+    static ImmutableSortedSet<String> findTemplateNames(
+            final Class<?> loaderClass,
+            final String basePath) throws IOException {
+        final String directory = toResourceDirectory(basePath);
+        final ImmutableSortedSet.Builder<String> builder = ImmutableSortedSet.naturalOrder();
+        final Enumeration<URL> urls = loaderClass.getClassLoader().getResources(directory);
+        while (urls.hasMoreElements()) {
+            final URL url = urls.nextElement();
+            switch (url.getProtocol()) {
+                case "file":
+                    addDirectoryTemplateNames(toPath(url), builder);
+                    break;
+                case "jar":
+                    addJarTemplateNames(url, directory, builder);
+                    break;
+                default:
+                    LOG.warn("Cannot list templates in {}", url);
+            }
+        }
+        return builder.build();
+    }
+
+    private static Path toPath(final URL url) throws IOException {
+        try {
+            return Paths.get(url.toURI());
+        } catch (final URISyntaxException e) {
+            throw new IOException("Invalid template directory: " + url, e);
+        }
+    }
+
+    private static void addDirectoryTemplateNames(
+            final Path root,
+            final ImmutableSortedSet.Builder<String> builder) throws IOException {
+        try (final Stream<Path> paths = Files.walk(root)) {
+            paths.filter(path -> path.getFileName().toString().endsWith(TEMPLATE_EXTENSION))
+                    .forEach(path -> builder.add(root.relativize(path).toString().replace('\\', '/')));
+        }
+    }
+
+    private static void addJarTemplateNames(
+            final URL url,
+            final String directory,
+            final ImmutableSortedSet.Builder<String> builder) throws IOException {
+        final String prefix = directory.isEmpty() ? "" : directory + "/";
+        final JarURLConnection connection = (JarURLConnection) url.openConnection();
+        connection.setUseCaches(false);
+        try (final JarFile jarFile = connection.getJarFile()) {
+            final Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                final String entryName = entries.nextElement().getName();
+                if (entryName.startsWith(prefix) && entryName.endsWith(TEMPLATE_EXTENSION)) {
+                    builder.add(entryName.substring(prefix.length()));
+                }
+            }
+        }
+    }
+
+    /**
+     * A Configuration created by the registry along with where its templates are loaded from
+     */
+    private static final class RegisteredConfiguration {
+        private final MeteredConfiguration config;
+        private final Class<?> loaderClass;
+        private final String basePath;
+        private final Map<String, Object> sharedVariables;
+        private final Set<String> templateDirectories;
+
+        private RegisteredConfiguration(
+                final MeteredConfiguration config,
+                final Class<?> loaderClass,
+                final String basePath,
+                final Map<String, Object> sharedVariables,
+                final ImmutableList<String> templateDirectories) {
+            this.config = config;
+            this.loaderClass = loaderClass;
+            this.basePath = basePath;
+            this.sharedVariables = sharedVariables;
+            this.templateDirectories = new LinkedHashSet<>(templateDirectories);
+        }
+    }
+
+    /**
+     * Records the shared variables set by a ConfigurationInitializer without wrapping them
+     */
+    private static final class SharedVariableRecorder extends Configuration {
+        private final Map<String, Object> sharedVariables = new LinkedHashMap<>();
+
+        private SharedVariableRecorder() {
+            super(Configuration.VERSION_2_3_23);
+        }
+
+        @Override
+        public void setSharedVariable(final String name, final Object value) {
+            sharedVariables.put(name, value);
+        }
+
+        @Override
+        public void setSharedVariable(final String name, final TemplateModel value) {
+            sharedVariables.put(name, value);
+        }
+    }
+
+    /**
+     * Reports how long every template retrieval made by a generator takes, including
+     * retrievals of templates that are already compiled
+     */
+    private static final class MeteredConfiguration extends Configuration {
+        private final String name;
+        private final TemplateRegistryMetrics metrics;
+
+        private MeteredConfiguration(final String name, final TemplateRegistryMetrics metrics) {
+            super(Configuration.VERSION_2_3_23);
+            this.name = name;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Template getTemplate(
+                final String name,
+                final Locale locale,
+                final Object customLookupCondition,
+                final String encoding,
+                final boolean parseAsFTL,
+                final boolean ignoreMissing) throws IOException {
+            final long start = System.nanoTime();
+            try {
+                return super.getTemplate(name, locale, customLookupCondition, encoding, parseAsFTL, ignoreMissing);
+            } finally {
+                metrics.templateRetrieved(this.name, name, System.nanoTime() - start);
+            }
+        }
+
+        /**
+         * Compiles and caches the specified template without reporting it as a retrieval
+         */
+        private void compile(final String templateName) throws IOException {
+            super.getTemplate(templateName, null, null, null, true, false);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.utils;
+
+/**
+ * Receives timings from a {@link TemplateRegistry}. All durations are in nanoseconds.
+ * Implementations may be called from several threads at once.
+ */
+public interface TemplateRegistryMetrics {
+
+    /** Discards all timings */
+    TemplateRegistryMetrics NONE = new TemplateRegistryMetrics() { };
+
+    /**
+     * Called once a shared Configuration has been created and initialized
+     * @param configurationName The name of the Configuration, which is its template loader class and base path
+     */
+    default void configurationCreated(final String configurationName, final long durationNanos) {
+    }
+
+    /**
+     * Called for every template compiled by {@link TemplateRegistry#precompile()}
+     */
+    default void templatePrecompiled(
+            final String configurationName,
+            final String templateName,
+            final long durationNanos) {
+    }
+
+    /**
+     * Called every time a generator retrieves a template, whether or not it was already compiled
+     */
+    default void templateRetrieved(
+            final String configurationName,
+            final String templateName,
+            final long durationNanos) {
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.utils.models;
+
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3Request;
+import com.spectralogic.ds3autogen.utils.Ds3RequestClassificationUtil;
+
+import java.util.function.Predicate;
+
+/**
+ * The special cased kinds of Ds3Requests that the code generators dispatch on. Each kind
+ * is backed by the {@link Ds3RequestClassificationUtil} predicate that recognizes it.
+ */
+public enum Ds3RequestKind {
+    ALLOCATE_JOB_CHUNK(Ds3RequestClassificationUtil::isAllocateJobChunkRequest),
+    AMAZON_CREATE_OBJECT(Ds3RequestClassificationUtil::isAmazonCreateObjectRequest),
+    BULK(Ds3RequestClassificationUtil::isBulkRequest),
+    BULK_GET(Ds3RequestClassificationUtil::isBulkGetRequest),
+    BULK_PUT(Ds3RequestClassificationUtil::isBulkPutRequest),
+    BULK_REPLICATE(Ds3RequestClassificationUtil::isBulkReplicateRequest),
+    COMPLETE_MULTIPART_UPLOAD(Ds3RequestClassificationUtil::isCompleteMultiPartUploadRequest),
+    CREATE_MULTIPART_UPLOAD_PART(Ds3RequestClassificationUtil::isCreateMultiPartUploadPartRequest),
+    CREATE_NOTIFICATION(Ds3RequestClassificationUtil::isCreateNotificationRequest),
+    CREATE_OBJECT(Ds3RequestClassificationUtil::isCreateObjectRequest),
+    CREATE_VERIFY_JOB(Ds3RequestClassificationUtil::isCreateVerifyJobRequest),
+    DELETE_NOTIFICATION(Ds3RequestClassificationUtil::isDeleteNotificationRequest),
+    EJECT_STORAGE_DOMAIN_BLOBS(Ds3RequestClassificationUtil::isEjectStorageDomainBlobsRequest),
+    GET_BLOB_PERSISTENCE(Ds3RequestClassificationUtil::isGetBlobPersistenceRequest),
+    GET_JOB(Ds3RequestClassificationUtil::isGetJobRequest),
+    GET_JOB_CHUNKS_READY(Ds3RequestClassificationUtil::isGetJobChunksReadyForClientProcessingRequest),
+    GET_NOTIFICATION(Ds3RequestClassificationUtil::isGetNotificationRequest),
+    GET_OBJECT(Ds3RequestClassificationUtil::isGetObjectRequest),
+    GET_OBJECT_AMAZON_S3(Ds3RequestClassificationUtil::isGetObjectAmazonS3Request),
+    GET_OBJECTS_DETAILS(Ds3RequestClassificationUtil::isGetObjectsDetailsRequest),
+    GET_OBJECTS_WITH_FULL_DETAILS(Ds3RequestClassificationUtil::isGetObjectsWithFullDetails),
+    GET_USERS_SPECTRA_S3(Ds3RequestClassificationUtil::isGetUsersSpectraS3Request),
+    HEAD_BUCKET(Ds3RequestClassificationUtil::isHeadBucketRequest),
+    HEAD_OBJECT(Ds3RequestClassificationUtil::isHeadObjectRequest),
+    MULTI_FILE_DELETE(Ds3RequestClassificationUtil::isMultiFileDeleteRequest),
+    NOTIFICATION(Ds3RequestClassificationUtil::isNotificationRequest),
+    PAGINATION(Ds3RequestClassificationUtil::supportsPaginationRequest),
+    PHYSICAL_PLACEMENT(Ds3RequestClassificationUtil::isPhysicalPlacementRequest),
+    GET_OBJECTS_WITH_LENGTH_OFFSET_PAYLOAD(Ds3RequestClassificationUtil::hasGetObjectsWithLengthOffsetRequestPayload),
+    IDS_PAYLOAD(Ds3RequestClassificationUtil::hasIdsRequestPayload),
+    LIST_OBJECTS_PAYLOAD(Ds3RequestClassificationUtil::hasListObjectsRequestPayload),
+    PUT_OBJECTS_WITH_SIZE_PAYLOAD(Ds3RequestClassificationUtil::hasPutObjectsWithSizeRequestPayload),
+    SIMPLE_OBJECTS_PAYLOAD(Ds3RequestClassificationUtil::hasSimpleObjectsRequestPayload),
+    STRING_PAYLOAD(Ds3RequestClassificationUtil::hasStringRequestPayload);
+
+    private final Predicate<Ds3Request> predicate;
+
+    Ds3RequestKind(final Predicate<Ds3Request> predicate) {
+        this.predicate = predicate;
+    }
+
+    /**
+     * Determines if the request is of this kind
+     */
+    public boolean matches(final Ds3Request ds3Request) {
+        return predicate.test(ds3Request);
+    }
+}
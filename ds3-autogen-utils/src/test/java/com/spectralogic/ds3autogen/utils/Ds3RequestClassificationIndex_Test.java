@@ -0,0 +1,126 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.utils;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.spectralogic.ds3autogen.api.models.apispec.Ds3Request;
+import com.spectralogic.ds3autogen.utils.models.Ds3RequestKind;
+import org.junit.Test;
+
+import static com.spectralogic.ds3autogen.testutil.Ds3ModelFixtures.*;
+import static com.spectralogic.ds3autogen.utils.models.Ds3RequestKind.*;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class Ds3RequestClassificationIndex_Test {
+
+    @Test
+    public void classify_BulkGet_Test() {
+        assertThat(Ds3RequestClassificationIndex.classify(getRequestBulkGet()),
+                is(ImmutableSet.of(BULK, BULK_GET, GET_OBJECTS_WITH_LENGTH_OFFSET_PAYLOAD)));
+    }
+
+    @Test
+    public void classify_BulkPut_Test() {
+        assertThat(Ds3RequestClassificationIndex.classify(getRequestBulkPut()),
+                is(ImmutableSet.of(BULK, BULK_PUT, PUT_OBJECTS_WITH_SIZE_PAYLOAD)));
+    }
+
+    @Test
+    public void classify_AmazonS3GetObject_Test() {
+        assertThat(Ds3RequestClassificationIndex.classify(getRequestAmazonS3GetObject()),
+                is(ImmutableSet.of(GET_OBJECT, GET_OBJECT_AMAZON_S3)));
+    }
+
+    @Test
+    public void classify_NotSpecialCased_Test() {
+        assertThat(Ds3RequestClassificationIndex.classify(getSystemInformationRequest()).isEmpty(), is(true));
+    }
+
+    @Test
+    public void classify_MatchesPredicates_Test() {
+        final ImmutableList<Ds3Request> requests = ImmutableList.of(
+                getRequestDeleteNotification(),
+                getRequestCreateNotification(),
+                getRequestGetNotification(),
+                getRequestVerifyPhysicalPlacement(),
+                getRequestMultiFileDelete(),
+                getRequestCreateObject(),
+                getRequestSpectraS3GetObject(),
+                getRequestGetJob(),
+                getReplicatePutJob(),
+                getGetBlobPersistence(),
+                getCreateMultiPartUploadPart(),
+                getEjectStorageDomainBlobsRequest(),
+                getCompleteMultipartUploadRequest(),
+                getAllocateJobChunkRequest(),
+                getHeadBucketRequest(),
+                getHeadObjectRequest(),
+                getJobChunksReadyForClientProcessingRequest(),
+                getBucketsSpectraS3Request(),
+                getObjectsDetailsRequest(),
+                getUsersSpectraS3Request());
+
+        for (final Ds3Request request : requests) {
+            final ImmutableSet<Ds3RequestKind> kinds = Ds3RequestClassificationIndex.classify(request);
+            for (final Ds3RequestKind kind : Ds3RequestKind.values()) {
+                assertThat(kinds.contains(kind), is(kind.matches(request)));
+            }
+        }
+    }
+
+    @Test
+    public void getKinds_Test() {
+        final Ds3RequestClassificationIndex index = Ds3RequestClassificationIndex.of(
+                ImmutableList.of(getRequestBulkGet(), getRequestMultiFileDelete(), getHeadObjectRequest()));
+
+        assertThat(index.size(), is(3));
+        assertThat(index.getKinds(getRequestMultiFileDelete()), is(ImmutableSet.of(MULTI_FILE_DELETE)));
+        assertTrue(index.is(getHeadObjectRequest(), HEAD_OBJECT));
+        assertFalse(index.is(getHeadObjectRequest(), HEAD_BUCKET));
+        assertTrue(index.is(getRequestBulkGet(), BULK));
+    }
+
+    @Test
+    public void getKinds_NotIndexed_Test() {
+        final Ds3RequestClassificationIndex index = Ds3RequestClassificationIndex.of(ImmutableList.of());
+
+        assertThat(index.size(), is(0));
+        assertThat(index.getKinds(getHeadBucketRequest()), is(ImmutableSet.of(HEAD_BUCKET)));
+    }
+
+    @Test
+    public void of_NullList_Test() {
+        assertThat(Ds3RequestClassificationIndex.of(null).size(), is(0));
+    }
+
+    @Test
+    public void dump_Test() {
+        final Ds3RequestClassificationIndex index = Ds3RequestClassificationIndex.of(
+                ImmutableList.of(getHeadObjectRequest(), getSystemInformationRequest()));
+
+        final String[] lines = index.dump().split(System.lineSeparator());
+        assertThat(lines.length, is(2));
+        assertTrue(lines[0].startsWith(getHeadObjectRequest().getName()));
+        assertTrue(lines[0].endsWith(" HEAD_OBJECT"));
+        assertTrue(lines[1].startsWith(getSystemInformationRequest().getName()));
+        assertTrue(lines[1].endsWith(" -"));
+    }
+}
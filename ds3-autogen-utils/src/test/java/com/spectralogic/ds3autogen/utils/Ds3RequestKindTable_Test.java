@@ -0,0 +1,83 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+package com.spectralogic.ds3autogen.utils;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static com.spectralogic.ds3autogen.testutil.Ds3ModelFixtures.getRequestBulkGet;
+import static com.spectralogic.ds3autogen.testutil.Ds3ModelFixtures.getRequestBulkPut;
+import static com.spectralogic.ds3autogen.utils.models.Ds3RequestKind.*;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class Ds3RequestKindTable_Test {
+
+    private static final Ds3RequestKindTable<String> TABLE = Ds3RequestKindTable.<String>builder()
+            .add(BULK_GET, "bulk get")
+            .add(GET_OBJECTS_WITH_LENGTH_OFFSET_PAYLOAD, "length offset payload")
+            .add(ImmutableSet.of(SIMPLE_OBJECTS_PAYLOAD, MULTI_FILE_DELETE), "objects payload")
+            .build();
+
+    @Test
+    public void find_FirstMatchWins_Test() {
+        assertThat(TABLE.find(ImmutableSet.of(BULK, BULK_GET, GET_OBJECTS_WITH_LENGTH_OFFSET_PAYLOAD)),
+                is(Optional.of("bulk get")));
+        assertThat(TABLE.find(ImmutableSet.of(GET_OBJECTS_WITH_LENGTH_OFFSET_PAYLOAD, BULK_GET)),
+                is(Optional.of("bulk get")));
+        assertThat(TABLE.find(ImmutableSet.of(GET_OBJECTS_WITH_LENGTH_OFFSET_PAYLOAD)),
+                is(Optional.of("length offset payload")));
+    }
+
+    @Test
+    public void find_AnyOf_Test() {
+        assertThat(TABLE.find(ImmutableSet.of(SIMPLE_OBJECTS_PAYLOAD)), is(Optional.of("objects payload")));
+        assertThat(TABLE.find(ImmutableSet.of(MULTI_FILE_DELETE)), is(Optional.of("objects payload")));
+    }
+
+    @Test
+    public void find_NoMatch_Test() {
+        assertThat(TABLE.find(ImmutableSet.of()), is(Optional.empty()));
+        assertThat(TABLE.find(ImmutableSet.of(HEAD_OBJECT)), is(Optional.empty()));
+    }
+
+    @Test
+    public void find_Condition_Test() {
+        final Ds3RequestKindTable<String> table = Ds3RequestKindTable.<String>builder()
+                .add(ImmutableSet.of(BULK), ds3Request -> ds3Request.getName().contains("Put"), "bulk put")
+                .add(BULK, "bulk")
+                .build();
+
+        assertThat(table.find(getRequestBulkPut(), ImmutableSet.of(BULK)), is(Optional.of("bulk put")));
+        assertThat(table.find(getRequestBulkGet(), ImmutableSet.of(BULK)), is(Optional.of("bulk")));
+        assertThat(table.size(), is(2));
+    }
+
+    @Test (expected = IllegalStateException.class)
+    public void find_ConditionWithoutRequest_Test() {
+        Ds3RequestKindTable.<String>builder()
+                .add(ImmutableSet.of(BULK), ds3Request -> true, "bulk")
+                .build()
+                .find(ImmutableSet.of(BULK));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void add_NoKinds_Test() {
+        Ds3RequestKindTable.<String>builder().add(ImmutableSet.of(), "value");
+    }
+}
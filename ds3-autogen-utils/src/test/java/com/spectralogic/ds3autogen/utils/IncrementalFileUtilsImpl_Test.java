@@ -0,0 +1,122 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.utils;
+
+import com.spectralogic.ds3autogen.utils.IncrementalFileUtilsImpl.Summary;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class IncrementalFileUtilsImpl_Test {
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private static void write(final IncrementalFileUtilsImpl fileUtils, final Path path, final String contents) throws IOException {
+        try (final OutputStream outputStream = fileUtils.getOutputFile(path)) {
+            outputStream.write(contents.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String read(final Path path) throws IOException {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void firstRun_WritesAllFiles_Test() throws IOException {
+        final Path targetDir = tempFolder.getRoot().toPath();
+        final IncrementalFileUtilsImpl fileUtils = new IncrementalFileUtilsImpl(targetDir);
+        write(fileUtils, targetDir.resolve("a/One.java"), "one");
+        write(fileUtils, targetDir.resolve("a/b/Two.java"), "two");
+
+        final Summary summary = fileUtils.commit();
+        assertThat(summary.getWritten(), is(2));
+        assertThat(summary.getUnchanged(), is(0));
+        assertThat(summary.getDeleted(), is(0));
+        assertThat(read(targetDir.resolve("a/One.java")), is("one"));
+        assertThat(read(targetDir.resolve("a/b/Two.java")), is("two"));
+        assertThat(Files.exists(targetDir.resolve(IncrementalFileUtilsImpl.MANIFEST_FILE_NAME)), is(true));
+    }
+
+    @Test
+    public void secondRun_OnlyWritesChangedFiles_Test() throws IOException {
+        final Path targetDir = tempFolder.getRoot().toPath();
+        final IncrementalFileUtilsImpl firstRun = new IncrementalFileUtilsImpl(targetDir);
+        write(firstRun, targetDir.resolve("One.java"), "one");
+        write(firstRun, targetDir.resolve("Two.java"), "two");
+        firstRun.commit();
+
+        final long lastModified = Files.getLastModifiedTime(targetDir.resolve("One.java")).toMillis();
+        final IncrementalFileUtilsImpl secondRun = new IncrementalFileUtilsImpl(targetDir);
+        write(secondRun, targetDir.resolve("One.java"), "one");
+        write(secondRun, targetDir.resolve("Two.java"), "two changed");
+
+        final Summary summary = secondRun.commit();
+        assertThat(summary.getWritten(), is(1));
+        assertThat(summary.getUnchanged(), is(1));
+        assertThat(summary.getDeleted(), is(0));
+        assertThat(Files.getLastModifiedTime(targetDir.resolve("One.java")).toMillis(), is(lastModified));
+        assertThat(read(targetDir.resolve("Two.java")), is("two changed"));
+    }
+
+    @Test
+    public void secondRun_RewritesMissingFile_Test() throws IOException {
+        final Path targetDir = tempFolder.getRoot().toPath();
+        final IncrementalFileUtilsImpl firstRun = new IncrementalFileUtilsImpl(targetDir);
+        write(firstRun, targetDir.resolve("One.java"), "one");
+        firstRun.commit();
+
+        Files.delete(targetDir.resolve("One.java"));
+
+        final IncrementalFileUtilsImpl secondRun = new IncrementalFileUtilsImpl(targetDir);
+        write(secondRun, targetDir.resolve("One.java"), "one");
+
+        final Summary summary = secondRun.commit();
+        assertThat(summary.getWritten(), is(1));
+        assertThat(summary.getUnchanged(), is(0));
+        assertThat(read(targetDir.resolve("One.java")), is("one"));
+    }
+
+    @Test
+    public void secondRun_DeletesStaleFiles_Test() throws IOException {
+        final Path targetDir = tempFolder.getRoot().toPath();
+        final IncrementalFileUtilsImpl firstRun = new IncrementalFileUtilsImpl(targetDir);
+        write(firstRun, targetDir.resolve("One.java"), "one");
+        write(firstRun, targetDir.resolve("removed/Two.java"), "two");
+        firstRun.commit();
+
+        final IncrementalFileUtilsImpl secondRun = new IncrementalFileUtilsImpl(targetDir);
+        write(secondRun, targetDir.resolve("One.java"), "one");
+
+        final Summary summary = secondRun.commit();
+        assertThat(summary.getWritten(), is(0));
+        assertThat(summary.getUnchanged(), is(1));
+        assertThat(summary.getDeleted(), is(1));
+        assertThat(Files.exists(targetDir.resolve("removed/Two.java")), is(false));
+        assertThat(Files.exists(targetDir.resolve("removed")), is(false));
+        assertThat(IncrementalFileUtilsImpl.readManifest(targetDir.resolve(IncrementalFileUtilsImpl.MANIFEST_FILE_NAME)).keySet().size(), is(1));
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.utils;
+
+import com.spectralogic.ds3autogen.api.instrumentation.GenerationStats;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class InstrumentedFileUtils_Test {
+
+    @Test
+    public void getOutputFile_Test() throws IOException {
+        final ByteArrayOutputStream contents = new ByteArrayOutputStream();
+        final GenerationStats stats = new GenerationStats();
+        final InstrumentedFileUtils fileUtils = new InstrumentedFileUtils(path -> contents, stats, "generator");
+
+        try (final OutputStream outputStream = fileUtils.getOutputFile(Paths.get("a.java"))) {
+            outputStream.write("abc".getBytes(StandardCharsets.UTF_8));
+            outputStream.write('d');
+        }
+        try (final OutputStream outputStream = fileUtils.getOutputFile(Paths.get("b.java"))) {
+            outputStream.write("efgh".getBytes(StandardCharsets.UTF_8), 1, 2);
+        }
+
+        assertThat(contents.toString("UTF-8"), is("abcdfg"));
+        assertThat(stats.getFileCount("generator"), is(2L));
+        assertThat(stats.getFileBytes("generator"), is(6L));
+    }
+
+    @Test
+    public void closeTwice_Test() throws IOException {
+        final GenerationStats stats = new GenerationStats();
+        final InstrumentedFileUtils fileUtils = new InstrumentedFileUtils(path -> new ByteArrayOutputStream(), stats, "generator");
+
+        final OutputStream outputStream = fileUtils.getOutputFile(Paths.get("a.java"));
+        outputStream.close();
+        outputStream.close();
+
+        assertThat(stats.getFileCount("generator"), is(1L));
+    }
+}
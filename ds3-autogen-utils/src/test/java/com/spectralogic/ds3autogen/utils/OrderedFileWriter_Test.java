@@ -0,0 +1,155 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.utils;
+
+import com.spectralogic.ds3autogen.api.FileUtils;
+import com.spectralogic.ds3autogen.utils.OrderedFileWriter.RenderedFile;
+import freemarker.template.TemplateException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class OrderedFileWriter_Test {
+
+    private ExecutorService executor;
+    private RecordingFileUtils fileUtils;
+
+    @Before
+    public void setup() {
+        executor = Executors.newFixedThreadPool(4);
+        fileUtils = new RecordingFileUtils();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Creates a renderer that sleeps before returning, so that files submitted
+     * earlier finish rendering after files submitted later
+     */
+    private static OrderedFileWriter.FileRenderer slowRenderer(final String fileName, final long sleepMillis) {
+        return () -> {
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new RenderedFile(Paths.get(fileName), fileName + " contents");
+        };
+    }
+
+    @Test
+    public void sequentialWriter_Test() throws IOException, TemplateException {
+        try (final OrderedFileWriter writer = new OrderedFileWriter(fileUtils)) {
+            writer.submit(() -> new RenderedFile(Paths.get("a.java"), "a contents"));
+            writer.submit(() -> new RenderedFile(Paths.get("b.java"), "b contents"));
+            writer.flush();
+        }
+
+        assertThat(fileUtils.getWrittenPaths().toString(), is("[a.java, b.java]"));
+        assertThat(fileUtils.getContents("a.java"), is("a contents"));
+        assertThat(fileUtils.getContents("b.java"), is("b contents"));
+    }
+
+    @Test
+    public void parallelWriter_WritesInSubmissionOrder_Test() throws IOException, TemplateException {
+        final OrderedFileWriter writer = new OrderedFileWriter(fileUtils, executor, 3);
+        writer.submit(slowRenderer("a.java", 200));
+        writer.submit(slowRenderer("b.java", 100));
+        writer.submit(slowRenderer("c.java", 0));
+        writer.submit(slowRenderer("d.java", 50));
+        writer.submit(slowRenderer("e.java", 0));
+        writer.flush();
+
+        assertThat(fileUtils.getWrittenPaths().toString(), is("[a.java, b.java, c.java, d.java, e.java]"));
+        assertThat(fileUtils.getContents("c.java"), is("c.java contents"));
+    }
+
+    @Test
+    public void parallelWriter_ReportsFirstSubmittedError_Test() throws TemplateException {
+        final OrderedFileWriter writer = new OrderedFileWriter(fileUtils, executor, 4);
+        try {
+            writer.submit(slowRenderer("a.java", 0));
+            writer.submit(() -> {
+                slowRenderer("b.java", 200).render();
+                throw new IOException("first error");
+            });
+            writer.submit(() -> {
+                throw new IOException("second error");
+            });
+            writer.flush();
+            fail("Expected an IOException");
+        } catch (final IOException e) {
+            assertThat(e.getMessage(), is("first error"));
+        }
+        assertThat(fileUtils.getWrittenPaths().toString(), is("[a.java]"));
+    }
+
+    @Test
+    public void close_DoesNotShutDownCallersExecutor_Test() throws IOException, TemplateException {
+        try (final OrderedFileWriter writer = new OrderedFileWriter(fileUtils, executor, 2)) {
+            writer.submit(slowRenderer("a.java", 0));
+            writer.flush();
+        }
+        assertFalse(executor.isShutdown());
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void invalidMaxPendingFiles_Test() {
+        new OrderedFileWriter(fileUtils, executor, 0);
+    }
+
+    /**
+     * Records the order in which files are opened, and the contents written to them
+     */
+    private static final class RecordingFileUtils implements FileUtils {
+        private final Map<Path, ByteArrayOutputStream> files = new LinkedHashMap<>();
+
+        @Override
+        public ByteArrayOutputStream getOutputFile(final Path path) {
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            files.put(path, outputStream);
+            return outputStream;
+        }
+
+        List<Path> getWrittenPaths() {
+            return new ArrayList<>(files.keySet());
+        }
+
+        String getContents(final String fileName) {
+            return new String(files.get(Paths.get(fileName)).toByteArray());
+        }
+    }
+}
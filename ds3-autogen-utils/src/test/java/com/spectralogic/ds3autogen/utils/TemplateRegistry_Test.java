@@ -0,0 +1,188 @@
+/*
+ * ******************************************************************************
+ *   Copyright 2014-2017 Spectra Logic Corporation. All Rights Reserved.
+ *   Licensed under the Apache License, Version 2.0 (the "License"). You may not use
+ *   this file except in compliance with the License. A copy of the License is located at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file.
+ *   This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ *   CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ *   specific language governing permissions and limitations under the License.
+ * ****************************************************************************
+ */
+
+
+package com.spectralogic.ds3autogen.utils;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
+import freemarker.cache.MruCacheStorage;
+import freemarker.cache.SoftCacheStorage;
+import freemarker.cache.StrongCacheStorage;
+import freemarker.template.Configuration;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class TemplateRegistry_Test {
+
+    private static final String BASE_PATH = "/tmpls/registry/";
+    private static final String GREETING = "Hello";
+
+    @Test
+    public void getConfiguration_SharedBetweenCalls_Test() throws Exception {
+        final TemplateRegistry registry = new TemplateRegistry();
+        final AtomicInteger initialized = new AtomicInteger();
+
+        final Configuration first = registry.getConfiguration(TemplateRegistry_Test.class, BASE_PATH, cfg -> {
+            initialized.incrementAndGet();
+            cfg.setSharedVariable("greeting", GREETING);
+        });
+        final Configuration second = registry.getConfiguration(TemplateRegistry_Test.class, BASE_PATH, cfg -> {
+            initialized.incrementAndGet();
+            cfg.setSharedVariable("greeting", GREETING);
+        });
+
+        assertThat(second, sameInstance(first));
+        assertThat(first.getSharedVariableNames().contains("greeting"), is(true));
+        assertThat(initialized.get(), is(3));
+        assertThat(registry.getConfigurationNames(), is(ImmutableList.of(TemplateRegistry_Test.class.getName() + ":tmpls/registry")));
+    }
+
+    @Test (expected = IllegalStateException.class)
+    public void getConfiguration_DifferentSharedVariables_Test() throws Exception {
+        final TemplateRegistry registry = new TemplateRegistry();
+
+        registry.getConfiguration(TemplateRegistry_Test.class, BASE_PATH, cfg -> cfg.setSharedVariable("greeting", GREETING));
+        registry.getConfiguration(TemplateRegistry_Test.class, BASE_PATH, cfg -> cfg.setSharedVariable("farewell", GREETING));
+    }
+
+    @Test
+    public void getConfiguration_DifferentBasePaths_Test() throws Exception {
+        final TemplateRegistry registry = new TemplateRegistry();
+
+        final Configuration first = registry.getConfiguration(TemplateRegistry_Test.class, BASE_PATH, cfg -> { });
+        final Configuration second = registry.getConfiguration(TemplateRegistry_Test.class, "/tmpls", cfg -> { });
+
+        assertThat(second, not(sameInstance(first)));
+        assertThat(registry.getConfigurationNames().size(), is(2));
+    }
+
+    @Test
+    public void getConfiguration_NotSharedBetweenRegistries_Test() throws Exception {
+        final Configuration first = new TemplateRegistry().getConfiguration(TemplateRegistry_Test.class, BASE_PATH, cfg -> { });
+        final Configuration second = new TemplateRegistry().getConfiguration(TemplateRegistry_Test.class, BASE_PATH, cfg -> { });
+
+        assertThat(second, not(sameInstance(first)));
+    }
+
+    @Test
+    public void precompile_Test() throws Exception {
+        final RecordingMetrics metrics = new RecordingMetrics();
+        final TemplateRegistry registry = new TemplateRegistry(TemplateCacheStorage.STRONG, 0, metrics);
+        final Configuration config = registry.getConfiguration(TemplateRegistry_Test.class, BASE_PATH, cfg -> { });
+
+        assertThat(registry.precompile(), is(2));
+        config.getTemplate("greeting.ftl");
+
+        assertThat(metrics.events, is(ImmutableList.of(
+                "created " + TemplateRegistry_Test.class.getName() + ":tmpls/registry",
+                "precompiled greeting.ftl",
+                "precompiled nested/list.ftl",
+                "retrieved greeting.ftl")));
+    }
+
+    @Test
+    public void precompile_TemplateDirectories_Test() throws Exception {
+        final RecordingMetrics metrics = new RecordingMetrics();
+        final TemplateRegistry registry = new TemplateRegistry(TemplateCacheStorage.STRONG, 0, metrics);
+        registry.getConfiguration(TemplateRegistry_Test.class, "/tmpls", ImmutableList.of("registry/nested"), cfg -> { });
+
+        assertThat(registry.precompile(), is(1));
+        assertThat(metrics.events, is(ImmutableList.of(
+                "created " + TemplateRegistry_Test.class.getName() + ":tmpls",
+                "precompiled registry/nested/list.ftl")));
+    }
+
+    @Test
+    public void precompile_TemplateDirectoriesOfSharedConfiguration_Test() throws Exception {
+        final TemplateRegistry registry = new TemplateRegistry();
+        registry.getConfiguration(TemplateRegistry_Test.class, "/tmpls", ImmutableList.of("registry/nested"), cfg -> { });
+        registry.getConfiguration(TemplateRegistry_Test.class, "/tmpls", ImmutableList.of("registry"), cfg -> { });
+
+        assertThat(registry.precompile(), is(2));
+    }
+
+    @Test
+    public void findTemplateNames_TemplateDirectories_Test() throws Exception {
+        assertThat(TemplateRegistry.findTemplateNames(TemplateRegistry_Test.class, "/tmpls", ImmutableList.of("registry/nested", "missing")),
+                is(ImmutableSortedSet.of("registry/nested/list.ftl")));
+        assertThat(TemplateRegistry.findTemplateNames(TemplateRegistry_Test.class, BASE_PATH, ImmutableList.of("")),
+                is(ImmutableSortedSet.of("greeting.ftl", "nested/list.ftl")));
+    }
+
+    @Test
+    public void findTemplateNames_Test() throws Exception {
+        assertThat(TemplateRegistry.findTemplateNames(TemplateRegistry_Test.class, BASE_PATH),
+                is(ImmutableSortedSet.of("greeting.ftl", "nested/list.ftl")));
+    }
+
+    @Test
+    public void findTemplateNames_MissingDirectory_Test() throws Exception {
+        assertThat(TemplateRegistry.findTemplateNames(TemplateRegistry_Test.class, "/tmpls/missing").isEmpty(), is(true));
+    }
+
+    @Test
+    public void toResourceDirectory_Test() {
+        assertThat(TemplateRegistry.toResourceDirectory("/tmpls/java/"), is("tmpls/java"));
+        assertThat(TemplateRegistry.toResourceDirectory("/templates"), is("templates"));
+        assertThat(TemplateRegistry.toResourceDirectory("tmpls"), is("tmpls"));
+    }
+
+    @Test
+    public void toCacheStorage_Test() {
+        assertThat(TemplateRegistry.toCacheStorage(TemplateCacheStorage.STRONG, 0), instanceOf(StrongCacheStorage.class));
+        assertThat(TemplateRegistry.toCacheStorage(TemplateCacheStorage.SOFT, 0), instanceOf(SoftCacheStorage.class));
+        assertThat(TemplateRegistry.toCacheStorage(TemplateCacheStorage.LRU, 10), instanceOf(MruCacheStorage.class));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void constructor_EmptyLruCache_Test() {
+        new TemplateRegistry(TemplateCacheStorage.LRU, 0, TemplateRegistryMetrics.NONE);
+    }
+
+    private static class RecordingMetrics implements TemplateRegistryMetrics {
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public synchronized void configurationCreated(final String configurationName, final long durationNanos) {
+            events.add("created " + configurationName);
+        }
+
+        @Override
+        public synchronized void templatePrecompiled(
+                final String configurationName,
+                final String templateName,
+                final long durationNanos) {
+            events.add("precompiled " + templateName);
+        }
+
+        @Override
+        public synchronized void templateRetrieved(
+                final String configurationName,
+                final String templateName,
+                final long durationNanos) {
+            events.add("retrieved " + templateName);
+        }
+    }
+}
@@ -0,0 +1 @@
+<#list items as item>${item}</#list>